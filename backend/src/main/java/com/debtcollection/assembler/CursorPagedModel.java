@@ -0,0 +1,29 @@
+package com.debtcollection.assembler;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+
+import java.util.Collection;
+
+/**
+ * CUSTOM IMPLEMENTATION: HAL collection for keyset pagination.
+ * Same "_embedded" / "_links" layout as PagedModel, with a "cursor" block instead of "page"
+ * (no totals: keyset slices never count).
+ */
+public class CursorPagedModel<T> extends CollectionModel<T> {
+
+    private final CursorMetadata cursor;
+
+    public CursorPagedModel(Collection<T> content, CursorMetadata cursor, Iterable<Link> links) {
+        super(content, links, null);
+        this.cursor = cursor;
+    }
+
+    @JsonProperty("cursor")
+    public CursorMetadata getCursor() {
+        return cursor;
+    }
+
+    public record CursorMetadata(int size, String next, boolean hasNext) {}
+}
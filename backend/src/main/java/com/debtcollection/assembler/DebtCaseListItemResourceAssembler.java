@@ -0,0 +1,35 @@
+package com.debtcollection.assembler;
+
+import com.debtcollection.controller.DebtCaseController;
+import com.debtcollection.dto.DebtCaseListItemDto;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+/**
+ * Resource assembler to add HATEOAS links to case list rows (same links as DebtCaseResourceAssembler)
+ */
+@Component
+public class DebtCaseListItemResourceAssembler implements RepresentationModelAssembler<DebtCaseListItemDto, EntityModel<DebtCaseListItemDto>> {
+
+    @Override
+    @NonNull
+    public EntityModel<DebtCaseListItemDto> toModel(@NonNull DebtCaseListItemDto debtCase) {
+        EntityModel<DebtCaseListItemDto> debtCaseModel = EntityModel.of(debtCase);
+
+        // Self link - full case (payments and installments included)
+        debtCaseModel.add(linkTo(DebtCaseController.class)
+                .slash(debtCase.getId()).withSelfRel());
+
+        debtCaseModel.add(linkTo(methodOn(DebtCaseController.class)
+                .updateDebtCase(debtCase.getId(), null, null)).withRel("update"));
+
+        debtCaseModel.add(linkTo(methodOn(DebtCaseController.class)
+                .deleteDebtCase(debtCase.getId(), null)).withRel("delete"));
+
+        return debtCaseModel;
+    }
+}
@@ -1,34 +1,95 @@
 package com.debtcollection.assembler;
 
-import com.debtcollection.dto.DebtCaseDto;
+import com.debtcollection.dto.DebtCaseListItemDto;
 import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.repository.KeysetSlice;
+import com.debtcollection.repository.TotalCountMode;
 import org.springframework.data.domain.Page;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Assembler for creating paginated responses with HATEOAS navigation links
  */
 @Component
 public class PagedDebtCaseAssembler {
-    
-    private final DebtCaseResourceAssembler debtCaseAssembler;
-    private final PagedResourcesAssembler<DebtCaseDto> pagedResourcesAssembler;
-    
-    public PagedDebtCaseAssembler(DebtCaseResourceAssembler debtCaseAssembler,
-                                  PagedResourcesAssembler<DebtCaseDto> pagedResourcesAssembler) {
+
+    private final DebtCaseListItemResourceAssembler debtCaseAssembler;
+    private final PagedResourcesAssembler<DebtCaseListItemDto> pagedResourcesAssembler;
+
+    public PagedDebtCaseAssembler(DebtCaseListItemResourceAssembler debtCaseAssembler,
+                                  PagedResourcesAssembler<DebtCaseListItemDto> pagedResourcesAssembler) {
         this.debtCaseAssembler = debtCaseAssembler;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
     }
-    
-    public PagedModel<EntityModel<DebtCaseDto>> toPagedModel(
-            Page<DebtCaseDto> page, 
+
+    public PagedModel<EntityModel<DebtCaseListItemDto>> toPagedModel(
+            Page<DebtCaseListItemDto> page,
             DebtCaseFilterRequest filterRequest) {
-        
+
         // Use PagedResourcesAssembler to create the full model with links
         // Then we'll override the embedded relation name
         return pagedResourcesAssembler.toModel(page, debtCaseAssembler);
     }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Navigation links carry the count strategy for the following pages:
+     * after an exact (or cached) count they ask for count=cached, so only the first page pays the count.
+     * With NONE the total is a lower bound and the "last" link is dropped.
+     */
+    public PagedModel<EntityModel<DebtCaseListItemDto>> toPagedModel(
+            Page<DebtCaseListItemDto> page,
+            DebtCaseFilterRequest filterRequest,
+            TotalCountMode countMode) {
+
+        PagedModel<EntityModel<DebtCaseListItemDto>> model = toPagedModel(page, filterRequest);
+        String nextCountMode = (countMode == TotalCountMode.NONE ? TotalCountMode.NONE : TotalCountMode.CACHED)
+                .name().toLowerCase();
+        Links navigation = model.getLinks().stream()
+                .filter(link -> countMode != TotalCountMode.NONE || !link.hasRel(IanaLinkRelations.LAST))
+                .map(link -> link.hasRel(IanaLinkRelations.SELF) || link.isTemplated()
+                        ? link
+                        : Link.of(UriComponentsBuilder.fromUriString(link.getHref())
+                                .replaceQueryParam("count", nextCountMode)
+                                .build()
+                                .toUriString(), link.getRel()))
+                .collect(Links.collector());
+        model.removeLinks();
+        model.add(navigation);
+        return model;
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Keyset slice -> HAL model. The next link is the current request
+     * with the cursor parameter replaced, so filters, sort and size are preserved.
+     */
+    public CursorPagedModel<EntityModel<DebtCaseListItemDto>> toCursorModel(
+            KeysetSlice<DebtCaseListItemDto> slice,
+            DebtCaseFilterRequest filterRequest) {
+
+        List<EntityModel<DebtCaseListItemDto>> content = slice.content().stream()
+                .map(debtCaseAssembler::toModel)
+                .toList();
+        List<Link> links = new ArrayList<>();
+        links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString()).withSelfRel());
+        if (slice.hasNext()) {
+            links.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", slice.nextCursor())
+                    .build()
+                    .toUriString(), IanaLinkRelations.NEXT));
+        }
+        return new CursorPagedModel<>(content,
+                new CursorPagedModel.CursorMetadata(slice.size(), slice.nextCursor(), slice.hasNext()),
+                links);
+    }
 }
@@ -0,0 +1,42 @@
+package com.debtcollection.config;
+
+import com.debtcollection.repository.DebtCaseIndexManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Creates the debt_cases indexes declared in DebtCaseIndexManager at startup.
+ * Disable with debtcollection.indexes.ensure-on-startup=false when indexes are built by hand
+ * (e.g. rolling builds on a large production collection), then use POST /admin/indexes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DebtCaseIndexInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DebtCaseIndexInitializer.class);
+
+    private final DebtCaseIndexManager indexManager;
+
+    @Value("${debtcollection.indexes.ensure-on-startup:true}")
+    private boolean ensureOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!ensureOnStartup) {
+            log.info("[INIT] Skipping debt_cases index creation (debtcollection.indexes.ensure-on-startup=false)");
+            return;
+        }
+        List<String> names = indexManager.ensureIndexes();
+        log.info("[INIT] debt_cases indexes ready: {}", names);
+    }
+}
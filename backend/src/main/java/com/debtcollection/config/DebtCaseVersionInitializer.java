@@ -0,0 +1,45 @@
+package com.debtcollection.config;
+
+import com.debtcollection.model.DebtCase;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * CUSTOM IMPLEMENTATION: Sets version 0 on cases written before DebtCase had @Version.
+ * Without it save() would treat a loaded case with null version as new and try to insert it again.
+ * Idempotent (only documents without the field are touched); runs before the other initializers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DebtCaseVersionInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DebtCaseVersionInitializer.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long updated = backfill();
+        if (updated > 0) {
+            log.info("[INIT] Version initialized on {} cases", updated);
+        }
+    }
+
+    long backfill() {
+        return mongoTemplate.updateMulti(
+                new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                DebtCase.class).getModifiedCount();
+    }
+}
@@ -0,0 +1,81 @@
+package com.debtcollection.config;
+
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtorNameSearch;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * CUSTOM IMPLEMENTATION: Backfills the derived debtor name search keys on documents written before they existed
+ * (indexes are created by DebtCaseIndexInitializer). Idempotent: only documents without debtor_name_search are touched.
+ */
+@Component
+@Profile({"dev","prod","test"})
+@RequiredArgsConstructor
+public class DebtorNameSearchInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DebtorNameSearchInitializer.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final DebtCaseChangeTracker changeTracker;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long updated = backfill();
+        if (updated > 0) {
+            // Search keys only: state and deadline models stay valid
+            changeTracker.markOtherFieldsChanged();
+        }
+        log.info("[INIT] Debtor name search keys backfilled on {} cases", updated);
+    }
+
+    /**
+     * Writes the search keys with bulk updates ($set only, no full document rewrite, no lifecycle events).
+     */
+    long backfill() {
+        Query missing = new Query(Criteria.where(DebtorNameSearch.SEARCH_PROPERTY).exists(false)
+                .and("debtorName").exists(true));
+        missing.fields().include("debtorName");
+        missing.cursorBatchSize(BATCH_SIZE);
+
+        long updated = 0;
+        try (Stream<DebtCase> stream = mongoTemplate.stream(missing, DebtCase.class)) {
+            Iterator<DebtCase> it = stream.iterator();
+            BulkOperations bulk = null;
+            int pending = 0;
+            while (it.hasNext()) {
+                DebtCase debtCase = it.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class);
+                }
+                bulk.updateOne(Query.query(Criteria.where("id").is(debtCase.getId())), new Update()
+                        .set(DebtorNameSearch.SEARCH_PROPERTY, DebtorNameSearch.normalize(debtCase.getDebtorName()))
+                        .set(DebtorNameSearch.TOKENS_PROPERTY, DebtorNameSearch.tokens(debtCase.getDebtorName())));
+                if (++pending == BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+            if (bulk != null) {
+                updated += bulk.execute().getModifiedCount();
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,21 @@
+package com.debtcollection.config;
+
+import com.debtcollection.monitoring.MongoQueryStatsRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * CUSTOM IMPLEMENTATION: Hooks the query shape statistics into the Mongo driver.
+ * Disable with debtcollection.query-stats.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(value = "debtcollection.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoQueryStatsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryStatsCustomizer(MongoQueryStatsRegistry registry) {
+        return builder -> builder.addCommandListener(registry);
+    }
+}
@@ -0,0 +1,10 @@
+package com.debtcollection.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// CUSTOM IMPLEMENTATION: @Scheduled tasks (live summary rollover and push, import/transition job purge, auto-advance)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.debtcollection.config;
 
 import com.debtcollection.security.JwtAuthenticationFilter;
 import com.debtcollection.service.UserService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +44,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/login", "/auth/validate").permitAll()
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                // CUSTOM IMPLEMENTATION: async re-dispatch of streamed responses (export, SSE) - already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -0,0 +1,108 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.dto.AutoAdvanceReportDto;
+import com.debtcollection.monitoring.MongoQueryStatsRegistry;
+import com.debtcollection.monitoring.QueryShapeSnapshot;
+import com.debtcollection.repository.DebtCaseIndexManager;
+import com.debtcollection.repository.DebtCaseIndexManager.QueryShapeReport;
+import com.debtcollection.service.AutoAdvanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CUSTOM IMPLEMENTATION: Maintenance endpoints (ADMIN only)
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final DebtCaseIndexManager indexManager;
+    private final MongoQueryStatsRegistry queryStatsRegistry;
+    private final AutoAdvanceService autoAdvanceService;
+
+    /**
+     * Creates any missing debt_cases index declared in DebtCaseIndexManager.
+     */
+    @PostMapping("/indexes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> ensureIndexes() {
+        return ResponseEntity.ok(Map.of("indexes", indexManager.ensureIndexes()));
+    }
+
+    /**
+     * Explains every supported GET /cases filter/sort combination.
+     * collectionScans lists the shapes that would read the whole collection.
+     */
+    @GetMapping("/indexes/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> verifyIndexes() {
+        List<QueryShapeReport> reports = indexManager.verifyQueryShapes();
+        List<QueryShapeReport> collectionScans = reports.stream().filter(QueryShapeReport::collectionScan).toList();
+        return ResponseEntity.ok(Map.of(
+                "shapes", reports,
+                "collectionScans", collectionScans
+        ));
+    }
+
+    /**
+     * Top N Mongo query shapes with latency statistics and the explain captured on slow executions.
+     * orderBy: total (default, overall cost), p99, max, count
+     */
+    @GetMapping("/query-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> queryStats(
+            @RequestParam(name = "top", defaultValue = "20") int top,
+            @RequestParam(name = "orderBy", defaultValue = "total") String orderBy) {
+        Comparator<QueryShapeSnapshot> order = switch (orderBy) {
+            case "total" -> Comparator.comparingDouble(QueryShapeSnapshot::totalMs);
+            case "p99" -> Comparator.comparingDouble(QueryShapeSnapshot::p99Ms);
+            case "max" -> Comparator.comparingDouble(QueryShapeSnapshot::maxMs);
+            case "count" -> Comparator.comparingLong(QueryShapeSnapshot::count);
+            default -> null;
+        };
+        if (order == null) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "message", "Invalid orderBy '" + orderBy + "': use total, p99, max or count",
+                    "error", "IllegalArgumentException"));
+        }
+        return ResponseEntity.ok(queryStatsRegistry.top(top, order.reversed()));
+    }
+
+    @DeleteMapping("/query-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetQueryStats() {
+        queryStatsRegistry.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Runs the automatic state advancement now (same rules as the scheduled run, also when the schedule is disabled).
+     * dryRun=true only counts the due cases per transition.
+     */
+    @PostMapping("/auto-advance")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> runAutoAdvance(@RequestParam(name = "dryRun", defaultValue = "false") boolean dryRun) {
+        try {
+            return ResponseEntity.ok(autoAdvanceService.run(dryRun));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage(), "error", "IllegalStateException"));
+        }
+    }
+
+    /**
+     * Reports of the latest automatic advancement runs, most recent first
+     */
+    @GetMapping("/auto-advance/reports")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AutoAdvanceReportDto>> autoAdvanceReports() {
+        return ResponseEntity.ok(autoAdvanceService.recentReports());
+    }
+}
@@ -2,30 +2,51 @@ package com.debtcollection.controller;
 
 import com.debtcollection.assembler.PagedDebtCaseAssembler;
 import com.debtcollection.dto.DebtCaseDto;
+import com.debtcollection.dto.DebtCaseListItemDto;
 import com.debtcollection.dto.DebtCaseFilterRequest;
 import com.debtcollection.dto.PaymentDto;
 import com.debtcollection.dto.InstallmentPlanRequest;
 import com.debtcollection.dto.InstallmentPlanResponse;
 import com.debtcollection.dto.InstallmentPaymentRequest;
+import com.debtcollection.dto.BulkTransitionStatusDto;
 import com.debtcollection.dto.CasesSummaryDto;
+import com.debtcollection.dto.CaseImportStatusDto;
 import com.debtcollection.dto.InstallmentDto;
 import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.KeysetSlice;
+import com.debtcollection.repository.TotalCountMode;
+import com.debtcollection.service.BulkTransitionService;
+import com.debtcollection.service.CaseImportService;
+import com.debtcollection.service.CasesSummaryBroadcaster;
+import com.debtcollection.service.DeadlineReminderBroadcaster;
+import com.debtcollection.service.DebtCaseExportService;
 import com.debtcollection.service.DebtCaseService;
+import com.debtcollection.service.PaymentImportService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -40,16 +61,24 @@ public class DebtCaseController {
 
     private final DebtCaseService debtCaseService;
     private final PagedDebtCaseAssembler pagedDebtCaseAssembler;
+    private final DebtCaseExportService debtCaseExportService;
+    private final CasesSummaryBroadcaster casesSummaryBroadcaster;
+    private final PaymentImportService paymentImportService;
+    private final CaseImportService caseImportService;
+    private final BulkTransitionService bulkTransitionService;
+    private final DeadlineReminderBroadcaster deadlineReminderBroadcaster;
 
     /**
      * Retrieves debt cases with optional filtering and pagination.
      * If no filter parameters are provided, returns all cases.
      * 
      * Supports filtering by:
-     * - debtorName: partial search (case-insensitive)
+     * - debtorName: case/accent-insensitive search, mode via debtorNameMatch:
+     *   TOKEN (default, every word is a word prefix, any order), PREFIX (name starts with input),
+     *   CONTAINS (substring anywhere - slow, not index-backed)
      * - state / states: stato singolo o lista OR
      * - minAmount / maxAmount: range importo (inclusivo) con validazione min<=max
-     * - notes: substring case-insensitive
+     * - notes: substring case-insensitive (collection scan; use GET /cases/search for indexed full-text search)
      * - hasInstallmentPlan / paid / ongoingNegotiations
      * - nextDeadlineFrom/To, currentStateFrom/To, createdFrom/To, lastModifiedFrom/To (range inclusivi per ciascun campo data)
      *
@@ -80,11 +109,28 @@ public class DebtCaseController {
      * - Sort dropdown: [Urgency, Amount, Recent, Name]
      * - ASC/DESC toggle with ↑↓ icons
      * - Combine filters + sorting for optimal UX
+     *
+     * CURSOR (KEYSET) PAGINATION - opt-in, for deep scrolling on large collections:
+     * - pagination=cursor: first slice (page param ignored, size and sort honored)
+     * - cursor=TOKEN: next slice, TOKEN taken from "cursor.next" / "_links.next" of the previous response
+     * - any sorting field above is supported; filters must stay the same between slices
+     * - no totals are returned ("cursor" block instead of "page")
+     *
+     * TOTAL COUNT STRATEGY (offset pagination) - count=exact|cached|none:
+     * - exact (default): count query on every call
+     * - cached: total reused per filter until the next case write (navigation links use it automatically)
+     * - none: no count, page.totalElements is a lower bound, "last" link omitted
+     *
+     * LIST ROWS: each row carries totalPaidAmount/remainingAmount but no payments/installments arrays;
+     * follow the row "self" link (GET /cases/{id}) for the full case.
      */
     @GetMapping
     public ResponseEntity<?> getCases(
             DebtCaseFilterRequest filterRequest,
-            Pageable pageable
+            Pageable pageable,
+            @RequestParam(name = "pagination", required = false) String pagination,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "count", required = false) String count
     ) {
         if (filterRequest.getMinAmount() != null && filterRequest.getMaxAmount() != null &&
             filterRequest.getMinAmount().compareTo(filterRequest.getMaxAmount()) > 0) {
@@ -93,11 +139,120 @@ public class DebtCaseController {
                 "error", "IllegalArgumentException"
             ));
         }
-        Page<DebtCaseDto> casePage = debtCaseService.findWithFilters(filterRequest, pageable);
-        PagedModel<EntityModel<DebtCaseDto>> response = pagedDebtCaseAssembler.toPagedModel(casePage, filterRequest);
+        if (cursor != null || "cursor".equalsIgnoreCase(pagination)) {
+            try {
+                KeysetSlice<DebtCaseListItemDto> slice = debtCaseService.findWithFiltersKeyset(
+                        filterRequest, pageable.getSort(), pageable.getPageSize(), cursor);
+                return ResponseEntity.ok(pagedDebtCaseAssembler.toCursorModel(slice, filterRequest));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+            }
+        }
+        TotalCountMode countMode;
+        try {
+            countMode = TotalCountMode.fromParam(count);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+        Page<DebtCaseListItemDto> casePage = debtCaseService.findWithFilters(filterRequest, pageable, countMode);
+        PagedModel<EntityModel<DebtCaseListItemDto>> response = pagedDebtCaseAssembler.toPagedModel(casePage, filterRequest, countMode);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * CUSTOM IMPLEMENTATION: Full-text search over notes and debtor name (Italian stemming), ranked by relevance.
+     * Accepts the same filter parameters as GET /cases; each row carries its "score".
+     * Prefer this over the notes filter of GET /cases, which is a substring scan.
+     *
+     * Example: /api/v1/cases/search?q=sollecito telefonico&state=DEPOSITO_RICORSO&size=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchCases(
+            @RequestParam(name = "q", required = false) String q,
+            DebtCaseFilterRequest filterRequest,
+            Pageable pageable
+    ) {
+        try {
+            Page<DebtCaseListItemDto> casePage = debtCaseService.searchCases(q, filterRequest, pageable);
+            return ResponseEntity.ok(pagedDebtCaseAssembler.toPagedModel(casePage, filterRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Filter panel counts for the GET /cases filters in one aggregation round trip:
+     * total, states (every state), paid / hasInstallmentPlan / ongoingNegotiations ("true"/"false" buckets).
+     * Returns the matching page too (page/size/sort as GET /cases) unless facetsOnly=true.
+     *
+     * Example: /api/v1/cases/facets?paid=false&nextDeadlineTo=2025-12-31&facetsOnly=true
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(
+            DebtCaseFilterRequest filterRequest,
+            Pageable pageable,
+            @RequestParam(name = "facetsOnly", defaultValue = "false") boolean facetsOnly
+    ) {
+        if (filterRequest.getMinAmount() != null && filterRequest.getMaxAmount() != null &&
+            filterRequest.getMinAmount().compareTo(filterRequest.getMaxAmount()) > 0) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "message", "L'importo minimo non può essere maggiore dell'importo massimo",
+                "error", "IllegalArgumentException"
+            ));
+        }
+        return ResponseEntity.ok(debtCaseService.getFacets(filterRequest, pageable, facetsOnly));
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Deadline calendar - cases and owed amount per day of nextDeadlineDate,
+     * grouped server-side. from (default today) / to (default from + 30 days), inclusive, max 366 days;
+     * accepts the GET /cases filters. Days without deadlines are omitted.
+     *
+     * Example: /api/v1/cases/calendar?from=2025-03-01&to=2025-03-31&paid=false
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getDeadlineCalendar(
+            DebtCaseFilterRequest filterRequest,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        try {
+            return ResponseEntity.ok(debtCaseService.getDeadlineCalendar(filterRequest, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Streams every case matching the GET /cases filters as CSV (default) or NDJSON.
+     * No page size limit and flat memory: rows are written while the Mongo cursor is read.
+     * sort: same fields as GET /cases (default nextDeadlineDate,asc).
+     *
+     * Example: /api/v1/cases/export?format=csv&states=DEPOSITO_RICORSO&states=PRECETTO&paid=false
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportCases(
+            DebtCaseFilterRequest filterRequest,
+            Sort sort,
+            @RequestParam(name = "format", required = false) String format
+    ) {
+        DebtCaseExportService.Format exportFormat;
+        try {
+            exportFormat = DebtCaseExportService.Format.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+        String filename = "cases-" + LocalDate.now() + "." + exportFormat.extension();
+        StreamingResponseBody body = out -> {
+            long rows = debtCaseExportService.export(filterRequest, sort, exportFormat, out);
+            log.info("Exported {} cases as {}", rows, exportFormat);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<DebtCaseDto> createDebtCase(
             @Valid @RequestBody CreateDebtCaseRequest request,
@@ -111,6 +266,37 @@ public class DebtCaseController {
         ));
     }
 
+    /**
+     * CUSTOM IMPLEMENTATION: Moves every case matching the GET /cases filters (query parameters) to targetState.
+     * dryRun=true: 200 with the number of cases that would move. Otherwise 202 with the job status,
+     * progress at GET /cases/bulk-transition/{jobId}.
+     *
+     * Example: POST /api/v1/cases/bulk-transition?states=DEPOSITO_RICORSO&createdTo=2025-01-31&targetState=DECRETO_INGIUNTIVO_DA_NOTIFICARE&dryRun=true
+     */
+    @PostMapping("/bulk-transition")
+    public ResponseEntity<?> bulkTransition(
+            DebtCaseFilterRequest filterRequest,
+            @RequestParam(name = "targetState", required = false) CaseState targetState,
+            @RequestParam(name = "dryRun", defaultValue = "false") boolean dryRun
+    ) {
+        try {
+            if (dryRun) {
+                return ResponseEntity.ok(bulkTransitionService.dryRun(filterRequest, targetState));
+            }
+            BulkTransitionStatusDto status = bulkTransitionService.startTransition(filterRequest, targetState);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{jobId}").buildAndExpand(status.jobId()).toUri())
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+
+    @GetMapping("/bulk-transition/{jobId}")
+    public ResponseEntity<BulkTransitionStatusDto> getBulkTransitionStatus(@PathVariable String jobId) {
+        return ResponseEntity.of(bulkTransitionService.getStatus(jobId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DebtCaseDto> updateDebtCase(
             @PathVariable String id, // USER PREFERENCE: Changed from Long to String for MongoDB
@@ -163,6 +349,61 @@ public class DebtCaseController {
         }
     }
 
+    /**
+     * CUSTOM IMPLEMENTATION: Bulk payment import (bank files), body as text/csv, application/json (array)
+     * or application/x-ndjson. Fields: caseId, amount, paymentDate (yyyy-MM-dd, default today), installmentId (optional).
+     * Rows are grouped per case and applied with unordered bulk writes; same auto-completion as POST /{id}/payments.
+     * Invalid rows do not stop the import: the response reports APPLIED/REJECTED (with reason) for every row.
+     *
+     * Example CSV:
+     *   caseId,amount,paymentDate,installmentId
+     *   665f1c...,150.00,2025-03-10,
+     */
+    @PostMapping(path = "/payments/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<?> importPayments(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        try {
+            return ResponseEntity.ok(paymentImportService.importPayments(body, PaymentImportService.Format.fromContentType(contentType)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Bulk case import (new client portfolios). The CSV is imported in background:
+     * 202 with the job status, progress at GET /cases/import/{jobId}, rejected rows at GET /cases/import/{jobId}/errors.
+     * Columns (any order): debtorName, amount, state (default MESSA_IN_MORA_DA_FARE), stateDate (yyyy-MM-dd), notes.
+     *
+     * Example CSV:
+     *   debtorName,amount,state,stateDate
+     *   Mario Rossi,1500.00,MESSA_IN_MORA_INVIATA,2025-03-10
+     */
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ResponseEntity<CaseImportStatusDto> importCases(InputStream body) throws IOException {
+        CaseImportStatusDto status = caseImportService.startImport(body);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{jobId}").buildAndExpand(status.jobId()).toUri())
+                .body(status);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<CaseImportStatusDto> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.of(caseImportService.getStatus(jobId));
+    }
+
+    @GetMapping("/import/{jobId}/errors")
+    public ResponseEntity<StreamingResponseBody> getImportErrors(@PathVariable String jobId) {
+        return caseImportService.getErrorFile(jobId)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename("case-import-" + jobId + "-errors.csv").build().toString())
+                        .body((StreamingResponseBody) out -> Files.copy(file, out)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Create an installment plan for a debt case
      * Updates the nextDeadlineDate to the first installment due date
@@ -214,11 +455,40 @@ public class DebtCaseController {
     }
 
     // CUSTOM IMPLEMENTATION: Endpoint riepilogo globale dashboard (non influenzato dai filtri UI)
+    // referenceDate (default oggi) e horizonDays (default 7, max 366) per finestre diverse: dueWithinHorizon
     @GetMapping("/summary")
-    public ResponseEntity<CasesSummaryDto> getCasesSummary(
-            @AuthenticationPrincipal UserDetails userDetails
+    public ResponseEntity<?> getCasesSummary(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(name = "referenceDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate referenceDate,
+            @RequestParam(name = "horizonDays", defaultValue = "7") int horizonDays
     ) {
-        return ResponseEntity.ok(debtCaseService.getCasesSummary());
+        try {
+            CasesSummaryDto summary = referenceDate == null && horizonDays == 7
+                    ? debtCaseService.getCasesSummary()
+                    : debtCaseService.getCasesSummary(referenceDate != null ? referenceDate : LocalDate.now(), horizonDays);
+            return ResponseEntity.ok(summary);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Server-sent events stream of the default summary (same body as GET /cases/summary):
+     * one "summary" event on connect, then one per change (coalesced, at most ~1/s) and at midnight.
+     * Replaces dashboard polling; clients reconnect when the stream times out.
+     */
+    @GetMapping(path = "/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCasesSummary() {
+        return casesSummaryBroadcaster.subscribe();
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Server-sent events stream of the deadline reminders: one "reminder" event per case
+     * whose deadline is approaching (lead days before) or due today, fired when the day starts.
+     */
+    @GetMapping(path = "/reminders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDeadlineReminders() {
+        return deadlineReminderBroadcaster.subscribe();
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,40 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.service.FinancialReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * CUSTOM IMPLEMENTATION: Management reports computed server-side
+ */
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final FinancialReportService financialReportService;
+
+    /**
+     * Owed, collected and outstanding amounts of the cases created in [from, to] (yyyy-MM, inclusive),
+     * per state, per creation month and per both. Defaults: last 12 months; max 120 months.
+     * Cached per period until the next case write.
+     *
+     * Example: /api/v1/reports/financial?from=2025-01&to=2025-06
+     */
+    @GetMapping("/financial")
+    public ResponseEntity<?> financialReport(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to
+    ) {
+        try {
+            return ResponseEntity.ok(financialReportService.getReport(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+}
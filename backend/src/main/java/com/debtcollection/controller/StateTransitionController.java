@@ -1,8 +1,11 @@
 package com.debtcollection.controller;
 
+import com.debtcollection.dto.DeadlineRecomputeStatusDto;
 import com.debtcollection.dto.StateTransitionConfigDto;
 import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DayCountMode;
 import com.debtcollection.model.StateTransitionConfig;
+import com.debtcollection.service.DeadlineRecomputeService;
 import com.debtcollection.service.StateTransitionService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -11,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.Map;
@@ -23,6 +27,7 @@ import java.util.stream.Collectors;
 public class StateTransitionController {
 
     private final StateTransitionService stateTransitionService;
+    private final DeadlineRecomputeService deadlineRecomputeService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -39,7 +44,11 @@ public class StateTransitionController {
         try {
             Map<CaseState, Integer> updates = requests.stream()
                     .collect(Collectors.toMap(UpdateStateTransitionRequest::fromState, UpdateStateTransitionRequest::daysToTransition));
-            List<StateTransitionConfigDto> updated = stateTransitionService.updateDaysBulk(updates).stream()
+            // CUSTOM IMPLEMENTATION: dayCountMode optional, omitted = unchanged
+            Map<CaseState, DayCountMode> modes = requests.stream()
+                    .filter(request -> request.dayCountMode() != null)
+                    .collect(Collectors.toMap(UpdateStateTransitionRequest::fromState, UpdateStateTransitionRequest::dayCountMode));
+            List<StateTransitionConfigDto> updated = stateTransitionService.updateBulk(updates, modes).stream()
                     .map(this::toDto)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(updated);
@@ -48,16 +57,51 @@ public class StateTransitionController {
         }
     }
 
+    // CUSTOM IMPLEMENTATION: Deadline recomputation jobs, queued automatically by PUT when a rule changes
+    @GetMapping("/recomputations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DeadlineRecomputeStatusDto>> listRecomputations() {
+        return ResponseEntity.ok(deadlineRecomputeService.listJobs());
+    }
+
+    @PostMapping("/recomputations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startRecomputation(@RequestParam(required = false) List<CaseState> states,
+                                                @RequestParam(defaultValue = "false") boolean overrideManual) {
+        try {
+            DeadlineRecomputeStatusDto status = deadlineRecomputeService.startRecompute(states, overrideManual);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{jobId}").buildAndExpand(status.jobId()).toUri())
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage(), "error", "IllegalArgumentException"));
+        }
+    }
+
+    @GetMapping("/recomputations/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DeadlineRecomputeStatusDto> getRecomputation(@PathVariable String jobId) {
+        return ResponseEntity.of(deadlineRecomputeService.getStatus(jobId));
+    }
+
+    @DeleteMapping("/recomputations/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DeadlineRecomputeStatusDto> cancelRecomputation(@PathVariable String jobId) {
+        return ResponseEntity.of(deadlineRecomputeService.cancel(jobId));
+    }
+
     private StateTransitionConfigDto toDto(StateTransitionConfig cfg) {
         StateTransitionConfigDto dto = new StateTransitionConfigDto();
         dto.setFromState(cfg.getFromState());
         dto.setToState(cfg.getToState());
         dto.setDaysToTransition(cfg.getDaysToTransition());
+        dto.setDayCountMode(cfg.getDayCountMode() != null ? cfg.getDayCountMode() : DayCountMode.CALENDAR_DAYS);
         return dto;
     }
 
     public record UpdateStateTransitionRequest(
             @NotNull(message = "fromState required") CaseState fromState,
-            @NotNull(message = "daysToTransition required") Integer daysToTransition
+            @NotNull(message = "daysToTransition required") Integer daysToTransition,
+            DayCountMode dayCountMode
     ) {}
 }
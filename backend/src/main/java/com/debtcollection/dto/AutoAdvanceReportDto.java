@@ -0,0 +1,33 @@
+package com.debtcollection.dto;
+
+import com.debtcollection.model.CaseState;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Outcome of one run of the automatic state advancement.
+ * Cases are due when their nextDeadlineDate is before referenceDate; in a dry run advanced is always 0.
+ */
+public record AutoAdvanceReportDto(
+        boolean dryRun,
+        LocalDate referenceDate,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long due,
+        long advanced,
+        List<Transition> transitions,
+        String message
+) {
+    /**
+     * Per configured transition: cases due in fromState, cases moved to toState and the deadline they got
+     */
+    public record Transition(
+            CaseState fromState,
+            CaseState toState,
+            long due,
+            long advanced,
+            LocalDateTime nextDeadlineDate
+    ) {}
+}
@@ -0,0 +1,27 @@
+package com.debtcollection.dto;
+
+import com.debtcollection.model.CaseState;
+
+import java.time.LocalDateTime;
+
+/**
+ * CUSTOM IMPLEMENTATION: Bulk state transition (POST /cases/bulk-transition).
+ * DRY_RUN: no job, matched = cases that would move. Otherwise progress of the job: processed cases out of
+ * matched (counted at start), updated = cases actually moved (cases changed meanwhile are skipped).
+ */
+public record BulkTransitionStatusDto(
+        String jobId,
+        Status status,
+        CaseState targetState,
+        LocalDateTime currentStateDate,
+        LocalDateTime nextDeadlineDate,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long matched,
+        long processed,
+        long updated,
+        int percent,
+        String message
+) {
+    public enum Status { DRY_RUN, QUEUED, RUNNING, COMPLETED, FAILED }
+}
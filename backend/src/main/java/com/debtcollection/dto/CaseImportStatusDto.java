@@ -0,0 +1,25 @@
+package com.debtcollection.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * CUSTOM IMPLEMENTATION: Progress of a bulk case import job (POST /cases/import).
+ * rowsRead counts data rows (header excluded); rejected rows are listed in the error file
+ * (GET /cases/import/{jobId}/errors) when errorFileAvailable is true.
+ */
+public record CaseImportStatusDto(
+        String jobId,
+        Status status,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long bytesRead,
+        long totalBytes,
+        int percent,
+        long rowsRead,
+        long imported,
+        long rejected,
+        boolean errorFileAvailable,
+        String message
+) {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+}
@@ -1,15 +1,20 @@
 package com.debtcollection.dto;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 /**
  * Summary DTO for dashboard cards.
  * Aggregates counts for non-completed cases (excluding COMPLETATA).
+ * CUSTOM IMPLEMENTATION: windows relative to referenceDate (default today), plus a configurable horizon.
  */
 public record CasesSummaryDto(
         long totalActiveCases,
-        long overdue,          // cases with nextDeadlineDate before today (non COMPLETATA)
+        long overdue,          // cases with nextDeadlineDate before referenceDate (non COMPLETATA)
         long dueToday,
         long dueNext7Days,
-        Map<String, Long> states // key = state name (excluding COMPLETATA)
+        Map<String, Long> states, // key = state name (excluding COMPLETATA)
+        LocalDate referenceDate,
+        int horizonDays,
+        long dueWithinHorizon  // nextDeadlineDate from referenceDate to referenceDate + horizonDays (inclusive)
 ) {}
@@ -0,0 +1,19 @@
+package com.debtcollection.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Calendar view of the next deadlines (GET /cases/calendar).
+ * Only days with at least one deadline are listed, in date order.
+ */
+public record DeadlineCalendarDto(
+        LocalDate from,
+        LocalDate to,
+        long totalCases,
+        BigDecimal totalOwedAmount,
+        List<Day> days
+) {
+    public record Day(LocalDate date, long cases, BigDecimal owedAmount) {}
+}
@@ -0,0 +1,30 @@
+package com.debtcollection.dto;
+
+import com.debtcollection.model.CaseState;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * CUSTOM IMPLEMENTATION: Deadline recomputation after a transition config change (/state-transitions/recomputations).
+ * processed cases out of matched (counted at start), updated = cases whose deadline actually changed,
+ * manualKept = deadlines set by hand and left as they are;
+ * configVersion = snapshot of the rules applied (0 until the job starts).
+ */
+public record DeadlineRecomputeStatusDto(
+        String jobId,
+        Status status,
+        Set<CaseState> states,
+        long configVersion,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long matched,
+        long processed,
+        long updated,
+        long manualKept,
+        int percent,
+        String message
+) {
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+}
@@ -0,0 +1,18 @@
+package com.debtcollection.dto;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DeadlineReminderKind;
+
+import java.time.LocalDate;
+
+/**
+ * CUSTOM IMPLEMENTATION: Reminder fired by the deadline scheduler ("reminder" event of GET /cases/reminders/stream)
+ */
+public record DeadlineReminderDto(
+        String debtCaseId,
+        CaseState state,
+        LocalDate deadline,
+        DeadlineReminderKind kind,
+        LocalDate firedOn
+) {
+}
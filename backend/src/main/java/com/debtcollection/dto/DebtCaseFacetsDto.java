@@ -0,0 +1,23 @@
+package com.debtcollection.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CUSTOM IMPLEMENTATION: Filter panel counts for the active GET /cases filters.
+ * content/page are omitted in facets-only mode.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DebtCaseFacetsDto(
+        long total,
+        Map<String, Long> states,              // key = state name, every state present
+        Map<String, Long> paid,                // keys "true"/"false" ("null" = field never set)
+        Map<String, Long> hasInstallmentPlan,
+        Map<String, Long> ongoingNegotiations,
+        List<DebtCaseListItemDto> content,
+        PageInfo page
+) {
+    public record PageInfo(int number, int size, long totalElements, int totalPages) {}
+}
@@ -7,6 +7,8 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
 
 /**
  * DTO per i parametri di filtro delle pratiche di debt collection
@@ -15,6 +17,8 @@ import java.util.List;
 @Data
 public class DebtCaseFilterRequest {
     private String debtorName;
+    // CUSTOM IMPLEMENTATION: Matching strategy for debtorName (accent/case-insensitive), default TOKEN
+    private DebtorNameMatch debtorNameMatch;
     // USER PREFERENCE: Supporto per filtri multipli su stato con logica OR
     private CaseState state; // Backward compatibility singolo stato
     private List<CaseState> states; // Stati multipli OR
@@ -50,4 +54,42 @@ public class DebtCaseFilterRequest {
     private LocalDate lastModifiedFrom;
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate lastModifiedTo;
+
+    /**
+     * CUSTOM IMPLEMENTATION: Stable cache key for equivalent filters
+     * (trimmed/case-folded text, state + states merged and sorted, blank values ignored).
+     */
+    public String normalizedKey() {
+        TreeSet<String> allStates = new TreeSet<>();
+        if (state != null) allStates.add(state.name());
+        if (states != null) states.stream().filter(Objects::nonNull).forEach(s -> allStates.add(s.name()));
+        return String.join("|",
+                "name=" + normalizeText(debtorName),
+                "nameMatch=" + Objects.toString(debtorNameMatch, DebtorNameMatch.TOKEN.name()),
+                "states=" + String.join(",", allStates),
+                "min=" + (minAmount != null ? minAmount.stripTrailingZeros().toPlainString() : ""),
+                "max=" + (maxAmount != null ? maxAmount.stripTrailingZeros().toPlainString() : ""),
+                "notes=" + normalizeText(notes),
+                "plan=" + Objects.toString(hasInstallmentPlan, ""),
+                "paid=" + Objects.toString(paid, ""),
+                "neg=" + Objects.toString(ongoingNegotiations, ""),
+                "deadline=" + Objects.toString(nextDeadlineFrom, "") + ".." + Objects.toString(nextDeadlineTo, ""),
+                "stateDate=" + Objects.toString(currentStateFrom, "") + ".." + Objects.toString(currentStateTo, ""),
+                "created=" + Objects.toString(createdFrom, "") + ".." + Objects.toString(createdTo, ""),
+                "modified=" + Objects.toString(lastModifiedFrom, "") + ".." + Objects.toString(lastModifiedTo, ""));
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: debtorName matching modes.
+     * PREFIX and TOKEN use the normalized search fields and their indexes; CONTAINS scans (explicit slow mode).
+     */
+    public enum DebtorNameMatch {
+        PREFIX,   // whole name starts with the input ("rossi m" -> "Rossi Mario")
+        TOKEN,    // every input word is the prefix of a name word, any order ("mar ros" -> "Rossi Mario")
+        CONTAINS  // substring anywhere in the name, no index
+    }
+
+    private static String normalizeText(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
 }
@@ -0,0 +1,46 @@
+package com.debtcollection.dto;
+
+import com.debtcollection.model.CaseState;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CUSTOM IMPLEMENTATION: Slim row for the case list (GET /cases).
+ * Same fields as DebtCaseDto without the embedded payments/installments arrays;
+ * the full DebtCaseDto is returned only by GET /cases/{id}.
+ */
+@Data
+@Relation(collectionRelation = "cases")
+public class DebtCaseListItemDto {
+
+    private String id;
+    private String debtorName;
+    private BigDecimal owedAmount;
+    private CaseState state;
+    private String notes;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+    private LocalDateTime lastStateDate;
+    private LocalDate nextDeadlineDate;
+
+    private String createdBy;
+    private String lastModifiedBy;
+    private LocalDateTime lastModifiedDate;
+
+    private Boolean ongoingNegotiations;
+    private Boolean hasInstallmentPlan;
+    private Boolean paid;
+
+    // Calculated server side from the projected payment amounts
+    private BigDecimal totalPaidAmount;
+    private BigDecimal remainingAmount;
+
+    // CUSTOM IMPLEMENTATION: Text search relevance, only present on GET /cases/search
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
+}
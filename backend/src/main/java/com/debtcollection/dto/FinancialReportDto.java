@@ -0,0 +1,28 @@
+package com.debtcollection.dto;
+
+import com.debtcollection.model.CaseState;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Management report - owed, collected and outstanding amounts of the cases
+ * created between from and to (months, inclusive), per state, per creation month and per both.
+ */
+public record FinancialReportDto(
+        YearMonth from,
+        YearMonth to,
+        Amounts totals,
+        List<StateRow> byState,
+        List<MonthRow> byMonth,
+        List<MonthStateRow> byMonthAndState
+) {
+    public record Amounts(long cases, BigDecimal owedAmount, BigDecimal paidAmount, BigDecimal remainingAmount) {}
+
+    public record StateRow(CaseState state, Amounts amounts) {}
+
+    public record MonthRow(YearMonth month, Amounts amounts) {}
+
+    public record MonthStateRow(YearMonth month, CaseState state, Amounts amounts) {}
+}
@@ -0,0 +1,28 @@
+package com.debtcollection.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Outcome of a bulk payment import, one result per input row (1-based, header excluded).
+ */
+public record PaymentImportReport(
+        int totalRows,
+        int applied,
+        int rejected,
+        int casesUpdated,
+        List<Row> rows
+) {
+    public enum Status { APPLIED, REJECTED }
+
+    public record Row(
+            int row,
+            String caseId,
+            String installmentId,
+            BigDecimal amount,
+            LocalDate paymentDate,
+            Status status,
+            String message
+    ) {}
+}
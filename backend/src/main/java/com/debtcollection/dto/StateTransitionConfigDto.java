@@ -1,6 +1,7 @@
 package com.debtcollection.dto;
 
 import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DayCountMode;
 import lombok.Data;
 
 @Data
@@ -8,5 +9,6 @@ public class StateTransitionConfigDto {
     private CaseState fromState;
     private CaseState toState;
     private Integer daysToTransition;
+    private DayCountMode dayCountMode;
 }
 
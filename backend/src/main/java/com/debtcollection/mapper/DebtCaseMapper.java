@@ -1,6 +1,7 @@
 package com.debtcollection.mapper;
 
 import com.debtcollection.dto.DebtCaseDto;
+import com.debtcollection.dto.DebtCaseListItemDto;
 import com.debtcollection.model.DebtCase;
 import com.debtcollection.model.Payment;
 import lombok.RequiredArgsConstructor;
@@ -35,11 +36,7 @@ public class DebtCaseMapper {
         dto.setHasInstallmentPlan(debtCase.getHasInstallmentPlan());
         dto.setPaid(debtCase.getPaid());
         // Calculate amounts for frontend convenience
-        Double totalPaid = debtCase.getPayments() != null ? debtCase.getPayments().stream()
-                .filter(Objects::nonNull)
-                .map(Payment::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(0.0, Double::sum) : 0.0;
+        Double totalPaid = totalPaid(debtCase);
         dto.setTotalPaidAmount(BigDecimal.valueOf(totalPaid));
         dto.setRemainingAmount(
                 dto.getOwedAmount() != null ? dto.getOwedAmount().subtract(BigDecimal.valueOf(totalPaid)) : null
@@ -49,4 +46,43 @@ public class DebtCaseMapper {
         dto.setInstallments(debtCase.getInstallments() != null ? debtCase.getInstallments().stream().filter(Objects::nonNull).map(installmentMapper::toDto).toList() : null);
         return dto;
     }
+
+    /**
+     * CUSTOM IMPLEMENTATION: List row mapping. Expects the list projection
+     * (payments carry only the amount, installments are not loaded).
+     */
+    public DebtCaseListItemDto toListItemDto(DebtCase debtCase) {
+        DebtCaseListItemDto dto = new DebtCaseListItemDto();
+        // USER PREFERENCE: Manual mapping for monetary and date fields, avoid BeanUtils
+        dto.setId(debtCase.getId());
+        dto.setDebtorName(debtCase.getDebtorName());
+        dto.setOwedAmount(debtCase.getOwedAmount() != null ? BigDecimal.valueOf(debtCase.getOwedAmount()) : null);
+        dto.setState(debtCase.getCurrentState());
+        dto.setNotes(debtCase.getNotes());
+        dto.setCreatedDate(debtCase.getCreatedDate());
+        dto.setUpdatedDate(debtCase.getLastModifiedDate());
+        dto.setLastStateDate(debtCase.getCurrentStateDate());
+        dto.setNextDeadlineDate(debtCase.getNextDeadlineDate() != null ? debtCase.getNextDeadlineDate().toLocalDate() : null);
+        dto.setCreatedBy(debtCase.getCreatedBy());
+        dto.setLastModifiedBy(debtCase.getLastModifiedBy());
+        dto.setLastModifiedDate(debtCase.getLastModifiedDate());
+        dto.setOngoingNegotiations(debtCase.getOngoingNegotiations());
+        dto.setHasInstallmentPlan(debtCase.getHasInstallmentPlan());
+        dto.setPaid(debtCase.getPaid());
+        Double totalPaid = totalPaid(debtCase);
+        dto.setTotalPaidAmount(BigDecimal.valueOf(totalPaid));
+        dto.setRemainingAmount(
+                dto.getOwedAmount() != null ? dto.getOwedAmount().subtract(BigDecimal.valueOf(totalPaid)) : null
+        );
+        dto.setScore(debtCase.getScore());
+        return dto;
+    }
+
+    private Double totalPaid(DebtCase debtCase) {
+        return debtCase.getPayments() != null ? debtCase.getPayments().stream()
+                .filter(Objects::nonNull)
+                .map(Payment::getAmount)
+                .filter(Objects::nonNull)
+                .reduce(0.0, Double::sum) : 0.0;
+    }
 }
@@ -0,0 +1,9 @@
+package com.debtcollection.model;
+
+/**
+ * CUSTOM IMPLEMENTATION: How StateTransitionConfig.daysToTransition is counted
+ */
+public enum DayCountMode {
+    CALENDAR_DAYS, // every day counts (default)
+    BUSINESS_DAYS  // weekends, Italian public holidays and the August court suspension are skipped (BusinessDayCalendar)
+}
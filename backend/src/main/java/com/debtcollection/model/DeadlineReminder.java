@@ -0,0 +1,42 @@
+package com.debtcollection.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CUSTOM IMPLEMENTATION: Outbox entry of a fired deadline reminder, for external consumers (notifications, mail).
+ * Unique on (debt_case_id, deadline, kind): each reminder is stored once whatever the number of restarts or instances.
+ * Consumers read the entries without processed_at and set it once delivered.
+ */
+@Document(collection = "deadline_reminders")
+@Data
+@NoArgsConstructor
+public class DeadlineReminder {
+
+    @Id
+    private String id;
+
+    @Field("debt_case_id")
+    private String debtCaseId;
+
+    @Field("state")
+    private CaseState state;
+
+    @Field("deadline")
+    private LocalDate deadline;
+
+    @Field("kind")
+    private DeadlineReminderKind kind;
+
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("processed_at")
+    private LocalDateTime processedAt;
+}
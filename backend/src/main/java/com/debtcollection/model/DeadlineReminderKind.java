@@ -0,0 +1,9 @@
+package com.debtcollection.model;
+
+/**
+ * CUSTOM IMPLEMENTATION: Deadline reminders: UPCOMING lead days before the deadline, DUE on the deadline day
+ */
+public enum DeadlineReminderKind {
+    UPCOMING,
+    DUE
+}
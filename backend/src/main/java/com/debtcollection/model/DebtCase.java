@@ -5,9 +5,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.*;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
-import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.index.CompoundIndex;
-import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,21 +15,27 @@ import java.util.ArrayList;
 @Document(collection = "debt_cases")
 @Data
 @NoArgsConstructor
-// USER PREFERENCE: MongoDB compound indexes for optimizing common queries in debt collection system
-@CompoundIndexes({
-    // Single indexes for backward compatibility
-    @CompoundIndex(name = "idx_debt_case_state", def = "{'currentState': 1}"),
-    @CompoundIndex(name = "idx_debt_case_deadline", def = "{'nextDeadlineDate': 1}")
-})
+// CUSTOM IMPLEMENTATION: Indexes are declared and verified in DebtCaseIndexManager (auto index creation is off)
 public class DebtCase {
 
     @Id
     private String id;
 
+    // CUSTOM IMPLEMENTATION: Optimistic locking - save() of a stale copy fails instead of overwriting
+    // a concurrent write (retried by OptimisticRetry); atomic updates increment it as well
+    @Version
+    private Long version;
+
     @Field("debtor_name")
-    @Indexed
     private String debtorName;
 
+    // CUSTOM IMPLEMENTATION: Derived search keys (lower-case, accent-folded), maintained by DebtorNameSearchListener
+    @Field("debtor_name_search")
+    private String debtorNameSearch;
+
+    @Field("debtor_name_tokens")
+    private List<String> debtorNameTokens;
+
     @Field("owed_amount")
     private Double owedAmount;
 
@@ -75,4 +79,13 @@ public class DebtCase {
 
     private List<Payment> payments = new ArrayList<>();
 
+    // CUSTOM IMPLEMENTATION: Stored sum of payments.amount, incremented by the atomic payment registration
+    // and recomputed on every save by PaidTotalListener (null on documents written before it existed)
+    @Field("paid_total")
+    private Double paidTotal;
+
+    // CUSTOM IMPLEMENTATION: Relevance of full-text searches (read-only, never persisted)
+    @TextScore
+    private Float score;
+
 }
\ No newline at end of file
@@ -24,4 +24,8 @@ public class StateTransitionConfig {
 
     @Field("days_to_transition")
     private Integer daysToTransition;
+
+    // CUSTOM IMPLEMENTATION: null = CALENDAR_DAYS (configs saved before the field existed)
+    @Field("day_count_mode")
+    private DayCountMode dayCountMode;
 }
@@ -0,0 +1,183 @@
+package com.debtcollection.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CUSTOM IMPLEMENTATION: Per query shape latency statistics of every Mongo command (pg_stat_statements style).
+ * Registered as driver CommandListener by MongoQueryStatsConfig: timings come from the driver events,
+ * so repository methods, MongoTemplate calls and aggregations are all covered without instrumentation.
+ *
+ * Executions slower than the threshold trigger an asynchronous explain (queryPlanner verbosity, one per
+ * shape every few minutes at most) on a single background thread with a small bounded queue: profiling
+ * never blocks or slows down the request that was measured.
+ *
+ * A command whose completion event never arrives (e.g. connection closed mid-flight) would keep its in-flight
+ * entry forever: entries older than IN_FLIGHT_TTL are swept when commands start (at most once per minute), and
+ * past MAX_IN_FLIGHT concurrent entries new commands are not tracked.
+ */
+@Component
+public class MongoQueryStatsRegistry implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoQueryStatsRegistry.class);
+
+    static final int MAX_SHAPES = 500;
+    static final String OVERFLOW_SHAPE = "(other shapes)";
+    static final int MAX_IN_FLIGHT = 10_000;
+    static final long IN_FLIGHT_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final ThreadPoolExecutor explainExecutor;
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+
+    @Value("${debtcollection.query-stats.slow-threshold-ms:200}")
+    private long slowThresholdMs;
+
+    @Value("${debtcollection.query-stats.explain-interval-ms:600000}")
+    private long explainIntervalMs;
+
+    public MongoQueryStatsRegistry(ObjectProvider<MongoTemplate> mongoTemplate) {
+        // Lazy: the template depends on the MongoClient this listener is registered on
+        this.mongoTemplate = mongoTemplate;
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16), runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (QueryShape.isIgnored(commandName)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt >= 0 && nextSweep.compareAndSet(sweepAt, now + SWEEP_INTERVAL_NANOS)) {
+            evictStale(now);
+        }
+        if (inFlight.size() >= MAX_IN_FLIGHT) {
+            return; // not timed rather than unbounded
+        }
+        BsonDocument command = event.getCommand();
+        String shape = QueryShape.of(commandName, command);
+        ShapeStats stats = shapes.get(shape);
+        // The command buffer is released after this callback: copy it only when an explain may be needed
+        BsonDocument explainable = QueryShape.isExplainable(commandName)
+                && (stats == null || stats.needsExplain(explainIntervalMs))
+                ? command.clone() : null;
+        inFlight.put(event.getRequestId(), new InFlight(shape, event.getDatabaseName(), explainable, now));
+    }
+
+    /**
+     * Drops the in-flight entries started before now - IN_FLIGHT_TTL (completion event lost).
+     */
+    void evictStale(long now) {
+        inFlight.values().removeIf(started -> now - started.startedAt() > IN_FLIGHT_TTL_NANOS);
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+    }
+
+    private void complete(int requestId, long nanos, boolean failed) {
+        InFlight started = inFlight.remove(requestId);
+        if (started == null) {
+            return;
+        }
+        ShapeStats stats = statsFor(started.shape());
+        stats.record(nanos, failed);
+        if (!failed && started.command() != null && nanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)
+                && stats.needsExplain(explainIntervalMs)) {
+            stats.reserveExplain();
+            explainExecutor.execute(() -> captureExplain(stats, started, nanos));
+        }
+    }
+
+    private ShapeStats statsFor(String shape) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats != null) {
+            return stats;
+        }
+        if (shapes.size() >= MAX_SHAPES) {
+            return shapes.computeIfAbsent(OVERFLOW_SHAPE, ShapeStats::new);
+        }
+        return shapes.computeIfAbsent(shape, ShapeStats::new);
+    }
+
+    private void captureExplain(ShapeStats stats, InFlight started, long nanos) {
+        try {
+            Document command = new Document();
+            started.command().forEach((key, value) -> {
+                // Driver-added envelope fields are not accepted inside explain
+                if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                    command.put(key, value);
+                }
+            });
+            Document result = mongoTemplate.getObject().getMongoDatabaseFactory()
+                    .getMongoDatabase(started.database())
+                    .runCommand(new Document("explain", command).append("verbosity", "queryPlanner"));
+            Document queryPlanner = result.get("queryPlanner", Document.class);
+            stats.explain(queryPlanner != null ? queryPlanner : result, nanos);
+        } catch (RuntimeException e) {
+            log.debug("Explain capture failed for shape {}: {}", started.shape(), e.getMessage());
+        }
+    }
+
+    /**
+     * Shapes ordered by total time spent (the ones worth tuning first).
+     */
+    public List<QueryShapeSnapshot> top(int limit, Comparator<QueryShapeSnapshot> order) {
+        return shapes.values().stream()
+                .map(ShapeStats::snapshot)
+                .sorted(order)
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private record InFlight(String shape, String database, BsonDocument command, long startedAt) {}
+}
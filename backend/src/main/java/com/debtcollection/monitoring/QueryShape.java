@@ -0,0 +1,108 @@
+package com.debtcollection.monitoring;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CUSTOM IMPLEMENTATION: Reduces a Mongo command to its query shape: literal values become "?",
+ * field names, operators, sort directions and field paths ("$field") are kept, arrays of literals
+ * collapse to ["?"] so that $in lists of any length share the same shape.
+ */
+public final class QueryShape {
+
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    /** Commands that are not queries (handshake, auth, sessions, cursor plumbing) or would recurse (explain). */
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "ismaster", "isMaster", "ping", "buildInfo", "buildinfo", "saslStart", "saslContinue",
+            "getMore", "killCursors", "endSessions", "explain", "listIndexes", "createIndexes",
+            "listCollections", "getParameter", "serverStatus", "abortTransaction", "commitTransaction");
+
+    /** Command name -> parts of the command that define its shape. */
+    private static final Map<String, String[]> SHAPE_PARTS = Map.of(
+            "find", new String[]{"filter", "sort", "projection"},
+            "aggregate", new String[]{"pipeline"},
+            "count", new String[]{"query"},
+            "distinct", new String[]{"key", "query"},
+            "findAndModify", new String[]{"query", "sort", "update"},
+            "update", new String[]{"updates"},
+            "delete", new String[]{"deletes"},
+            "insert", new String[]{});
+
+    /** Commands whose original document can be explained as is. */
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct");
+
+    private QueryShape() {
+    }
+
+    public static boolean isIgnored(String commandName) {
+        return IGNORED_COMMANDS.contains(commandName);
+    }
+
+    public static boolean isExplainable(String commandName) {
+        return EXPLAINABLE.contains(commandName);
+    }
+
+    /**
+     * "find debt_cases {"filter": {"current_state": "?"}, "sort": {"next_deadline_date": 1, "_id": 1}}"
+     */
+    public static String of(String commandName, BsonDocument command) {
+        BsonValue target = command.get(commandName);
+        String collection = target != null && target.isString() ? target.asString().getValue() : "";
+        String[] parts = SHAPE_PARTS.get(commandName);
+        if (parts == null) {
+            return commandName + " " + collection;
+        }
+        BsonDocument shape = new BsonDocument();
+        for (String part : parts) {
+            BsonValue value = command.get(part);
+            if (value == null) {
+                continue;
+            }
+            if (part.equals("sort") || part.equals("projection") || part.equals("key")) {
+                shape.put(part, value); // no literals worth hiding, and they distinguish plans
+            } else if (part.equals("updates") || part.equals("deletes")) {
+                // Batched writes: the first statement is representative of the batch
+                BsonArray statements = value.asArray();
+                if (!statements.isEmpty() && statements.get(0).isDocument()) {
+                    BsonDocument first = statements.get(0).asDocument();
+                    shape.put("q", normalize(first.get("q", new BsonDocument())));
+                    if (first.containsKey("u")) {
+                        shape.put("u", normalize(first.get("u")));
+                    }
+                }
+            } else {
+                shape.put(part, normalize(value));
+            }
+        }
+        return commandName + " " + collection + " " + shape.toJson();
+    }
+
+    static BsonValue normalize(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument normalized = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> normalized.put(key, normalize(nested)));
+            return normalized;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            boolean structured = array.stream().anyMatch(v -> v.isDocument() || v.isArray());
+            if (!structured) {
+                return array.isEmpty() ? array : new BsonArray(List.of(PLACEHOLDER));
+            }
+            BsonArray normalized = new BsonArray();
+            array.forEach(v -> normalized.add(normalize(v)));
+            return normalized;
+        }
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value; // field path or system variable in aggregation expressions
+        }
+        return PLACEHOLDER;
+    }
+}
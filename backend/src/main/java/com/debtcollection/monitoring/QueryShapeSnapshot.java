@@ -0,0 +1,23 @@
+package com.debtcollection.monitoring;
+
+import org.bson.Document;
+
+import java.time.Instant;
+
+/**
+ * CUSTOM IMPLEMENTATION: Read-only view of a query shape (times in milliseconds).
+ * explain holds the winning plan captured on a slow execution (null until one happens).
+ */
+public record QueryShapeSnapshot(
+        String shape,
+        long count,
+        long failures,
+        double totalMs,
+        double meanMs,
+        double p50Ms,
+        double p99Ms,
+        double maxMs,
+        Document explain,
+        Instant explainCapturedAt,
+        Double explainTriggerMs
+) {}
@@ -0,0 +1,93 @@
+package com.debtcollection.monitoring;
+
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CUSTOM IMPLEMENTATION: Latency statistics of one query shape.
+ * Count/total/max are cumulative; p50/p99 are computed over the last WINDOW samples (ring buffer),
+ * so they follow the current behaviour instead of being diluted by old traffic.
+ */
+class ShapeStats {
+
+    static final int WINDOW = 1024;
+
+    private final String shape;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final long[] window = new long[WINDOW];
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private volatile Document explain;
+    private volatile Instant explainCapturedAt;
+    private volatile long explainLatencyNanos;
+
+    ShapeStats(String shape) {
+        this.shape = shape;
+    }
+
+    void record(long nanos, boolean failed) {
+        count.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        // Racy slot reuse is acceptable: a lost sample only blurs the percentile a little
+        window[Math.floorMod(cursor.getAndIncrement(), WINDOW)] = nanos;
+    }
+
+    boolean needsExplain(long minIntervalMillis) {
+        Instant last = explainCapturedAt;
+        return last == null || last.plusMillis(minIntervalMillis).isBefore(Instant.now());
+    }
+
+    void explain(Document explain, long latencyNanos) {
+        this.explain = explain;
+        this.explainLatencyNanos = latencyNanos;
+        this.explainCapturedAt = Instant.now();
+    }
+
+    /** Marks an explain as in progress so concurrent slow executions do not queue duplicates. */
+    void reserveExplain() {
+        this.explainCapturedAt = Instant.now();
+    }
+
+    QueryShapeSnapshot snapshot() {
+        long n = count.sum();
+        int filled = (int) Math.min(n, WINDOW);
+        long[] samples = Arrays.copyOf(window, filled);
+        Arrays.sort(samples);
+        return new QueryShapeSnapshot(
+                shape,
+                n,
+                failures.sum(),
+                millis(totalNanos.sum()),
+                n == 0 ? 0 : millis(totalNanos.sum()) / n,
+                millis(percentile(samples, 0.50)),
+                millis(percentile(samples, 0.99)),
+                millis(maxNanos.get()),
+                explain,
+                explain != null ? explainCapturedAt : null,
+                explain != null ? millis(explainLatencyNanos) : null);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,8 @@
+package com.debtcollection.repository;
+
+import java.time.LocalDate;
+
+/**
+ * CUSTOM IMPLEMENTATION: Cases (and their owed amount) whose next deadline falls on a given day.
+ */
+public record DeadlineDayCount(LocalDate day, long cases, double owedAmount) {}
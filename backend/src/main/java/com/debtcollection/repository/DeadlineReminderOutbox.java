@@ -0,0 +1,73 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import com.debtcollection.model.DeadlineReminder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: deadline_reminders outbox. Appends are unordered bulk inserts: reminders already stored
+ * (same case, deadline and kind) are rejected by the unique index and skipped.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class DeadlineReminderOutbox {
+
+    static final String UNIQUE_INDEX = "idx_reminder_case_deadline_kind";
+    static final String PENDING_INDEX = "idx_reminder_pending";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(DeadlineReminder.class).ensureIndex(new Index()
+                .on("debt_case_id", Sort.Direction.ASC)
+                .on("deadline", Sort.Direction.ASC)
+                .on("kind", Sort.Direction.ASC)
+                .unique()
+                .named(UNIQUE_INDEX));
+        mongoTemplate.indexOps(DeadlineReminder.class).ensureIndex(new Index()
+                .on("processed_at", Sort.Direction.ASC)
+                .on("created_at", Sort.Direction.ASC)
+                .named(PENDING_INDEX));
+    }
+
+    /**
+     * Stores the reminders not stored yet; returns the number inserted
+     */
+    public int append(List<DeadlineReminderDto> reminders) {
+        if (reminders.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeadlineReminder.class);
+        for (DeadlineReminderDto reminder : reminders) {
+            DeadlineReminder entry = new DeadlineReminder();
+            entry.setDebtCaseId(reminder.debtCaseId());
+            entry.setState(reminder.state());
+            entry.setDeadline(reminder.deadline());
+            entry.setKind(reminder.kind());
+            entry.setCreatedAt(now);
+            bulk.insert(entry);
+        }
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            log.debug("{} deadline reminders already in the outbox", e.getErrors().size());
+            return e.getResult().getInsertedCount();
+        }
+    }
+}
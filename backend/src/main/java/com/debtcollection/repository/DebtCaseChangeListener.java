@@ -0,0 +1,29 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.DebtCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * CUSTOM IMPLEMENTATION: Invalidates derived caches after each DebtCase save/delete
+ * (same lifecycle hooks used by DebtCaseValidator).
+ */
+@Component
+@RequiredArgsConstructor
+public class DebtCaseChangeListener extends AbstractMongoEventListener<DebtCase> {
+
+    private final DebtCaseChangeTracker changeTracker;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<DebtCase> event) {
+        changeTracker.markDocumentChanged();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<DebtCase> event) {
+        changeTracker.markDocumentChanged();
+    }
+}
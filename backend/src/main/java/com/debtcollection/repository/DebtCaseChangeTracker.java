@@ -0,0 +1,70 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.DebtCase;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * CUSTOM IMPLEMENTATION: Generation counter of the debt_cases collection.
+ * Bumped on every write so that derived caches can detect stale entries without tracking single documents.
+ * Writes that bypass the Mongo lifecycle events (bulk/atomic updates) must notify it explicitly:
+ * - markChanged(DebtCase) / markChanged(Collection): the updated cases (at least state and deadline) are
+ *   passed to the document change listeners, so models maintained from per-document events apply them incrementally
+ * - markOtherFieldsChanged(): the write touches none of those fields, only the generation is bumped
+ * - markChanged(): touched documents unknown, besides the bump the bulk change listeners resynchronize
+ */
+@Component
+public class DebtCaseChangeTracker {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final List<Runnable> bulkChangeListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<DebtCase>> documentChangeListeners = new CopyOnWriteArrayList<>();
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void markChanged() {
+        generation.incrementAndGet();
+        bulkChangeListeners.forEach(Runnable::run);
+    }
+
+    public void markChanged(DebtCase updated) {
+        generation.incrementAndGet();
+        documentChangeListeners.forEach(listener -> listener.accept(updated));
+    }
+
+    public void markChanged(Collection<DebtCase> updated) {
+        generation.incrementAndGet();
+        for (DebtCase debtCase : updated) {
+            documentChangeListeners.forEach(listener -> listener.accept(debtCase));
+        }
+    }
+
+    /**
+     * Bump for a bulk write that changes no field of the per-document models (state, deadline), e.g. search keys.
+     */
+    public void markOtherFieldsChanged() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Bump for a write already published as a per-document lifecycle event (DebtCaseChangeListener).
+     */
+    void markDocumentChanged() {
+        generation.incrementAndGet();
+    }
+
+    public void addBulkChangeListener(Runnable listener) {
+        bulkChangeListeners.add(listener);
+    }
+
+    public void addDocumentChangeListener(Consumer<DebtCase> listener) {
+        documentChangeListeners.add(listener);
+    }
+}
@@ -0,0 +1,45 @@
+package com.debtcollection.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CUSTOM IMPLEMENTATION: Total count per normalized filter, valid until the next debt case write.
+ * Entries are tagged with the change tracker generation: a write makes every entry stale at once.
+ */
+@Component
+@RequiredArgsConstructor
+public class DebtCaseCountCache {
+
+    static final int MAX_ENTRIES = 1000;
+
+    private final DebtCaseChangeTracker changeTracker;
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Cached count for the key when still valid, null otherwise (caller computes and put()s it).
+     */
+    public Long peek(String filterKey) {
+        CachedCount cached = counts.get(filterKey);
+        return cached != null && cached.generation() == changeTracker.generation() ? cached.count() : null;
+    }
+
+    /**
+     * Stores a freshly computed exact count (generation read before counting). A count taken before
+     * a concurrent write is outdated: it is dropped and does not replace a valid entry.
+     */
+    public void put(String filterKey, long generation, long count) {
+        if (generation != changeTracker.generation()) {
+            return;
+        }
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.clear(); // Coarse bound: the working set of filters is small, a rebuild is cheap
+        }
+        counts.put(filterKey, new CachedCount(generation, count));
+    }
+
+    private record CachedCount(long generation, long count) {}
+}
@@ -0,0 +1,25 @@
+package com.debtcollection.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * CUSTOM IMPLEMENTATION: Bucket counts of the cases matching a filter, computed in one $facet aggregation.
+ * Boolean buckets are keyed "true" / "false" ("null" only for cases where the field was never set).
+ * rows holds the requested page, null when only the facets were asked for.
+ */
+public record DebtCaseFacets<T>(
+        long total,
+        Map<String, Long> states,
+        Map<String, Long> paid,
+        Map<String, Long> hasInstallmentPlan,
+        Map<String, Long> ongoingNegotiations,
+        List<T> rows
+) {
+
+    public <R> DebtCaseFacets<R> map(Function<? super T, ? extends R> mapper) {
+        return new DebtCaseFacets<>(total, states, paid, hasInstallmentPlan, ongoingNegotiations,
+                rows != null ? rows.stream().<R>map(mapper).toList() : null);
+    }
+}
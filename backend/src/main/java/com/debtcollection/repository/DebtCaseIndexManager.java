@@ -0,0 +1,233 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DebtCaseFilterRequest.DebtorNameMatch;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * CUSTOM IMPLEMENTATION: Single place where the debt_cases indexes are declared, created and verified.
+ * Auto index creation is off, so annotations on DebtCase are not used: every index lives here.
+ *
+ * - one {field, _id} index per sortable field: serves the sort and the keyset (cursor) tie-breaker
+ * - compound equality + deadline indexes for the dashboard filters (state / paid / plan, sorted by deadline)
+ * - partial indexes restricted to cases with a next_deadline_date: they serve the deadline range reads of the
+ *   dashboard (a range on the deadline implies the field exists). Completion clears the deadline, so most
+ *   COMPLETATA cases stay out of them, but a deadline set by hand (updateNextDeadline / updateDebtCase) keeps
+ *   a completed case in: these indexes are not a "not completed" filter, the state criteria still apply
+ * - debtor name search keys and the notes/debtor name text index
+ *
+ * verifyQueryShapes() runs every supported filter/sort combination (limit 20), built with the same
+ * criteria code used by GET /cases, and reports the winning plan stages (COLLSCAN = missing index)
+ * with the keys/documents examined (documents examined above returned = predicates not served by index bounds).
+ */
+@Component
+@RequiredArgsConstructor
+public class DebtCaseIndexManager {
+
+    public static final String TEXT_INDEX_NAME = "idx_debt_case_text";
+
+    /** Sortable properties (GET /cases "sort" values) with their stored field names. */
+    static final Map<String, String> SORT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SORT_FIELDS.put("debtorName", "debtor_name");
+        SORT_FIELDS.put("owedAmount", "owed_amount");
+        SORT_FIELDS.put("currentState", "current_state");
+        SORT_FIELDS.put("currentStateDate", "current_state_date");
+        SORT_FIELDS.put("nextDeadlineDate", "next_deadline_date");
+        SORT_FIELDS.put("ongoingNegotiations", "ongoing_negotiations");
+        SORT_FIELDS.put("hasInstallmentPlan", "has_installment_plan");
+        SORT_FIELDS.put("paid", "paid");
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final DebtCaseRepositoryCustomImpl debtCaseRepositoryCustom;
+
+    public List<IndexDefinition> declaredIndexes() {
+        List<IndexDefinition> indexes = new ArrayList<>();
+        SORT_FIELDS.forEach((property, field) -> indexes.add(new Index()
+                .on(field, Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("idx_sort_" + field)));
+
+        // Equality filters first, deadline (sort + range) last
+        indexes.add(new Index()
+                .on("current_state", Sort.Direction.ASC)
+                .on("next_deadline_date", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("idx_state_deadline"));
+        indexes.add(new Index()
+                .on("paid", Sort.Direction.ASC)
+                .on("has_installment_plan", Sort.Direction.ASC)
+                .on("next_deadline_date", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("idx_open_paid_plan_deadline")
+                .partial(withDeadlineFilter()));
+        indexes.add(new Index()
+                .on("ongoing_negotiations", Sort.Direction.ASC)
+                .on("next_deadline_date", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("idx_open_negotiations_deadline")
+                .partial(withDeadlineFilter()));
+
+        indexes.add(new Index().on("debtor_name_search", Sort.Direction.ASC).named("idx_debtor_name_search"));
+        indexes.add(new Index().on("debtor_name_tokens", Sort.Direction.ASC).named("idx_debtor_name_tokens"));
+        indexes.add(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .named(TEXT_INDEX_NAME)
+                .onField("notes", 1F)
+                .onField("debtor_name", 3F)
+                .withDefaultLanguage(DebtCaseRepositoryCustomImpl.TEXT_LANGUAGE)
+                .build());
+        return indexes;
+    }
+
+    /**
+     * Creates the declared indexes (no-op for the ones already present with the same definition).
+     */
+    public List<String> ensureIndexes() {
+        List<String> names = new ArrayList<>();
+        for (IndexDefinition index : declaredIndexes()) {
+            names.add(mongoTemplate.indexOps(DebtCase.class).ensureIndex(index));
+        }
+        return names;
+    }
+
+    public List<QueryShapeReport> verifyQueryShapes() {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(DebtCase.class);
+        String collection = mongoTemplate.getCollectionName(DebtCase.class);
+
+        List<QueryShapeReport> reports = new ArrayList<>();
+        for (Map.Entry<String, DebtCaseFilterRequest> shape : filterShapes().entrySet()) {
+            Criteria criteria = debtCaseRepositoryCustom.buildCriteria(shape.getValue());
+            for (String sortProperty : SORT_FIELDS.keySet()) {
+                Query query = new Query(criteria).with(Sort.by(sortProperty).and(Sort.by("id")));
+                Document find = new Document("find", collection)
+                        .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity))
+                        .append("sort", queryMapper.getMappedSort(query.getSortObject(), entity))
+                        .append("limit", 20);
+                Document explain = mongoTemplate.getDb().runCommand(
+                        new Document("explain", find).append("verbosity", "executionStats"));
+                Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+                Document stats = explain.get("executionStats", Document.class);
+
+                Set<String> stages = new LinkedHashSet<>();
+                Set<String> indexNames = new LinkedHashSet<>();
+                collectPlan(winningPlan, stages, indexNames);
+                reports.add(new QueryShapeReport(shape.getKey(), sortProperty, List.copyOf(stages), List.copyOf(indexNames),
+                        stats.getInteger("nReturned", 0), stats.getInteger("totalKeysExamined", 0),
+                        stats.getInteger("totalDocsExamined", 0)));
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Filter combinations exposed by GET /cases (single filters, dashboard combinations, name search modes).
+     */
+    Map<String, DebtCaseFilterRequest> filterShapes() {
+        LocalDate today = LocalDate.now();
+        Map<String, DebtCaseFilterRequest> shapes = new LinkedHashMap<>();
+        shapes.put("none", filter(f -> { }));
+        shapes.put("state", filter(f -> f.setState(CaseState.DEPOSITO_RICORSO)));
+        shapes.put("states", filter(f -> f.setStates(List.of(CaseState.MESSA_IN_MORA_DA_FARE, CaseState.PRECETTO))));
+        shapes.put("paid", filter(f -> f.setPaid(false)));
+        shapes.put("hasInstallmentPlan", filter(f -> f.setHasInstallmentPlan(true)));
+        shapes.put("ongoingNegotiations", filter(f -> f.setOngoingNegotiations(true)));
+        shapes.put("amountRange", filter(f -> {
+            f.setMinAmount(new BigDecimal("100"));
+            f.setMaxAmount(new BigDecimal("5000"));
+        }));
+        shapes.put("deadlineRange", filter(f -> {
+            f.setNextDeadlineFrom(today);
+            f.setNextDeadlineTo(today.plusDays(7));
+        }));
+        shapes.put("state+deadlineRange", filter(f -> {
+            f.setState(CaseState.DEPOSITO_RICORSO);
+            f.setNextDeadlineTo(today.plusDays(30));
+        }));
+        shapes.put("states+paid+plan+deadlineRange", filter(f -> {
+            f.setStates(List.of(CaseState.MESSA_IN_MORA_DA_FARE, CaseState.DEPOSITO_RICORSO));
+            f.setPaid(false);
+            f.setHasInstallmentPlan(false);
+            f.setNextDeadlineFrom(today);
+            f.setNextDeadlineTo(today.plusDays(30));
+        }));
+        shapes.put("paid+plan+deadlineRange", filter(f -> {
+            f.setPaid(false);
+            f.setHasInstallmentPlan(true);
+            f.setNextDeadlineFrom(today);
+        }));
+        shapes.put("currentStateDateRange", filter(f -> f.setCurrentStateFrom(today.minusDays(30))));
+        shapes.put("createdRange", filter(f -> f.setCreatedFrom(today.minusDays(30))));
+        shapes.put("lastModifiedRange", filter(f -> f.setLastModifiedFrom(today.minusDays(30))));
+        shapes.put("debtorName:TOKEN", filter(f -> f.setDebtorName("mario ros")));
+        shapes.put("debtorName:PREFIX", filter(f -> {
+            f.setDebtorName("rossi m");
+            f.setDebtorNameMatch(DebtorNameMatch.PREFIX);
+        }));
+        shapes.put("debtorName:TOKEN+state", filter(f -> {
+            f.setDebtorName("rossi");
+            f.setState(CaseState.PRECETTO);
+        }));
+        return shapes;
+    }
+
+    private static DebtCaseFilterRequest filter(Consumer<DebtCaseFilterRequest> setup) {
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        setup.accept(filter);
+        return filter;
+    }
+
+    private static PartialIndexFilter withDeadlineFilter() {
+        return PartialIndexFilter.of(Criteria.where("next_deadline_date").exists(true));
+    }
+
+    /**
+     * Walks the plan tree (classic and slot based engine layouts) collecting stage and index names.
+     */
+    private static void collectPlan(Object node, Set<String> stages, Set<String> indexNames) {
+        if (node instanceof Document doc) {
+            if (doc.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (doc.get("indexName") instanceof String indexName) {
+                indexNames.add(indexName);
+            }
+            doc.values().forEach(value -> collectPlan(value, stages, indexNames));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectPlan(value, stages, indexNames));
+        }
+    }
+
+    public record QueryShapeReport(String filter, String sort, List<String> stages, List<String> indexes,
+                                   int returned, int keysExamined, int docsExamined) {
+        public boolean collectionScan() {
+            return stages.contains("COLLSCAN");
+        }
+    }
+}
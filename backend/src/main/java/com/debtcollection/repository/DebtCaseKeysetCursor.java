@@ -0,0 +1,178 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CUSTOM IMPLEMENTATION: Opaque continuation token for keyset pagination of debt cases.
+ * The token carries the sort definition, the sort key values of the last returned row and its _id
+ * (always used as final ascending tie-breaker), so that page N is an index range scan like page 1.
+ * Null values follow MongoDB ordering: null/missing sorts first ascending, last descending.
+ */
+public final class DebtCaseKeysetCursor {
+
+    public static final String ID_PROPERTY = "id";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Sort fields supported in keyset mode (same list documented on GET /cases).
+     */
+    public enum SortKey {
+        DEBTOR_NAME("debtorName", DebtCase::getDebtorName, s -> s),
+        OWED_AMOUNT("owedAmount", DebtCase::getOwedAmount, Double::valueOf),
+        CURRENT_STATE("currentState", DebtCase::getCurrentState, CaseState::valueOf),
+        CURRENT_STATE_DATE("currentStateDate", DebtCase::getCurrentStateDate, LocalDateTime::parse),
+        NEXT_DEADLINE_DATE("nextDeadlineDate", DebtCase::getNextDeadlineDate, LocalDateTime::parse),
+        ONGOING_NEGOTIATIONS("ongoingNegotiations", DebtCase::getOngoingNegotiations, Boolean::valueOf),
+        HAS_INSTALLMENT_PLAN("hasInstallmentPlan", DebtCase::getHasInstallmentPlan, Boolean::valueOf),
+        PAID("paid", DebtCase::getPaid, Boolean::valueOf);
+
+        private final String property;
+        private final Function<DebtCase, Object> extractor;
+        private final Function<String, Object> parser;
+
+        SortKey(String property, Function<DebtCase, Object> extractor, Function<String, Object> parser) {
+            this.property = property;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        public static SortKey fromProperty(String property) {
+            return Arrays.stream(values())
+                    .filter(k -> k.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported sort field for cursor pagination: " + property));
+        }
+    }
+
+    private DebtCaseKeysetCursor() {
+    }
+
+    /**
+     * Validates the requested sort and drops an explicit id order (id is always appended as tie-breaker).
+     */
+    public static List<Sort.Order> keyOrders(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (ID_PROPERTY.equals(order.getProperty())) {
+                continue;
+            }
+            SortKey.fromProperty(order.getProperty());
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    public static Sort querySort(List<Sort.Order> keyOrders) {
+        List<Sort.Order> orders = new ArrayList<>(keyOrders);
+        orders.add(Sort.Order.asc(ID_PROPERTY));
+        return Sort.by(orders);
+    }
+
+    public static String encode(List<Sort.Order> keyOrders, DebtCase last) {
+        List<String> values = new ArrayList<>();
+        for (Sort.Order order : keyOrders) {
+            Object value = SortKey.fromProperty(order.getProperty()).extractor.apply(last);
+            values.add(value != null ? value.toString() : null);
+        }
+        Token token = new Token(signature(keyOrders), values, last.getId());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(token));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    /**
+     * Builds the "strictly after the last row" criteria: OR over each key position i of
+     * (all previous keys equal AND key i after), with _id as last key.
+     */
+    public static Criteria afterCriteria(List<Sort.Order> keyOrders, String cursor) {
+        Token token = decode(cursor);
+        if (!signature(keyOrders).equals(token.sort()) || token.values() == null
+                || token.values().size() != keyOrders.size() || token.id() == null) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        List<Criteria> branches = new ArrayList<>();
+        List<Criteria> equalities = new ArrayList<>();
+        for (int i = 0; i < keyOrders.size(); i++) {
+            Sort.Order order = keyOrders.get(i);
+            SortKey key = SortKey.fromProperty(order.getProperty());
+            String raw = token.values().get(i);
+            Object value = raw != null ? parse(key, raw) : null;
+
+            Criteria after = after(key.property(), order.isAscending(), value);
+            if (after != null) {
+                branches.add(and(equalities, after));
+            }
+            equalities.add(Criteria.where(key.property()).is(value));
+        }
+        branches.add(and(equalities, Criteria.where(ID_PROPERTY).gt(toId(token.id()))));
+        return branches.size() == 1 ? branches.get(0) : new Criteria().orOperator(branches);
+    }
+
+    private static Criteria after(String property, boolean ascending, Object value) {
+        if (ascending) {
+            return value == null ? Criteria.where(property).ne(null) : Criteria.where(property).gt(value);
+        }
+        if (value == null) {
+            return null; // nothing sorts after null in descending order
+        }
+        return new Criteria().orOperator(Criteria.where(property).lt(value), Criteria.where(property).is(null));
+    }
+
+    private static Criteria and(List<Criteria> equalities, Criteria last) {
+        if (equalities.isEmpty()) {
+            return last;
+        }
+        List<Criteria> all = new ArrayList<>(equalities);
+        all.add(last);
+        return new Criteria().andOperator(all);
+    }
+
+    private static Object parse(SortKey key, String raw) {
+        try {
+            return key.parser.apply(raw);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor value for " + key.property());
+        }
+    }
+
+    private static Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static Token decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            return MAPPER.readValue(json, Token.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static String signature(List<Sort.Order> keyOrders) {
+        return String.join(",", keyOrders.stream().map(o -> o.getProperty() + ":" + o.getDirection()).toList());
+    }
+
+    record Token(String sort, List<String> values, String id) {}
+}
@@ -21,7 +21,4 @@ public interface DebtCaseRepository extends MongoRepository<DebtCase, String>, D
 
     // USER PREFERENCE: Spring Data MongoDB automatically provides query methods
     List<DebtCase> findByCurrentState(CaseState state);
-
-    // Method used by summary query (excludes COMPLETATA)
-    List<DebtCase> findByCurrentStateNot(CaseState state);
 }
@@ -1,13 +1,21 @@
 package com.debtcollection.repository;
 
+import com.debtcollection.dto.DebtCaseFilterRequest;
 import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Payment;
 import com.debtcollection.model.CaseState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * USER PREFERENCE: Custom repository interface for complex MongoDB queries
@@ -40,4 +48,125 @@ public interface DebtCaseRepositoryCustom {
         LocalDate lastModifiedTo,
         Pageable pageable
     );
+
+    /**
+     * CUSTOM IMPLEMENTATION: findByFilters with a selectable total-count strategy (see TotalCountMode).
+     * With NONE the returned total is only a lower bound (offset + rows + 1 when a next page exists).
+     * Rows use the list projection: no installments, payments carry only the amount.
+     */
+    Page<DebtCase> findByFilters(DebtCaseFilterRequest filter, Pageable pageable, TotalCountMode countMode);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Keyset (cursor) pagination with the same filters as findByFilters.
+     * Each slice is a range scan starting after the row encoded in the cursor (null cursor = first slice),
+     * so deep slices cost the same as the first one. No total count is computed.
+     * Rows use the same list projection as findByFilters.
+     */
+    KeysetSlice<DebtCase> findByFiltersKeyset(DebtCaseFilterRequest filter, Sort sort, int size, String cursor);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Full-text search on notes and debtorName (text index, Italian stemming),
+     * combined with the structured filters. Rows are ordered by relevance first (score set on each row),
+     * then by the pageable sort; same list projection as findByFilters.
+     */
+    Page<DebtCase> searchText(String text, DebtCaseFilterRequest filter, Pageable pageable);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Cursor-backed stream of all cases matching the filters (list projection),
+     * fetched in batches of batchSize. The caller must close the stream (try-with-resources).
+     */
+    Stream<DebtCase> streamByFilters(DebtCaseFilterRequest filter, Sort sort, int batchSize);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Per state / paid / hasInstallmentPlan / ongoingNegotiations counts of the cases
+     * matching the filters, plus the requested page when pageable is paged (Pageable.unpaged() = facets only).
+     * One $facet aggregation: a single round trip whatever the number of buckets.
+     */
+    DebtCaseFacets<DebtCase> findFacets(DebtCaseFilterRequest filter, Pageable pageable);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Dashboard summary of the active cases computed by one aggregation
+     * returning only counts (no case is loaded). horizonDays sets the extra "due within" window.
+     */
+    DebtCaseSummaryCounts summarizeActive(LocalDate referenceDate, int horizonDays);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Active (non COMPLETATA) cases with only id, state and next deadline loaded,
+     * used to seed in-memory counters. The caller must close the stream.
+     */
+    Stream<DebtCase> streamActiveSummaryKeys();
+
+    /**
+     * CUSTOM IMPLEMENTATION: Per day count and owed amount of the cases matching the filters whose
+     * next deadline is in [from, to] (both inclusive), grouped server-side; days without deadlines are omitted.
+     */
+    List<DeadlineDayCount> deadlineHistogram(DebtCaseFilterRequest filter, LocalDate from, LocalDate to);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Owed and paid sums per (createdDate month, current state) of the cases
+     * created in [from, toExclusive), computed server-side ($unwind over payments).
+     */
+    List<FinancialAggregate> financialAggregates(LocalDate from, LocalDate toExclusive);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Appends a payment with one atomic findAndModify (no read-modify-write):
+     * pushes the payment, increments the stored paid total and, when the case becomes fully paid,
+     * marks it paid/COMPLETATA in the same update. Returns the updated case, empty when the id does not exist.
+     * No save() is involved, so auditing does not run: modifiedBy is written as lastModifiedBy.
+     */
+    Optional<DebtCase> appendPayment(String debtCaseId, Payment payment, String modifiedBy);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Bulk version of appendPayment - one update per case (all its payments at once),
+     * sent as a single unordered bulk write. Payments with an installmentId also mark that installment paid
+     * and move the deadline to the next unpaid one. Returns which cases were written: a case deleted in the
+     * meantime or a failed operation does not stop the others (the BulkOperationException is not rethrown).
+     * modifiedBy is written as lastModifiedBy, as in appendPayment.
+     */
+    PaymentAppendResult appendPayments(Map<String, List<Payment>> paymentsByCase, String modifiedBy);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Cases by id with only installments.installmentId / installments.paid loaded
+     * (existing ids and installment checks of the payment import).
+     */
+    List<DebtCase> findInstallmentKeys(Collection<String> debtCaseIds);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Number of cases matching the filters that are not already in targetState
+     * (the cases a bulk transition would move).
+     */
+    long countForTransition(DebtCaseFilterRequest filter, CaseState targetState);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Ids (ascending) of the next limit cases matching the filters, not in targetState,
+     * with id greater than afterId (null = from the first one). Only _id is loaded.
+     */
+    List<String> findIdsForTransition(DebtCaseFilterRequest filter, CaseState targetState, String afterId, int limit);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Moves the given cases to targetState with one updateMulti: same state date and
+     * deadline for all (null deadline = removed), audit fields set, version incremented. The filters and the
+     * "not in targetState" condition are re-checked by the update itself. Returns the number of cases modified.
+     */
+    long transitionState(Collection<String> debtCaseIds, DebtCaseFilterRequest filter, CaseState targetState,
+                         LocalDateTime stateDate, LocalDateTime nextDeadlineDate, String modifiedBy);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Number of cases whose deadline follows the transition config of their state:
+     * currentState in states (COMPLETATA excluded), not on an installment plan (there the deadline is the next installment).
+     */
+    long countForDeadlineRecompute(Collection<CaseState> states);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Next limit cases (ascending id, greater than afterId, null = from the first one) of
+     * countForDeadlineRecompute. Only id, currentState, currentStateDate, nextDeadlineDate and version are loaded.
+     */
+    List<DebtCase> findDeadlineKeys(Collection<CaseState> states, String afterId, int limit);
+
+    /**
+     * CUSTOM IMPLEMENTATION: Writes the nextDeadlineDate of the given cases (one updateOne each, single unordered
+     * bulk write), with lastModifiedDate/lastModifiedBy set and version incremented. A case is skipped when its currentState, currentStateDate
+     * or version no longer equals the given one, or when it got an installment plan meanwhile. Returns the number of cases modified.
+     */
+    long updateDeadlines(List<DebtCase> debtCases, String modifiedBy);
 }
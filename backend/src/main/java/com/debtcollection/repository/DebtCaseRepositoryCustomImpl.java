@@ -1,30 +1,108 @@
 package com.debtcollection.repository;
 
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DebtCaseFilterRequest.DebtorNameMatch;
 import com.debtcollection.model.DebtCase;
 import com.debtcollection.model.CaseState;
+import com.debtcollection.model.Installment;
+import com.debtcollection.model.Payment;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.BooleanOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 /**
  * CUSTOM IMPLEMENTATION: MongoDB custom repository implementation
  * USER PREFERENCE: Uses MongoTemplate + Criteria for maximum flexibility
  * Supports dynamic filtering with optional parameters
  */
+@Slf4j
 @Repository
 @RequiredArgsConstructor
 public class DebtCaseRepositoryCustomImpl implements DebtCaseRepositoryCustom {
 
+    private static final String[] LIST_FIELDS = {
+            "debtorName", "owedAmount", "currentState", "currentStateDate", "nextDeadlineDate",
+            "ongoingNegotiations", "hasInstallmentPlan", "paid", "notes",
+            "createdDate", "lastModifiedDate", "createdBy", "lastModifiedBy"
+    };
+
+    private static final String FACET_COUNT = "count";
+    private static final int SUMMARY_BATCH_SIZE = 2000;
+    // What the per-document models (live summary, deadline scheduler) read of each case
+    private static final String[] SUMMARY_FIELDS = {"currentState", "nextDeadlineDate"};
+    // Lower bound matching every date but not missing deadlines (missing/null sort before dates)
+    private static final Date ANY_DATE = new Date(Long.MIN_VALUE);
+
+    // Notes are written in Italian: stemming/stop words of the text index and of the $text queries
+    public static final String TEXT_LANGUAGE = "italian";
+
     private final MongoTemplate mongoTemplate;
+    private final DebtCaseCountCache countCache;
+    private final DebtCaseChangeTracker changeTracker;
+    private final ExecutorService countExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // CUSTOM IMPLEMENTATION: Budget of the total count of a list request (server maxTimeMS and client wait)
+    @Value("${debtcollection.case-list.count-timeout-ms:2000}")
+    private long countTimeoutMs;
+
+    @Value("${debtcollection.case-list.parallel-count:true}")
+    private boolean parallelCount;
 
     @Override
     public Page<DebtCase> findByFilters(
@@ -47,11 +125,684 @@ public class DebtCaseRepositoryCustomImpl implements DebtCaseRepositoryCustom {
             LocalDate lastModifiedTo,
             Pageable pageable) {
 
-        Criteria criteria = new Criteria();
+        Criteria criteria = buildCriteria(debtorName, null, state, states, minAmount, maxAmount, hasInstallmentPlan, paid,
+                ongoingNegotiations, notes, nextDeadlineFrom, nextDeadlineTo, currentStateFrom, currentStateTo,
+                createdFrom, createdTo, lastModifiedFrom, lastModifiedTo);
+
+        return findPageAndCount(new Query(criteria).with(pageable), new Query(criteria), pageable,
+                criteria.getCriteriaObject().toJson(), total -> { });
+    }
+
+    @Override
+    public Page<DebtCase> findByFilters(DebtCaseFilterRequest filter, Pageable pageable, TotalCountMode countMode) {
+        Criteria criteria = buildCriteria(filter);
+        if (countMode == TotalCountMode.NONE && pageable.isPaged()) {
+            // CUSTOM IMPLEMENTATION: look ahead one row instead of counting; total becomes a lower bound
+            Query query = listProjection(new Query(criteria).with(pageable).limit(pageable.getPageSize() + 1));
+            List<DebtCase> rows = mongoTemplate.find(query, DebtCase.class);
+            boolean hasNext = rows.size() > pageable.getPageSize();
+            List<DebtCase> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size() + (hasNext ? 1 : 0));
+        }
+
+        String filterKey = filter.normalizedKey();
+        Long cachedTotal = countMode == TotalCountMode.CACHED ? countCache.peek(filterKey) : null;
+        if (cachedTotal != null) {
+            List<DebtCase> debtCases = mongoTemplate.find(listProjection(new Query(criteria).with(pageable)), DebtCase.class);
+            return new PageImpl<>(debtCases, pageable, cachedTotal);
+        }
+        long generation = changeTracker.generation();
+        return findPageAndCount(listProjection(new Query(criteria).with(pageable)), new Query(criteria), pageable,
+                filterKey, total -> countCache.put(filterKey, generation, total));
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Page query on the calling thread, count on a virtual thread at the same time,
+     * so a list request costs one round trip instead of two (sequentially when parallelCount is off).
+     * The count is bounded by countTimeoutMs both on the server (maxTimeMS) and here (the wait is cancelled):
+     * past the budget the page is returned with a lower bound total, computed like TotalCountMode.NONE
+     * from one look-ahead row, instead of holding the servlet thread or failing the request.
+     */
+    private Page<DebtCase> findPageAndCount(Query pageQuery, Query countQuery, Pageable pageable, String filterKey,
+                                            LongConsumer onCounted) {
+        countQuery.maxTime(Duration.ofMillis(countTimeoutMs));
+        if (pageable.isPaged()) {
+            pageQuery.limit(pageable.getPageSize() + 1); // look-ahead row, only used if the count gives up
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(countTimeoutMs);
+        Future<Long> count = parallelCount ? countExecutor.submit(() -> mongoTemplate.count(countQuery, DebtCase.class)) : null;
+        List<DebtCase> rows;
+        try {
+            rows = mongoTemplate.find(pageQuery, DebtCase.class);
+        } catch (RuntimeException e) {
+            if (count != null) {
+                count.cancel(true);
+            }
+            throw e;
+        }
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<DebtCase> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+
+        if (count == null) {
+            try {
+                long total = mongoTemplate.count(countQuery, DebtCase.class);
+                onCounted.accept(total);
+                return new PageImpl<>(content, pageable, total);
+            } catch (RuntimeException e) {
+                if (!isTimeout(e)) {
+                    throw e;
+                }
+                return lowerBoundPage(content, pageable, hasNext, filterKey);
+            }
+        }
+        try {
+            long total = count.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            onCounted.accept(total);
+            return new PageImpl<>(content, pageable, total);
+        } catch (TimeoutException | ExecutionException e) {
+            count.cancel(true);
+            if (e instanceof ExecutionException && !isTimeout(e.getCause())) {
+                throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+            }
+            return lowerBoundPage(content, pageable, hasNext, filterKey);
+        } catch (InterruptedException e) {
+            count.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while counting debt cases", e);
+        }
+    }
+
+    private Page<DebtCase> lowerBoundPage(List<DebtCase> content, Pageable pageable, boolean hasNext, String filterKey) {
+        // The response carries no exact total: logged with the filter so slow counts can be traced to their filters
+        log.warn("Count exceeded {} ms, returning a lower bound total for filter {}", countTimeoutMs, filterKey);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        return new PageImpl<>(content, pageable, offset + content.size() + (hasNext ? 1 : 0));
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof MongoExecutionTimeoutException || t instanceof QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    void shutdownCountExecutor() {
+        countExecutor.shutdownNow();
+    }
+
+    @Override
+    public KeysetSlice<DebtCase> findByFiltersKeyset(DebtCaseFilterRequest filter, Sort sort, int size, String cursor) {
+        List<Sort.Order> keyOrders = DebtCaseKeysetCursor.keyOrders(sort);
+        Criteria criteria = buildCriteria(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            // CUSTOM IMPLEMENTATION: keyset predicate kept in a separate $and branch to avoid clashing with filter keys
+            criteria = new Criteria().andOperator(criteria, DebtCaseKeysetCursor.afterCriteria(keyOrders, cursor));
+        }
+        // Look ahead one row to know whether a next slice exists without counting
+        Query query = listProjection(new Query(criteria)
+                .with(DebtCaseKeysetCursor.querySort(keyOrders))
+                .limit(size + 1));
+        List<DebtCase> rows = mongoTemplate.find(query, DebtCase.class);
+        if (rows.size() <= size) {
+            return new KeysetSlice<>(rows, size, null);
+        }
+        List<DebtCase> content = rows.subList(0, size);
+        return new KeysetSlice<>(content, size, DebtCaseKeysetCursor.encode(keyOrders, content.get(size - 1)));
+    }
+
+    @Override
+    public Page<DebtCase> searchText(String text, DebtCaseFilterRequest filter, Pageable pageable) {
+        Criteria criteria = buildCriteria(filter);
+        TextCriteria textCriteria = TextCriteria.forLanguage(TEXT_LANGUAGE).matching(text);
+
+        Query query = listProjection(TextQuery.queryText(textCriteria).sortByScore()
+                .addCriteria(criteria)
+                .with(pageable));
+        return findPageAndCount(query, new Query(textCriteria).addCriteria(criteria), pageable,
+                "text " + filter.normalizedKey(), total -> { });
+    }
+
+    @Override
+    public Stream<DebtCase> streamByFilters(DebtCaseFilterRequest filter, Sort sort, int batchSize) {
+        Query query = listProjection(new Query(buildCriteria(filter)).with(sort));
+        query.cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, DebtCase.class);
+    }
+
+    @Override
+    public DebtCaseFacets<DebtCase> findFacets(DebtCaseFilterRequest filter, Pageable pageable) {
+        FacetOperation facets = Aggregation.facet(Aggregation.count().as(FACET_COUNT)).as("total")
+                .and(bucketCount("currentState")).as("states")
+                .and(bucketCount("paid")).as("paid")
+                .and(bucketCount("hasInstallmentPlan")).as("hasInstallmentPlan")
+                .and(bucketCount("ongoingNegotiations")).as("ongoingNegotiations");
+        if (pageable.isPaged()) {
+            Sort sort = pageable.getSort().and(Sort.by(Sort.Direction.ASC, "id"));
+            facets = facets.and(
+                    Aggregation.sort(sort),
+                    Aggregation.skip(pageable.getOffset()),
+                    Aggregation.limit(pageable.getPageSize()),
+                    Aggregation.stage(new Document("$project", storedListFields()))
+            ).as("rows");
+        }
+        TypedAggregation<DebtCase> aggregation = Aggregation.newAggregation(DebtCase.class,
+                Aggregation.match(buildCriteria(filter)), facets);
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+
+        List<Document> total = result.getList("total", Document.class);
+        List<DebtCase> rows = null;
+        if (pageable.isPaged()) {
+            rows = result.getList("rows", Document.class).stream()
+                    .map(row -> mongoTemplate.getConverter().read(DebtCase.class, row))
+                    .toList();
+        }
+        Map<String, Long> states = new LinkedHashMap<>();
+        for (CaseState caseState : CaseState.values()) {
+            states.put(caseState.name(), 0L);
+        }
+        return new DebtCaseFacets<>(
+                total.isEmpty() ? 0 : ((Number) total.get(0).get(FACET_COUNT)).longValue(),
+                buckets(result, "states", states),
+                buckets(result, "paid", booleanBuckets()),
+                buckets(result, "hasInstallmentPlan", booleanBuckets()),
+                buckets(result, "ongoingNegotiations", booleanBuckets()),
+                rows);
+    }
+
+    @Override
+    public DebtCaseSummaryCounts summarizeActive(LocalDate referenceDate, int horizonDays) {
+        Date dayStart = startOfDay(referenceDate);
+        FacetOperation facets = Aggregation.facet(Aggregation.group()
+                        .count().as(FACET_COUNT)
+                        .sum(deadlineWithin(ANY_DATE, dayStart)).as("overdue")
+                        .sum(deadlineWithin(dayStart, startOfDay(referenceDate.plusDays(1)))).as("dueToday")
+                        .sum(deadlineWithin(dayStart, startOfDay(referenceDate.plusDays(8)))).as("dueNext7Days")
+                        .sum(deadlineWithin(dayStart, startOfDay(referenceDate.plusDays(horizonDays + 1L)))).as("dueWithinHorizon"))
+                .as("totals")
+                .and(bucketCount("currentState")).as("states");
+        TypedAggregation<DebtCase> aggregation = Aggregation.newAggregation(DebtCase.class,
+                Aggregation.match(Criteria.where("currentState").ne(CaseState.COMPLETATA)), facets);
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+
+        Map<String, Long> states = new LinkedHashMap<>();
+        for (CaseState caseState : CaseState.values()) {
+            if (caseState != CaseState.COMPLETATA) {
+                states.put(caseState.name(), 0L);
+            }
+        }
+        List<Document> totals = result.getList("totals", Document.class);
+        Document counts = totals.isEmpty() ? new Document() : totals.get(0);
+        return new DebtCaseSummaryCounts(
+                count(counts, FACET_COUNT),
+                count(counts, "overdue"),
+                count(counts, "dueToday"),
+                count(counts, "dueNext7Days"),
+                count(counts, "dueWithinHorizon"),
+                buckets(result, "states", states));
+    }
+
+    /**
+     * 1 when nextDeadlineDate is in [from, to), 0 otherwise or when there is no deadline.
+     */
+    private static ConditionalOperators.Cond deadlineWithin(Date from, Date to) {
+        ComparisonOperators.ComparisonOperatorFactory deadline = ComparisonOperators.valueOf("nextDeadlineDate");
+        return ConditionalOperators.when(BooleanOperators.And.and(
+                        deadline.greaterThanEqualToValue(from),
+                        deadline.lessThanValue(to)))
+                .then(1).otherwise(0);
+    }
+
+    private static Date startOfDay(LocalDate day) {
+        // Same zone used by the converter to store LocalDateTime values as BSON dates
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static long count(Document counts, String key) {
+        Object value = counts.get(key);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
 
-        if (debtorName != null && !debtorName.trim().isEmpty()) {
-            criteria.and("debtorName").regex(debtorName.trim(), "i");
+    /**
+     * List projection with stored field names: an aggregation $project would otherwise rename fields
+     * to the property names and the rows could no longer be read back as DebtCase.
+     */
+    private Document storedListFields() {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(DebtCase.class);
+        Document projection = new Document();
+        for (String property : LIST_FIELDS) {
+            projection.append(entity.getRequiredPersistentProperty(property).getFieldName(), 1);
+        }
+        return projection.append(entity.getRequiredPersistentProperty("payments").getFieldName() + ".amount", 1);
+    }
+
+    private static GroupOperation bucketCount(String field) {
+        return Aggregation.group(field).count().as(FACET_COUNT);
+    }
+
+    private static Map<String, Long> booleanBuckets() {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        buckets.put("true", 0L);
+        buckets.put("false", 0L);
+        return buckets;
+    }
+
+    private static Map<String, Long> buckets(Document result, String facet, Map<String, Long> buckets) {
+        for (Document bucket : result.getList(facet, Document.class)) {
+            buckets.put(String.valueOf(bucket.get("_id")), ((Number) bucket.get(FACET_COUNT)).longValue());
+        }
+        return buckets;
+    }
+
+    @Override
+    public List<DeadlineDayCount> deadlineHistogram(DebtCaseFilterRequest filter, LocalDate from, LocalDate to) {
+        // Own $and branch: the filter may carry its own nextDeadlineFrom/To on the same field
+        Criteria range = Criteria.where("nextDeadlineDate").gte(startOfDay(from)).lt(startOfDay(to.plusDays(1)));
+        TypedAggregation<DebtCase> aggregation = Aggregation.newAggregation(DebtCase.class,
+                Aggregation.match(new Criteria().andOperator(buildCriteria(filter), range)),
+                Aggregation.project("owedAmount")
+                        .and(DateOperators.dateOf("nextDeadlineDate")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                                .toString("%Y-%m-%d")).as("day"),
+                Aggregation.group("day").count().as(FACET_COUNT).sum("owedAmount").as("owedAmount"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults().stream()
+                .map(day -> new DeadlineDayCount(
+                        LocalDate.parse(day.getString("_id")),
+                        ((Number) day.get(FACET_COUNT)).longValue(),
+                        day.get("owedAmount") instanceof Number amount ? amount.doubleValue() : 0))
+                .toList();
+    }
+
+    @Override
+    public List<FinancialAggregate> financialAggregates(LocalDate from, LocalDate toExclusive) {
+        DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+        TypedAggregation<DebtCase> aggregation = Aggregation.newAggregation(DebtCase.class,
+                Aggregation.match(Criteria.where("createdDate").gte(startOfDay(from)).lt(startOfDay(toExclusive))),
+                // One row per payment (cases without payments kept once), then back to one row per case:
+                // owedAmount must be counted once per case, not once per payment
+                Aggregation.unwind("payments", true),
+                Aggregation.group("id")
+                        .first(DateOperators.dateOf("createdDate").withTimezone(timezone).toString("%Y-%m")).as("month")
+                        .first("currentState").as("state")
+                        .first("owedAmount").as("owedAmount")
+                        .sum("payments.amount").as("paidAmount"),
+                Aggregation.group("month", "state")
+                        .count().as(FACET_COUNT)
+                        .sum("owedAmount").as("owedAmount")
+                        .sum("paidAmount").as("paidAmount"),
+                Aggregation.sort(Sort.Direction.ASC, "_id.month", "_id.state"));
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults().stream()
+                .map(row -> {
+                    Document key = row.get("_id", Document.class);
+                    return new FinancialAggregate(
+                            key.getString("month"),
+                            key.getString("state") != null ? CaseState.valueOf(key.getString("state")) : null,
+                            ((Number) row.get(FACET_COUNT)).longValue(),
+                            row.get("owedAmount") instanceof Number owed ? owed.doubleValue() : 0,
+                            row.get("paidAmount") instanceof Number paid ? paid.doubleValue() : 0);
+                })
+                .toList();
+    }
+
+    @Override
+    public Optional<DebtCase> appendPayment(String debtCaseId, Payment payment, String modifiedBy) {
+        DebtCase updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(debtCaseId)),
+                paymentUpdate(List.of(payment), modifiedBy),
+                FindAndModifyOptions.options().returnNew(true),
+                DebtCase.class);
+        if (updated != null) {
+            // findAndModify publishes no save event: notify derived caches and counters explicitly
+            changeTracker.markChanged(updated);
+        }
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public PaymentAppendResult appendPayments(Map<String, List<Payment>> paymentsByCase, String modifiedBy) {
+        if (paymentsByCase.isEmpty()) {
+            return new PaymentAppendResult(Set.of(), Map.of());
         }
+        List<String> caseIds = new ArrayList<>(paymentsByCase.keySet());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class);
+        for (String debtCaseId : caseIds) {
+            bulk.updateOne(new Query(Criteria.where("id").is(debtCaseId)), paymentUpdate(paymentsByCase.get(debtCaseId), modifiedBy));
+        }
+        Map<String, String> failed = new LinkedHashMap<>();
+        long matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            // Unordered: the other cases are updated even when some operations fail
+            for (BulkWriteError error : e.getErrors()) {
+                failed.put(caseIds.get(error.getIndex()), error.getMessage());
+            }
+            matched = e.getResult().getMatchedCount();
+        } finally {
+            // Bulk writes publish no save event: notify the written cases
+            publishChanged(caseIds);
+        }
+
+        Set<String> updated = new LinkedHashSet<>(caseIds);
+        updated.removeAll(failed.keySet());
+        if (matched < updated.size()) {
+            // The bulk result has no per operation match count: the written cases are the ones holding their new payments
+            Set<String> written = findIdsHoldingPayments(updated, paymentsByCase);
+            for (String debtCaseId : updated) {
+                if (!written.contains(debtCaseId)) {
+                    failed.put(debtCaseId, "DebtCase not found with id: " + debtCaseId);
+                }
+            }
+            updated.retainAll(written);
+        }
+        return new PaymentAppendResult(updated, failed);
+    }
+
+    private Set<String> findIdsHoldingPayments(Collection<String> debtCaseIds, Map<String, List<Payment>> paymentsByCase) {
+        List<String> paymentIds = debtCaseIds.stream()
+                .map(debtCaseId -> paymentsByCase.get(debtCaseId).get(0).getPaymentId())
+                .toList();
+        Query query = new Query(Criteria.where("id").in(debtCaseIds).and("payments.paymentId").in(paymentIds));
+        query.fields().include("id");
+        Set<String> ids = new HashSet<>();
+        for (DebtCase debtCase : mongoTemplate.find(query, DebtCase.class)) {
+            ids.add(debtCase.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public List<DebtCase> findInstallmentKeys(Collection<String> debtCaseIds) {
+        Query query = new Query(Criteria.where("id").in(debtCaseIds));
+        query.fields().include("installments.installmentId", "installments.paid");
+        return mongoTemplate.find(query, DebtCase.class);
+    }
+
+    @Override
+    public long countForTransition(DebtCaseFilterRequest filter, CaseState targetState) {
+        return mongoTemplate.count(new Query(transitionCriteria(filter, targetState)), DebtCase.class);
+    }
+
+    @Override
+    public List<String> findIdsForTransition(DebtCaseFilterRequest filter, CaseState targetState, String afterId, int limit) {
+        Criteria criteria = transitionCriteria(filter, targetState);
+        if (afterId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("id").gt(afterId));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        query.fields().include("id");
+        return mongoTemplate.find(query, DebtCase.class).stream().map(DebtCase::getId).toList();
+    }
+
+    @Override
+    public long transitionState(Collection<String> debtCaseIds, DebtCaseFilterRequest filter, CaseState targetState,
+                                LocalDateTime stateDate, LocalDateTime nextDeadlineDate, String modifiedBy) {
+        if (debtCaseIds.isEmpty()) {
+            return 0;
+        }
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("id").in(debtCaseIds), transitionCriteria(filter, targetState)));
+        Update update = new Update()
+                .set("currentState", targetState)
+                .set("currentStateDate", stateDate)
+                .set("lastModifiedDate", LocalDateTime.now())
+                .set("lastModifiedBy", modifiedBy)
+                // Copies loaded before this update become stale: their save() fails and is retried
+                .inc("version", 1);
+        if (nextDeadlineDate != null) {
+            update.set("nextDeadlineDate", nextDeadlineDate);
+        } else {
+            update.unset("nextDeadlineDate");
+        }
+        try {
+            return mongoTemplate.updateMulti(query, update, DebtCase.class).getModifiedCount();
+        } finally {
+            // updateMulti publishes no save event: notify the cases of the chunk
+            publishChanged(debtCaseIds);
+        }
+    }
+
+    @Override
+    public long countForDeadlineRecompute(Collection<CaseState> states) {
+        return mongoTemplate.count(new Query(deadlineRecomputeCriteria(states)), DebtCase.class);
+    }
+
+    @Override
+    public List<DebtCase> findDeadlineKeys(Collection<CaseState> states, String afterId, int limit) {
+        Criteria criteria = deadlineRecomputeCriteria(states);
+        if (afterId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("id").gt(afterId));
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+        query.fields().include("id", "currentState", "currentStateDate", "nextDeadlineDate", "version");
+        return mongoTemplate.find(query, DebtCase.class);
+    }
+
+    @Override
+    public long updateDeadlines(List<DebtCase> debtCases, String modifiedBy) {
+        if (debtCases.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (DebtCase debtCase : debtCases) {
+            // The deadline was computed from these values: a case moved or written meanwhile (e.g. a deadline
+            // set by hand after the keys were read) keeps its own
+            Query query = new Query(Criteria.where("id").is(debtCase.getId())
+                    .and("currentState").is(debtCase.getCurrentState())
+                    .and("currentStateDate").is(debtCase.getCurrentStateDate())
+                    .and("version").is(debtCase.getVersion())
+                    .and("hasInstallmentPlan").ne(true));
+            bulk.updateOne(query, new Update()
+                    .set("nextDeadlineDate", debtCase.getNextDeadlineDate())
+                    .set("lastModifiedDate", now)
+                    .set("lastModifiedBy", modifiedBy)
+                    .inc("version", 1));
+        }
+        try {
+            return bulk.execute().getModifiedCount();
+        } finally {
+            // Bulk writes publish no save event: notify the cases of the chunk
+            publishChanged(debtCases.stream().map(DebtCase::getId).toList());
+        }
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Change notification of a bulk write on known cases. State and deadline of the cases are
+     * re-read (one indexed query per chunk) and published as per-document changes, so the in-memory models apply
+     * them instead of reloading the whole collection; cases the write did not modify are published unchanged.
+     * Only if the re-read fails do they fall back to a full resync.
+     */
+    private void publishChanged(Collection<String> debtCaseIds) {
+        List<DebtCase> keys;
+        try {
+            Query query = new Query(Criteria.where("id").in(debtCaseIds));
+            query.fields().include(SUMMARY_FIELDS);
+            keys = mongoTemplate.find(query, DebtCase.class);
+        } catch (RuntimeException e) {
+            log.warn("Changed cases not re-read, resynchronizing derived models: {}", e.getMessage());
+            changeTracker.markChanged();
+            return;
+        }
+        changeTracker.markChanged(keys);
+    }
+
+    private static Criteria deadlineRecomputeCriteria(Collection<CaseState> states) {
+        return new Criteria().andOperator(
+                Criteria.where("currentState").in(states).ne(CaseState.COMPLETATA),
+                Criteria.where("hasInstallmentPlan").ne(true));
+    }
+
+    private Criteria transitionCriteria(DebtCaseFilterRequest filter, CaseState targetState) {
+        return new Criteria().andOperator(buildCriteria(filter), Criteria.where("currentState").ne(targetState));
+    }
+
+    /**
+     * Pipeline update appending the payments (registerPayment semantics). Within a $set stage every expression
+     * reads the input document, so the stages run in order:
+     * 1. append payments, increment paid_total, mark the referenced installments paid, bump the version
+     * 2. (installment payments only) next deadline = earliest unpaid installment, as registerInstallmentPayment
+     * 3. fully paid and not COMPLETATA: paid, COMPLETATA, no deadline - these depend on the incremented total,
+     *    which plain $push/$inc cannot express in the same update
+     */
+    private AggregationUpdate paymentUpdate(List<Payment> newPayments, String modifiedBy) {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(DebtCase.class);
+        String payments = entity.getRequiredPersistentProperty("payments").getFieldName();
+        String paidTotal = entity.getRequiredPersistentProperty("paidTotal").getFieldName();
+        String owedAmount = entity.getRequiredPersistentProperty("owedAmount").getFieldName();
+        String currentState = entity.getRequiredPersistentProperty("currentState").getFieldName();
+        String currentStateDate = entity.getRequiredPersistentProperty("currentStateDate").getFieldName();
+        String nextDeadlineDate = entity.getRequiredPersistentProperty("nextDeadlineDate").getFieldName();
+        String paid = entity.getRequiredPersistentProperty("paid").getFieldName();
+        String notes = entity.getRequiredPersistentProperty("notes").getFieldName();
+        String lastModifiedDate = entity.getRequiredPersistentProperty("lastModifiedDate").getFieldName();
+        String lastModifiedBy = entity.getRequiredPersistentProperty("lastModifiedBy").getFieldName();
+        String version = entity.getRequiredVersionProperty().getFieldName();
+
+        List<Document> paymentDocuments = new ArrayList<>();
+        double amount = 0;
+        Map<String, Date> paidInstallments = new LinkedHashMap<>();
+        for (Payment payment : newPayments) {
+            Document paymentDocument = new Document();
+            mongoTemplate.getConverter().write(payment, paymentDocument);
+            paymentDocument.remove("_class"); // embedded payments are stored without type hint
+            paymentDocuments.add(new Document("$literal", paymentDocument));
+            amount += payment.getAmount();
+            if (payment.getInstallmentId() != null) {
+                paidInstallments.put(payment.getInstallmentId(), toDate(payment.getPaymentDate().atStartOfDay()));
+            }
+        }
+        Date now = toDate(LocalDateTime.now());
+
+        Document push = new Document()
+                .append(payments, new Document("$concatArrays", List.of(
+                        new Document("$ifNull", List.of("$" + payments, List.of())),
+                        paymentDocuments)))
+                // Cases saved before paid_total existed start from the sum of their payments
+                .append(paidTotal, new Document("$add", List.of(
+                        new Document("$ifNull", List.of("$" + paidTotal, new Document("$sum", "$" + payments + ".amount"))),
+                        amount)))
+                .append(lastModifiedDate, now)
+                // No save(): auditing does not run, the modifier is set like the date
+                .append(lastModifiedBy, new Document("$literal", modifiedBy))
+                // Copies loaded before this update become stale: their save() fails and is retried
+                .append(version, new Document("$add", List.of(new Document("$ifNull", List.of("$" + version, 0L)), 1L)));
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.stage(new Document("$set", push)));
+
+        if (!paidInstallments.isEmpty()) {
+            MongoPersistentEntity<?> installment = mappingContext.getRequiredPersistentEntity(Installment.class);
+            String installments = entity.getRequiredPersistentProperty("installments").getFieldName();
+            String installmentId = installment.getRequiredPersistentProperty("installmentId").getFieldName();
+            String installmentPaid = installment.getRequiredPersistentProperty("paid").getFieldName();
+            String dueDate = installment.getRequiredPersistentProperty("dueDate").getFieldName();
+            List<Document> branches = new ArrayList<>();
+            paidInstallments.forEach((id, paidDate) -> branches.add(new Document()
+                    .append("case", new Document("$and", List.of(
+                            new Document("$eq", List.of("$$i." + installmentId, id)),
+                            new Document("$ne", List.of("$$i." + installmentPaid, true)))))
+                    .append("then", new Document("$mergeObjects", List.of("$$i", new Document()
+                            .append(installmentPaid, true)
+                            .append(installment.getRequiredPersistentProperty("paidDate").getFieldName(), paidDate)
+                            .append(installment.getRequiredPersistentProperty("lastModifiedDate").getFieldName(), now)
+                            .append(installment.getRequiredPersistentProperty("lastModifiedBy").getFieldName(), new Document("$literal", modifiedBy)))))));
+            push.append(installments, new Document("$map", new Document()
+                    .append("input", new Document("$ifNull", List.of("$" + installments, List.of())))
+                    .append("as", "i")
+                    .append("in", new Document("$switch", new Document("branches", branches).append("default", "$$i")))));
+
+            Document earliestUnpaid = new Document("$min", new Document("$map", new Document()
+                    .append("input", new Document("$filter", new Document()
+                            .append("input", "$" + installments)
+                            .append("as", "i")
+                            .append("cond", new Document("$ne", List.of("$$i." + installmentPaid, true)))))
+                    .append("as", "i")
+                    .append("in", "$$i." + dueDate)));
+            stages.add(Aggregation.stage(new Document("$set", new Document(nextDeadlineDate, new Document("$cond", List.of(
+                    new Document("$eq", List.of("$" + entity.getRequiredPersistentProperty("hasInstallmentPlan").getFieldName(), true)),
+                    new Document("$ifNull", List.of(earliestUnpaid, now)),
+                    "$" + nextDeadlineDate))))));
+        }
+
+        Document completes = new Document("$and", List.of(
+                new Document("$gte", List.of("$" + paidTotal, "$" + owedAmount)),
+                new Document("$ne", List.of("$" + currentState, CaseState.COMPLETATA.name()))));
+        stages.add(Aggregation.stage(new Document("$set", new Document()
+                .append(currentState, ifCompletes(completes, CaseState.COMPLETATA.name(), currentState))
+                .append(currentStateDate, ifCompletes(completes, now, currentStateDate))
+                .append(paid, ifCompletes(completes, true, paid))
+                .append(nextDeadlineDate, ifCompletes(completes, "$$REMOVE", nextDeadlineDate))
+                .append(notes, ifCompletes(completes, "Case automatically marked as COMPLETATA after payment registration", notes)))));
+        return AggregationUpdate.from(stages);
+    }
+
+    private static Document ifCompletes(Document completes, Object then, String field) {
+        return new Document("$cond", List.of(completes, then, "$" + field));
+    }
+
+    @Override
+    public Stream<DebtCase> streamActiveSummaryKeys() {
+        Query query = new Query(Criteria.where("currentState").ne(CaseState.COMPLETATA));
+        query.fields().include(SUMMARY_FIELDS);
+        query.cursorBatchSize(SUMMARY_BATCH_SIZE);
+        return mongoTemplate.stream(query, DebtCase.class);
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: List projection - scalar fields plus payments.amount only
+     * (needed for the paid/remaining totals); installments and the rest of each payment stay on the server.
+     */
+    private Query listProjection(Query query) {
+        query.fields()
+                .include(LIST_FIELDS)
+                .include("payments.amount");
+        return query;
+    }
+
+    /**
+     * Filter criteria of GET /cases, also used by DebtCaseIndexManager to explain the supported query shapes.
+     */
+    public Criteria buildCriteria(DebtCaseFilterRequest f) {
+        return buildCriteria(f.getDebtorName(), f.getDebtorNameMatch(), f.getState(), f.getStates(), f.getMinAmount(), f.getMaxAmount(),
+                f.getHasInstallmentPlan(), f.getPaid(), f.getOngoingNegotiations(), f.getNotes(),
+                f.getNextDeadlineFrom(), f.getNextDeadlineTo(), f.getCurrentStateFrom(), f.getCurrentStateTo(),
+                f.getCreatedFrom(), f.getCreatedTo(), f.getLastModifiedFrom(), f.getLastModifiedTo());
+    }
+
+    private Criteria buildCriteria(
+            String debtorName,
+            DebtorNameMatch debtorNameMatch,
+            CaseState state,
+            List<CaseState> states,
+            BigDecimal minAmount,
+            BigDecimal maxAmount,
+            Boolean hasInstallmentPlan,
+            Boolean paid,
+            Boolean ongoingNegotiations,
+            String notes,
+            LocalDate nextDeadlineFrom,
+            LocalDate nextDeadlineTo,
+            LocalDate currentStateFrom,
+            LocalDate currentStateTo,
+            LocalDate createdFrom,
+            LocalDate createdTo,
+            LocalDate lastModifiedFrom,
+            LocalDate lastModifiedTo) {
+
+        Criteria criteria = new Criteria();
+
+        // CUSTOM IMPLEMENTATION: Index-backed match on the normalized search keys (input quoted, never a raw regex)
+        DebtorNameSearch.addCriteria(criteria, debtorName, debtorNameMatch);
 
         if (state != null) {
             criteria.and("currentState").is(state);
@@ -122,9 +873,6 @@ public class DebtCaseRepositoryCustomImpl implements DebtCaseRepositoryCustom {
             }
         }
 
-        Query query = new Query(criteria).with(pageable);
-        List<DebtCase> debtCases = mongoTemplate.find(query, DebtCase.class);
-        long total = mongoTemplate.count(new Query(criteria), DebtCase.class);
-        return new PageImpl<>(debtCases, pageable, total);
+        return criteria;
     }
 }
@@ -0,0 +1,16 @@
+package com.debtcollection.repository;
+
+import java.util.Map;
+
+/**
+ * CUSTOM IMPLEMENTATION: Deadline window and per state counts of the active (non COMPLETATA) cases,
+ * relative to a reference day. Windows are whole days, the reference day included.
+ */
+public record DebtCaseSummaryCounts(
+        long totalActive,
+        long overdue,           // deadline before the reference day
+        long dueToday,          // deadline on the reference day
+        long dueNext7Days,      // reference day .. reference day + 7
+        long dueWithinHorizon,  // reference day .. reference day + horizonDays
+        Map<String, Long> states
+) {}
@@ -0,0 +1,64 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.dto.DebtCaseFilterRequest.DebtorNameMatch;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * CUSTOM IMPLEMENTATION: Normalized debtor name keys and the matching criteria built on them.
+ * Stored keys and user input go through the same normalization (accents folded, lower-case,
+ * punctuation collapsed to single spaces), so matching is a case-sensitive regex anchored at the start:
+ * MongoDB turns it into a bounded index scan. User input is always quoted, never interpreted as a regex.
+ */
+public final class DebtorNameSearch {
+
+    public static final String SEARCH_PROPERTY = "debtorNameSearch";
+    public static final String TOKENS_PROPERTY = "debtorNameTokens";
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private DebtorNameSearch() {
+    }
+
+    /**
+     * "  D'Àngelo,  Mario " -> "d angelo mario"
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    public static List<String> tokens(String value) {
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(normalized.split(" ")).distinct().toList();
+    }
+
+    /**
+     * Adds the name condition to the given criteria; blank or punctuation-only input adds nothing.
+     */
+    public static void addCriteria(Criteria criteria, String input, DebtorNameMatch match) {
+        String normalized = normalize(input);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        switch (match != null ? match : DebtorNameMatch.TOKEN) {
+            case PREFIX -> criteria.and(SEARCH_PROPERTY).regex("^" + Pattern.quote(normalized));
+            case TOKEN -> criteria.and(TOKENS_PROPERTY).all(tokens(normalized).stream()
+                    .map(token -> Pattern.compile("^" + Pattern.quote(token)))
+                    .toArray());
+            case CONTAINS -> criteria.and(SEARCH_PROPERTY).regex(Pattern.quote(normalized));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.DebtCase;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * CUSTOM IMPLEMENTATION: Keeps the derived debtor name search keys in sync on every save.
+ */
+@Component
+public class DebtorNameSearchListener extends AbstractMongoEventListener<DebtCase> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<DebtCase> event) {
+        DebtCase debtCase = event.getSource();
+        debtCase.setDebtorNameSearch(debtCase.getDebtorName() != null ? DebtorNameSearch.normalize(debtCase.getDebtorName()) : null);
+        debtCase.setDebtorNameTokens(debtCase.getDebtorName() != null ? DebtorNameSearch.tokens(debtCase.getDebtorName()) : null);
+    }
+}
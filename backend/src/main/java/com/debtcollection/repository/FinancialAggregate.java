@@ -0,0 +1,8 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.CaseState;
+
+/**
+ * CUSTOM IMPLEMENTATION: Owed and collected totals of the cases created in a month (yyyy-MM) in a given state.
+ */
+public record FinancialAggregate(String month, CaseState state, long cases, double owedAmount, double paidAmount) {}
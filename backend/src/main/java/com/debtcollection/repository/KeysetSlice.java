@@ -0,0 +1,19 @@
+package com.debtcollection.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CUSTOM IMPLEMENTATION: Result of a keyset (cursor) paginated query.
+ * nextCursor is the opaque continuation token for the following slice, null when there are no more rows.
+ */
+public record KeysetSlice<T>(List<T> content, int size, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> KeysetSlice<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetSlice<>(content.stream().<R>map(mapper).toList(), size, nextCursor);
+    }
+}
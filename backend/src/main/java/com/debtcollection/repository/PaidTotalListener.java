@@ -0,0 +1,27 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Payment;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * CUSTOM IMPLEMENTATION: Keeps the stored paid total in sync with the payments array on every save
+ * (payment updates/deletions and installment payments still rewrite the whole case).
+ */
+@Component
+public class PaidTotalListener extends AbstractMongoEventListener<DebtCase> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<DebtCase> event) {
+        DebtCase debtCase = event.getSource();
+        debtCase.setPaidTotal(debtCase.getPayments() != null ? debtCase.getPayments().stream()
+                .filter(Objects::nonNull)
+                .map(Payment::getAmount)
+                .filter(Objects::nonNull)
+                .reduce(0.0, Double::sum) : 0.0);
+    }
+}
@@ -0,0 +1,13 @@
+package com.debtcollection.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CUSTOM IMPLEMENTATION: Per case outcome of an appendPayments bulk write: the cases whose update was written
+ * and, for the others, why not (case deleted after the import checks, write error of that operation).
+ */
+public record PaymentAppendResult(
+        Set<String> updated,
+        Map<String, String> failed
+) {}
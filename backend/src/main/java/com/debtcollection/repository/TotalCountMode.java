@@ -0,0 +1,24 @@
+package com.debtcollection.repository;
+
+/**
+ * CUSTOM IMPLEMENTATION: How the listing path computes the page total.
+ * EXACT  - count query on every call (default, refreshes the cache)
+ * CACHED - count reused per normalized filter until the next debt case write
+ * NONE   - no count: one extra row is fetched to know if a next page exists
+ */
+public enum TotalCountMode {
+    EXACT,
+    CACHED,
+    NONE;
+
+    public static TotalCountMode fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return TotalCountMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid count mode: " + value + " (allowed: exact, cached, none)");
+        }
+    }
+}
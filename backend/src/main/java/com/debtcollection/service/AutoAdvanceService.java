@@ -0,0 +1,165 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.AutoAdvanceReportDto;
+import com.debtcollection.dto.AutoAdvanceReportDto.Transition;
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.StateTransitionConfig;
+import com.debtcollection.repository.DebtCaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CUSTOM IMPLEMENTATION: Automatic state advancement driven by StateTransitionConfig.
+ * A case is due when its nextDeadlineDate is before the reference day and it is not COMPLETATA, paid,
+ * on an installment plan (the deadline is the next installment) or under negotiation.
+ * Due cases of each configured fromState move to its toState with the deadline of the new state, as a manual
+ * state change would. Cases are walked in _id order, chunkSize ids at a time, one updateMulti per chunk
+ * (same path as the bulk transition): memory stays bounded whatever the number of due cases, and a case
+ * changed meanwhile is skipped by the update itself. Moved cases get a future deadline, so one run never
+ * advances a case twice.
+ */
+@Slf4j
+@Service
+public class AutoAdvanceService {
+
+    static final String AUDITOR = "system";
+    static final int KEPT_REPORTS = 20;
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final StateTransitionService stateTransitionService;
+    private final boolean enabled;
+    private final boolean scheduledDryRun;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Deque<AutoAdvanceReportDto> reports = new ArrayDeque<>();
+
+    public AutoAdvanceService(DebtCaseRepository debtCaseRepository, StateTransitionService stateTransitionService,
+                              @Value("${debtcollection.auto-advance.enabled:false}") boolean enabled,
+                              @Value("${debtcollection.auto-advance.dry-run:false}") boolean scheduledDryRun,
+                              @Value("${debtcollection.auto-advance.chunk-size:1000}") int chunkSize) {
+        this.debtCaseRepository = debtCaseRepository;
+        this.stateTransitionService = stateTransitionService;
+        this.enabled = enabled;
+        this.scheduledDryRun = scheduledDryRun;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Scheduled(cron = "${debtcollection.auto-advance.cron:0 30 1 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run(scheduledDryRun);
+        } catch (IllegalStateException e) {
+            log.warn("Scheduled auto-advance skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Advances (or, with dryRun, only counts) the cases due today. One run at a time.
+     */
+    public AutoAdvanceReportDto run(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An auto-advance run is already in progress");
+        }
+        try {
+            AutoAdvanceReportDto report = advance(LocalDate.now(), dryRun);
+            synchronized (reports) {
+                reports.addFirst(report);
+                while (reports.size() > KEPT_REPORTS) {
+                    reports.removeLast();
+                }
+            }
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Most recent runs first
+     */
+    public List<AutoAdvanceReportDto> recentReports() {
+        synchronized (reports) {
+            return List.copyOf(reports);
+        }
+    }
+
+    AutoAdvanceReportDto advance(LocalDate referenceDate, boolean dryRun) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Transition> transitions = new ArrayList<>();
+        long due = 0;
+        long advanced = 0;
+        String message = null;
+        try {
+            for (StateTransitionConfig config : stateTransitionService.configSnapshot().values()) {
+                CaseState fromState = config.getFromState();
+                CaseState toState = config.getToState();
+                if (fromState == CaseState.COMPLETATA || toState == null || toState == fromState) {
+                    continue;
+                }
+                DebtCaseFilterRequest filter = dueFilter(fromState, referenceDate);
+                LocalDateTime nextDeadline = nextDeadline(toState, startedAt);
+                long stateDue = debtCaseRepository.countForTransition(filter, toState);
+                long stateAdvanced = 0;
+                if (!dryRun && stateDue > 0) {
+                    stateAdvanced = advanceState(filter, toState, startedAt, nextDeadline);
+                }
+                due += stateDue;
+                advanced += stateAdvanced;
+                transitions.add(new Transition(fromState, toState, stateDue, stateAdvanced, nextDeadline));
+            }
+        } catch (Exception e) {
+            // States already advanced stay: the report lists them
+            message = e.getMessage();
+            log.warn("Auto-advance failed after {} cases: {}", advanced, e.getMessage());
+        }
+        log.info("Auto-advance{} for {}: {} due, {} advanced", dryRun ? " (dry run)" : "", referenceDate, due, advanced);
+        return new AutoAdvanceReportDto(dryRun, referenceDate, startedAt, LocalDateTime.now(), due, advanced,
+                List.copyOf(transitions), message);
+    }
+
+    private long advanceState(DebtCaseFilterRequest filter, CaseState toState, LocalDateTime stateDate, LocalDateTime nextDeadline) {
+        long advanced = 0;
+        String afterId = null;
+        List<String> ids;
+        do {
+            ids = debtCaseRepository.findIdsForTransition(filter, toState, afterId, chunkSize);
+            if (!ids.isEmpty()) {
+                advanced += debtCaseRepository.transitionState(ids, filter, toState, stateDate, nextDeadline, AUDITOR);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == chunkSize);
+        return advanced;
+    }
+
+    private static DebtCaseFilterRequest dueFilter(CaseState fromState, LocalDate referenceDate) {
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        filter.setState(fromState);
+        filter.setNextDeadlineTo(referenceDate.minusDays(1));
+        filter.setPaid(false);
+        filter.setHasInstallmentPlan(false);
+        filter.setOngoingNegotiations(false);
+        return filter;
+    }
+
+    private LocalDateTime nextDeadline(CaseState toState, LocalDateTime stateDate) {
+        // CUSTOM IMPLEMENTATION: null for completed
+        if (toState == CaseState.COMPLETATA) {
+            return null;
+        }
+        return stateTransitionService.calculateNextDeadline(toState, stateDate).atStartOfDay();
+    }
+}
@@ -0,0 +1,192 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.BulkTransitionStatusDto;
+import com.debtcollection.dto.BulkTransitionStatusDto.Status;
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.DebtCaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CUSTOM IMPLEMENTATION: Moves every case matching a GET /cases filter to a target state.
+ * All moved cases get the same currentStateDate (job start) and the deadline StateTransitionService computes
+ * for the target state, as updateDebtCase does for a single state change; COMPLETATA removes the deadline.
+ * The job walks the matching ids in _id order, chunkSize at a time, with one updateMulti per chunk:
+ * no case is loaded, and the progress (processed / matched) is available while it runs.
+ */
+@Slf4j
+@Service
+public class BulkTransitionService {
+
+    private static final String UNFILTERED = new DebtCaseFilterRequest().normalizedKey();
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final StateTransitionService stateTransitionService;
+    private final AuditorAware<String> auditorAware;
+    private final Executor executor;
+    private final int chunkSize;
+    private final long retentionHours;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BulkTransitionService(DebtCaseRepository debtCaseRepository, StateTransitionService stateTransitionService,
+                                 AuditorAware<String> auditorAware,
+                                 @Value("${debtcollection.bulk-transition.chunk-size:1000}") int chunkSize,
+                                 @Value("${debtcollection.bulk-transition.retention-hours:24}") long retentionHours) {
+        // One bulk transition at a time: overlapping filters are applied in submission order
+        this(debtCaseRepository, stateTransitionService, auditorAware, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "case-bulk-transition");
+            thread.setDaemon(true);
+            return thread;
+        }), chunkSize, retentionHours);
+    }
+
+    BulkTransitionService(DebtCaseRepository debtCaseRepository, StateTransitionService stateTransitionService,
+                          AuditorAware<String> auditorAware, Executor executor, int chunkSize, long retentionHours) {
+        this.debtCaseRepository = debtCaseRepository;
+        this.stateTransitionService = stateTransitionService;
+        this.auditorAware = auditorAware;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Number of cases the transition would move, with the dates they would get. Nothing is written.
+     */
+    public BulkTransitionStatusDto dryRun(DebtCaseFilterRequest filter, CaseState targetState) {
+        validate(filter, targetState);
+        LocalDateTime stateDate = LocalDateTime.now();
+        long matched = debtCaseRepository.countForTransition(filter, targetState);
+        return new BulkTransitionStatusDto(null, Status.DRY_RUN, targetState, stateDate, nextDeadline(targetState, stateDate),
+                null, null, matched, 0, 0, 0, null);
+    }
+
+    /**
+     * Queues the transition; the cases matching the filter when the job runs are moved.
+     */
+    public BulkTransitionStatusDto startTransition(DebtCaseFilterRequest filter, CaseState targetState) {
+        validate(filter, targetState);
+        String modifiedBy = auditorAware.getCurrentAuditor().orElse("system");
+        Job job = new Job(UUID.randomUUID().toString(), filter, targetState, modifiedBy);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        return job.status();
+    }
+
+    public Optional<BulkTransitionStatusDto> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::status);
+    }
+
+    void run(Job job) {
+        job.state = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            // Throws when the transition configuration cannot be loaded: the job fails instead of staying RUNNING
+            job.nextDeadlineDate = nextDeadline(job.targetState, job.startedAt);
+            job.matched = debtCaseRepository.countForTransition(job.filter, job.targetState);
+            String afterId = null;
+            List<String> ids;
+            do {
+                ids = debtCaseRepository.findIdsForTransition(job.filter, job.targetState, afterId, chunkSize);
+                if (!ids.isEmpty()) {
+                    job.updated += debtCaseRepository.transitionState(ids, job.filter, job.targetState,
+                            job.startedAt, job.nextDeadlineDate, job.modifiedBy);
+                    job.processed += ids.size();
+                    afterId = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == chunkSize);
+            job.state = Status.COMPLETED;
+            log.info("Bulk transition {} to {}: {} matched, {} updated", job.id, job.targetState, job.matched, job.updated);
+        } catch (Exception e) {
+            // Chunks already updated stay: the counters report how far the job got
+            job.state = Status.FAILED;
+            job.message = e.getMessage();
+            log.warn("Bulk transition {} to {} failed after {} cases: {}", job.id, job.targetState, job.processed, e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private LocalDateTime nextDeadline(CaseState targetState, LocalDateTime stateDate) {
+        // CUSTOM IMPLEMENTATION: null for completed
+        if (targetState == CaseState.COMPLETATA) {
+            return null;
+        }
+        return stateTransitionService.calculateNextDeadline(targetState, stateDate).atStartOfDay();
+    }
+
+    private static void validate(DebtCaseFilterRequest filter, CaseState targetState) {
+        if (targetState == null) {
+            throw new IllegalArgumentException("targetState is required");
+        }
+        // Guard against moving the whole portfolio by mistake
+        if (filter == null || UNFILTERED.equals(filter.normalizedKey())) {
+            throw new IllegalArgumentException("At least one filter is required for a bulk transition");
+        }
+    }
+
+    /**
+     * Drops finished jobs older than the retention
+     */
+    @Scheduled(fixedDelayString = "${debtcollection.bulk-transition.purge-interval-ms:3600000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> job.finishedAt != null && !job.finishedAt.isAfter(limit));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Mutable job state: written by the job thread only, read by status requests
+     */
+    static final class Job {
+        final String id;
+        final DebtCaseFilterRequest filter;
+        final CaseState targetState;
+        final String modifiedBy;
+        volatile Status state = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile LocalDateTime nextDeadlineDate;
+        volatile long matched;
+        volatile long processed;
+        volatile long updated;
+        volatile String message;
+
+        Job(String id, DebtCaseFilterRequest filter, CaseState targetState, String modifiedBy) {
+            this.id = id;
+            this.filter = filter;
+            this.targetState = targetState;
+            this.modifiedBy = modifiedBy;
+        }
+
+        BulkTransitionStatusDto status() {
+            int percent = finishedAt != null && state == Status.COMPLETED ? 100
+                    : matched > 0 ? (int) Math.min(100, processed * 100 / matched) : 0;
+            return new BulkTransitionStatusDto(id, state, targetState, startedAt, nextDeadlineDate, startedAt, finishedAt,
+                    matched, processed, updated, percent, message);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.debtcollection.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Working-day calendar for legal deadlines.
+ * Non working days: Saturdays, Sundays, Italian national holidays (including Easter Monday), the configured
+ * extra holidays (e.g. the patron saint of the court's city) and, when enabled, the court suspension
+ * from 1 to 31 August (sospensione feriale dei termini).
+ *
+ * Days FIRST_YEAR..LAST_YEAR are precomputed in two dense tables indexed by day offset:
+ * businessBefore[d] = working days before day d, businessDays[k] = offset of the k-th working day.
+ * addBusinessDays and businessDaysBetween are then two array reads, without allocations on the epoch-day API.
+ * Dates outside the table range are computed day by day.
+ */
+@Component
+public class BusinessDayCalendar {
+
+    static final int FIRST_YEAR = 2000;
+    static final int LAST_YEAR = 2099;
+
+    private static final List<MonthDay> NATIONAL_HOLIDAYS = List.of(
+            MonthDay.of(1, 1),   // Capodanno
+            MonthDay.of(1, 6),   // Epifania
+            MonthDay.of(4, 25),  // Liberazione
+            MonthDay.of(5, 1),   // Festa del lavoro
+            MonthDay.of(6, 2),   // Festa della Repubblica
+            MonthDay.of(8, 15),  // Ferragosto
+            MonthDay.of(11, 1),  // Ognissanti
+            MonthDay.of(12, 8),  // Immacolata
+            MonthDay.of(12, 25), // Natale
+            MonthDay.of(12, 26)  // Santo Stefano
+    );
+
+    private final boolean augustSuspension;
+    private final List<MonthDay> extraHolidays;
+    private final long firstEpochDay;
+    private final int[] businessBefore;
+    private final int[] businessDays;
+
+    public BusinessDayCalendar(@Value("${debtcollection.calendar.august-suspension:true}") boolean augustSuspension,
+                               @Value("${debtcollection.calendar.extra-holidays:}") List<String> extraHolidays) {
+        this.augustSuspension = augustSuspension;
+        this.extraHolidays = extraHolidays.stream()
+                .filter(value -> !value.isBlank())
+                .map(value -> MonthDay.parse("--" + value.trim()))
+                .toList();
+
+        firstEpochDay = LocalDate.of(FIRST_YEAR, 1, 1).toEpochDay();
+        int days = (int) (LocalDate.of(LAST_YEAR + 1, 1, 1).toEpochDay() - firstEpochDay);
+        businessBefore = new int[days + 1];
+        int[] offsets = new int[days];
+        int count = 0;
+        LocalDate day = LocalDate.of(FIRST_YEAR, 1, 1);
+        for (int d = 0; d < days; d++, day = day.plusDays(1)) {
+            businessBefore[d] = count;
+            if (computeBusinessDay(day)) {
+                offsets[count++] = d;
+            }
+        }
+        businessBefore[days] = count;
+        businessDays = Arrays.copyOf(offsets, count);
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return isBusinessDay(date.toEpochDay());
+    }
+
+    public boolean isBusinessDay(long epochDay) {
+        long d = epochDay - firstEpochDay;
+        if (d >= 0 && d < businessBefore.length - 1) {
+            return businessBefore[(int) d + 1] > businessBefore[(int) d];
+        }
+        return computeBusinessDay(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * The days-th working day after date (days = 0: date itself when working, otherwise the next working day)
+     */
+    public LocalDate addBusinessDays(LocalDate date, int days) {
+        return LocalDate.ofEpochDay(addBusinessDays(date.toEpochDay(), days));
+    }
+
+    /**
+     * Epoch-day version of addBusinessDays, allocation-free inside the table range
+     */
+    public long addBusinessDays(long epochDay, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("days must be >= 0");
+        }
+        long d = epochDay - firstEpochDay;
+        int tableDays = businessBefore.length - 1;
+        if (d >= 0 && d < tableDays) {
+            // Working days up to and including date, then the days-th one after it
+            int k = days == 0 ? businessBefore[(int) d] : businessBefore[(int) d + 1] + days - 1;
+            if (k < businessDays.length) {
+                return firstEpochDay + businessDays[k];
+            }
+        }
+        return addBusinessDaysSlow(epochDay, days);
+    }
+
+    /**
+     * Working days in (from, to], 0 when to is not after from
+     */
+    public int businessDaysBetween(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay() - firstEpochDay;
+        long end = to.toEpochDay() - firstEpochDay;
+        if (end <= start) {
+            return 0;
+        }
+        int tableDays = businessBefore.length - 1;
+        if (start >= 0 && end < tableDays) {
+            return businessBefore[(int) end + 1] - businessBefore[(int) start + 1];
+        }
+        int count = 0;
+        for (LocalDate day = from.plusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+            if (computeBusinessDay(day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long addBusinessDaysSlow(long epochDay, int days) {
+        LocalDate day = LocalDate.ofEpochDay(epochDay);
+        if (days == 0) {
+            while (!computeBusinessDay(day)) {
+                day = day.plusDays(1);
+            }
+            return day.toEpochDay();
+        }
+        int remaining = days;
+        while (remaining > 0) {
+            day = day.plusDays(1);
+            if (computeBusinessDay(day)) {
+                remaining--;
+            }
+        }
+        return day.toEpochDay();
+    }
+
+    private boolean computeBusinessDay(LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        if (augustSuspension && day.getMonth() == Month.AUGUST) {
+            return false;
+        }
+        MonthDay monthDay = MonthDay.from(day);
+        if (NATIONAL_HOLIDAYS.contains(monthDay) || extraHolidays.contains(monthDay)) {
+            return false;
+        }
+        return !day.equals(easterSunday(day.getYear()).plusDays(1));
+    }
+
+    /**
+     * Gregorian Easter Sunday (anonymous Gregorian algorithm)
+     */
+    static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+}
@@ -0,0 +1,356 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.CaseImportStatusDto;
+import com.debtcollection.dto.CaseImportStatusDto.Status;
+import com.debtcollection.exception.BusinessValidationException;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.validation.DebtCaseValidator;
+import com.debtcollection.repository.DebtCaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CUSTOM IMPLEMENTATION: Bulk case import for new client portfolios (100k+ rows).
+ * The upload is spooled to a temp file and imported by a background job: rows are parsed one at a time,
+ * validated with the CreateDebtCaseRequest and DebtCaseValidator rules and inserted in chunks of chunkSize
+ * documents (one bulk insert each). Deadlines come from one StateTransitionService snapshot taken at job start.
+ * Memory stays bounded by the chunk size: rejected rows go to a CSV error file on disk.
+ * Finished jobs and their files are dropped after retentionHours.
+ */
+@Slf4j
+@Service
+public class CaseImportService {
+
+    static final BigDecimal MAX_AMOUNT = new BigDecimal("999999999.99");
+    static final String[] ERROR_COLUMNS = {"row", "error"};
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final DebtCaseValidator debtCaseValidator;
+    private final StateTransitionService stateTransitionService;
+    private final Executor executor;
+    private final int chunkSize;
+    private final long retentionHours;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CaseImportService(DebtCaseRepository debtCaseRepository, DebtCaseValidator debtCaseValidator,
+                             StateTransitionService stateTransitionService,
+                             @Value("${debtcollection.case-import.chunk-size:1000}") int chunkSize,
+                             @Value("${debtcollection.case-import.retention-hours:24}") long retentionHours) {
+        // One import at a time: further uploads wait in the queue (QUEUED)
+        this(debtCaseRepository, debtCaseValidator, stateTransitionService, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "case-import");
+            thread.setDaemon(true);
+            return thread;
+        }), chunkSize, retentionHours);
+    }
+
+    CaseImportService(DebtCaseRepository debtCaseRepository, DebtCaseValidator debtCaseValidator,
+                      StateTransitionService stateTransitionService, Executor executor,
+                      int chunkSize, long retentionHours) {
+        this.debtCaseRepository = debtCaseRepository;
+        this.debtCaseValidator = debtCaseValidator;
+        this.stateTransitionService = stateTransitionService;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Stores the CSV and queues its import. The job runs with the caller's security context (auditing).
+     */
+    public CaseImportStatusDto startImport(InputStream body) throws IOException {
+        Path file = Files.createTempFile("case-import-", ".csv");
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        Job job = new Job(UUID.randomUUID().toString(), file, Files.size(file));
+        jobs.put(job.id, job);
+        executor.execute(new DelegatingSecurityContextRunnable(() -> run(job)));
+        return job.status();
+    }
+
+    public Optional<CaseImportStatusDto> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::status);
+    }
+
+    /**
+     * Error file of a finished job: header "row,error,<uploaded columns>", one line per rejected row
+     */
+    public Optional<Path> getErrorFile(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.finished() || job.errorFile == null) {
+            return Optional.empty();
+        }
+        return Optional.of(job.errorFile);
+    }
+
+    void run(Job job) {
+        job.state = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        Writer errors = null;
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(job.file))) {
+            job.bytes = in;
+            CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> header = reader.readHeader();
+            Columns columns = new Columns(reader.column("debtorName"), reader.column("amount", "owedAmount"),
+                    reader.column("state", "initialState"), reader.column("stateDate", "lastStateDate"), reader.column("notes"));
+            if (columns.debtorName() == null || columns.amount() == null) {
+                throw new IllegalArgumentException("CSV header must contain the debtorName and amount columns");
+            }
+
+            DeadlineRules deadlineRules = stateTransitionService.deadlineRules();
+            List<DebtCase> chunk = new ArrayList<>(chunkSize);
+            List<String> values;
+            while ((values = reader.next()) != null) {
+                long row = ++job.rowsRead;
+                try {
+                    DebtCase debtCase = toDebtCase(values, columns, deadlineRules);
+                    debtCaseValidator.validateBeforeSave(debtCase);
+                    chunk.add(debtCase);
+                } catch (IllegalArgumentException | BusinessValidationException e) {
+                    if (errors == null) {
+                        job.errorFile = Files.createTempFile("case-import-errors-", ".csv");
+                        errors = Files.newBufferedWriter(job.errorFile, StandardCharsets.UTF_8);
+                        DebtCaseExportService.writeCsvRow(errors, concat(ERROR_COLUMNS, header));
+                    }
+                    DebtCaseExportService.writeCsvRow(errors, concat(new String[]{String.valueOf(row), e.getMessage()}, values));
+                    job.rejected++;
+                }
+                if (chunk.size() >= chunkSize) {
+                    insert(job, chunk);
+                }
+            }
+            insert(job, chunk);
+            job.state = Status.COMPLETED;
+            log.info("Case import {}: {} rows, {} imported, {} rejected", job.id, job.rowsRead, job.imported, job.rejected);
+        } catch (Exception e) {
+            // Chunks already inserted stay: the message reports how far the import got
+            job.state = Status.FAILED;
+            job.message = e.getMessage();
+            log.warn("Case import {} failed after {} rows ({} imported): {}", job.id, job.rowsRead, job.imported, e.getMessage());
+        } finally {
+            closeQuietly(errors);
+            job.finishedAt = LocalDateTime.now();
+            deleteQuietly(job.file);
+        }
+    }
+
+    private void insert(Job job, List<DebtCase> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        debtCaseRepository.insert(chunk);
+        job.imported += chunk.size();
+        chunk.clear();
+    }
+
+    private record Columns(Integer debtorName, Integer amount, Integer state, Integer stateDate, Integer notes) {}
+
+    /**
+     * Builds the case as DebtCaseService.createDebtCase does, rejecting what CreateDebtCaseRequest would reject
+     */
+    private static DebtCase toDebtCase(List<String> values, Columns columns, DeadlineRules deadlineRules) {
+        String debtorName = CsvRecordReader.value(values, columns.debtorName());
+        if (debtorName == null) {
+            throw new IllegalArgumentException("Debtor name is required");
+        }
+        String amountValue = CsvRecordReader.value(values, columns.amount());
+        if (amountValue == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(amountValue);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + amountValue + "'");
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
+            throw new IllegalArgumentException("Amount cannot exceed 999,999,999.99");
+        }
+
+        String stateValue = CsvRecordReader.value(values, columns.state());
+        CaseState state;
+        try {
+            state = stateValue != null ? CaseState.valueOf(stateValue.toUpperCase(Locale.ROOT)) : CaseState.MESSA_IN_MORA_DA_FARE;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid state '" + stateValue + "'");
+        }
+        String stateDateValue = CsvRecordReader.value(values, columns.stateDate());
+        LocalDateTime stateDate;
+        try {
+            stateDate = stateDateValue == null ? LocalDateTime.now()
+                    : stateDateValue.length() <= 10 ? LocalDate.parse(stateDateValue).atStartOfDay() : LocalDateTime.parse(stateDateValue);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid state date '" + stateDateValue + "': expected yyyy-MM-dd");
+        }
+
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(debtorName);
+        debtCase.setOwedAmount(amount.doubleValue()); // USER PREFERENCE: Conversione BigDecimal -> Double per MongoDB
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(stateDate);
+        debtCase.setHasInstallmentPlan(false);
+        debtCase.setPaid(false);
+        debtCase.setOngoingNegotiations(false);
+        debtCase.setNotes(CsvRecordReader.value(values, columns.notes()));
+        // CUSTOM IMPLEMENTATION: For completed cases keep deadline null so they never appear in deadline filters
+        if (state != CaseState.COMPLETATA) {
+            debtCase.setNextDeadlineDate(deadlineRules.nextDeadline(state, stateDate).atStartOfDay());
+        }
+        return debtCase;
+    }
+
+    /**
+     * Drops finished jobs older than the retention, with their error files
+     */
+    @Scheduled(fixedDelayString = "${debtcollection.case-import.purge-interval-ms:3600000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> {
+            if (job.finished() && !job.finishedAt.isAfter(limit)) {
+                deleteQuietly(job.errorFile);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        jobs.values().forEach(job -> {
+            deleteQuietly(job.file);
+            deleteQuietly(job.errorFile);
+        });
+    }
+
+    private static String[] concat(String[] first, List<String> rest) {
+        String[] values = new String[first.length + rest.size()];
+        System.arraycopy(first, 0, values, 0, first.length);
+        for (int i = 0; i < rest.size(); i++) {
+            values[first.length + i] = rest.get(i);
+        }
+        return values;
+    }
+
+    private static void closeQuietly(Writer writer) {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Unable to close case import error file: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Unable to delete case import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mutable job state: written by the import thread only, read by status requests
+     */
+    static final class Job {
+        final String id;
+        final Path file;
+        final long totalBytes;
+        volatile Status state = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile CountingInputStream bytes;
+        volatile long rowsRead;
+        volatile long imported;
+        volatile long rejected;
+        volatile Path errorFile;
+        volatile String message;
+
+        Job(String id, Path file, long totalBytes) {
+            this.id = id;
+            this.file = file;
+            this.totalBytes = totalBytes;
+        }
+
+        boolean finished() {
+            return finishedAt != null;
+        }
+
+        CaseImportStatusDto status() {
+            boolean finished = finished();
+            long read = finished ? totalBytes : bytes != null ? Math.min(bytes.count, totalBytes) : 0;
+            int percent = totalBytes > 0 ? (int) (read * 100 / totalBytes) : (finished ? 100 : 0);
+            return new CaseImportStatusDto(id, state, startedAt, finishedAt, read, totalBytes, percent,
+                    rowsRead, imported, rejected, finished && errorFile != null, message);
+        }
+    }
+
+    static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.CasesSummaryDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CUSTOM IMPLEMENTATION: Server-sent events push of the dashboard summary (GET /cases/summary/stream).
+ * Each subscriber gets the current summary on connect, then a "summary" event whenever LiveCasesSummary
+ * changes; bursts of writes are coalesced into at most one push per interval. Sends run on the
+ * SseSubscribers executor, the scheduler thread only queues them.
+ */
+@Component
+public class CasesSummaryBroadcaster {
+
+    static final String EVENT_NAME = "summary";
+
+    private final LiveCasesSummary liveCasesSummary;
+    private final DebtCaseService debtCaseService;
+    private final SseSubscribers subscribers;
+    private long lastPushedVersion = -1; // only touched by the scheduler thread
+
+    public CasesSummaryBroadcaster(LiveCasesSummary liveCasesSummary, DebtCaseService debtCaseService,
+                                   @Value("${debtcollection.live-summary.stream-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.liveCasesSummary = liveCasesSummary;
+        this.debtCaseService = debtCaseService;
+        this.subscribers = new SseSubscribers(EVENT_NAME, emitterTimeoutMs);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = subscribers.subscribe();
+        subscribers.send(emitter, List.of(event(debtCaseService.getCasesSummary())));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${debtcollection.live-summary.push-interval-ms:1000}")
+    public void pushChanges() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long version = liveCasesSummary.version();
+        if (version == lastPushedVersion) {
+            return;
+        }
+        // While resynchronizing the model has no value: the push happens once it is back in sync
+        Optional<CasesSummaryDto> summary = liveCasesSummary.current();
+        if (summary.isPresent()) {
+            lastPushedVersion = version;
+            subscribers.broadcast(() -> List.of(event(summary.get())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${debtcollection.live-summary.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.heartbeat();
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.shutdown();
+    }
+
+    private static SseEmitter.SseEventBuilder event(CasesSummaryDto summary) {
+        return SseEmitter.event().name(EVENT_NAME).data(summary, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,138 @@
+package com.debtcollection.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CUSTOM IMPLEMENTATION: Incremental reader of the CSV files uploaded for imports (counterpart of
+ * DebtCaseExportService.writeCsvRow). One record in memory at a time; RFC 4180 quoting, quoted fields may
+ * span lines. The separator ("," or ";", as exported by Italian spreadsheets) is detected from the header.
+ */
+final class CsvRecordReader {
+
+    private final BufferedReader reader;
+    private char separator = ',';
+    private Map<String, Integer> columns;
+    private List<String> header;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the header row; column names are matched case-insensitively. Empty list for an empty file.
+     */
+    List<String> readHeader() throws IOException {
+        String line = readRawRecord();
+        if (line == null) {
+            header = List.of();
+            columns = Map.of();
+            return header;
+        }
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        separator = line.indexOf(';') >= 0 && line.indexOf(',') < 0 ? ';' : ',';
+        header = split(line, separator);
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return header;
+    }
+
+    /**
+     * Index of the first header column matching one of the names, null when absent.
+     */
+    Integer column(String... names) {
+        for (String name : names) {
+            Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+            if (index != null) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Next non blank record, null at end of file.
+     */
+    List<String> next() throws IOException {
+        String line;
+        do {
+            line = readRawRecord();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        return split(line, separator);
+    }
+
+    /**
+     * Trimmed value of the column, null when the column is missing or the value empty.
+     */
+    static String value(List<String> values, Integer column) {
+        if (column == null || column >= values.size()) {
+            return null;
+        }
+        String value = values.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String readRawRecord() throws IOException {
+        String line = reader.readLine();
+        // Quoted fields spanning several lines
+        while (line != null && countQuotes(line) % 2 != 0) {
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            line = line + "\n" + next;
+        }
+        return line;
+    }
+
+    private static int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static List<String> split(String line, char separator) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
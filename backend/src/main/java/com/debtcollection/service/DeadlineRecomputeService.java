@@ -0,0 +1,306 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineRecomputeStatusDto;
+import com.debtcollection.dto.DeadlineRecomputeStatusDto.Status;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CUSTOM IMPLEMENTATION: Recomputes the deadlines of the cases in the states whose transition config changed
+ * (daysToTransition / dayCountMode), from their currentStateDate, with one DeadlineRules snapshot per job.
+ * Cases on an installment plan (deadline = next installment) and COMPLETATA are not touched.
+ * Deadlines set by hand (PUT /cases/{id}/next-deadline, updateDebtCase) are kept: a stored deadline is rewritten
+ * only when the rules before the change (carried by the event) produce it. A manual POST /recomputations
+ * with overrideManual=true rewrites every deadline of its states instead.
+ * The job walks the cases in _id order, chunkSize at a time (only the keys are loaded) and writes the changed
+ * deadlines with one unordered bulk write per chunk. It pauses pauseMs between chunks so that it never holds
+ * the database for long, and can be cancelled between two chunks.
+ * A new config change supersedes the unfinished jobs: they are cancelled and the new job takes over their states.
+ */
+@Slf4j
+@Service
+public class DeadlineRecomputeService {
+
+    // Background job: the rewritten deadlines are not a user edit (same auditor as AutoAdvanceService)
+    static final String AUDITOR = "system";
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final StateTransitionService stateTransitionService;
+    private final Executor executor;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long retentionHours;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DeadlineRecomputeService(DebtCaseRepository debtCaseRepository, StateTransitionService stateTransitionService,
+                                    @Value("${debtcollection.deadline-recompute.chunk-size:500}") int chunkSize,
+                                    @Value("${debtcollection.deadline-recompute.pause-ms:100}") long pauseMs,
+                                    @Value("${debtcollection.deadline-recompute.retention-hours:24}") long retentionHours) {
+        // One job at a time: the latest rules are applied last
+        this(debtCaseRepository, stateTransitionService, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadline-recompute");
+            thread.setDaemon(true);
+            return thread;
+        }), chunkSize, pauseMs, retentionHours);
+    }
+
+    DeadlineRecomputeService(DebtCaseRepository debtCaseRepository, StateTransitionService stateTransitionService,
+                             Executor executor, int chunkSize, long pauseMs, long retentionHours) {
+        this.debtCaseRepository = debtCaseRepository;
+        this.stateTransitionService = stateTransitionService;
+        this.executor = executor;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pauseMs = Math.max(0, pauseMs);
+        this.retentionHours = retentionHours;
+    }
+
+    @EventListener
+    public void onConfigChanged(StateTransitionConfigChangedEvent event) {
+        start(event.states(), event.previousRules(), false);
+    }
+
+    /**
+     * Queues the recomputation of the deadlines of the cases in states (e.g. to resume a cancelled or failed job).
+     * Manual deadlines are kept, unless overrideManual: then every deadline of these states is rewritten.
+     */
+    public DeadlineRecomputeStatusDto startRecompute(Collection<CaseState> states, boolean overrideManual) {
+        return start(states, null, overrideManual);
+    }
+
+    private synchronized DeadlineRecomputeStatusDto start(Collection<CaseState> states, DeadlineRules previousRules,
+                                                          boolean overrideManual) {
+        if (states == null || states.isEmpty()) {
+            throw new IllegalArgumentException("At least one state is required");
+        }
+        Set<CaseState> jobStates = EnumSet.copyOf(states);
+        jobStates.remove(CaseState.COMPLETATA);
+        if (jobStates.isEmpty()) {
+            throw new IllegalArgumentException("COMPLETATA cases have no deadline to recompute");
+        }
+        String jobId = UUID.randomUUID().toString();
+        Set<DeadlineRules> derivedFrom = new LinkedHashSet<>();
+        if (previousRules != null) {
+            derivedFrom.add(previousRules);
+        }
+        Set<CaseState> overrideStates = overrideManual ? EnumSet.copyOf(jobStates) : EnumSet.noneOf(CaseState.class);
+        for (Job previous : jobs.values()) {
+            if (previous.finishedAt == null && !previous.cancelled) {
+                // Its remaining cases would be written with outdated rules: this job covers them
+                jobStates.addAll(previous.states);
+                derivedFrom.addAll(previous.derivedFrom);
+                overrideStates.addAll(previous.overrideStates);
+                previous.cancel("Superseded by " + jobId);
+            } else if (previous.state != Status.COMPLETED && !Collections.disjoint(previous.states, jobStates)) {
+                // Cases it did not reach still hold deadlines of the rules before its change
+                derivedFrom.addAll(previous.derivedFrom);
+            }
+        }
+        Job job = new Job(jobId, jobStates, List.copyOf(derivedFrom), overrideStates);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        log.info("Deadline recomputation {} queued for {}", job.id, jobStates);
+        return job.status();
+    }
+
+    public Optional<DeadlineRecomputeStatusDto> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(Job::status);
+    }
+
+    /**
+     * Retained jobs, most recent first
+     */
+    public List<DeadlineRecomputeStatusDto> listJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job job) -> job.createdAt).reversed())
+                .map(Job::status)
+                .toList();
+    }
+
+    /**
+     * Stops the job before its next chunk (chunks already written stay). No effect on a finished job.
+     */
+    public Optional<DeadlineRecomputeStatusDto> cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.finishedAt == null) {
+            job.cancel("Cancelled");
+        }
+        return Optional.of(job.status());
+    }
+
+    void run(Job job) {
+        if (job.cancelled) {
+            job.state = Status.CANCELLED;
+            job.finishedAt = LocalDateTime.now();
+            return;
+        }
+        job.state = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            DeadlineRules rules = stateTransitionService.deadlineRules();
+            job.configVersion = rules.version();
+            job.matched = debtCaseRepository.countForDeadlineRecompute(job.states);
+            String afterId = null;
+            List<DebtCase> chunk;
+            do {
+                chunk = debtCaseRepository.findDeadlineKeys(job.states, afterId, chunkSize);
+                if (!chunk.isEmpty()) {
+                    job.updated += debtCaseRepository.updateDeadlines(changedDeadlines(chunk, rules, job), AUDITOR);
+                    job.processed += chunk.size();
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == chunkSize && pause(job));
+            job.state = job.cancelled ? Status.CANCELLED : Status.COMPLETED;
+            log.info("Deadline recomputation {} for {} (config version {}): {} matched, {} processed, {} updated, {} manual kept{}",
+                    job.id, job.states, job.configVersion, job.matched, job.processed, job.updated, job.manualKept,
+                    job.cancelled ? ", cancelled" : "");
+        } catch (Exception e) {
+            // Chunks already written stay: the counters report how far the job got
+            job.state = Status.FAILED;
+            job.message = e.getMessage();
+            log.warn("Deadline recomputation {} failed after {} cases: {}", job.id, job.processed, e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Cases of the chunk whose deadline differs from the one computed with rules, with the new deadline set.
+     * A stored deadline that none of the job's previous rules produces was set by hand: it is kept (counted in
+     * manualKept) unless the job overrides its state. A hand-set deadline equal to a computed one cannot be told apart.
+     */
+    private static List<DebtCase> changedDeadlines(List<DebtCase> chunk, DeadlineRules rules, Job job) {
+        List<DebtCase> changed = new ArrayList<>();
+        for (DebtCase debtCase : chunk) {
+            if (debtCase.getCurrentStateDate() == null) {
+                continue;
+            }
+            LocalDateTime stored = debtCase.getNextDeadlineDate();
+            LocalDateTime deadline = rules.nextDeadline(debtCase.getCurrentState(), debtCase.getCurrentStateDate()).atStartOfDay();
+            if (deadline.equals(stored)) {
+                continue;
+            }
+            if (stored != null && !job.overrideStates.contains(debtCase.getCurrentState()) && !derived(debtCase, job.derivedFrom)) {
+                job.manualKept++;
+                continue;
+            }
+            debtCase.setNextDeadlineDate(deadline);
+            changed.add(debtCase);
+        }
+        return changed;
+    }
+
+    private static boolean derived(DebtCase debtCase, List<DeadlineRules> derivedFrom) {
+        for (DeadlineRules previous : derivedFrom) {
+            if (previous.nextDeadline(debtCase.getCurrentState(), debtCase.getCurrentStateDate()).atStartOfDay()
+                    .equals(debtCase.getNextDeadlineDate())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Throttling between chunks; false when the job must stop
+     */
+    private boolean pause(Job job) {
+        if (job.cancelled) {
+            return false;
+        }
+        if (pauseMs > 0) {
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.cancel("Interrupted");
+                return false;
+            }
+        }
+        return !job.cancelled;
+    }
+
+    /**
+     * Drops finished jobs older than the retention
+     */
+    @Scheduled(fixedDelayString = "${debtcollection.deadline-recompute.purge-interval-ms:3600000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> job.finishedAt != null && !job.finishedAt.isAfter(limit));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Mutable job state: written by the job thread (cancel: any thread), read by status requests
+     */
+    static final class Job {
+        final String id;
+        final Set<CaseState> states;
+        // Rules the stored deadlines may have been computed with (not manual), and states whose manual deadlines are overwritten
+        final List<DeadlineRules> derivedFrom;
+        final Set<CaseState> overrideStates;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile Status state = Status.QUEUED;
+        volatile boolean cancelled;
+        volatile long configVersion;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile long matched;
+        volatile long processed;
+        volatile long updated;
+        volatile long manualKept;
+        volatile String message;
+
+        Job(String id, Set<CaseState> states, List<DeadlineRules> derivedFrom, Set<CaseState> overrideStates) {
+            this.id = id;
+            this.states = states;
+            this.derivedFrom = derivedFrom;
+            this.overrideStates = overrideStates;
+        }
+
+        void cancel(String reason) {
+            message = reason;
+            cancelled = true;
+        }
+
+        DeadlineRecomputeStatusDto status() {
+            int percent = finishedAt != null && state == Status.COMPLETED ? 100
+                    : matched > 0 ? (int) Math.min(100, processed * 100 / matched) : 0;
+            return new DeadlineRecomputeStatusDto(id, state, Collections.unmodifiableSet(states), configVersion, createdAt,
+                    startedAt, finishedAt, matched, processed, updated, manualKept, percent, message);
+        }
+    }
+}
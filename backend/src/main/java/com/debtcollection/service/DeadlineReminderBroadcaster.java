@@ -0,0 +1,60 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Server-sent events push of the deadline reminders (GET /cases/reminders/stream).
+ * One "reminder" event per reminder fired by DeadlineScheduler; nothing is replayed on connect
+ * (missed reminders are in the deadline_reminders outbox). The scheduler tick only queues the events,
+ * SseSubscribers sends them on its own executor.
+ */
+@Component
+public class DeadlineReminderBroadcaster {
+
+    static final String EVENT_NAME = "reminder";
+
+    private final SseSubscribers subscribers;
+
+    public DeadlineReminderBroadcaster(@Value("${debtcollection.deadline-scheduler.stream-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.subscribers = new SseSubscribers(EVENT_NAME, emitterTimeoutMs);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribers.subscribe();
+    }
+
+    @EventListener
+    public void onReminders(DeadlineRemindersEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        subscribers.broadcast(() -> event.reminders().stream().map(DeadlineReminderBroadcaster::event).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${debtcollection.deadline-scheduler.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.heartbeat();
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.shutdown();
+    }
+
+    private static SseEmitter.SseEventBuilder event(DeadlineReminderDto reminder) {
+        return SseEmitter.event().name(EVENT_NAME).data(reminder, MediaType.APPLICATION_JSON);
+    }
+}
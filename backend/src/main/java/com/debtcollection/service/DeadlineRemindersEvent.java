@@ -0,0 +1,11 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+
+import java.util.List;
+
+/**
+ * CUSTOM IMPLEMENTATION: Reminders fired by one DeadlineScheduler tick (already logged and stored in the outbox)
+ */
+public record DeadlineRemindersEvent(List<DeadlineReminderDto> reminders) {
+}
@@ -0,0 +1,56 @@
+package com.debtcollection.service;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DayCountMode;
+import com.debtcollection.model.StateTransitionConfig;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * CUSTOM IMPLEMENTATION: Immutable snapshot of the state transition configs (published by StateTransitionService).
+ * Bulk operations take one snapshot and compute every deadline with it: pure in-memory lookups, and the same
+ * configuration for every case even if it changes meanwhile.
+ */
+public final class DeadlineRules {
+
+    private final long version;
+    private final Map<CaseState, StateTransitionConfig> configs;
+    private final BusinessDayCalendar calendar;
+
+    DeadlineRules(long version, Map<CaseState, StateTransitionConfig> configs, BusinessDayCalendar calendar) {
+        this.version = version;
+        this.configs = configs;
+        this.calendar = calendar;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Configs by fromState (unmodifiable)
+     */
+    public Map<CaseState, StateTransitionConfig> configs() {
+        return configs;
+    }
+
+    /**
+     * Deadline of a case entered in fromState at lastStateDate: daysToTransition calendar or business days
+     * (StateTransitionConfig.dayCountMode), DEFAULT_FALLBACK_DAYS calendar days without config, LocalDate.MAX for COMPLETATA.
+     */
+    public LocalDate nextDeadline(CaseState fromState, LocalDateTime lastStateDate) {
+        if (fromState == CaseState.COMPLETATA) {
+            return LocalDate.MAX;
+        }
+        StateTransitionConfig config = configs.get(fromState);
+        if (config == null) {
+            return lastStateDate.toLocalDate().plusDays(StateTransitionService.DEFAULT_FALLBACK_DAYS);
+        }
+        if (config.getDayCountMode() == DayCountMode.BUSINESS_DAYS) {
+            return calendar.addBusinessDays(lastStateDate.toLocalDate(), config.getDaysToTransition());
+        }
+        return lastStateDate.toLocalDate().plusDays(config.getDaysToTransition());
+    }
+}
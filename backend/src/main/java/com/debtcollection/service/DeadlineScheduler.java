@@ -0,0 +1,258 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DeadlineReminderOutbox;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtCaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * CUSTOM IMPLEMENTATION: Fires deadline reminders from memory instead of polling Mongo for overdue cases.
+ * The deadlines of the active cases live in a DeadlineTimingWheel, seeded from Mongo and kept in sync like
+ * LiveCasesSummary: per-document events move single cases (bulk writes of the repository publish their cases
+ * one by one), only changes on unknown documents trigger a background reload (events received meanwhile are
+ * replayed on the fresh wheel).
+ * Every tick advances the wheel to today; each reminder is logged, stored in the deadline_reminders outbox and
+ * published as a DeadlineRemindersEvent (SSE at GET /cases/reminders/stream).
+ *
+ * Only day changes fire reminders: a write that moves a deadline to today or earlier fires nothing (the case
+ * is already in the overdue / due today counters). The wheel starts at yesterday, so today's reminders are
+ * fired once the first load completes; after a restart the outbox drops the ones already stored.
+ */
+@Slf4j
+@Component
+public class DeadlineScheduler extends AbstractMongoEventListener<DebtCase> {
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final DeadlineReminderOutbox outbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int leadDays;
+    private final int initialCapacity;
+    private final Object lock = new Object();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private final ExecutorService resyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deadline-scheduler-resync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by lock
+    private DeadlineTimingWheel wheel;
+    private Map<String, Entry> replay;
+
+    private volatile boolean inSync;
+    private volatile boolean loading;
+
+    public DeadlineScheduler(DebtCaseRepository debtCaseRepository, DebtCaseChangeTracker changeTracker,
+                             DeadlineReminderOutbox outbox, ApplicationEventPublisher eventPublisher,
+                             @Value("${debtcollection.deadline-scheduler.enabled:true}") boolean enabled,
+                             @Value("${debtcollection.deadline-scheduler.lead-days:3}") int leadDays,
+                             @Value("${debtcollection.deadline-scheduler.initial-capacity:65536}") int initialCapacity) {
+        this.debtCaseRepository = debtCaseRepository;
+        this.outbox = outbox;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.leadDays = leadDays;
+        this.initialCapacity = initialCapacity;
+        this.wheel = new DeadlineTimingWheel(leadDays, LocalDate.now().minusDays(1).toEpochDay(), initialCapacity);
+        if (enabled) {
+            changeTracker.addBulkChangeListener(this::requestResync);
+            changeTracker.addDocumentChangeListener(this::onDocumentChanged);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            outbox.ensureIndexes();
+        } catch (RuntimeException e) {
+            log.warn("Deadline reminder outbox indexes not created: {}", e.getMessage());
+        }
+        requestResync();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<DebtCase> event) {
+        DebtCase debtCase = event.getSource();
+        if (enabled && debtCase.getId() != null) {
+            apply(debtCase.getId(), Entry.of(debtCase));
+        }
+    }
+
+    private void onDocumentChanged(DebtCase debtCase) {
+        if (debtCase.getId() != null) {
+            apply(debtCase.getId(), Entry.of(debtCase));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<DebtCase> event) {
+        if (!enabled) {
+            return;
+        }
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (query.size() == 1 && id != null && !(id instanceof Document)) {
+            apply(id.toString(), null);
+        } else {
+            requestResync(); // deleteAll / delete by filter: affected ids unknown
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${debtcollection.deadline-scheduler.tick-ms:60000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        if (!inSync && !loading && !resyncPending.get()) {
+            requestResync(); // the last load failed
+        }
+        advance(LocalDate.now());
+    }
+
+    /**
+     * Fires the reminders of the days up to today not processed yet. Nothing while (re)loading: the reload
+     * keeps the wheel position, so the pending days are processed by the next tick.
+     */
+    List<DeadlineReminderDto> advance(LocalDate today) {
+        if (!inSync) {
+            return List.of();
+        }
+        List<DeadlineReminderDto> reminders = new ArrayList<>();
+        synchronized (lock) {
+            wheel.advanceTo(today.toEpochDay(), reminders::add);
+        }
+        if (reminders.isEmpty()) {
+            return reminders;
+        }
+        reminders.forEach(reminder -> log.info("Deadline reminder {}: case {} in {} due {}",
+                reminder.kind(), reminder.debtCaseId(), reminder.state(), reminder.deadline()));
+        try {
+            outbox.append(reminders);
+        } catch (RuntimeException e) {
+            log.warn("{} deadline reminders not stored in the outbox: {}", reminders.size(), e.getMessage());
+        }
+        eventPublisher.publishEvent(new DeadlineRemindersEvent(List.copyOf(reminders)));
+        return reminders;
+    }
+
+    /**
+     * Cases with a reminder still to fire
+     */
+    public int scheduledCases() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    public boolean isInSync() {
+        return inSync;
+    }
+
+    private void apply(String id, Entry entry) {
+        synchronized (lock) {
+            schedule(wheel, id, entry);
+            if (replay != null) {
+                replay.put(id, entry);
+            }
+        }
+    }
+
+    private static void schedule(DeadlineTimingWheel target, String id, Entry entry) {
+        if (entry == null) {
+            target.remove(id);
+        } else {
+            target.schedule(id, entry.state(), entry.deadline());
+        }
+    }
+
+    void requestResync() {
+        inSync = false;
+        if (resyncPending.compareAndSet(false, true)) {
+            resyncExecutor.execute(this::resync);
+        }
+    }
+
+    void resync() {
+        loading = true;
+        try {
+            load();
+        } finally {
+            loading = false;
+        }
+    }
+
+    private void load() {
+        resyncPending.set(false);
+        long cursorDay;
+        synchronized (lock) {
+            replay = new HashMap<>();
+            cursorDay = wheel.cursorDay();
+        }
+        DeadlineTimingWheel fresh = new DeadlineTimingWheel(leadDays, cursorDay, Math.max(initialCapacity, scheduledCases()));
+        try (Stream<DebtCase> cases = debtCaseRepository.streamActiveSummaryKeys()) {
+            cases.forEach(debtCase -> schedule(fresh, debtCase.getId(), Entry.of(debtCase)));
+        } catch (RuntimeException e) {
+            log.warn("Deadline scheduler resync failed, retried at the next tick: {}", e.getMessage());
+            synchronized (lock) {
+                replay = null;
+            }
+            return;
+        }
+        synchronized (lock) {
+            // Days already processed by the current wheel are not fired again
+            fresh.advanceTo(wheel.cursorDay(), null);
+            replay.forEach((id, entry) -> schedule(fresh, id, entry));
+            replay = null;
+            wheel = fresh;
+            // Another bulk change during the load: a new resync is already queued
+            inSync = !resyncPending.get();
+        }
+        log.info("Deadline scheduler loaded: {} cases with reminders to fire", fresh.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        resyncExecutor.shutdownNow();
+    }
+
+    /**
+     * State and deadline of an active case; null for completed (or stateless) cases.
+     */
+    record Entry(CaseState state, LocalDate deadline) {
+        static Entry of(DebtCase debtCase) {
+            if (debtCase.getCurrentState() == null || debtCase.getCurrentState() == CaseState.COMPLETATA
+                    || debtCase.getNextDeadlineDate() == null) {
+                return null;
+            }
+            return new Entry(debtCase.getCurrentState(), debtCase.getNextDeadlineDate().toLocalDate());
+        }
+    }
+}
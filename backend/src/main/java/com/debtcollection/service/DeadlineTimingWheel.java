@@ -0,0 +1,383 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DeadlineReminderKind;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * CUSTOM IMPLEMENTATION: Hierarchical timing wheel of case deadlines, one tick per day (deadlines are dates).
+ * Each case fires at most twice: UPCOMING leadDays before its deadline and DUE on the deadline day; a case
+ * whose firing days are all past is not kept.
+ *
+ * - level 0: one bucket per day of the current 1024-day block
+ * - level 1: one bucket per following block (63 blocks, ~176 years), cascaded into level 0 when its block starts
+ * - overflow: anything further, re-placed at each block change
+ *
+ * Buckets are circular doubly linked lists threaded through int arrays (bucket sentinels first, then one node
+ * per case), so schedule, reschedule and remove are O(1). Cases are indexed by id in an open-addressing table
+ * of ints; Mongo ObjectId ids are packed into a long + an int: about 40 bytes per case and no object per case
+ * (1M cases ~ 40 MB). Other ids (e.g. set by hand) go to a side map.
+ *
+ * Not thread-safe: DeadlineScheduler guards it.
+ */
+final class DeadlineTimingWheel {
+
+    static final int NEAR_BITS = 10;
+    static final int NEAR = 1 << NEAR_BITS;
+    static final int FAR = 64;
+
+    private static final int OVERFLOW = NEAR + FAR;
+    private static final int SENTINELS = OVERFLOW + 1;
+    private static final int NIL = -1;
+    private static final CaseState[] STATES = CaseState.values();
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int leadDays;
+    private long cursor; // last processed day (epoch day)
+    private int size;
+
+    // Per node: list links (sentinels and cases), free slots chained through next
+    private int[] next;
+    private int[] prev;
+    // Per case node
+    private int[] fireDay;
+    private int[] deadlineDay;
+    private byte[] state;
+    private long[] idHigh;
+    private int[] idLow;
+    private int freeHead = NIL;
+    private int used = SENTINELS;
+
+    // Id index: node + 1 per cell, 0 = empty, linear probing, load <= 1/2
+    private int[] table;
+    private final Map<String, Integer> otherIds = new HashMap<>();
+    private final Map<Integer, String> otherIdsByNode = new HashMap<>();
+
+    DeadlineTimingWheel(int leadDays, long cursorDay, int initialCapacity) {
+        if (leadDays < 0) {
+            throw new IllegalArgumentException("leadDays must be >= 0");
+        }
+        this.leadDays = leadDays;
+        this.cursor = cursorDay;
+        int nodes = SENTINELS + Math.max(16, initialCapacity);
+        next = new int[nodes];
+        prev = new int[nodes];
+        fireDay = new int[nodes];
+        deadlineDay = new int[nodes];
+        state = new byte[nodes];
+        idHigh = new long[nodes];
+        idLow = new int[nodes];
+        for (int sentinel = 0; sentinel < SENTINELS; sentinel++) {
+            next[sentinel] = sentinel;
+            prev[sentinel] = sentinel;
+        }
+        table = new int[Integer.highestOneBit(Math.max(16, initialCapacity) * 2 - 1) << 1];
+    }
+
+    /**
+     * Cases with at least one reminder still to fire
+     */
+    int size() {
+        return size;
+    }
+
+    long cursorDay() {
+        return cursor;
+    }
+
+    /**
+     * Deadline of a scheduled case, null when the case has no reminder to fire
+     */
+    LocalDate deadlineOf(String caseId) {
+        int node = find(caseId);
+        return node == NIL ? null : LocalDate.ofEpochDay(deadlineDay[node]);
+    }
+
+    /**
+     * Inserts, moves (O(1)) or removes the case: null state/deadline, COMPLETATA or a deadline whose reminders
+     * are all past remove it.
+     */
+    void schedule(String caseId, CaseState caseState, LocalDate deadline) {
+        int node = find(caseId);
+        if (caseState == null || caseState == CaseState.COMPLETATA || deadline == null) {
+            if (node != NIL) {
+                release(node);
+            }
+            return;
+        }
+        int day = (int) deadline.toEpochDay();
+        long fire = firing(day);
+        if (fire == Long.MIN_VALUE) {
+            if (node != NIL) {
+                release(node);
+            }
+            return;
+        }
+        if (node == NIL) {
+            node = allocate(caseId);
+        } else if (deadlineDay[node] == day && fireDay[node] == fire) {
+            state[node] = (byte) caseState.ordinal();
+            return;
+        } else {
+            unlink(node);
+        }
+        deadlineDay[node] = day;
+        fireDay[node] = (int) fire;
+        state[node] = (byte) caseState.ordinal();
+        place(node);
+    }
+
+    boolean remove(String caseId) {
+        int node = find(caseId);
+        if (node == NIL) {
+            return false;
+        }
+        release(node);
+        return true;
+    }
+
+    /**
+     * Processes the days after the cursor up to day, in order, passing each reminder to sink (null: the days
+     * are skipped silently, e.g. already processed by another wheel).
+     */
+    void advanceTo(long day, Consumer<DeadlineReminderDto> sink) {
+        while (cursor < day) {
+            long today = cursor + 1;
+            cursor = today;
+            if ((today >> NEAR_BITS) != ((today - 1) >> NEAR_BITS)) {
+                cascade(today >> NEAR_BITS);
+            }
+            int sentinel = (int) (today & (NEAR - 1));
+            int node = next[sentinel];
+            // Detach the bucket: fired cases are re-placed or released while walking it
+            next[sentinel] = sentinel;
+            prev[sentinel] = sentinel;
+            while (node != sentinel) {
+                int following = next[node];
+                fire(node, today, sink);
+                node = following;
+            }
+        }
+    }
+
+    private void fire(int node, long today, Consumer<DeadlineReminderDto> sink) {
+        boolean due = fireDay[node] == deadlineDay[node];
+        if (sink != null) {
+            sink.accept(new DeadlineReminderDto(idOf(node), STATES[state[node]], LocalDate.ofEpochDay(deadlineDay[node]),
+                    due ? DeadlineReminderKind.DUE : DeadlineReminderKind.UPCOMING, LocalDate.ofEpochDay(today)));
+        }
+        if (due) {
+            next[node] = NIL;
+            release(node);
+        } else {
+            fireDay[node] = deadlineDay[node];
+            place(node);
+        }
+    }
+
+    /**
+     * Next firing day after the cursor: the UPCOMING day, else the deadline day, else none (Long.MIN_VALUE)
+     */
+    private long firing(int deadline) {
+        long upcoming = (long) deadline - leadDays;
+        if (upcoming > cursor) {
+            return upcoming;
+        }
+        return deadline > cursor ? deadline : Long.MIN_VALUE;
+    }
+
+    private void place(int node) {
+        long fire = fireDay[node];
+        long block = fire >> NEAR_BITS;
+        long currentBlock = cursor >> NEAR_BITS;
+        int sentinel;
+        if (block == currentBlock) {
+            sentinel = (int) (fire & (NEAR - 1));
+        } else if (block - currentBlock < FAR) {
+            sentinel = NEAR + (int) (block & (FAR - 1));
+        } else {
+            sentinel = OVERFLOW;
+        }
+        int last = prev[sentinel];
+        next[last] = node;
+        prev[node] = last;
+        next[node] = sentinel;
+        prev[sentinel] = node;
+    }
+
+    /**
+     * New block: its level 1 bucket moves to level 0, overflow cases now within level 1 move there
+     */
+    private void cascade(long block) {
+        relink(NEAR + (int) (block & (FAR - 1)));
+        relink(OVERFLOW);
+    }
+
+    private void relink(int sentinel) {
+        int node = next[sentinel];
+        next[sentinel] = sentinel;
+        prev[sentinel] = sentinel;
+        while (node != sentinel) {
+            int following = next[node];
+            place(node);
+            node = following;
+        }
+    }
+
+    private void unlink(int node) {
+        next[prev[node]] = next[node];
+        prev[next[node]] = prev[node];
+    }
+
+    private int allocate(String caseId) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = next[node];
+        } else {
+            if (used == next.length) {
+                grow();
+            }
+            node = used++;
+        }
+        if (isPackable(caseId)) {
+            idHigh[node] = parseHex(caseId, 0, 16);
+            idLow[node] = (int) parseHex(caseId, 16, 24);
+            if ((size + 1) * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            insertIndex(node);
+        } else {
+            otherIds.put(caseId, node);
+            otherIdsByNode.put(node, caseId);
+        }
+        size++;
+        return node;
+    }
+
+    private void release(int node) {
+        if (next[node] != NIL) {
+            unlink(node);
+        }
+        String other = otherIdsByNode.isEmpty() ? null : otherIdsByNode.remove(node);
+        if (other != null) {
+            otherIds.remove(other);
+        } else {
+            removeIndex(node);
+        }
+        next[node] = freeHead;
+        freeHead = node;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = next.length + (next.length >> 1);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        fireDay = Arrays.copyOf(fireDay, capacity);
+        deadlineDay = Arrays.copyOf(deadlineDay, capacity);
+        state = Arrays.copyOf(state, capacity);
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+    }
+
+    private int find(String caseId) {
+        if (!isPackable(caseId)) {
+            Integer node = otherIds.get(caseId);
+            return node != null ? node : NIL;
+        }
+        long high = parseHex(caseId, 0, 16);
+        int low = (int) parseHex(caseId, 16, 24);
+        int mask = table.length - 1;
+        for (int cell = hash(high, low) & mask; table[cell] != 0; cell = (cell + 1) & mask) {
+            int node = table[cell] - 1;
+            if (idHigh[node] == high && idLow[node] == low) {
+                return node;
+            }
+        }
+        return NIL;
+    }
+
+    private void insertIndex(int node) {
+        int mask = table.length - 1;
+        int cell = hash(idHigh[node], idLow[node]) & mask;
+        while (table[cell] != 0) {
+            cell = (cell + 1) & mask;
+        }
+        table[cell] = node + 1;
+    }
+
+    private void removeIndex(int node) {
+        int mask = table.length - 1;
+        int cell = hash(idHigh[node], idLow[node]) & mask;
+        while (table[cell] != node + 1) {
+            cell = (cell + 1) & mask;
+        }
+        // Backward shift deletion: keeps every probe chain unbroken without tombstones
+        int gap = cell;
+        for (int scan = (gap + 1) & mask; table[scan] != 0; scan = (scan + 1) & mask) {
+            int home = hash(idHigh[table[scan] - 1], idLow[table[scan] - 1]) & mask;
+            if (((scan - home) & mask) >= ((scan - gap) & mask)) {
+                table[gap] = table[scan];
+                gap = scan;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        for (int entry : old) {
+            if (entry != 0) {
+                insertIndex(entry - 1);
+            }
+        }
+    }
+
+    private String idOf(int node) {
+        if (!otherIdsByNode.isEmpty()) {
+            String other = otherIdsByNode.get(node);
+            if (other != null) {
+                return other;
+            }
+        }
+        return HEX.toHexDigits(idHigh[node]) + HEX.toHexDigits(idLow[node]);
+    }
+
+    private static int hash(long high, int low) {
+        long h = (high ^ (low * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 31));
+    }
+
+    /**
+     * Lowercase 24-digit hex (ObjectId.toHexString()): the only form packed, so unpacking gives the same string back
+     */
+    private static boolean isPackable(String id) {
+        if (id.length() != 24) {
+            return false;
+        }
+        for (int i = 0; i < 24; i++) {
+            char c = id.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 4) | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,178 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DebtCaseListItemDto;
+import com.debtcollection.mapper.DebtCaseMapper;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * CUSTOM IMPLEMENTATION: Streaming export of filtered cases (CSV / NDJSON).
+ * Rows go from the Mongo cursor to the response one at a time: memory holds one cursor batch plus the
+ * write buffer whatever the export size. When the client reads slowly the socket write blocks, so the
+ * cursor is not advanced and no further batch is fetched (backpressure comes from the blocking stream).
+ */
+@Service
+@RequiredArgsConstructor
+public class DebtCaseExportService {
+
+    static final int BATCH_SIZE = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    static final String[] CSV_COLUMNS = {
+            "id", "debtorName", "owedAmount", "totalPaidAmount", "remainingAmount", "state", "lastStateDate",
+            "nextDeadlineDate", "ongoingNegotiations", "hasInstallmentPlan", "paid", "notes",
+            "createdDate", "createdBy", "lastModifiedDate", "lastModifiedBy"
+    };
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid export format '" + value + "': use csv or ndjson");
+            }
+        }
+    }
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final DebtCaseMapper debtCaseMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every case matching the filters; returns the number of exported rows.
+     * Default order: nextDeadlineDate asc (same as GET /cases), _id as tie-breaker for a stable export.
+     */
+    public long export(DebtCaseFilterRequest filter, Sort sort, Format format, OutputStream out) throws IOException {
+        Sort effectiveSort = (sort == null || sort.isUnsorted() ? Sort.by(Sort.Direction.ASC, "nextDeadlineDate") : sort)
+                .and(Sort.by(Sort.Direction.ASC, "id"));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        ObjectWriter jsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long rows = 0;
+        if (format == Format.CSV) {
+            writeCsvRow(writer, CSV_COLUMNS);
+        }
+        try (Stream<DebtCase> cases = debtCaseRepository.streamByFilters(filter, effectiveSort, BATCH_SIZE)) {
+            Iterator<DebtCase> it = cases.iterator();
+            while (it.hasNext()) {
+                DebtCaseListItemDto row = debtCaseMapper.toListItemDto(it.next());
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, csvValues(row));
+                } else {
+                    jsonWriter.writeValue(writer, row);
+                    writer.write('\n');
+                }
+                if (++rows % BATCH_SIZE == 0) {
+                    writer.flush(); // hand completed batches to the client instead of holding them
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static String[] csvValues(DebtCaseListItemDto row) {
+        return new String[]{
+                row.getId(),
+                row.getDebtorName(),
+                str(row.getOwedAmount() != null ? row.getOwedAmount().toPlainString() : null),
+                str(row.getTotalPaidAmount() != null ? row.getTotalPaidAmount().toPlainString() : null),
+                str(row.getRemainingAmount() != null ? row.getRemainingAmount().toPlainString() : null),
+                str(row.getState()),
+                str(row.getLastStateDate()),
+                str(row.getNextDeadlineDate()),
+                str(row.getOngoingNegotiations()),
+                str(row.getHasInstallmentPlan()),
+                str(row.getPaid()),
+                row.getNotes(),
+                str(row.getCreatedDate()),
+                row.getCreatedBy(),
+                str(row.getLastModifiedDate()),
+                row.getLastModifiedBy()
+        };
+    }
+
+    private static String str(Object value) {
+        return Objects.toString(value, null);
+    }
+
+    /**
+     * RFC 4180: fields containing separator, quote or line breaks are quoted, quotes doubled.
+     * Fields starting with a formula character are prefixed with ' so spreadsheets show them as text.
+     */
+    static void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            char first = value.charAt(0);
+            if (first == '=' || first == '+' || first == '-' || first == '@') {
+                if (!isNumber(value)) {
+                    value = "'" + value;
+                }
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
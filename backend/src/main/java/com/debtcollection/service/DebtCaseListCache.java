@@ -0,0 +1,86 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DebtCaseListItemDto;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.TotalCountMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * CUSTOM IMPLEMENTATION: LRU cache of GET /cases pages keyed by normalized filter + page request + count mode.
+ * Entries are tagged with the DebtCaseChangeTracker generation: any debt case write (service saves,
+ * deletes, bulk operations) invalidates every entry at once, so a cached page is never older than
+ * the last write seen by this instance.
+ * Metrics: debtcases.list.cache{result=hit|miss} counters and debtcases.list.cache.size gauge.
+ */
+@Component
+public class DebtCaseListCache {
+
+    private final DebtCaseChangeTracker changeTracker;
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public DebtCaseListCache(DebtCaseChangeTracker changeTracker,
+                             MeterRegistry meterRegistry,
+                             @Value("${debtcollection.case-list-cache.max-entries:500}") int maxEntries) {
+        this.changeTracker = changeTracker;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > DebtCaseListCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("debtcases.list.cache").tag("result", "hit")
+                .description("GET /cases pages served from cache").register(meterRegistry);
+        this.misses = Counter.builder("debtcases.list.cache").tag("result", "miss")
+                .description("GET /cases pages loaded from MongoDB").register(meterRegistry);
+        Gauge.builder("debtcases.list.cache.size", this, DebtCaseListCache::size).register(meterRegistry);
+    }
+
+    public Page<DebtCaseListItemDto> get(DebtCaseFilterRequest filter, Pageable pageable, TotalCountMode countMode,
+                                         Supplier<Page<DebtCaseListItemDto>> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(filter.normalizedKey(), pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().toString(), countMode);
+        // Generation read before loading: a write racing with the load leaves the entry already stale
+        long generation = changeTracker.generation();
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null && cached.generation() == generation) {
+                hits.increment();
+                return cached.page();
+            }
+        }
+        misses.increment();
+        Page<DebtCaseListItemDto> page = loader.get();
+        synchronized (entries) {
+            entries.put(key, new Entry(generation, page));
+        }
+        return page;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Key(String filter, int page, int size, String sort, TotalCountMode countMode) {}
+
+    private record Entry(long generation, Page<DebtCaseListItemDto> page) {}
+}
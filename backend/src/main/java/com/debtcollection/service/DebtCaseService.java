@@ -1,7 +1,10 @@
 package com.debtcollection.service;
 
 import com.debtcollection.dto.DebtCaseDto;
+import com.debtcollection.dto.DebtCaseFacetsDto;
 import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DeadlineCalendarDto;
+import com.debtcollection.dto.DebtCaseListItemDto;
 import com.debtcollection.dto.PaymentDto;
 import com.debtcollection.dto.InstallmentPlanRequest;
 import com.debtcollection.dto.InstallmentPlanResponse;
@@ -11,8 +14,14 @@ import com.debtcollection.mapper.DebtCaseMapper;
 import com.debtcollection.mapper.PaymentMapper;
 import com.debtcollection.mapper.InstallmentMapper;
 import com.debtcollection.model.*;
+import com.debtcollection.repository.DebtCaseFacets;
 import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.DebtCaseSummaryCounts;
+import com.debtcollection.repository.DeadlineDayCount;
+import com.debtcollection.repository.KeysetSlice;
+import com.debtcollection.repository.TotalCountMode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
@@ -34,12 +43,21 @@ import java.util.Comparator;
 @RequiredArgsConstructor
 public class DebtCaseService {
 
+    static final int DEFAULT_SUMMARY_HORIZON_DAYS = 7;
+    static final int MAX_SUMMARY_HORIZON_DAYS = 366;
+    static final int DEFAULT_CALENDAR_DAYS = 30;
+    static final int MAX_CALENDAR_DAYS = 366;
+
     private final DebtCaseRepository debtCaseRepository;
     private final DebtCaseMapper debtCaseMapper;
     private final PaymentMapper paymentMapper;
     private final InstallmentMapper installmentMapper;
     // USER PREFERENCE: Removed InstallmentRepository - now installments are embedded in DebtCase
     private final StateTransitionService stateTransitionService;
+    private final DebtCaseListCache debtCaseListCache;
+    private final LiveCasesSummary liveCasesSummary;
+    private final OptimisticRetry optimisticRetry;
+    private final AuditorAware<String> auditorAware;
 
     @Transactional
     public DebtCaseDto createDebtCase(String debtorName, CaseState state, LocalDateTime lastStateDate, BigDecimal amount) {
@@ -81,70 +99,72 @@ public class DebtCaseService {
                                       CaseState currentState, LocalDateTime nextDeadlineDate,
                                       Boolean ongoingNegotiations, Boolean hasInstallmentPlan,
                                       Boolean paid, String notes, Boolean clearNotes) {
-        DebtCase debtCase = debtCaseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + id));
+        return optimisticRetry.execute("updateDebtCase", () -> {
+            DebtCase debtCase = debtCaseRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + id));
         
-        // CUSTOM IMPLEMENTATION: Update expanded con tutti i campi modificabili
-        // Aggiorna debtorName se fornito
-        if (debtorName != null) {
-            debtCase.setDebtorName(debtorName);
-        }
+            // CUSTOM IMPLEMENTATION: Update expanded con tutti i campi modificabili
+            // Aggiorna debtorName se fornito
+            if (debtorName != null) {
+                debtCase.setDebtorName(debtorName);
+            }
         
-        // Aggiorna owedAmount se fornito
-        if (owedAmount != null) {
-            debtCase.setOwedAmount(owedAmount.doubleValue()); // USER PREFERENCE: Conversione BigDecimal -> Double per MongoDB
-        }
+            // Aggiorna owedAmount se fornito
+            if (owedAmount != null) {
+                debtCase.setOwedAmount(owedAmount.doubleValue()); // USER PREFERENCE: Conversione BigDecimal -> Double per MongoDB
+            }
         
-        // Aggiorna stato solo se diverso (currentStateDate si aggiorna automaticamente)
-        if (currentState != null && (debtCase.getCurrentState() == null || !currentState.equals(debtCase.getCurrentState()))) {
-            debtCase.setCurrentState(currentState);
-            LocalDateTime newStateDate = LocalDateTime.now();
-            debtCase.setCurrentStateDate(newStateDate); // ⏰ Automatico
+            // Aggiorna stato solo se diverso (currentStateDate si aggiorna automaticamente)
+            if (currentState != null && (debtCase.getCurrentState() == null || !currentState.equals(debtCase.getCurrentState()))) {
+                debtCase.setCurrentState(currentState);
+                LocalDateTime newStateDate = LocalDateTime.now();
+                debtCase.setCurrentStateDate(newStateDate); // ⏰ Automatico
             
-            // CUSTOM IMPLEMENTATION: Calculate next_deadline_date using StateTransitionService
-            if (currentState != CaseState.COMPLETATA) {
-                LocalDate nextDeadline = stateTransitionService.calculateNextDeadline(currentState, newStateDate);
-                if (nextDeadline != null) {
-                    debtCase.setNextDeadlineDate(nextDeadline.atStartOfDay());
+                // CUSTOM IMPLEMENTATION: Calculate next_deadline_date using StateTransitionService
+                if (currentState != CaseState.COMPLETATA) {
+                    LocalDate nextDeadline = stateTransitionService.calculateNextDeadline(currentState, newStateDate);
+                    if (nextDeadline != null) {
+                        debtCase.setNextDeadlineDate(nextDeadline.atStartOfDay());
+                    } else {
+                        debtCase.setNextDeadlineDate(newStateDate.plusDays(30));
+                    }
                 } else {
-                    debtCase.setNextDeadlineDate(newStateDate.plusDays(30));
+                    debtCase.setNextDeadlineDate(null); // CUSTOM IMPLEMENTATION: null for completed
                 }
-            } else {
-                debtCase.setNextDeadlineDate(null); // CUSTOM IMPLEMENTATION: null for completed
             }
-        }
         
-        // Aggiorna nextDeadlineDate se fornito
-        if (nextDeadlineDate != null) {
-            debtCase.setNextDeadlineDate(nextDeadlineDate);
-        }
+            // Aggiorna nextDeadlineDate se fornito
+            if (nextDeadlineDate != null) {
+                debtCase.setNextDeadlineDate(nextDeadlineDate);
+            }
         
-        // Aggiorna ongoingNegotiations se fornito
-        if (ongoingNegotiations != null) {
-            debtCase.setOngoingNegotiations(ongoingNegotiations);
-        }
+            // Aggiorna ongoingNegotiations se fornito
+            if (ongoingNegotiations != null) {
+                debtCase.setOngoingNegotiations(ongoingNegotiations);
+            }
         
-        // Aggiorna hasInstallmentPlan se fornito
-        if (hasInstallmentPlan != null) {
-            debtCase.setHasInstallmentPlan(hasInstallmentPlan);
-        }
+            // Aggiorna hasInstallmentPlan se fornito
+            if (hasInstallmentPlan != null) {
+                debtCase.setHasInstallmentPlan(hasInstallmentPlan);
+            }
         
-        // Aggiorna paid se fornito
-        if (paid != null) {
-            debtCase.setPaid(paid);
-        }
+            // Aggiorna paid se fornito
+            if (paid != null) {
+                debtCase.setPaid(paid);
+            }
         
-        // CUSTOM IMPLEMENTATION: Gestione notes con flag clearNotes
-        if (clearNotes != null && clearNotes) {
-            // clearNotes ha priorità: setta esplicitamente a null
-            debtCase.setNotes(null);
-        } else if (notes != null) {
-            // Se clearNotes non è true, aggiorna normalmente
-            debtCase.setNotes(notes);
-        }
-        // Se clearNotes è false/null E notes è null → non toccare (mantieni valore precedente)
+            // CUSTOM IMPLEMENTATION: Gestione notes con flag clearNotes
+            if (clearNotes != null && clearNotes) {
+                // clearNotes ha priorità: setta esplicitamente a null
+                debtCase.setNotes(null);
+            } else if (notes != null) {
+                // Se clearNotes non è true, aggiorna normalmente
+                debtCase.setNotes(notes);
+            }
+            // Se clearNotes è false/null E notes è null → non toccare (mantieni valore precedente)
         
-        return debtCaseMapper.toDto(debtCaseRepository.save(debtCase));
+            return debtCaseMapper.toDto(debtCaseRepository.save(debtCase));
+        });
     }
 
     @Transactional
@@ -159,37 +179,100 @@ public class DebtCaseService {
      * Find debt cases with filters and pagination support.
      * Default sort: currentStateDate desc (most recent first)
      * CUSTOM IMPLEMENTATION: Supports advanced business logic filtering
+     * Returns slim list rows (no payments/installments): use getDebtCaseById for the full case.
+     */
+    public Page<DebtCaseListItemDto> findWithFilters(DebtCaseFilterRequest filterRequest, Pageable pageable) {
+        return findWithFilters(filterRequest, pageable, TotalCountMode.EXACT);
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: countMode selects how the total is computed
+     * (EXACT count, CACHED count per filter invalidated on writes, NONE look-ahead only).
      */
-    public Page<DebtCaseDto> findWithFilters(DebtCaseFilterRequest filterRequest, Pageable pageable) {
+    public Page<DebtCaseListItemDto> findWithFilters(DebtCaseFilterRequest filterRequest, Pageable pageable, TotalCountMode countMode) {
         // CUSTOM IMPLEMENTATION: Default sort fallback se il client non specifica sort
         if (pageable.getSort().isUnsorted()) {
             pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.ASC, "nextDeadlineDate"));
         }
-        return debtCaseRepository.findByFilters(
-            filterRequest.getDebtorName(),
-            filterRequest.getState(),
-            filterRequest.getStates(),
-            filterRequest.getMinAmount(),
-            filterRequest.getMaxAmount(),
-            filterRequest.getHasInstallmentPlan(),
-            filterRequest.getPaid(),
-            filterRequest.getOngoingNegotiations(),
-            filterRequest.getNotes(),
-            filterRequest.getNextDeadlineFrom(),
-            filterRequest.getNextDeadlineTo(),
-            filterRequest.getCurrentStateFrom(),
-            filterRequest.getCurrentStateTo(),
-            filterRequest.getCreatedFrom(),
-            filterRequest.getCreatedTo(),
-            filterRequest.getLastModifiedFrom(),
-            filterRequest.getLastModifiedTo(),
-            pageable
-        ).map(debtCaseMapper::toDto);
+        Pageable effectivePageable = pageable;
+        // CUSTOM IMPLEMENTATION: Served from the write-invalidated list cache when the same view was just loaded
+        return debtCaseListCache.get(filterRequest, effectivePageable, countMode, () ->
+                debtCaseRepository.findByFilters(filterRequest, effectivePageable, countMode).map(debtCaseMapper::toListItemDto));
+    }
+
+    /**
+     * Keyset (cursor) variant of findWithFilters: same filters and default sort,
+     * cost independent from the page depth. cursor null = first slice.
+     */
+    public KeysetSlice<DebtCaseListItemDto> findWithFiltersKeyset(DebtCaseFilterRequest filterRequest, Sort sort, int size, String cursor) {
+        if (sort == null || sort.isUnsorted()) {
+            sort = Sort.by(Sort.Direction.ASC, "nextDeadlineDate");
+        }
+        return debtCaseRepository.findByFiltersKeyset(filterRequest, sort, size, cursor).map(debtCaseMapper::toListItemDto);
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Ranked full-text search (notes + debtor name) restricted by the usual filters.
+     * Relevance always comes first; an explicit sort only breaks ties.
+     */
+    public Page<DebtCaseListItemDto> searchCases(String text, DebtCaseFilterRequest filterRequest, Pageable pageable) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text must not be empty");
+        }
+        return debtCaseRepository.searchText(text.trim(), filterRequest, pageable).map(debtCaseMapper::toListItemDto);
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Bucket counts for the filter panel, with the matching page unless facetsOnly.
+     * Same filters and default sort as findWithFilters; the page total comes from the facet count.
+     */
+    public DebtCaseFacetsDto getFacets(DebtCaseFilterRequest filterRequest, Pageable pageable, boolean facetsOnly) {
+        if (facetsOnly) {
+            DebtCaseFacets<DebtCase> facets = debtCaseRepository.findFacets(filterRequest, Pageable.unpaged());
+            return new DebtCaseFacetsDto(facets.total(), facets.states(), facets.paid(), facets.hasInstallmentPlan(),
+                    facets.ongoingNegotiations(), null, null);
+        }
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.ASC, "nextDeadlineDate"));
+        }
+        DebtCaseFacets<DebtCaseListItemDto> facets = debtCaseRepository.findFacets(filterRequest, pageable)
+                .map(debtCaseMapper::toListItemDto);
+        int totalPages = (int) ((facets.total() + pageable.getPageSize() - 1) / pageable.getPageSize());
+        return new DebtCaseFacetsDto(facets.total(), facets.states(), facets.paid(), facets.hasInstallmentPlan(),
+                facets.ongoingNegotiations(), facets.rows(),
+                new DebtCaseFacetsDto.PageInfo(pageable.getPageNumber(), pageable.getPageSize(), facets.total(), totalPages));
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Deadline calendar (count and owed amount per day) for the filtered cases.
+     * from defaults to today, to to from + 30 days; at most MAX_CALENDAR_DAYS days per request.
+     */
+    public DeadlineCalendarDto getDeadlineCalendar(DebtCaseFilterRequest filterRequest, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_CALENDAR_DAYS);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La data finale non può precedere la data iniziale");
+        }
+        if (start.plusDays(MAX_CALENDAR_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("L'intervallo non può superare " + MAX_CALENDAR_DAYS + " giorni");
+        }
+        List<DeadlineCalendarDto.Day> days = new ArrayList<>();
+        long totalCases = 0;
+        BigDecimal totalOwed = BigDecimal.ZERO;
+        for (DeadlineDayCount day : debtCaseRepository.deadlineHistogram(filterRequest, start, end)) {
+            BigDecimal owed = BigDecimal.valueOf(day.owedAmount());
+            days.add(new DeadlineCalendarDto.Day(day.day(), day.cases(), owed));
+            totalCases += day.cases();
+            totalOwed = totalOwed.add(owed);
+        }
+        return new DeadlineCalendarDto(start, end, totalCases, totalOwed, days);
     }
 
     /**
      * Register a payment for a debt case
      * USER PREFERENCE: Payment registration with automatic case state evaluation
+     * CUSTOM IMPLEMENTATION: One atomic update (see DebtCaseRepositoryCustom.appendPayment): the case is
+     * not loaded nor rewritten, concurrent payments on the same case cannot overwrite each other.
      */
     @Transactional
     public PaymentDto registerPayment(String debtCaseId, BigDecimal amount, LocalDateTime paymentDate) {
@@ -200,8 +283,8 @@ public class DebtCaseService {
         LocalDate paymentLocalDate = paymentDate != null ? 
             paymentDate.toLocalDate() : LocalDate.now();
 
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + debtCaseId));
+        // CUSTOM IMPLEMENTATION: no save(), the auditor is set explicitly on the payment and on the case
+        String modifiedBy = auditorAware.getCurrentAuditor().orElse("system");
 
         // USER PREFERENCE: Payment is now embedded in DebtCase
         Payment payment = new Payment();
@@ -210,26 +293,12 @@ public class DebtCaseService {
         payment.setPaymentDate(paymentLocalDate);
         payment.setCreatedDate(LocalDateTime.now());
         payment.setLastModifiedDate(LocalDateTime.now());
-        payment.setCreatedBy("system"); // TODO: get from security context
-        payment.setLastModifiedBy("system"); // TODO: get from security context
-
-        // Add payment to debt case embedded collection
-        debtCase.getPayments().add(payment);
+        payment.setCreatedBy(modifiedBy);
+        payment.setLastModifiedBy(modifiedBy);
 
-        Double totalPaid = calculateTotalPaidAmount(debtCase);
-        
-        // Auto-complete case when fully paid
-        if (totalPaid.compareTo(debtCase.getOwedAmount()) >= 0 &&
-            debtCase.getCurrentState() != CaseState.COMPLETATA) {
-            debtCase.setNotes("Case automatically marked as COMPLETATA after payment registration");
-            debtCase.setCurrentState(CaseState.COMPLETATA);
-            LocalDateTime completionDate = LocalDateTime.now();
-            debtCase.setCurrentStateDate(completionDate);
-            debtCase.setPaid(true);
-            debtCase.setNextDeadlineDate(null); // CUSTOM IMPLEMENTATION: null for completed
-        }
-
-        debtCaseRepository.save(debtCase);
+        // Auto-completion (paid, COMPLETATA, no deadline) is evaluated by the update itself
+        debtCaseRepository.appendPayment(debtCaseId, payment, modifiedBy)
+                .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + debtCaseId));
 
         // USER PREFERENCE: Fix per popolare debtCaseId nel response
         PaymentDto paymentDto = paymentMapper.toDto(payment);
@@ -248,63 +317,65 @@ public class DebtCaseService {
      */
     @Transactional
     public InstallmentPlanResponse createInstallmentPlan(String debtCaseId, InstallmentPlanRequest request) {
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + debtCaseId));
+        return optimisticRetry.execute("createInstallmentPlan", () -> {
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + debtCaseId));
 
-        // Validate that the case doesn't already have an installment plan
-        if (debtCase.getHasInstallmentPlan()) {
-            throw new IllegalStateException("DebtCase already has an installment plan");
-        }
-
-        // Validate that the case is not already completed or paid
-        if (debtCase.getCurrentState() == CaseState.COMPLETATA || debtCase.getPaid()) {
-            throw new IllegalStateException("Cannot create installment plan for completed or paid cases");
-        }
-
-        // Clear any existing installments (in case of recreating plan)
-        debtCase.getInstallments().clear();
-
-        // Create installments as embedded documents
-        List<Installment> installments = new ArrayList<>();
-        LocalDateTime currentDueDate = request.getFirstInstallmentDueDate();
-
-        for (int i = 1; i <= request.getNumberOfInstallments(); i++) {
-            Installment installment = new Installment();
-            installment.setInstallmentId(UUID.randomUUID().toString()); // Internal ID for embedded document
-            installment.setInstallmentNumber(i);
-            installment.setAmount(request.getInstallmentAmount());
-            installment.setDueDate(currentDueDate);
-            installment.setPaid(false);
-            installment.setCreatedDate(LocalDateTime.now());
-            installment.setLastModifiedDate(LocalDateTime.now());
-            installment.setCreatedBy("system"); // TODO: get from security context
-            installment.setLastModifiedBy("system"); // TODO: get from security context
-
-            installments.add(installment);
-            debtCase.getInstallments().add(installment);
-
-            // Calculate next due date
-            currentDueDate = currentDueDate.plusDays(request.getFrequencyDays());
-        }
+            // Validate that the case doesn't already have an installment plan
+            if (debtCase.getHasInstallmentPlan()) {
+                throw new IllegalStateException("DebtCase already has an installment plan");
+            }
 
-        // Update debt case
-        debtCase.setHasInstallmentPlan(true);
-        debtCase.setNextDeadlineDate(request.getFirstInstallmentDueDate());
+            // Validate that the case is not already completed or paid
+            if (debtCase.getCurrentState() == CaseState.COMPLETATA || debtCase.getPaid()) {
+                throw new IllegalStateException("Cannot create installment plan for completed or paid cases");
+            }
 
-        // Save the debt case (this will save embedded installments)
-        debtCase = debtCaseRepository.save(debtCase);
+            // Clear any existing installments (in case of recreating plan)
+            debtCase.getInstallments().clear();
+
+            // Create installments as embedded documents
+            List<Installment> installments = new ArrayList<>();
+            LocalDateTime currentDueDate = request.getFirstInstallmentDueDate();
+
+            for (int i = 1; i <= request.getNumberOfInstallments(); i++) {
+                Installment installment = new Installment();
+                installment.setInstallmentId(UUID.randomUUID().toString()); // Internal ID for embedded document
+                installment.setInstallmentNumber(i);
+                installment.setAmount(request.getInstallmentAmount());
+                installment.setDueDate(currentDueDate);
+                installment.setPaid(false);
+                installment.setCreatedDate(LocalDateTime.now());
+                installment.setLastModifiedDate(LocalDateTime.now());
+                installment.setCreatedBy("system"); // TODO: get from security context
+                installment.setLastModifiedBy("system"); // TODO: get from security context
+
+                installments.add(installment);
+                debtCase.getInstallments().add(installment);
+
+                // Calculate next due date
+                currentDueDate = currentDueDate.plusDays(request.getFrequencyDays());
+            }
 
-        // Build response
-        InstallmentPlanResponse response = new InstallmentPlanResponse();
-        response.setDebtCaseId(debtCaseId);
-        response.setNumberOfInstallments(request.getNumberOfInstallments());
-        response.setNextDeadlineDate(request.getFirstInstallmentDueDate());
-        response.setInstallments(installments.stream()
-                .map(installmentMapper::toDto)
-                .toList());
-        response.setCreatedDate(LocalDateTime.now());
-
-        return response;
+            // Update debt case
+            debtCase.setHasInstallmentPlan(true);
+            debtCase.setNextDeadlineDate(request.getFirstInstallmentDueDate());
+
+            // Save the debt case (this will save embedded installments)
+            debtCase = debtCaseRepository.save(debtCase);
+
+            // Build response
+            InstallmentPlanResponse response = new InstallmentPlanResponse();
+            response.setDebtCaseId(debtCaseId);
+            response.setNumberOfInstallments(request.getNumberOfInstallments());
+            response.setNextDeadlineDate(request.getFirstInstallmentDueDate());
+            response.setInstallments(installments.stream()
+                    .map(installmentMapper::toDto)
+                    .toList());
+            response.setCreatedDate(LocalDateTime.now());
+
+            return response;
+        });
     }
 
     /**
@@ -313,66 +384,69 @@ public class DebtCaseService {
      */
     @Transactional
     public PaymentDto registerInstallmentPayment(String debtCaseId, String installmentId, BigDecimal amount, LocalDateTime paymentDate) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Payment amount must be greater than zero");
-        }
+        return optimisticRetry.execute("registerInstallmentPayment", () -> {
+            if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Payment amount must be greater than zero");
+            }
 
-        LocalDate paymentLocalDate = paymentDate != null ?
-            paymentDate.toLocalDate() : LocalDate.now();
+            LocalDate paymentLocalDate = paymentDate != null ?
+                paymentDate.toLocalDate() : LocalDate.now();
 
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + debtCaseId));
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new RuntimeException("DebtCase not found with id: " + debtCaseId));
 
-        // Find the installment within the embedded collection
-        Installment installment = debtCase.getInstallments().stream()
-                .filter(inst -> installmentId.equals(inst.getInstallmentId()))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Installment not found with id: " + installmentId));
+            // Find the installment within the embedded collection
+            Installment installment = debtCase.getInstallments().stream()
+                    .filter(inst -> installmentId.equals(inst.getInstallmentId()))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Installment not found with id: " + installmentId));
 
-        // Check if installment is already paid
-        if (Boolean.TRUE.equals(installment.getPaid())) {
-            throw new IllegalStateException("Installment is already marked as paid");
-        }
+            // Check if installment is already paid
+            if (Boolean.TRUE.equals(installment.getPaid())) {
+                throw new IllegalStateException("Installment is already marked as paid");
+            }
 
-        // Update installment as paid
-        installment.setPaid(true);
-        installment.setPaidDate(paymentDate != null ? paymentDate : LocalDateTime.now());
-        installment.setLastModifiedDate(LocalDateTime.now());
-        installment.setLastModifiedBy("system"); // TODO: get from security context
+            // Update installment as paid
+            installment.setPaid(true);
+            installment.setPaidDate(paymentDate != null ? paymentDate : LocalDateTime.now());
+            installment.setLastModifiedDate(LocalDateTime.now());
+            installment.setLastModifiedBy("system"); // TODO: get from security context
 
-        // Create payment record linked to this installment
-        Payment payment = new Payment();
-        payment.setPaymentId(UUID.randomUUID().toString());
-        payment.setAmount(amount.doubleValue()); // USER PREFERENCE: Convert BigDecimal (DTO) to Double (MongoDB)
-        payment.setPaymentDate(paymentLocalDate);
-        payment.setInstallmentId(installmentId); // Reference to installment within same DebtCase
-        payment.setCreatedDate(LocalDateTime.now());
-        payment.setLastModifiedDate(LocalDateTime.now());
-        payment.setCreatedBy("system"); // TODO: get from security context
-        payment.setLastModifiedBy("system"); // TODO: get from security context
+            // Create payment record linked to this installment
+            Payment payment = new Payment();
+            payment.setPaymentId(UUID.randomUUID().toString());
+            payment.setAmount(amount.doubleValue()); // USER PREFERENCE: Convert BigDecimal (DTO) to Double (MongoDB)
+            payment.setPaymentDate(paymentLocalDate);
+            payment.setInstallmentId(installmentId); // Reference to installment within same DebtCase
+            payment.setCreatedDate(LocalDateTime.now());
+            payment.setLastModifiedDate(LocalDateTime.now());
+            payment.setCreatedBy("system"); // TODO: get from security context
+            payment.setLastModifiedBy("system"); // TODO: get from security context
 
-        // Add payment to debt case embedded collection
-        debtCase.getPayments().add(payment);
+            // Add payment to debt case embedded collection
+            debtCase.getPayments().add(payment);
 
-        // Save the debt case (saves all embedded documents)
-        debtCaseRepository.save(debtCase);
+            // Update debt case nextDeadlineDate to next unpaid installment
+            updateNextDeadlineForInstallmentPlan(debtCase);
 
-        // Update debt case nextDeadlineDate to next unpaid installment
-        updateNextDeadlineForInstallmentPlan(debtCase);
+            // Check if all installments are paid and update case accordingly
+            checkAndUpdateCaseCompletionStatus(debtCase);
 
-        // Check if all installments are paid and update case accordingly
-        checkAndUpdateCaseCompletionStatus(debtCase);
+            // CUSTOM IMPLEMENTATION: single save per attempt - a version conflict re-runs the whole mutation
+            debtCaseRepository.save(debtCase);
 
-        // USER PREFERENCE: Map payment to DTO and set debtCaseId since Payment is embedded
-        PaymentDto paymentDto = paymentMapper.toDto(payment);
-        paymentDto.setDebtCaseId(debtCaseId);
+            // USER PREFERENCE: Map payment to DTO and set debtCaseId since Payment is embedded
+            PaymentDto paymentDto = paymentMapper.toDto(payment);
+            paymentDto.setDebtCaseId(debtCaseId);
 
-        return paymentDto;
+            return paymentDto;
+        });
     }
 
     /**
      * Update the nextDeadlineDate of a debt case to the next unpaid installment due date
      * USER PREFERENCE: Updated for embedded installments
+     * CUSTOM IMPLEMENTATION: mutates the loaded case only, the caller saves it
      */
     private void updateNextDeadlineForInstallmentPlan(DebtCase debtCase) {
         if (Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
@@ -387,14 +461,13 @@ public class DebtCaseService {
                 // All installments are paid, set next deadline to current time
                 debtCase.setNextDeadlineDate(LocalDateTime.now());
             }
-
-            debtCaseRepository.save(debtCase);
         }
     }
 
     /**
      * Check if all installments are paid and update case status accordingly
      * USER PREFERENCE: Updated for embedded installments
+     * CUSTOM IMPLEMENTATION: mutates the loaded case only, the caller saves it
      */
     private void checkAndUpdateCaseCompletionStatus(DebtCase debtCase) {
         if (Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
@@ -414,46 +487,38 @@ public class DebtCaseService {
                     debtCase.setCurrentStateDate(completionDate);
                     debtCase.setPaid(true);
                     debtCase.setNextDeadlineDate(null); // CUSTOM IMPLEMENTATION: null for completed
-                    debtCaseRepository.save(debtCase);
                 }
             }
         }
     }
 
+    /**
+     * CUSTOM IMPLEMENTATION: Dashboard defaults (today, 7 days) served from the live in-memory counters,
+     * computed by the aggregation while they are being (re)seeded.
+     */
     public CasesSummaryDto getCasesSummary() {
-        LocalDate today = LocalDate.now();
-        List<DebtCase> notCompleted = debtCaseRepository.findByCurrentStateNot(CaseState.COMPLETATA);
-        long totalActiveCases = notCompleted.size();
-
-        long overdue = notCompleted.stream()
-            .filter(c -> c.getNextDeadlineDate() != null && c.getNextDeadlineDate().toLocalDate().isBefore(today))
-            .count();
-
-        long dueToday = notCompleted.stream()
-            .filter(c -> c.getNextDeadlineDate() != null && c.getNextDeadlineDate().toLocalDate().isEqual(today))
-            .count();
-
-        long dueNext7Days = notCompleted.stream()
-            .filter(c -> {
-                if (c.getNextDeadlineDate() == null) return false;
-                LocalDate d = c.getNextDeadlineDate().toLocalDate();
-                return !d.isBefore(today) && !d.isAfter(today.plusDays(7));
-            })
-            .count();
-
-        Map<String, Long> stateCounts = new java.util.LinkedHashMap<>();
-        for (CaseState cs : CaseState.values()) {
-            if (cs == CaseState.COMPLETATA) continue;
-            stateCounts.put(cs.name(), 0L);
-        }
-        notCompleted.forEach(c -> stateCounts.computeIfPresent(c.getCurrentState().name(), (k,v) -> v+1));
+        return liveCasesSummary.current()
+                .orElseGet(() -> getCasesSummary(LocalDate.now(), DEFAULT_SUMMARY_HORIZON_DAYS));
+    }
 
+    /**
+     * CUSTOM IMPLEMENTATION: Summary counted by a single aggregation (no case loaded in memory).
+     * referenceDate replaces "today" for every window; horizonDays adds the dueWithinHorizon window.
+     */
+    public CasesSummaryDto getCasesSummary(LocalDate referenceDate, int horizonDays) {
+        if (horizonDays < 0 || horizonDays > MAX_SUMMARY_HORIZON_DAYS) {
+            throw new IllegalArgumentException("horizonDays deve essere compreso tra 0 e " + MAX_SUMMARY_HORIZON_DAYS);
+        }
+        DebtCaseSummaryCounts counts = debtCaseRepository.summarizeActive(referenceDate, horizonDays);
         return new CasesSummaryDto(
-            totalActiveCases,
-            overdue,
-            dueToday,
-            dueNext7Days,
-            stateCounts
+            counts.totalActive(),
+            counts.overdue(),
+            counts.dueToday(),
+            counts.dueNext7Days(),
+            counts.states(),
+            referenceDate,
+            horizonDays,
+            counts.dueWithinHorizon()
         );
     }
 
@@ -468,148 +533,156 @@ public class DebtCaseService {
 
     @Transactional
     public DebtCaseDto updateNextDeadline(String id, LocalDateTime nextDeadlineDate) {
-        if (nextDeadlineDate == null) throw new IllegalArgumentException("nextDeadlineDate cannot be null");
-        DebtCase debtCase = debtCaseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + id));
-        if (debtCase.getCurrentState() != CaseState.COMPLETATA && nextDeadlineDate.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("La nuova scadenza non può essere nel passato");
-        }
-        if (Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
-            // Validate coherence with earliest unpaid installment
-            debtCase.getInstallments().stream()
-                    .filter(i -> !Boolean.TRUE.equals(i.getPaid()))
-                    .min(Comparator.comparing(Installment::getDueDate))
-                    .ifPresent(firstUnpaid -> {
-                        if (nextDeadlineDate.isAfter(firstUnpaid.getDueDate())) {
-                            throw new IllegalArgumentException("La scadenza non può essere successiva alla prima rata non pagata");
-                        }
-                    });
-        }
-        debtCase.setNextDeadlineDate(nextDeadlineDate);
-        debtCaseRepository.save(debtCase);
-        return debtCaseMapper.toDto(debtCase);
+        return optimisticRetry.execute("updateNextDeadline", () -> {
+            if (nextDeadlineDate == null) throw new IllegalArgumentException("nextDeadlineDate cannot be null");
+            DebtCase debtCase = debtCaseRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + id));
+            if (debtCase.getCurrentState() != CaseState.COMPLETATA && nextDeadlineDate.isBefore(LocalDateTime.now())) {
+                throw new IllegalArgumentException("La nuova scadenza non può essere nel passato");
+            }
+            if (Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
+                // Validate coherence with earliest unpaid installment
+                debtCase.getInstallments().stream()
+                        .filter(i -> !Boolean.TRUE.equals(i.getPaid()))
+                        .min(Comparator.comparing(Installment::getDueDate))
+                        .ifPresent(firstUnpaid -> {
+                            if (nextDeadlineDate.isAfter(firstUnpaid.getDueDate())) {
+                                throw new IllegalArgumentException("La scadenza non può essere successiva alla prima rata non pagata");
+                            }
+                        });
+            }
+            debtCase.setNextDeadlineDate(nextDeadlineDate);
+            debtCaseRepository.save(debtCase);
+            return debtCaseMapper.toDto(debtCase);
+        });
     }
 
     @Transactional
     public InstallmentDto updateSingleInstallment(String debtCaseId, String installmentId, BigDecimal amount, LocalDateTime dueDate) {
-        if (amount == null && dueDate == null) {
-            throw new IllegalArgumentException("Nessun campo da aggiornare");
-        }
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
-        if (!Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
-            throw new IllegalStateException("La pratica non ha un piano rate");
-        }
-        Installment installment = debtCase.getInstallments().stream()
-                .filter(i -> installmentId.equals(i.getInstallmentId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Installment not found with id: " + installmentId));
-        if (Boolean.TRUE.equals(installment.getPaid())) {
-            throw new IllegalStateException("Impossibile modificare una rata già pagata");
-        }
-        if (amount != null) {
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Amount must be > 0");
-            installment.setAmount(amount);
-        }
-        if (dueDate != null) {
-            if (dueDate.isBefore(LocalDateTime.now())) {
-                throw new IllegalArgumentException("La data di scadenza non può essere nel passato");
+        return optimisticRetry.execute("updateSingleInstallment", () -> {
+            if (amount == null && dueDate == null) {
+                throw new IllegalArgumentException("Nessun campo da aggiornare");
             }
-            installment.setDueDate(dueDate);
-            validateInstallmentOrdering(debtCase, true);
-            installment.setLastModifiedDate(LocalDateTime.now());
-        }
-        reorderInstallmentNumbers(debtCase);
-        // Recompute next deadline
-        updateNextDeadlineForInstallmentPlan(debtCase);
-        debtCaseRepository.save(debtCase);
-        InstallmentDto dto = installmentMapper.toDto(installment);
-        dto.setDebtCaseId(debtCaseId);
-        return dto;
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
+            if (!Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
+                throw new IllegalStateException("La pratica non ha un piano rate");
+            }
+            Installment installment = debtCase.getInstallments().stream()
+                    .filter(i -> installmentId.equals(i.getInstallmentId()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Installment not found with id: " + installmentId));
+            if (Boolean.TRUE.equals(installment.getPaid())) {
+                throw new IllegalStateException("Impossibile modificare una rata già pagata");
+            }
+            if (amount != null) {
+                if (amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Amount must be > 0");
+                installment.setAmount(amount);
+            }
+            if (dueDate != null) {
+                if (dueDate.isBefore(LocalDateTime.now())) {
+                    throw new IllegalArgumentException("La data di scadenza non può essere nel passato");
+                }
+                installment.setDueDate(dueDate);
+                validateInstallmentOrdering(debtCase, true);
+                installment.setLastModifiedDate(LocalDateTime.now());
+            }
+            reorderInstallmentNumbers(debtCase);
+            // Recompute next deadline
+            updateNextDeadlineForInstallmentPlan(debtCase);
+            debtCaseRepository.save(debtCase);
+            InstallmentDto dto = installmentMapper.toDto(installment);
+            dto.setDebtCaseId(debtCaseId);
+            return dto;
+        });
     }
 
     @Transactional
     public InstallmentPlanResponse replaceInstallmentPlan(String debtCaseId, List<InstallmentInput> installmentsInput) {
-        if (installmentsInput == null || installmentsInput.isEmpty()) {
-            throw new IllegalArgumentException("Lista rate vuota");
-        }
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
-        // Block replacement if any existing installment paid
-        boolean anyPaid = debtCase.getInstallments().stream().anyMatch(i -> Boolean.TRUE.equals(i.getPaid()));
-        if (anyPaid) {
-            throw new IllegalStateException("Impossibile sostituire il piano: esistono rate già pagate");
-        }
-        // Validate input ordering and dates
-        List<InstallmentInput> sorted = installmentsInput.stream()
-                .sorted(Comparator.comparing(InstallmentInput::dueDate))
-                .toList();
-        for (int i = 0; i < sorted.size(); i++) {
-            InstallmentInput in = sorted.get(i);
-            if (in.amount() == null || in.amount().compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Importo rata non valido (index=" + i + ")");
+        return optimisticRetry.execute("replaceInstallmentPlan", () -> {
+            if (installmentsInput == null || installmentsInput.isEmpty()) {
+                throw new IllegalArgumentException("Lista rate vuota");
             }
-            if (in.dueDate() == null) throw new IllegalArgumentException("Data rata mancante (index=" + i + ")");
-            if (in.dueDate().isBefore(LocalDateTime.now())) {
-                throw new IllegalArgumentException("La rata " + (i+1) + " ha una data nel passato");
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
+            // Block replacement if any existing installment paid
+            boolean anyPaid = debtCase.getInstallments().stream().anyMatch(i -> Boolean.TRUE.equals(i.getPaid()));
+            if (anyPaid) {
+                throw new IllegalStateException("Impossibile sostituire il piano: esistono rate già pagate");
+            }
+            // Validate input ordering and dates
+            List<InstallmentInput> sorted = installmentsInput.stream()
+                    .sorted(Comparator.comparing(InstallmentInput::dueDate))
+                    .toList();
+            for (int i = 0; i < sorted.size(); i++) {
+                InstallmentInput in = sorted.get(i);
+                if (in.amount() == null || in.amount().compareTo(BigDecimal.ZERO) <= 0) {
+                    throw new IllegalArgumentException("Importo rata non valido (index=" + i + ")");
+                }
+                if (in.dueDate() == null) throw new IllegalArgumentException("Data rata mancante (index=" + i + ")");
+                if (in.dueDate().isBefore(LocalDateTime.now())) {
+                    throw new IllegalArgumentException("La rata " + (i+1) + " ha una data nel passato");
+                }
+                if (i > 0 && !in.dueDate().isAfter(sorted.get(i-1).dueDate())) {
+                    throw new IllegalArgumentException("Le date devono essere strettamente crescenti");
+                }
             }
-            if (i > 0 && !in.dueDate().isAfter(sorted.get(i-1).dueDate())) {
-                throw new IllegalArgumentException("Le date devono essere strettamente crescenti");
+            debtCase.getInstallments().clear();
+            int number = 1;
+            for (InstallmentInput in : sorted) {
+                Installment inst = new Installment();
+                inst.setInstallmentId(UUID.randomUUID().toString());
+                inst.setInstallmentNumber(number++);
+                inst.setAmount(in.amount());
+                inst.setDueDate(in.dueDate());
+                inst.setPaid(false);
+                inst.setCreatedDate(LocalDateTime.now());
+                inst.setLastModifiedDate(LocalDateTime.now());
+                inst.setCreatedBy("system"); // TODO security context
+                inst.setLastModifiedBy("system");
+                debtCase.getInstallments().add(inst);
             }
-        }
-        debtCase.getInstallments().clear();
-        int number = 1;
-        for (InstallmentInput in : sorted) {
-            Installment inst = new Installment();
-            inst.setInstallmentId(UUID.randomUUID().toString());
-            inst.setInstallmentNumber(number++);
-            inst.setAmount(in.amount());
-            inst.setDueDate(in.dueDate());
-            inst.setPaid(false);
-            inst.setCreatedDate(LocalDateTime.now());
-            inst.setLastModifiedDate(LocalDateTime.now());
-            inst.setCreatedBy("system"); // TODO security context
-            inst.setLastModifiedBy("system");
-            debtCase.getInstallments().add(inst);
-        }
-        debtCase.setHasInstallmentPlan(true);
-        debtCase.setNextDeadlineDate(sorted.get(0).dueDate());
-        debtCaseRepository.save(debtCase);
-        InstallmentPlanResponse response = new InstallmentPlanResponse();
-        response.setDebtCaseId(debtCaseId);
-        response.setNumberOfInstallments(debtCase.getInstallments().size());
-        response.setNextDeadlineDate(debtCase.getNextDeadlineDate());
-        response.setInstallments(debtCase.getInstallments().stream().map(installmentMapper::toDto).toList());
-        response.setCreatedDate(LocalDateTime.now());
-        return response;
+            debtCase.setHasInstallmentPlan(true);
+            debtCase.setNextDeadlineDate(sorted.get(0).dueDate());
+            debtCaseRepository.save(debtCase);
+            InstallmentPlanResponse response = new InstallmentPlanResponse();
+            response.setDebtCaseId(debtCaseId);
+            response.setNumberOfInstallments(debtCase.getInstallments().size());
+            response.setNextDeadlineDate(debtCase.getNextDeadlineDate());
+            response.setInstallments(debtCase.getInstallments().stream().map(installmentMapper::toDto).toList());
+            response.setCreatedDate(LocalDateTime.now());
+            return response;
+        });
     }
 
     @Transactional
     public DebtCaseDto deleteInstallmentPlan(String debtCaseId) {
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
-        if (!Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
-            throw new IllegalStateException("La pratica non ha un piano rate");
-        }
-        boolean anyPaid = debtCase.getInstallments().stream().anyMatch(i -> Boolean.TRUE.equals(i.getPaid()));
-        if (anyPaid) {
-            throw new IllegalStateException("Impossibile eliminare il piano: esistono rate già pagate");
-        }
-        debtCase.getInstallments().clear();
-        debtCase.setHasInstallmentPlan(false);
-        // Recalculate next deadline based on state
-        if (debtCase.getCurrentState() != CaseState.COMPLETATA) {
-            LocalDate next = stateTransitionService.calculateNextDeadline(debtCase.getCurrentState(), debtCase.getCurrentStateDate());
-            if (next != null) {
-                debtCase.setNextDeadlineDate(next.atStartOfDay());
+        return optimisticRetry.execute("deleteInstallmentPlan", () -> {
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
+            if (!Boolean.TRUE.equals(debtCase.getHasInstallmentPlan())) {
+                throw new IllegalStateException("La pratica non ha un piano rate");
+            }
+            boolean anyPaid = debtCase.getInstallments().stream().anyMatch(i -> Boolean.TRUE.equals(i.getPaid()));
+            if (anyPaid) {
+                throw new IllegalStateException("Impossibile eliminare il piano: esistono rate già pagate");
+            }
+            debtCase.getInstallments().clear();
+            debtCase.setHasInstallmentPlan(false);
+            // Recalculate next deadline based on state
+            if (debtCase.getCurrentState() != CaseState.COMPLETATA) {
+                LocalDate next = stateTransitionService.calculateNextDeadline(debtCase.getCurrentState(), debtCase.getCurrentStateDate());
+                if (next != null) {
+                    debtCase.setNextDeadlineDate(next.atStartOfDay());
+                } else {
+                    debtCase.setNextDeadlineDate(null);
+                }
             } else {
                 debtCase.setNextDeadlineDate(null);
             }
-        } else {
-            debtCase.setNextDeadlineDate(null);
-        }
-        debtCaseRepository.save(debtCase);
-        return debtCaseMapper.toDto(debtCase);
+            debtCaseRepository.save(debtCase);
+            return debtCaseMapper.toDto(debtCase);
+        });
     }
 
     private void reorderInstallmentNumbers(DebtCase debtCase) {
@@ -655,73 +728,77 @@ public class DebtCaseService {
 
     @Transactional
     public PaymentDto updatePayment(String debtCaseId, String paymentId, BigDecimal amount, LocalDate paymentDate) {
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
-        Payment payment = debtCase.getPayments().stream()
-                .filter(p -> paymentId.equals(p.getPaymentId()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found with id: " + paymentId));
-        if (amount != null) {
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Payment amount must be > 0");
-            payment.setAmount(amount.doubleValue());
-        }
-        if (paymentDate != null) {
-            payment.setPaymentDate(paymentDate);
-        }
-        payment.setLastModifiedDate(LocalDateTime.now());
-        payment.setLastModifiedBy("system"); // CUSTOM IMPLEMENTATION: placeholder user
-
-        // Se pagamento legato a rata aggiorna i dati rata
-        if (payment.getInstallmentId() != null) {
-            debtCase.getInstallments().stream()
-                    .filter(i -> payment.getInstallmentId().equals(i.getInstallmentId()))
+        return optimisticRetry.execute("updatePayment", () -> {
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
+            Payment payment = debtCase.getPayments().stream()
+                    .filter(p -> paymentId.equals(p.getPaymentId()))
                     .findFirst()
-                    .ifPresent(inst -> {
-                        if (paymentDate != null) inst.setPaidDate(paymentDate.atStartOfDay());
-                        inst.setLastModifiedDate(LocalDateTime.now());
-                    });
-        }
-        // Ricalcolo flag paid (e completamento se supera importo)
-        Double totalPaid = calculateTotalPaidAmount(debtCase);
-        boolean fullyPaid = totalPaid.compareTo(debtCase.getOwedAmount()) >= 0;
-        debtCase.setPaid(fullyPaid);
-        if (fullyPaid && debtCase.getCurrentState() != CaseState.COMPLETATA) {
-            debtCase.setNotes("Case automatically marked as COMPLETATA after payment update");
-            debtCase.setCurrentState(CaseState.COMPLETATA);
-            debtCase.setCurrentStateDate(LocalDateTime.now());
-            debtCase.setNextDeadlineDate(null);
-        }
-        debtCaseRepository.save(debtCase);
-        PaymentDto dto = paymentMapper.toDto(payment);
-        dto.setDebtCaseId(debtCaseId);
-        return dto;
+                    .orElseThrow(() -> new IllegalArgumentException("Payment not found with id: " + paymentId));
+            if (amount != null) {
+                if (amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Payment amount must be > 0");
+                payment.setAmount(amount.doubleValue());
+            }
+            if (paymentDate != null) {
+                payment.setPaymentDate(paymentDate);
+            }
+            payment.setLastModifiedDate(LocalDateTime.now());
+            payment.setLastModifiedBy("system"); // CUSTOM IMPLEMENTATION: placeholder user
+
+            // Se pagamento legato a rata aggiorna i dati rata
+            if (payment.getInstallmentId() != null) {
+                debtCase.getInstallments().stream()
+                        .filter(i -> payment.getInstallmentId().equals(i.getInstallmentId()))
+                        .findFirst()
+                        .ifPresent(inst -> {
+                            if (paymentDate != null) inst.setPaidDate(paymentDate.atStartOfDay());
+                            inst.setLastModifiedDate(LocalDateTime.now());
+                        });
+            }
+            // Ricalcolo flag paid (e completamento se supera importo)
+            Double totalPaid = calculateTotalPaidAmount(debtCase);
+            boolean fullyPaid = totalPaid.compareTo(debtCase.getOwedAmount()) >= 0;
+            debtCase.setPaid(fullyPaid);
+            if (fullyPaid && debtCase.getCurrentState() != CaseState.COMPLETATA) {
+                debtCase.setNotes("Case automatically marked as COMPLETATA after payment update");
+                debtCase.setCurrentState(CaseState.COMPLETATA);
+                debtCase.setCurrentStateDate(LocalDateTime.now());
+                debtCase.setNextDeadlineDate(null);
+            }
+            debtCaseRepository.save(debtCase);
+            PaymentDto dto = paymentMapper.toDto(payment);
+            dto.setDebtCaseId(debtCaseId);
+            return dto;
+        });
     }
 
     @Transactional
     public void deletePayment(String debtCaseId, String paymentId) {
-        DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
-                .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
-        Payment target = null;
-        for (Payment p : debtCase.getPayments()) {
-            if (paymentId.equals(p.getPaymentId())) { target = p; break; }
-        }
-        if (target == null) throw new IllegalArgumentException("Payment not found with id: " + paymentId);
-        String targetInstallmentId = target.getInstallmentId(); // make effectively final for lambda
-        debtCase.getPayments().remove(target);
-        if (targetInstallmentId != null) {
-            final String instId = targetInstallmentId;
-            debtCase.getInstallments().stream()
-                    .filter(i -> instId.equals(i.getInstallmentId()))
-                    .findFirst()
-                    .ifPresent(inst -> {
-                        inst.setPaid(false);
-                        inst.setPaidDate(null);
-                        inst.setLastModifiedDate(LocalDateTime.now());
-                    });
-        }
-        Double totalPaid = calculateTotalPaidAmount(debtCase);
-        debtCase.setPaid(totalPaid.compareTo(debtCase.getOwedAmount()) >= 0);
-        debtCaseRepository.save(debtCase);
+        optimisticRetry.run("deletePayment", () -> {
+            DebtCase debtCase = debtCaseRepository.findById(debtCaseId)
+                    .orElseThrow(() -> new IllegalArgumentException("DebtCase not found with id: " + debtCaseId));
+            Payment target = null;
+            for (Payment p : debtCase.getPayments()) {
+                if (paymentId.equals(p.getPaymentId())) { target = p; break; }
+            }
+            if (target == null) throw new IllegalArgumentException("Payment not found with id: " + paymentId);
+            String targetInstallmentId = target.getInstallmentId(); // make effectively final for lambda
+            debtCase.getPayments().remove(target);
+            if (targetInstallmentId != null) {
+                final String instId = targetInstallmentId;
+                debtCase.getInstallments().stream()
+                        .filter(i -> instId.equals(i.getInstallmentId()))
+                        .findFirst()
+                        .ifPresent(inst -> {
+                            inst.setPaid(false);
+                            inst.setPaidDate(null);
+                            inst.setLastModifiedDate(LocalDateTime.now());
+                        });
+            }
+            Double totalPaid = calculateTotalPaidAmount(debtCase);
+            debtCase.setPaid(totalPaid.compareTo(debtCase.getOwedAmount()) >= 0);
+            debtCaseRepository.save(debtCase);
+        });
     }
 }
 
@@ -0,0 +1,116 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.FinancialReportDto;
+import com.debtcollection.dto.FinancialReportDto.Amounts;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.FinancialAggregate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CUSTOM IMPLEMENTATION: Financial report computed by the $unwind/$group aggregation of the repository.
+ * Remaining amount is owed - paid, as in DebtCaseMapper (negative when a case was overpaid).
+ * Reports are cached per period and tagged with the change tracker generation: any case write
+ * (events, bulk and atomic updates alike) makes every cached report stale.
+ */
+@Service
+@RequiredArgsConstructor
+public class FinancialReportService {
+
+    static final int MAX_MONTHS = 120;
+    static final int MAX_CACHED_PERIODS = 100;
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final DebtCaseChangeTracker changeTracker;
+    private final Map<Period, CachedReport> cache = new ConcurrentHashMap<>();
+
+    /**
+     * from/to: creation months, inclusive. Defaults: the last 12 months up to the current one.
+     */
+    public FinancialReportDto getReport(YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Il mese finale non può precedere il mese iniziale");
+        }
+        if (start.plusMonths(MAX_MONTHS).isBefore(end)) {
+            throw new IllegalArgumentException("Il periodo non può superare " + MAX_MONTHS + " mesi");
+        }
+
+        Period period = new Period(start, end);
+        long generation = changeTracker.generation();
+        CachedReport cached = cache.get(period);
+        if (cached != null && cached.generation() == generation) {
+            return cached.report();
+        }
+        FinancialReportDto report = compute(start, end);
+        if (cache.size() >= MAX_CACHED_PERIODS) {
+            cache.clear();
+        }
+        // Generation read before computing: a concurrent write leaves this entry already stale
+        cache.put(period, new CachedReport(generation, report));
+        return report;
+    }
+
+    private FinancialReportDto compute(YearMonth start, YearMonth end) {
+        List<FinancialAggregate> rows = debtCaseRepository.financialAggregates(
+                start.atDay(1), end.plusMonths(1).atDay(1));
+
+        Totals totals = new Totals();
+        Map<CaseState, Totals> byState = new EnumMap<>(CaseState.class);
+        Map<YearMonth, Totals> byMonth = new TreeMap<>();
+        List<FinancialReportDto.MonthStateRow> byMonthAndState = new ArrayList<>();
+        for (FinancialAggregate row : rows) {
+            YearMonth month = YearMonth.parse(row.month());
+            totals.add(row);
+            if (row.state() != null) {
+                byState.computeIfAbsent(row.state(), s -> new Totals()).add(row);
+            }
+            byMonth.computeIfAbsent(month, m -> new Totals()).add(row);
+            byMonthAndState.add(new FinancialReportDto.MonthStateRow(month, row.state(), new Totals().add(row).toAmounts()));
+        }
+        return new FinancialReportDto(
+                start,
+                end,
+                totals.toAmounts(),
+                byState.entrySet().stream()
+                        .map(e -> new FinancialReportDto.StateRow(e.getKey(), e.getValue().toAmounts()))
+                        .toList(),
+                byMonth.entrySet().stream()
+                        .map(e -> new FinancialReportDto.MonthRow(e.getKey(), e.getValue().toAmounts()))
+                        .toList(),
+                byMonthAndState);
+    }
+
+    private record Period(YearMonth from, YearMonth to) {}
+
+    private record CachedReport(long generation, FinancialReportDto report) {}
+
+    private static final class Totals {
+        private long cases;
+        private BigDecimal owed = BigDecimal.ZERO;
+        private BigDecimal paid = BigDecimal.ZERO;
+
+        Totals add(FinancialAggregate row) {
+            cases += row.cases();
+            owed = owed.add(BigDecimal.valueOf(row.owedAmount()));
+            paid = paid.add(BigDecimal.valueOf(row.paidAmount()));
+            return this;
+        }
+
+        Amounts toAmounts() {
+            return new Amounts(cases, owed, paid, owed.subtract(paid));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.CasesSummaryDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtCaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * CUSTOM IMPLEMENTATION: In-memory dashboard summary (GET /cases/summary defaults), maintained incrementally.
+ * Seeded once from Mongo (id, state and deadline of the active cases), then updated by the same
+ * lifecycle hooks used by DebtCaseValidator: each saved/deleted case replaces its own contribution.
+ * Deadlines are kept as a per-day histogram, so overdue/today/next 7 days are derived at read time
+ * and the midnight rollover only needs a push (plus a nightly resync as drift safety net).
+ *
+ * Bulk/atomic updates are published by the repository as per-document changes (DebtCaseChangeTracker.markChanged(DebtCase)
+ * and markChanged(Collection)) and applied the same way. Only writes whose touched documents are unknown
+ * (DebtCaseChangeTracker.markChanged(), delete by filter) trigger a background resync; until it completes
+ * current() is empty and callers fall back to the aggregation.
+ * Events received while a resync is loading are replayed on the fresh model, so the load never loses them.
+ */
+@Slf4j
+@Component
+public class LiveCasesSummary extends AbstractMongoEventListener<DebtCase> {
+
+    static final int NEXT_DAYS = 7;
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final boolean enabled;
+    private final Object lock = new Object();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private final ExecutorService resyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cases-summary-resync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by lock
+    private Model model = new Model();
+    private Map<String, Contribution> replay;
+    private long version;
+    private CasesSummaryDto cached;
+    private long cachedVersion = -1;
+    private LocalDate cachedDay;
+
+    private volatile boolean inSync;
+
+    public LiveCasesSummary(DebtCaseRepository debtCaseRepository, DebtCaseChangeTracker changeTracker,
+                            @Value("${debtcollection.live-summary.enabled:true}") boolean enabled) {
+        this.debtCaseRepository = debtCaseRepository;
+        this.enabled = enabled;
+        if (enabled) {
+            changeTracker.addBulkChangeListener(this::requestResync);
+            changeTracker.addDocumentChangeListener(this::onDocumentChanged);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (enabled) {
+            requestResync();
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<DebtCase> event) {
+        DebtCase debtCase = event.getSource();
+        if (enabled && debtCase.getId() != null) {
+            apply(debtCase.getId(), Contribution.of(debtCase));
+        }
+    }
+
+    private void onDocumentChanged(DebtCase debtCase) {
+        if (debtCase.getId() != null) {
+            apply(debtCase.getId(), Contribution.of(debtCase));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<DebtCase> event) {
+        if (!enabled) {
+            return;
+        }
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (query.size() == 1 && id != null && !(id instanceof Document)) {
+            apply(id.toString(), null);
+        } else {
+            requestResync(); // deleteAll / delete by filter: affected ids unknown
+        }
+    }
+
+    /**
+     * Midnight rollover: buckets shift with the date at read time, this pushes the new values to subscribers
+     * and resynchronizes from Mongo once a day.
+     */
+    @Scheduled(cron = "${debtcollection.live-summary.rollover-cron:0 0 0 * * *}")
+    public void rollover() {
+        if (enabled) {
+            synchronized (lock) {
+                version++;
+            }
+            requestResync();
+        }
+    }
+
+    /**
+     * Summary for today with the default 7 days horizon; empty while (re)seeding or when disabled.
+     */
+    public Optional<CasesSummaryDto> current() {
+        return current(LocalDate.now());
+    }
+
+    Optional<CasesSummaryDto> current(LocalDate today) {
+        if (!inSync) {
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            if (cached == null || cachedVersion != version || !today.equals(cachedDay)) {
+                cached = model.summarize(today);
+                cachedVersion = version;
+                cachedDay = today;
+            }
+            return Optional.of(cached);
+        }
+    }
+
+    /**
+     * Changes every time the summary may have changed (writes, resync, rollover).
+     */
+    public long version() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    public boolean isInSync() {
+        return inSync;
+    }
+
+    private void apply(String id, Contribution contribution) {
+        synchronized (lock) {
+            model.put(id, contribution);
+            if (replay != null) {
+                replay.put(id, contribution);
+            }
+            version++;
+        }
+    }
+
+    void requestResync() {
+        inSync = false;
+        if (resyncPending.compareAndSet(false, true)) {
+            resyncExecutor.execute(this::resync);
+        }
+    }
+
+    void resync() {
+        resyncPending.set(false);
+        synchronized (lock) {
+            replay = new HashMap<>();
+        }
+        Model fresh = new Model();
+        try (Stream<DebtCase> cases = debtCaseRepository.streamActiveSummaryKeys()) {
+            cases.forEach(debtCase -> fresh.put(debtCase.getId(), Contribution.of(debtCase)));
+        } catch (RuntimeException e) {
+            log.warn("Live cases summary resync failed, serving computed summaries: {}", e.getMessage());
+            synchronized (lock) {
+                replay = null;
+            }
+            return;
+        }
+        synchronized (lock) {
+            replay.forEach(fresh::put);
+            replay = null;
+            model = fresh;
+            version++;
+            // Another bulk change during the load: a new resync is already queued
+            inSync = !resyncPending.get();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        resyncExecutor.shutdownNow();
+    }
+
+    /**
+     * What a single active case adds to the counters; null for completed (or stateless) cases.
+     */
+    record Contribution(CaseState state, LocalDate deadline) {
+        static Contribution of(DebtCase debtCase) {
+            if (debtCase.getCurrentState() == null || debtCase.getCurrentState() == CaseState.COMPLETATA) {
+                return null;
+            }
+            return new Contribution(debtCase.getCurrentState(),
+                    debtCase.getNextDeadlineDate() != null ? debtCase.getNextDeadlineDate().toLocalDate() : null);
+        }
+    }
+
+    static final class Model {
+        private final Map<String, Contribution> byId = new HashMap<>();
+        private final Map<CaseState, Long> states = new EnumMap<>(CaseState.class);
+        private final TreeMap<LocalDate, Long> deadlines = new TreeMap<>();
+
+        void put(String id, Contribution contribution) {
+            Contribution previous = contribution != null ? byId.put(id, contribution) : byId.remove(id);
+            if (previous != null) {
+                decrement(states, previous.state());
+                if (previous.deadline() != null) {
+                    decrement(deadlines, previous.deadline());
+                }
+            }
+            if (contribution != null) {
+                states.merge(contribution.state(), 1L, Long::sum);
+                if (contribution.deadline() != null) {
+                    deadlines.merge(contribution.deadline(), 1L, Long::sum);
+                }
+            }
+        }
+
+        CasesSummaryDto summarize(LocalDate today) {
+            long overdue = sum(deadlines.headMap(today, false));
+            long dueToday = deadlines.getOrDefault(today, 0L);
+            long dueNext7Days = sum(deadlines.subMap(today, true, today.plusDays(NEXT_DAYS), true));
+            Map<String, Long> stateCounts = new LinkedHashMap<>();
+            for (CaseState caseState : CaseState.values()) {
+                if (caseState != CaseState.COMPLETATA) {
+                    stateCounts.put(caseState.name(), states.getOrDefault(caseState, 0L));
+                }
+            }
+            return new CasesSummaryDto(byId.size(), overdue, dueToday, dueNext7Days, stateCounts,
+                    today, NEXT_DAYS, dueNext7Days);
+        }
+
+        private static long sum(Map<LocalDate, Long> days) {
+            long total = 0;
+            for (long count : days.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        private static <K> void decrement(Map<K, Long> counts, K key) {
+            counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.debtcollection.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * CUSTOM IMPLEMENTATION: Retry policy for read-modify-write operations on versioned documents (@Version).
+ * The whole operation is re-run on a version conflict: it re-reads the document and re-applies the mutation
+ * to the current state, after an exponential backoff with full jitter (colliding writers spread out).
+ * After maxAttempts the conflict is rethrown (409 by GlobalExceptionHandler).
+ *
+ * Metrics, tagged with the operation name:
+ * - debtcases.write.conflicts: version conflicts detected (contention hot spots)
+ * - debtcases.write.retries: operations retried after a conflict
+ * - debtcases.write.exhausted: operations failed after the last attempt
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetry(MeterRegistry meterRegistry,
+                           @Value("${debtcollection.optimistic-retry.max-attempts:4}") int maxAttempts,
+                           @Value("${debtcollection.optimistic-retry.backoff-ms:20}") long backoffMs,
+                           @Value("${debtcollection.optimistic-retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(0, backoffMs);
+        this.maxBackoffMs = Math.max(this.backoffMs, maxBackoffMs);
+    }
+
+    /**
+     * Runs the operation, re-running it on OptimisticLockingFailureException.
+     * The operation must load the document itself: a retry with an already loaded (stale) copy conflicts again.
+     */
+    public <T> T execute(String operation, Supplier<T> readModifyWrite) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return readModifyWrite.get();
+            } catch (OptimisticLockingFailureException e) {
+                counter("debtcases.write.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("debtcases.write.exhausted", operation).increment();
+                    log.warn("Version conflict on {} not resolved after {} attempts", operation, attempt);
+                    throw e;
+                }
+                counter("debtcases.write.retries", operation).increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable readModifyWrite) {
+        execute(operation, () -> {
+            readModifyWrite.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt, OptimisticLockingFailureException conflict) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name).tag("operation", operation).register(meterRegistry);
+    }
+}
@@ -0,0 +1,288 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.PaymentImportReport;
+import com.debtcollection.dto.PaymentImportReport.Row;
+import com.debtcollection.dto.PaymentImportReport.Status;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Installment;
+import com.debtcollection.model.Payment;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.PaymentAppendResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * CUSTOM IMPLEMENTATION: Bulk payment import (bank files).
+ * Rows are validated, grouped per case and written with one update per case in unordered bulk writes
+ * of CASE_CHUNK cases (DebtCaseRepositoryCustom.appendPayments): no case is loaded nor rewritten, and
+ * the registerPayment auto-completion is evaluated by the update itself.
+ * Existing ids and installment ids are checked with one projected query per chunk; a row is APPLIED only
+ * when the bulk result confirms its case was written. A failed chunk stops the import and the report keeps
+ * the chunks already written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentImportService {
+
+    static final int MAX_ROWS = 100_000;
+    static final int CASE_CHUNK = 1000;
+
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * text/csv -> CSV; application/json (array) and application/x-ndjson -> JSON
+         */
+        public static Format fromContentType(String contentType) {
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/json") || type.startsWith("application/x-ndjson")) {
+                return JSON;
+            }
+            throw new IllegalArgumentException("Unsupported content type '" + contentType + "': use text/csv, application/json or application/x-ndjson");
+        }
+    }
+
+    private final DebtCaseRepository debtCaseRepository;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+
+    private record Input(int row, String caseId, String installmentId, String amount, String paymentDate) {}
+
+    private record Parsed(Input input, BigDecimal amount, LocalDate paymentDate) {}
+
+    public PaymentImportReport importPayments(InputStream in, Format format) throws IOException {
+        List<Input> inputs = format == Format.CSV ? readCsv(in) : readJson(in);
+        // Runs on the request thread: the uploader is the author of the payments and of the case updates
+        String modifiedBy = auditorAware.getCurrentAuditor().orElse("system");
+
+        Row[] results = new Row[inputs.size()];
+        Map<String, List<Parsed>> byCase = new LinkedHashMap<>();
+        for (Input input : inputs) {
+            Parsed parsed = null;
+            String error = null;
+            try {
+                parsed = parse(input);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+            if (parsed != null) {
+                byCase.computeIfAbsent(parsed.input().caseId(), id -> new ArrayList<>()).add(parsed);
+            } else {
+                results[input.row() - 1] = rejected(input, null, null, error);
+            }
+        }
+
+        int casesUpdated = 0;
+        List<String> caseIds = new ArrayList<>(byCase.keySet());
+        for (int from = 0; from < caseIds.size(); from += CASE_CHUNK) {
+            List<String> chunk = caseIds.subList(from, Math.min(from + CASE_CHUNK, caseIds.size()));
+            try {
+                casesUpdated += applyChunk(chunk, byCase, results, modifiedBy);
+            } catch (DataAccessException e) {
+                // The chunks before are written: report them and leave this one and the next ones out
+                log.error("Payment import interrupted after {} cases updated", casesUpdated, e);
+                String message = "Import interrupted, payment not confirmed: " + e.getMostSpecificCause().getMessage();
+                for (String caseId : caseIds.subList(from, caseIds.size())) {
+                    for (Parsed parsed : byCase.get(caseId)) {
+                        if (results[parsed.input().row() - 1] == null) {
+                            results[parsed.input().row() - 1] = rejected(parsed.input(), parsed.amount(), parsed.paymentDate(), message);
+                        }
+                    }
+                }
+                break;
+            }
+        }
+
+        int applied = 0;
+        for (Row row : results) {
+            if (row.status() == Status.APPLIED) {
+                applied++;
+            }
+        }
+        log.info("Payment import: {} rows, {} applied, {} cases updated", results.length, applied, casesUpdated);
+        return new PaymentImportReport(results.length, applied, results.length - applied, casesUpdated, List.of(results));
+    }
+
+    private int applyChunk(List<String> caseIds, Map<String, List<Parsed>> byCase, Row[] results, String modifiedBy) {
+        Map<String, Map<String, Boolean>> installmentsByCase = new HashMap<>();
+        for (DebtCase debtCase : debtCaseRepository.findInstallmentKeys(caseIds)) {
+            Map<String, Boolean> installments = new HashMap<>();
+            if (debtCase.getInstallments() != null) {
+                for (Installment installment : debtCase.getInstallments()) {
+                    installments.put(installment.getInstallmentId(), Boolean.TRUE.equals(installment.getPaid()));
+                }
+            }
+            installmentsByCase.put(debtCase.getId(), installments);
+        }
+
+        Map<String, List<Payment>> paymentsByCase = new LinkedHashMap<>();
+        for (String caseId : caseIds) {
+            Map<String, Boolean> installments = installmentsByCase.get(caseId);
+            Set<String> paidInFile = new HashSet<>();
+            for (Parsed parsed : byCase.get(caseId)) {
+                Input input = parsed.input();
+                String error = null;
+                if (installments == null) {
+                    error = "DebtCase not found with id: " + caseId;
+                } else if (input.installmentId() != null) {
+                    Boolean alreadyPaid = installments.get(input.installmentId());
+                    if (alreadyPaid == null) {
+                        error = "Installment not found with id: " + input.installmentId();
+                    } else if (alreadyPaid || !paidInFile.add(input.installmentId())) {
+                        error = "Installment is already marked as paid";
+                    }
+                }
+                if (error != null) {
+                    results[input.row() - 1] = rejected(input, parsed.amount(), parsed.paymentDate(), error);
+                    continue;
+                }
+                paymentsByCase.computeIfAbsent(caseId, id -> new ArrayList<>()).add(payment(parsed, modifiedBy));
+            }
+        }
+        if (paymentsByCase.isEmpty()) {
+            return 0;
+        }
+
+        // Rows are APPLIED only when the update of their case was written
+        PaymentAppendResult written = debtCaseRepository.appendPayments(paymentsByCase, modifiedBy);
+        for (String caseId : paymentsByCase.keySet()) {
+            String error = written.updated().contains(caseId) ? null
+                    : written.failed().getOrDefault(caseId, "DebtCase not found with id: " + caseId);
+            for (Parsed parsed : byCase.get(caseId)) {
+                Input input = parsed.input();
+                if (results[input.row() - 1] != null) {
+                    continue; // rejected by the checks above
+                }
+                results[input.row() - 1] = error == null
+                        ? new Row(input.row(), caseId, input.installmentId(), parsed.amount(), parsed.paymentDate(), Status.APPLIED, null)
+                        : rejected(input, parsed.amount(), parsed.paymentDate(), error);
+            }
+        }
+        return written.updated().size();
+    }
+
+    private static Parsed parse(Input input) {
+        if (input.caseId() == null) {
+            throw new IllegalArgumentException("caseId is required");
+        }
+        BigDecimal amount;
+        try {
+            amount = input.amount() != null ? new BigDecimal(input.amount()) : null;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount '" + input.amount() + "'");
+        }
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than zero");
+        }
+        LocalDate paymentDate;
+        try {
+            paymentDate = input.paymentDate() != null ? LocalDate.parse(input.paymentDate()) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid paymentDate '" + input.paymentDate() + "': use yyyy-MM-dd");
+        }
+        return new Parsed(input, amount, paymentDate);
+    }
+
+    private static Payment payment(Parsed parsed, String modifiedBy) {
+        // Same fields as DebtCaseService.registerPayment / registerInstallmentPayment
+        Payment payment = new Payment();
+        payment.setPaymentId(UUID.randomUUID().toString());
+        payment.setAmount(parsed.amount().doubleValue()); // USER PREFERENCE: Convert BigDecimal (DTO) to Double (MongoDB)
+        payment.setPaymentDate(parsed.paymentDate());
+        payment.setInstallmentId(parsed.input().installmentId());
+        payment.setCreatedDate(LocalDateTime.now());
+        payment.setLastModifiedDate(LocalDateTime.now());
+        payment.setCreatedBy(modifiedBy);
+        payment.setLastModifiedBy(modifiedBy);
+        return payment;
+    }
+
+    private static Row rejected(Input input, BigDecimal amount, LocalDate paymentDate, String message) {
+        return new Row(input.row(), input.caseId(), input.installmentId(), amount, paymentDate, Status.REJECTED, message);
+    }
+
+    /**
+     * Header row with column names (any order): caseId, amount, paymentDate (or date), installmentId (optional).
+     * Separator "," or ";" (detected from the header), RFC 4180 quoting.
+     */
+    private List<Input> readCsv(InputStream in) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (reader.readHeader().isEmpty()) {
+            return List.of();
+        }
+        Integer caseId = reader.column("caseId");
+        Integer amount = reader.column("amount");
+        Integer date = reader.column("paymentDate", "date");
+        Integer installmentId = reader.column("installmentId");
+        if (caseId == null || amount == null) {
+            throw new IllegalArgumentException("CSV header must contain the caseId and amount columns");
+        }
+
+        List<Input> inputs = new ArrayList<>();
+        List<String> values;
+        while ((values = reader.next()) != null) {
+            checkRowLimit(inputs.size());
+            inputs.add(new Input(inputs.size() + 1, CsvRecordReader.value(values, caseId), CsvRecordReader.value(values, installmentId),
+                    CsvRecordReader.value(values, amount), CsvRecordReader.value(values, date)));
+        }
+        return inputs;
+    }
+
+    /**
+     * JSON array of objects or newline-delimited objects: {"caseId","amount","paymentDate","installmentId"}
+     */
+    private List<Input> readJson(InputStream in) throws IOException {
+        List<Input> inputs = new ArrayList<>();
+        try (MappingIterator<JsonNode> it = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (it.hasNextValue()) {
+                JsonNode node = it.nextValue();
+                checkRowLimit(inputs.size());
+                inputs.add(new Input(inputs.size() + 1, text(node, "caseId"), text(node, "installmentId"),
+                        text(node, "amount"), text(node, "paymentDate")));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON after row " + inputs.size() + ": " + e.getOriginalMessage());
+        }
+        return inputs;
+    }
+
+    private static void checkRowLimit(int rows) {
+        if (rows >= MAX_ROWS) {
+            throw new IllegalArgumentException("Too many rows: max " + MAX_ROWS + " payments per import");
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() || value.asText().isBlank() ? null : value.asText().trim();
+    }
+}
@@ -0,0 +1,153 @@
+package com.debtcollection.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * CUSTOM IMPLEMENTATION: Subscribers of a server-sent events stream (used by the SSE broadcasters).
+ * Sends are dispatched to a dedicated executor: a slow or stalled client never blocks the scheduler or
+ * event publisher thread that produced the event, nor the other subscribers. Each subscriber has its own
+ * queue drained by at most one task at a time, so its events keep their order; a subscriber whose queue
+ * exceeds MAX_PENDING_EVENTS (client not reading) or whose send fails is dropped.
+ */
+@Slf4j
+final class SseSubscribers {
+
+    static final int MAX_PENDING_EVENTS = 10_000;
+
+    private final String name;
+    private final long emitterTimeoutMs;
+    private final Executor sendExecutor;
+    private final ExecutorService ownedExecutor;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    SseSubscribers(String name, long emitterTimeoutMs) {
+        this(name, emitterTimeoutMs, Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-sse-send");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    SseSubscribers(String name, long emitterTimeoutMs, Executor sendExecutor) {
+        this.name = name;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.sendExecutor = sendExecutor;
+        this.ownedExecutor = sendExecutor instanceof ExecutorService executorService ? executorService : null;
+    }
+
+    SseEmitter subscribe() {
+        // Clients reconnect after the timeout (EventSource does it automatically)
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.put(emitter, new Subscriber(emitter));
+        return emitter;
+    }
+
+    /**
+     * Queues the events for one subscriber (e.g. the current value on connect).
+     */
+    void send(SseEmitter emitter, List<SseEmitter.SseEventBuilder> events) {
+        Subscriber subscriber = subscribers.get(emitter);
+        if (subscriber != null) {
+            subscriber.enqueue(events);
+        }
+    }
+
+    /**
+     * Queues the events for every subscriber. Event builders are single use: the supplier is called once per subscriber.
+     */
+    void broadcast(Supplier<List<SseEmitter.SseEventBuilder>> events) {
+        subscribers.values().forEach(subscriber -> subscriber.enqueue(events.get()));
+    }
+
+    /**
+     * Keeps idle connections open through proxies
+     */
+    void heartbeat() {
+        broadcast(() -> List.of(SseEmitter.event().comment("keep-alive")));
+    }
+
+    boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    int size() {
+        return subscribers.size();
+    }
+
+    void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        log.debug("Dropping {} subscriber: {}", name, reason);
+        subscribers.remove(subscriber.emitter);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Guarded by this
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(List<SseEmitter.SseEventBuilder> events) {
+            synchronized (this) {
+                if (pending.size() + events.size() > MAX_PENDING_EVENTS) {
+                    pending.clear();
+                    drop(this, "too many pending events");
+                    emitter.complete();
+                    return;
+                }
+                pending.addAll(events);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sendExecutor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    event = pending.poll();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    drop(this, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+}
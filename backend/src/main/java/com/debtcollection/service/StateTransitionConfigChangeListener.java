@@ -0,0 +1,29 @@
+package com.debtcollection.service;
+
+import com.debtcollection.model.StateTransitionConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * CUSTOM IMPLEMENTATION: Change signal of the state transition config snapshot - any config save/delete
+ * through the repository or MongoTemplate makes StateTransitionService reload it on the next lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class StateTransitionConfigChangeListener extends AbstractMongoEventListener<StateTransitionConfig> {
+
+    private final StateTransitionService stateTransitionService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<StateTransitionConfig> event) {
+        stateTransitionService.invalidate();
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<StateTransitionConfig> event) {
+        stateTransitionService.invalidate();
+    }
+}
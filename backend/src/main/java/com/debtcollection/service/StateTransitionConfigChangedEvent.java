@@ -0,0 +1,13 @@
+package com.debtcollection.service;
+
+import com.debtcollection.model.CaseState;
+
+import java.util.Set;
+
+/**
+ * CUSTOM IMPLEMENTATION: Published by StateTransitionService after an update changed daysToTransition or
+ * dayCountMode of the given fromStates (new snapshot already published). previousRules is the snapshot
+ * the stored deadlines were computed with, to tell them apart from deadlines set by hand.
+ */
+public record StateTransitionConfigChangedEvent(Set<CaseState> states, DeadlineRules previousRules) {
+}
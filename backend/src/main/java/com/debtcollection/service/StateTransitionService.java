@@ -1,9 +1,11 @@
 package com.debtcollection.service;
 
 import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DayCountMode;
 import com.debtcollection.model.StateTransitionConfig;
 import com.debtcollection.repository.StateTransitionConfigRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
@@ -13,38 +15,88 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * CUSTOM IMPLEMENTATION: Transition configs are served from an immutable EnumMap snapshot published atomically
+ * (copy-on-write): deadline computations are in-memory lookups, without queries.
+ * A new snapshot is loaded by refreshCache/updateDaysBulk, and lazily on the next lookup after a config
+ * document is saved or deleted (StateTransitionConfigChangeListener). Each published snapshot gets a new version.
+ */
 @Service
 @RequiredArgsConstructor
 public class StateTransitionService {
 
     private static final Logger log = LoggerFactory.getLogger(StateTransitionService.class);
-    private final Map<CaseState, StateTransitionConfig> cache = new ConcurrentHashMap<>();
 
     private final StateTransitionConfigRepository stateTransitionConfigRepository;
+    private final BusinessDayCalendar businessDayCalendar;
+    private final ApplicationEventPublisher eventPublisher;
 
     public static final int DEFAULT_FALLBACK_DAYS = 10;
 
-    public void refreshCache() {
-        cache.clear();
-        stateTransitionConfigRepository.findAll().forEach(config -> {
-            cache.put(config.getFromState(), config);
-        });
+    private volatile DeadlineRules snapshot;
+    // Change signal: invalidate() counts changes, a reload records the count it started from once its snapshot
+    // is published - a failed reload or a change during the reload leaves the snapshot stale
+    private final AtomicLong changes = new AtomicLong(1);
+    private volatile long loadedChanges;
+
+    public synchronized void refreshCache() {
+        long changesAtStart = changes.get();
+        Map<CaseState, StateTransitionConfig> configs = new EnumMap<>(CaseState.class);
+        stateTransitionConfigRepository.findAll().forEach(config -> configs.put(config.getFromState(), config));
+        snapshot = new DeadlineRules(snapshot != null ? snapshot.version() + 1 : 1, Collections.unmodifiableMap(configs), businessDayCalendar);
+        loadedChanges = changesAtStart;
         // DEBUG: log all state transitions loaded
-        log.info("Loaded state transitions:");
-        cache.forEach((state, config) -> log.info("from_state={} to_state={} days={}", state, config.getToState(), config.getDaysToTransition()));
+        log.info("Loaded state transitions (version {}):", snapshot.version());
+        configs.forEach((state, config) -> log.info("from_state={} to_state={} days={} mode={}", state, config.getToState(), config.getDaysToTransition(),
+                Objects.requireNonNullElse(config.getDayCountMode(), DayCountMode.CALENDAR_DAYS)));
+    }
+
+    /**
+     * Marks the snapshot outdated: the next lookup reloads it (one query, whatever the number of changes)
+     */
+    public void invalidate() {
+        changes.incrementAndGet();
+    }
+
+    private boolean stale() {
+        return loadedChanges != changes.get();
+    }
+
+    /**
+     * Version of the current snapshot, incremented at each reload
+     */
+    public long configVersion() {
+        return currentSnapshot().version();
+    }
+
+    /**
+     * Reloads on demand when stale, also when the startup preload failed. A failed reload is retried
+     * by the next lookup.
+     */
+    private DeadlineRules currentSnapshot() {
+        if (stale()) {
+            synchronized (this) {
+                if (stale()) {
+                    try {
+                        refreshCache();
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException("State transition configuration could not be loaded: " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        return snapshot;
     }
 
     @PostConstruct
     public void logTransitionsAtStartup() {
-        log.info("[DEBUG] StateTransitionService @PostConstruct - Checking state_transition_config content");
-        stateTransitionConfigRepository.findAll().forEach(config ->
-            log.info("[DEBUG] DB: from_state={} to_state={} days={}", config.getFromState(), config.getToState(), config.getDaysToTransition()));
         try {
             refreshCache();
-            log.info("[DEBUG] Cache preloaded with {} transition configs", cache.size());
+            log.info("[DEBUG] Cache preloaded with {} transition configs", snapshot.configs().size());
         } catch (Exception e) {
+            // Still stale: the first lookup loads it
             log.warn("[WARN] Failed to preload state transition cache: {}", e.getMessage());
         }
     }
@@ -53,21 +105,26 @@ public class StateTransitionService {
         if(fromState == CaseState.COMPLETATA) {
             return LocalDate.MAX;
         }
-        try {
-            long repoCount = stateTransitionConfigRepository.count();
-            if (repoCount > 0 && repoCount != cache.size()) {
-                log.debug("[DEBUG] StateTransitionService cache size {} differs from repo count {} -> refreshing", cache.size(), repoCount);
-                refreshCache();
-            }
-        } catch (Exception e) {
-            log.warn("[WARN] Unable to verify state transition cache consistency: {}", e.getMessage());
-        }
-        StateTransitionConfig config = cache.computeIfAbsent(fromState, stateTransitionConfigRepository::findByFromState);
-        if (config == null) {
+        DeadlineRules rules = currentSnapshot();
+        if (!rules.configs().containsKey(fromState)) {
             log.warn("[WARN] No transition configuration found for state: {} - applying fallback {} days", fromState, DEFAULT_FALLBACK_DAYS);
-            return lastStateDate.toLocalDate().plusDays(DEFAULT_FALLBACK_DAYS);
         }
-        return lastStateDate.toLocalDate().plusDays(config.getDaysToTransition());
+        return rules.nextDeadline(fromState, lastStateDate);
+    }
+
+    /**
+     * Configs of the current snapshot by fromState (unmodifiable)
+     */
+    public Map<CaseState, StateTransitionConfig> configSnapshot() {
+        return currentSnapshot().configs();
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Current snapshot, for bulk computations that must apply one consistent
+     * configuration to every case (e.g. case import).
+     */
+    public DeadlineRules deadlineRules() {
+        return currentSnapshot();
     }
 
     public List<StateTransitionConfig> listAllConfigs() {
@@ -75,23 +132,52 @@ public class StateTransitionService {
     }
 
     public List<StateTransitionConfig> updateDaysBulk(Map<CaseState, Integer> updates) {
-        if (updates == null || updates.isEmpty()) {
+        return updateBulk(updates, Map.of());
+    }
+
+    /**
+     * CUSTOM IMPLEMENTATION: Updates days and/or day count mode per fromState (states missing from a map keep
+     * their value), then publishes one new snapshot and a StateTransitionConfigChangedEvent for the states whose
+     * rule actually changed, with the snapshot before the update (their cases' deadlines are recomputed in background).
+     */
+    public List<StateTransitionConfig> updateBulk(Map<CaseState, Integer> days, Map<CaseState, DayCountMode> modes) {
+        Set<CaseState> states = new LinkedHashSet<>();
+        if (days != null) states.addAll(days.keySet());
+        if (modes != null) states.addAll(modes.keySet());
+        if (states.isEmpty()) {
             return listAllConfigs();
         }
+        DeadlineRules previousRules = currentSnapshot();
         List<StateTransitionConfig> toSave = new ArrayList<>();
-        updates.forEach((fromState, days) -> {
-            if (days == null || days <= 0) {
-                throw new IllegalArgumentException("daysToTransition must be > 0 for state " + fromState);
-            }
+        Set<CaseState> changed = EnumSet.noneOf(CaseState.class);
+        for (CaseState fromState : states) {
             StateTransitionConfig existing = stateTransitionConfigRepository.findByFromState(fromState);
             if (existing == null) {
                 throw new IllegalArgumentException("No configuration found for fromState " + fromState);
             }
-            existing.setDaysToTransition(days);
+            Integer previousDays = existing.getDaysToTransition();
+            DayCountMode previousMode = Objects.requireNonNullElse(existing.getDayCountMode(), DayCountMode.CALENDAR_DAYS);
+            if (days != null && days.containsKey(fromState)) {
+                Integer value = days.get(fromState);
+                if (value == null || value <= 0) {
+                    throw new IllegalArgumentException("daysToTransition must be > 0 for state " + fromState);
+                }
+                existing.setDaysToTransition(value);
+            }
+            if (modes != null && modes.get(fromState) != null) {
+                existing.setDayCountMode(modes.get(fromState));
+            }
+            if (!Objects.equals(previousDays, existing.getDaysToTransition())
+                    || previousMode != Objects.requireNonNullElse(existing.getDayCountMode(), DayCountMode.CALENDAR_DAYS)) {
+                changed.add(fromState);
+            }
             toSave.add(existing);
-        });
+        }
         stateTransitionConfigRepository.saveAll(toSave);
         refreshCache();
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new StateTransitionConfigChangedEvent(Collections.unmodifiableSet(changed), previousRules));
+        }
         return listAllConfigs();
     }
 }
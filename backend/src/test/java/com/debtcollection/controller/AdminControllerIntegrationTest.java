@@ -0,0 +1,154 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseIndexManager;
+import com.debtcollection.repository.DebtCaseIndexManager.QueryShapeReport;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Index management endpoints and plan checks (COLLSCAN, index bounds) on a seeded collection
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class AdminControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseIndexManager indexManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    /** Shapes whose filter must be fully served by the index bounds when sorted on their indexed field. */
+    private static final Map<String, String> BOUNDED_SHAPES = Map.of(
+            "state", "currentState",
+            "amountRange", "owedAmount",
+            "deadlineRange", "nextDeadlineDate",
+            "state+deadlineRange", "nextDeadlineDate",
+            "paid+plan+deadlineRange", "nextDeadlineDate");
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        CaseState[] states = CaseState.values();
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        List<DebtCase> cases = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            DebtCase debtCase = new DebtCase();
+            debtCase.setDebtorName("Debitore " + i);
+            debtCase.setOwedAmount(50.0 + (i % 200) * 40);
+            debtCase.setCurrentState(states[i % states.length]);
+            debtCase.setCurrentStateDate(today.minusDays(i % 90));
+            boolean completed = debtCase.getCurrentState() == CaseState.COMPLETATA;
+            if (!completed || i % 10 == 0) { // some completed cases keep a manually set deadline
+                debtCase.setNextDeadlineDate(today.plusDays(i % 120 - 60).plusHours(9));
+            }
+            debtCase.setPaid(completed || i % 4 == 0);
+            debtCase.setHasInstallmentPlan(i % 5 == 0);
+            debtCase.setOngoingNegotiations(i % 3 == 0);
+            cases.add(debtCase);
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class).insert(cases).execute();
+        indexManager.ensureIndexes();
+    }
+
+    @AfterEach
+    void tearDown() {
+        debtCaseRepository.deleteAll();
+    }
+
+    @Test
+    void noSupportedQueryShapeShouldScanTheCollection() {
+        List<QueryShapeReport> reports = indexManager.verifyQueryShapes();
+
+        assertFalse(reports.isEmpty());
+        List<QueryShapeReport> scans = reports.stream().filter(QueryShapeReport::collectionScan).toList();
+        assertTrue(scans.isEmpty(), "COLLSCAN for: " + scans);
+    }
+
+    @Test
+    void selectiveShapesShouldBeServedByIndexBounds() {
+        Map<String, QueryShapeReport> reports = indexManager.verifyQueryShapes().stream()
+                .filter(report -> report.sort().equals(BOUNDED_SHAPES.get(report.filter())))
+                .collect(Collectors.toMap(QueryShapeReport::filter, Function.identity()));
+
+        assertEquals(BOUNDED_SHAPES.keySet(), reports.keySet());
+        reports.values().forEach(report -> {
+            assertTrue(report.returned() > 0, "no match for " + report);
+            // Every fetched document is returned: no predicate is evaluated after the fetch
+            assertEquals(report.returned(), report.docsExamined(), "documents filtered after the index scan: " + report);
+            assertFalse(report.stages().contains("SORT"), "blocking sort: " + report);
+        });
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testVerifyIndexesEndpoint() throws Exception {
+        mockMvc.perform(post("/admin/indexes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.indexes", hasItem(DebtCaseIndexManager.TEXT_INDEX_NAME)));
+
+        mockMvc.perform(get("/admin/indexes/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shapes", not(empty())))
+                .andExpect(jsonPath("$.collectionScans", empty()));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testAdminEndpointsRequireAdminRole() throws Exception {
+        mockMvc.perform(get("/admin/indexes/verify"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testQueryStatsListsExecutedShapes() throws Exception {
+        mockMvc.perform(delete("/admin/query-stats"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/cases").param("state", "PRECETTO"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/admin/query-stats").param("top", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].shape", hasItem(allOf(
+                        startsWith("find debt_cases"), containsString("\"current_state\": \"?\"")))))
+                .andExpect(jsonPath("$[0].count", greaterThanOrEqualTo(1)));
+
+        mockMvc.perform(get("/admin/query-stats").param("orderBy", "median"))
+                .andExpect(status().isBadRequest());
+    }
+}
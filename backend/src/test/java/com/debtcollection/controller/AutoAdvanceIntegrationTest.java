@@ -0,0 +1,98 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for POST /admin/auto-advance
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "debtcollection.auto-advance.chunk-size=2")
+class AutoAdvanceIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+    }
+
+    private DebtCase save(String name, CaseState state, int deadlineInDays, boolean installmentPlan) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(1000.0);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(LocalDateTime.now().minusDays(20));
+        debtCase.setNextDeadlineDate(LocalDate.now().plusDays(deadlineInDays).atStartOfDay());
+        debtCase.setPaid(false);
+        debtCase.setOngoingNegotiations(false);
+        debtCase.setHasInstallmentPlan(installmentPlan);
+        return debtCaseRepository.save(debtCase);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testAutoAdvanceMovesOnlyDueCases() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            save("Debitore " + i, CaseState.MESSA_IN_MORA_DA_FARE, -1 - i, false);
+        }
+        DebtCase dueToday = save("Mario Rossi", CaseState.MESSA_IN_MORA_DA_FARE, 0, false);
+
+        mockMvc.perform(post("/admin/auto-advance").param("dryRun", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dryRun", is(true)))
+                .andExpect(jsonPath("$.due", is(5)))
+                .andExpect(jsonPath("$.advanced", is(0)));
+
+        mockMvc.perform(post("/admin/auto-advance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.advanced", is(5)));
+
+        for (DebtCase debtCase : debtCaseRepository.findAll()) {
+            if (debtCase.getId().equals(dueToday.getId())) {
+                assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, debtCase.getCurrentState());
+                continue;
+            }
+            assertEquals(CaseState.MESSA_IN_MORA_INVIATA, debtCase.getCurrentState());
+            assertFalse(debtCase.getNextDeadlineDate().toLocalDate().isBefore(LocalDate.now()));
+            assertEquals("system", debtCase.getLastModifiedBy());
+        }
+
+        // Moved cases are no longer due
+        mockMvc.perform(post("/admin/auto-advance"))
+                .andExpect(jsonPath("$.advanced", is(0)));
+        mockMvc.perform(get("/admin/auto-advance/reports"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(3))))
+                .andExpect(jsonPath("$[0].advanced", is(0)));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testAutoAdvanceRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/admin/auto-advance")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,119 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for POST /cases/bulk-transition
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "debtcollection.bulk-transition.chunk-size=2")
+class BulkTransitionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+    }
+
+    private DebtCase save(String name, CaseState state) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(1000.0);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(LocalDateTime.now().minusDays(30));
+        debtCase.setNextDeadlineDate(LocalDateTime.now().minusDays(5));
+        return debtCaseRepository.save(debtCase);
+    }
+
+    private JsonNode awaitFinished(String jobId) throws Exception {
+        for (int i = 0; i < 300; i++) {
+            MvcResult result = mockMvc.perform(get("/cases/bulk-transition/" + jobId)).andExpect(status().isOk()).andReturn();
+            JsonNode status = objectMapper.readTree(result.getResponse().getContentAsString());
+            if (status.get("finishedAt") != null && !status.get("finishedAt").isNull()) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Bulk transition " + jobId + " not finished");
+    }
+
+    @Test
+    @WithMockUser(username = "avvocato")
+    void testBulkTransitionMovesOnlyMatchingCases() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            save("Debitore " + i, CaseState.DEPOSITO_RICORSO);
+        }
+        DebtCase other = save("Mario Rossi", CaseState.PRECETTO);
+
+        mockMvc.perform(post("/cases/bulk-transition")
+                        .param("states", "DEPOSITO_RICORSO")
+                        .param("targetState", "DECRETO_INGIUNTIVO_DA_NOTIFICARE")
+                        .param("dryRun", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("DRY_RUN")))
+                .andExpect(jsonPath("$.matched", is(5)));
+        assertEquals(5, debtCaseRepository.findAll().stream().filter(c -> c.getCurrentState() == CaseState.DEPOSITO_RICORSO).count());
+
+        MvcResult result = mockMvc.perform(post("/cases/bulk-transition")
+                        .param("states", "DEPOSITO_RICORSO")
+                        .param("targetState", "DECRETO_INGIUNTIVO_DA_NOTIFICARE"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/cases/bulk-transition/")))
+                .andReturn();
+        JsonNode status = awaitFinished(objectMapper.readTree(result.getResponse().getContentAsString()).get("jobId").asText());
+        assertEquals("COMPLETED", status.get("status").asText());
+        assertEquals(5, status.get("updated").asLong());
+
+        for (DebtCase debtCase : debtCaseRepository.findAll()) {
+            if (debtCase.getId().equals(other.getId())) {
+                assertEquals(CaseState.PRECETTO, debtCase.getCurrentState());
+                continue;
+            }
+            assertEquals(CaseState.DECRETO_INGIUNTIVO_DA_NOTIFICARE, debtCase.getCurrentState());
+            assertTrue(debtCase.getNextDeadlineDate().isAfter(LocalDateTime.now()));
+            assertEquals("avvocato", debtCase.getLastModifiedBy());
+            assertEquals(1L, debtCase.getVersion());
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void testBulkTransitionRequiresFilterAndTarget() throws Exception {
+        mockMvc.perform(post("/cases/bulk-transition").param("targetState", "PRECETTO"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+        mockMvc.perform(post("/cases/bulk-transition").param("states", "PRECETTO"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/cases/bulk-transition/missing")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,122 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for POST /cases/import (background job, progress, error file)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "debtcollection.case-import.chunk-size=500")
+class CaseImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+    }
+
+    private JsonNode awaitFinished(String jobId) throws Exception {
+        for (int i = 0; i < 600; i++) {
+            MvcResult result = mockMvc.perform(get("/cases/import/" + jobId)).andExpect(status().isOk()).andReturn();
+            JsonNode status = objectMapper.readTree(result.getResponse().getContentAsString());
+            String state = status.get("status").asText();
+            if (state.equals("COMPLETED") || state.equals("FAILED")) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Import " + jobId + " not finished");
+    }
+
+    private String startImport(String csv) throws Exception {
+        MvcResult result = mockMvc.perform(post("/cases/import").contentType("text/csv").content(csv))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/cases/import/")))
+                .andExpect(jsonPath("$.jobId", notNullValue()))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("jobId").asText();
+    }
+
+    @Test
+    @WithMockUser(username = "importer")
+    void testImportCreatesCasesAndReportsRejectedRows() throws Exception {
+        String jobId = startImport("""
+                debtorName,amount,state,stateDate
+                Mario Rossi,1500.00,PRECETTO,2025-03-10
+                Luigi Verdi,-1,,
+                Anna Bianchi,200,,
+                """);
+
+        JsonNode status = awaitFinished(jobId);
+        assertEquals("COMPLETED", status.get("status").asText());
+        assertEquals(2, status.get("imported").asLong());
+        assertEquals(1, status.get("rejected").asLong());
+        assertEquals(100, status.get("percent").asInt());
+        assertTrue(status.get("errorFileAvailable").asBoolean());
+
+        List<DebtCase> cases = debtCaseRepository.findAll();
+        assertEquals(2, cases.size());
+        DebtCase mario = cases.stream().filter(c -> c.getDebtorName().equals("Mario Rossi")).findFirst().orElseThrow();
+        assertEquals(CaseState.PRECETTO, mario.getCurrentState());
+        assertNotNull(mario.getNextDeadlineDate());
+        assertEquals("importer", mario.getCreatedBy());
+
+        mockMvc.perform(get("/cases/import/" + jobId + "/errors"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("attachment")))
+                .andExpect(content().string(containsString("3,Amount must be greater than zero,Luigi Verdi,-1")));
+    }
+
+    @Test
+    @WithMockUser
+    void testLargeImportIsInsertedInChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("debtorName;amount\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("Debitore ").append(i).append(';').append(100 + i).append('\n');
+        }
+
+        JsonNode status = awaitFinished(startImport(csv.toString()));
+
+        assertEquals("COMPLETED", status.get("status").asText());
+        assertEquals(5_000, status.get("imported").asLong());
+        assertFalse(status.get("errorFileAvailable").asBoolean());
+        assertEquals(5_000, debtCaseRepository.count());
+    }
+
+    @Test
+    @WithMockUser
+    void testUnknownJobReturnsNotFound() throws Exception {
+        mockMvc.perform(get("/cases/import/missing")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/cases/import/missing/errors")).andExpect(status().isNotFound());
+    }
+}
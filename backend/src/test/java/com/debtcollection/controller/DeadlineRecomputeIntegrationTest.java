@@ -0,0 +1,150 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.StateTransitionConfig;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.StateTransitionConfigRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for the deadline recomputation queued by PUT /state-transitions
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = {"debtcollection.deadline-recompute.chunk-size=2", "debtcollection.deadline-recompute.pause-ms=0"})
+class DeadlineRecomputeIntegrationTest {
+
+    private static final LocalDateTime STATE_DATE = LocalDateTime.of(2025, 3, 3, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @Autowired
+    private StateTransitionConfigRepository configRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Integer originalDays;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        originalDays = configRepository.findByFromState(CaseState.PRECETTO).getDaysToTransition();
+    }
+
+    @AfterEach
+    void restoreConfig() {
+        StateTransitionConfig config = configRepository.findByFromState(CaseState.PRECETTO);
+        config.setDaysToTransition(originalDays);
+        configRepository.save(config);
+    }
+
+    private DebtCase save(String name, CaseState state, boolean installmentPlan, LocalDateTime nextDeadline) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(1000.0);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(STATE_DATE);
+        debtCase.setNextDeadlineDate(nextDeadline);
+        debtCase.setHasInstallmentPlan(installmentPlan);
+        return debtCaseRepository.save(debtCase);
+    }
+
+    private JsonNode awaitFinished() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            MvcResult result = mockMvc.perform(get("/state-transitions/recomputations")).andExpect(status().isOk()).andReturn();
+            JsonNode jobs = objectMapper.readTree(result.getResponse().getContentAsString());
+            if (jobs.size() > 0 && jobs.get(0).get("finishedAt") != null && !jobs.get(0).get("finishedAt").isNull()) {
+                return jobs.get(0);
+            }
+            Thread.sleep(100);
+        }
+        return fail("Deadline recomputation not finished");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testConfigChangeRecomputesDeadlinesOfStateCases() throws Exception {
+        // Deadlines computed with the current rule (calendar days), except one set by hand
+        LocalDateTime computed = STATE_DATE.toLocalDate().plusDays(originalDays).atStartOfDay();
+        for (int i = 0; i < 5; i++) {
+            save("Debitore " + i, CaseState.PRECETTO, false, computed);
+        }
+        DebtCase manual = save("Anna Verdi", CaseState.PRECETTO, false, STATE_DATE.plusDays(1));
+        DebtCase installments = save("Mario Rossi", CaseState.PRECETTO, true, STATE_DATE.plusDays(1));
+        DebtCase otherState = save("Luigi Bianchi", CaseState.DEPOSITO_RICORSO, false, STATE_DATE.plusDays(1));
+        int newDays = originalDays + 7;
+
+        mockMvc.perform(put("/state-transitions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(Map.of("fromState", "PRECETTO", "daysToTransition", newDays)))))
+                .andExpect(status().isOk());
+
+        JsonNode job = awaitFinished();
+        assertEquals("COMPLETED", job.get("status").asText());
+        assertEquals(6, job.get("matched").asLong());
+        assertEquals(5, job.get("updated").asLong());
+        assertEquals(1, job.get("manualKept").asLong());
+
+        for (DebtCase debtCase : debtCaseRepository.findAll()) {
+            if (debtCase.getId().equals(installments.getId()) || debtCase.getId().equals(otherState.getId())
+                    || debtCase.getId().equals(manual.getId())) {
+                assertEquals(STATE_DATE.plusDays(1), debtCase.getNextDeadlineDate());
+                continue;
+            }
+            assertEquals(STATE_DATE.toLocalDate().plusDays(newDays).atStartOfDay(), debtCase.getNextDeadlineDate());
+            assertEquals(1L, debtCase.getVersion());
+            assertEquals("system", debtCase.getLastModifiedBy());
+        }
+
+        mockMvc.perform(get("/state-transitions/recomputations/" + job.get("jobId").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.percent", is(100)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testManualRecomputationAndCancel() throws Exception {
+        mockMvc.perform(post("/state-transitions/recomputations"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+        mockMvc.perform(post("/state-transitions/recomputations").param("states", "PRECETTO"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/state-transitions/recomputations/")));
+        mockMvc.perform(delete("/state-transitions/recomputations/missing")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/state-transitions/recomputations/missing")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testRecomputationsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/state-transitions/recomputations")).andExpect(status().isForbidden());
+    }
+}
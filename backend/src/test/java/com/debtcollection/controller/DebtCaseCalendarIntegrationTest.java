@@ -0,0 +1,94 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for GET /cases/calendar (per day deadline histogram)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DebtCaseCalendarIntegrationTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 6, 3);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        save("Mario Rossi", CaseState.PRECETTO, MONDAY.atTime(9, 30), 1000.0);
+        save("Luigi Verdi", CaseState.DEPOSITO_RICORSO, MONDAY.atStartOfDay(), 500.0);
+        save("Anna Bianchi", CaseState.PRECETTO, MONDAY.plusDays(2).atTime(23, 0), 250.0);
+        save("Paolo Neri", CaseState.PRECETTO, MONDAY.plusDays(10).atStartOfDay(), 100.0);
+    }
+
+    private void save(String name, CaseState state, LocalDateTime deadline, double amount) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(amount);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(LocalDateTime.now());
+        debtCase.setNextDeadlineDate(deadline);
+        debtCaseRepository.save(debtCase);
+    }
+
+    @Test
+    @WithMockUser
+    void testCalendarGroupsDeadlinesPerDay() throws Exception {
+        mockMvc.perform(get("/cases/calendar")
+                        .param("from", MONDAY.toString())
+                        .param("to", MONDAY.plusDays(6).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCases", is(3)))
+                .andExpect(jsonPath("$.totalOwedAmount", is(1750.0)))
+                .andExpect(jsonPath("$.days", hasSize(2)))
+                .andExpect(jsonPath("$.days[0].date", is(MONDAY.toString())))
+                .andExpect(jsonPath("$.days[0].cases", is(2)))
+                .andExpect(jsonPath("$.days[0].owedAmount", is(1500.0)))
+                .andExpect(jsonPath("$.days[1].date", is(MONDAY.plusDays(2).toString())));
+    }
+
+    @Test
+    @WithMockUser
+    void testCalendarHonorsFilters() throws Exception {
+        mockMvc.perform(get("/cases/calendar")
+                        .param("from", MONDAY.toString())
+                        .param("to", MONDAY.plusDays(30).toString())
+                        .param("state", "PRECETTO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCases", is(3)))
+                .andExpect(jsonPath("$.days[0].cases", is(1)));
+    }
+
+    @Test
+    @WithMockUser
+    void testCalendarRejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/cases/calendar")
+                        .param("from", MONDAY.toString())
+                        .param("to", MONDAY.minusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+    }
+}
@@ -226,6 +226,48 @@ public class DebtCaseControllerIntegrationTest {
                 .andExpect(jsonPath("$.page.totalElements", is(1)));
     }
 
+    // CUSTOM IMPLEMENTATION: Debtor name matching modes on normalized search keys
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testFilterByDebtorNameTokensIgnoresOrderCaseAndAccents() throws Exception {
+        mockMvc.perform(get("/cases")
+                .param("debtorName", "ROSS már")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.cases[0].debtorName", is("Mario Rossi")));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testFilterByDebtorNamePrefixAndContainsModes() throws Exception {
+        mockMvc.perform(get("/cases")
+                .param("debtorName", "ossi")
+                .param("debtorNameMatch", "PREFIX")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements", is(0)));
+
+        mockMvc.perform(get("/cases")
+                .param("debtorName", "ossi")
+                .param("debtorNameMatch", "CONTAINS")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases[0].debtorName", is("Mario Rossi")))
+                .andExpect(jsonPath("$.page.totalElements", is(1)));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testFilterByDebtorNameTreatsInputAsLiteral() throws Exception {
+        mockMvc.perform(get("/cases")
+                .param("debtorName", "M.*")
+                .param("debtorNameMatch", "CONTAINS")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements", is(0)));
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = "USER")
     void testFilterByState() throws Exception {
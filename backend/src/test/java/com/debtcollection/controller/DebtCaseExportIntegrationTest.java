@@ -0,0 +1,108 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for GET /cases/export (streamed CSV / NDJSON)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DebtCaseExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        List<DebtCase> cases = new ArrayList<>();
+        // More rows than the maximum page size: the export is not paginated
+        for (int i = 0; i < 120; i++) {
+            DebtCase debtCase = new DebtCase();
+            debtCase.setDebtorName(String.format("Debitore %03d", i));
+            debtCase.setOwedAmount(100.0 + i);
+            debtCase.setCurrentState(i % 2 == 0 ? CaseState.PRECETTO : CaseState.DEPOSITO_RICORSO);
+            debtCase.setCurrentStateDate(LocalDateTime.now());
+            debtCase.setNextDeadlineDate(LocalDateTime.now().plusDays(i));
+            debtCase.setOngoingNegotiations(false);
+            cases.add(debtCase);
+        }
+        debtCaseRepository.saveAll(cases);
+    }
+
+    private String export(String... params) throws Exception {
+        var request = get("/cases/export");
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @WithMockUser
+    void testCsvExportContainsAllFilteredRowsInDeadlineOrder() throws Exception {
+        String[] lines = export("state", "PRECETTO").split("\r\n");
+
+        assertEquals(61, lines.length); // header + 60 cases
+        assertTrue(lines[0].startsWith("id,debtorName,owedAmount"));
+        assertTrue(lines[1].contains("Debitore 000"));
+        assertTrue(lines[60].contains("Debitore 118"));
+    }
+
+    @Test
+    @WithMockUser
+    void testNdjsonExport() throws Exception {
+        String[] lines = export("format", "ndjson", "sort", "debtorName,desc").split("\n");
+
+        assertEquals(120, lines.length);
+        assertTrue(lines[0].contains("\"debtorName\":\"Debitore 119\""));
+        assertFalse(lines[0].contains("payments"));
+    }
+
+    @Test
+    @WithMockUser
+    void testExportSetsAttachmentHeaders() throws Exception {
+        mockMvc.perform(get("/cases/export").param("format", "ndjson"))
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andExpect(header().string("Content-Disposition", allOf(startsWith("attachment"), endsWith(".ndjson\""))));
+    }
+
+    @Test
+    @WithMockUser
+    void testExportRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/cases/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for GET /cases/facets ($facet bucket counts)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DebtCaseFacetsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        save("Mario Rossi", CaseState.PRECETTO, false, true, 5);
+        save("Luigi Verdi", CaseState.PRECETTO, false, false, 2);
+        save("Anna Bianchi", CaseState.DEPOSITO_RICORSO, true, false, 9);
+        save("Paolo Neri", CaseState.MESSA_IN_MORA_DA_FARE, false, false, 1);
+    }
+
+    private void save(String name, CaseState state, boolean negotiations, boolean installmentPlan, int deadlineInDays) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(1000.0);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(LocalDateTime.now());
+        debtCase.setNextDeadlineDate(LocalDateTime.now().plusDays(deadlineInDays));
+        debtCase.setOngoingNegotiations(negotiations);
+        debtCase.setHasInstallmentPlan(installmentPlan);
+        debtCaseRepository.save(debtCase);
+    }
+
+    @Test
+    @WithMockUser
+    void testFacetsWithPage() throws Exception {
+        mockMvc.perform(get("/cases/facets").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(4)))
+                .andExpect(jsonPath("$.states.PRECETTO", is(2)))
+                .andExpect(jsonPath("$.states.DEPOSITO_RICORSO", is(1)))
+                .andExpect(jsonPath("$.states.COMPLETATA", is(0)))
+                .andExpect(jsonPath("$.paid.false", is(4)))
+                .andExpect(jsonPath("$.hasInstallmentPlan.true", is(1)))
+                .andExpect(jsonPath("$.ongoingNegotiations.true", is(1)))
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].debtorName", is("Paolo Neri")))
+                .andExpect(jsonPath("$.content[1].debtorName", is("Luigi Verdi")))
+                .andExpect(jsonPath("$.page.totalElements", is(4)))
+                .andExpect(jsonPath("$.page.totalPages", is(2)));
+    }
+
+    @Test
+    @WithMockUser
+    void testFacetsOnlyHonorsFilters() throws Exception {
+        mockMvc.perform(get("/cases/facets")
+                        .param("states", "PRECETTO")
+                        .param("facetsOnly", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(2)))
+                .andExpect(jsonPath("$.states.PRECETTO", is(2)))
+                .andExpect(jsonPath("$.states.DEPOSITO_RICORSO", is(0)))
+                .andExpect(jsonPath("$.hasInstallmentPlan.true", is(1)))
+                .andExpect(jsonPath("$.content").doesNotExist())
+                .andExpect(jsonPath("$.page").doesNotExist());
+    }
+}
@@ -0,0 +1,117 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.DebtCaseRepositoryCustomImpl;
+import com.debtcollection.repository.TotalCountMode;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CUSTOM IMPLEMENTATION: Latency benchmark of GET /cases page + count, sequential vs concurrent, on a seeded collection.
+// Opt-in (-Dbenchmarks=true): timings depend on the machine, so the medians are logged and compared by hand.
+@Slf4j
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DebtCaseListLatencyBenchmarkIntegrationTest {
+
+    private static final int SEEDED_CASES = 50_000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 25;
+
+    @Nested
+    @TestPropertySource(properties = "debtcollection.case-list.parallel-count=false")
+    class Sequential extends Benchmark {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "debtcollection.case-list.parallel-count=true")
+    class Concurrent extends Benchmark {
+    }
+
+    abstract class Benchmark {
+
+        @Autowired
+        private MongoTemplate mongoTemplate;
+
+        @Autowired
+        private DebtCaseRepository debtCaseRepository;
+
+        @Autowired
+        private DebtCaseRepositoryCustomImpl repositoryCustom;
+
+        @Value("${debtcollection.case-list.parallel-count}")
+        private boolean parallelCount;
+
+        @BeforeEach
+        void setUp() {
+            debtCaseRepository.deleteAll();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class);
+            CaseState[] states = CaseState.values();
+            List<DebtCase> batch = new ArrayList<>();
+            for (int i = 0; i < SEEDED_CASES; i++) {
+                DebtCase debtCase = new DebtCase();
+                debtCase.setDebtorName("Debitore " + i);
+                debtCase.setOwedAmount(100.0 + (i % 5000));
+                debtCase.setCurrentState(states[i % states.length]);
+                debtCase.setCurrentStateDate(LocalDateTime.now().minusDays(i % 365));
+                debtCase.setNextDeadlineDate(LocalDateTime.now().plusDays(i % 180));
+                debtCase.setOngoingNegotiations(i % 3 == 0);
+                debtCase.setPaid(false);
+                batch.add(debtCase);
+            }
+            bulk.insert(batch).execute();
+        }
+
+        @AfterEach
+        void tearDown() {
+            debtCaseRepository.deleteAll();
+        }
+
+        @Test
+        void logPageAndCountLatency() {
+            DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+            filter.setOngoingNegotiations(true); // count cannot use the partial negotiations index: a real scan to overlap
+            PageRequest pageable = PageRequest.of(3, 20, Sort.by("owedAmount").and(Sort.by("id")));
+
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                repositoryCustom.findByFilters(filter, pageable, TotalCountMode.EXACT);
+            }
+            long[] samples = new long[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                long start = System.nanoTime();
+                assertEquals(20, repositoryCustom.findByFilters(filter, pageable, TotalCountMode.EXACT).getContent().size());
+                samples[i] = (System.nanoTime() - start) / 1_000;
+            }
+            Arrays.sort(samples);
+
+            log.info("GET /cases page+count over {} cases, {}: median {} us, p90 {} us", SEEDED_CASES,
+                    parallelCount ? "concurrent" : "sequential", samples[MEASURED_RUNS / 2], samples[MEASURED_RUNS * 9 / 10]);
+        }
+    }
+}
@@ -3,10 +3,12 @@ package com.debtcollection.controller;
 
 import com.debtcollection.model.CaseState;
 import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Payment;
 import com.debtcollection.model.StateTransitionConfig;
 import com.debtcollection.repository.DebtCaseRepository;
 import com.debtcollection.repository.StateTransitionConfigRepository;
 import com.debtcollection.service.DebtCaseService;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +20,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -237,4 +245,159 @@ public class DebtCasePaginationIntegrationTest {
                 .andExpect(jsonPath("$._links.next").exists())
                 .andExpect(jsonPath("$._links.last").exists());
     }
+
+    // CUSTOM IMPLEMENTATION: Keyset (cursor) pagination
+    @Test
+    @WithMockUser
+    void testCursorPaginationWalksAllCasesInOrder() throws Exception {
+        List<Double> amounts = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            String url = cursor == null
+                    ? "/cases?pagination=cursor&sort=owedAmount,desc&size=10"
+                    : "/cases?cursor=" + cursor + "&sort=owedAmount,desc&size=10";
+            String body = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.page").doesNotExist())
+                    .andExpect(jsonPath("$.cursor.size").value(10))
+                    .andReturn().getResponse().getContentAsString();
+            List<Double> sliceAmounts = JsonPath.read(body, "$._embedded.cases[*].owedAmount");
+            amounts.addAll(sliceAmounts);
+            cursor = JsonPath.read(body, "$.cursor.next");
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(3, slices);
+        assertEquals(25, amounts.size());
+        assertEquals(25, new HashSet<>(amounts).size());
+        assertEquals(1025.0, amounts.get(0));
+        assertEquals(1001.0, amounts.get(24));
+    }
+
+    @Test
+    @WithMockUser
+    void testCursorPaginationWithNullSortKeysAndFilter() throws Exception {
+        // nextDeadlineDate is null for all seeded cases: ordering falls back to the _id tie-breaker
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/cases?pagination=cursor&ongoingNegotiations=false&sort=nextDeadlineDate,desc&size=7"
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            String body = mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<String> sliceNames = JsonPath.read(body, "$._embedded.cases[*].debtorName");
+            names.addAll(sliceNames);
+            cursor = JsonPath.read(body, "$.cursor.next");
+        } while (cursor != null);
+
+        assertEquals(25, names.size());
+        assertEquals(25, new HashSet<>(names).size());
+    }
+
+    @Test
+    @WithMockUser
+    void testCursorPaginationNextLink() throws Exception {
+        mockMvc.perform(get("/cases?pagination=cursor&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases.length()").value(20))
+                .andExpect(jsonPath("$.cursor.hasNext").value(true))
+                .andExpect(jsonPath("$._links.self").exists())
+                .andExpect(jsonPath("$._links.next.href").isString());
+    }
+
+    @Test
+    @WithMockUser
+    void testCursorPaginationRejectsInvalidCursor() throws Exception {
+        mockMvc.perform(get("/cases?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("IllegalArgumentException"));
+    }
+
+    @Test
+    @WithMockUser
+    void testCursorPaginationRejectsCursorFromDifferentSort() throws Exception {
+        String body = mockMvc.perform(get("/cases?pagination=cursor&sort=debtorName,asc&size=5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.cursor.next");
+
+        mockMvc.perform(get("/cases?cursor=" + cursor + "&sort=owedAmount,asc&size=5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // CUSTOM IMPLEMENTATION: Total count strategies
+    @Test
+    @WithMockUser
+    void testCountNoneReturnsLowerBoundWithoutLastLink() throws Exception {
+        mockMvc.perform(get("/cases?page=0&size=10&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases.length()").value(10))
+                .andExpect(jsonPath("$.page.totalElements").value(11))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("count=none")))
+                .andExpect(jsonPath("$._links.last").doesNotExist());
+
+        mockMvc.perform(get("/cases?page=2&size=10&count=none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases.length()").value(5))
+                .andExpect(jsonPath("$.page.totalElements").value(25))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void testCountCachedIsInvalidatedByWrites() throws Exception {
+        mockMvc.perform(get("/cases?size=10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(25))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("count=cached")));
+
+        DebtCase extra = new DebtCase();
+        extra.setDebtorName("Late Debtor");
+        extra.setOwedAmount(500.0);
+        extra.setCurrentState(CaseState.MESSA_IN_MORA_DA_FARE);
+        extra.setCurrentStateDate(LocalDateTime.now());
+        debtCaseRepository.save(extra);
+
+        mockMvc.perform(get("/cases?size=10&count=cached"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(26));
+    }
+
+    @Test
+    @WithMockUser
+    void testInvalidCountModeIsRejected() throws Exception {
+        mockMvc.perform(get("/cases?count=sometimes"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("IllegalArgumentException"));
+    }
+
+    // CUSTOM IMPLEMENTATION: Slim list rows
+    @Test
+    @WithMockUser
+    void testListRowsOmitEmbeddedCollectionsButKeepTotals() throws Exception {
+        DebtCase withPayments = debtCaseRepository.findAll().get(0);
+        Payment payment = new Payment();
+        payment.setPaymentId("p1");
+        payment.setAmount(400.0);
+        payment.setPaymentDate(LocalDate.now());
+        withPayments.getPayments().add(payment);
+        debtCaseRepository.save(withPayments);
+
+        mockMvc.perform(get("/cases")
+                        .param("debtorName", withPayments.getDebtorName())
+                        .param("size", "1")
+                        .param("sort", "debtorName,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases[0].id").value(withPayments.getId()))
+                .andExpect(jsonPath("$._embedded.cases[0].totalPaidAmount").value(400.0))
+                .andExpect(jsonPath("$._embedded.cases[0].remainingAmount").value(withPayments.getOwedAmount() - 400.0))
+                .andExpect(jsonPath("$._embedded.cases[0].payments").doesNotExist())
+                .andExpect(jsonPath("$._embedded.cases[0].installments").doesNotExist());
+
+        mockMvc.perform(get("/cases/" + withPayments.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.payments.length()").value(1));
+    }
 }
@@ -0,0 +1,92 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for GET /cases/search (text index, Italian stemming)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DebtCaseSearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        save("Mario Rossi", CaseState.MESSA_IN_MORA_DA_FARE, "Debitore contattato, promette pagamenti a fine mese. Nuovi pagamenti attesi");
+        save("Luigi Verdi", CaseState.DEPOSITO_RICORSO, "Ricorso depositato, in attesa del pagamento");
+        save("Anna Bianchi", CaseState.MESSA_IN_MORA_DA_FARE, "Irreperibile all'indirizzo di residenza");
+    }
+
+    private void save(String name, CaseState state, String notes) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(1000.0);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(LocalDateTime.now());
+        debtCase.setOngoingNegotiations(false);
+        debtCase.setNotes(notes);
+        debtCaseRepository.save(debtCase);
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchMatchesStemmedTermsRankedByRelevance() throws Exception {
+        // "pagamento" and "pagamenti" share the Italian stem
+        mockMvc.perform(get("/cases/search").param("q", "pagamento"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements", is(2)))
+                .andExpect(jsonPath("$._embedded.cases[0].debtorName", is("Mario Rossi")))
+                .andExpect(jsonPath("$._embedded.cases[0].score", greaterThan(0.0)))
+                .andExpect(jsonPath("$._embedded.cases[0].payments").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchCombinesWithStructuredFilters() throws Exception {
+        mockMvc.perform(get("/cases/search")
+                        .param("q", "pagamento")
+                        .param("state", "DEPOSITO_RICORSO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements", is(1)))
+                .andExpect(jsonPath("$._embedded.cases[0].debtorName", is("Luigi Verdi")));
+    }
+
+    @Test
+    @WithMockUser
+    void testSearchRequiresText() throws Exception {
+        mockMvc.perform(get("/cases/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+    }
+
+    @Test
+    @WithMockUser
+    void testListWithoutSearchHasNoScore() throws Exception {
+        mockMvc.perform(get("/cases"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cases[0].score").doesNotExist());
+    }
+}
@@ -95,4 +95,29 @@ public class DebtCaseSummaryIntegrationTest {
             .andExpect(jsonPath("$.states.PRECETTO", is(1)))
             .andExpect(jsonPath("$.states.COMPLETATA").doesNotExist());
     }
+
+    @Test
+    @WithMockUser(username = "summaryUser", roles = "USER")
+    void testSummaryWithReferenceDateAndHorizon() throws Exception {
+        LocalDate today = LocalDate.now();
+        mockMvc.perform(get("/cases/summary")
+                .param("referenceDate", today.plusDays(3).toString())
+                .param("horizonDays", "30"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalActiveCases", is(4)))
+            .andExpect(jsonPath("$.overdue", is(2))) // -1 e oggi
+            .andExpect(jsonPath("$.dueToday", is(1))) // +3
+            .andExpect(jsonPath("$.dueNext7Days", is(2))) // +3 e +10
+            .andExpect(jsonPath("$.dueWithinHorizon", is(2)))
+            .andExpect(jsonPath("$.horizonDays", is(30)))
+            .andExpect(jsonPath("$.referenceDate", is(today.plusDays(3).toString())));
+    }
+
+    @Test
+    @WithMockUser(username = "summaryUser", roles = "USER")
+    void testSummaryRejectsInvalidHorizon() throws Exception {
+        mockMvc.perform(get("/cases/summary").param("horizonDays", "-1"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+    }
 }
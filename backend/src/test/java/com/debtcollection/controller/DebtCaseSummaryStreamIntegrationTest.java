@@ -0,0 +1,108 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.service.LiveCasesSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for the live summary (incremental counters + SSE push)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "debtcollection.live-summary.push-interval-ms=100")
+class DebtCaseSummaryStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @Autowired
+    private LiveCasesSummary liveCasesSummary;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        debtCaseRepository.deleteAll();
+        awaitInSync();
+    }
+
+    private void awaitInSync() throws InterruptedException {
+        for (int i = 0; i < 100 && !liveCasesSummary.isInSync(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(liveCasesSummary.isInSync());
+    }
+
+    private DebtCase save(String name, CaseState state, int deadlineInDays) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setCurrentState(state);
+        debtCase.setCurrentStateDate(LocalDateTime.now());
+        debtCase.setNextDeadlineDate(LocalDate.now().plusDays(deadlineInDays).atStartOfDay());
+        return debtCaseRepository.save(debtCase);
+    }
+
+    @Test
+    @WithMockUser
+    void testSummaryFollowsWritesWithoutRecomputing() throws Exception {
+        DebtCase debtCase = save("Mario Rossi", CaseState.PRECETTO, 0);
+        save("Luigi Verdi", CaseState.DEPOSITO_RICORSO, -2);
+
+        mockMvc.perform(get("/cases/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalActiveCases", is(2)))
+                .andExpect(jsonPath("$.dueToday", is(1)))
+                .andExpect(jsonPath("$.overdue", is(1)));
+
+        debtCase.setCurrentState(CaseState.COMPLETATA);
+        debtCase.setNextDeadlineDate(null);
+        debtCaseRepository.save(debtCase);
+
+        mockMvc.perform(get("/cases/summary"))
+                .andExpect(jsonPath("$.totalActiveCases", is(1)))
+                .andExpect(jsonPath("$.dueToday", is(0)))
+                .andExpect(jsonPath("$.states.PRECETTO", is(0)));
+    }
+
+    @Test
+    @WithMockUser
+    void testStreamSendsSnapshotOnConnectAndPushesChanges() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/cases/summary/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        // Events are sent on the broadcaster executor, not on the request thread
+        awaitContent(response, "\"totalActiveCases\":0");
+        assertThat(response.getContentAsString(), containsString("event:summary"));
+
+        save("Mario Rossi", CaseState.PRECETTO, 3);
+        awaitContent(response, "\"totalActiveCases\":1");
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        for (int i = 0; i < 50 && !response.getContentAsString().contains(expected); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(response.getContentAsString(), containsString(expected));
+    }
+}
@@ -0,0 +1,95 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.dto.DebtCaseDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.service.DebtCaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for GET /reports/financial
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class FinancialReportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @Autowired
+    private DebtCaseService debtCaseService;
+
+    private String paidCaseId;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+        DebtCaseDto paid = debtCaseService.createDebtCase(
+                "Mario Rossi", CaseState.MESSA_IN_MORA_DA_FARE, LocalDateTime.now(), new BigDecimal("1000.00"));
+        paidCaseId = paid.getId();
+        debtCaseService.createDebtCase(
+                "Luigi Verdi", CaseState.MESSA_IN_MORA_DA_FARE, LocalDateTime.now(), new BigDecimal("500.00"));
+        debtCaseService.createDebtCase(
+                "Anna Bianchi", CaseState.PRECETTO, LocalDateTime.now(), new BigDecimal("250.00"));
+    }
+
+    @Test
+    @WithMockUser
+    void testReportAggregatesOwedPaidAndRemaining() throws Exception {
+        debtCaseService.registerPayment(paidCaseId, new BigDecimal("300.00"), LocalDateTime.now());
+        debtCaseService.registerPayment(paidCaseId, new BigDecimal("200.00"), LocalDateTime.now());
+        String month = YearMonth.now().toString();
+
+        mockMvc.perform(get("/reports/financial").param("from", month).param("to", month))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totals.cases", is(3)))
+                .andExpect(jsonPath("$.totals.owedAmount", is(1750.0)))
+                .andExpect(jsonPath("$.totals.paidAmount", is(500.0)))
+                .andExpect(jsonPath("$.totals.remainingAmount", is(1250.0)))
+                .andExpect(jsonPath("$.byState", hasSize(2)))
+                .andExpect(jsonPath("$.byState[0].state", is("MESSA_IN_MORA_DA_FARE")))
+                .andExpect(jsonPath("$.byState[0].amounts.cases", is(2)))
+                .andExpect(jsonPath("$.byState[0].amounts.remainingAmount", is(1000.0)))
+                .andExpect(jsonPath("$.byMonth[0].month", is(month)));
+    }
+
+    @Test
+    @WithMockUser
+    void testReportReflectsWritesAfterCaching() throws Exception {
+        String month = YearMonth.now().toString();
+        mockMvc.perform(get("/reports/financial").param("from", month).param("to", month))
+                .andExpect(jsonPath("$.totals.paidAmount", is(0.0)));
+
+        debtCaseService.registerPayment(paidCaseId, new BigDecimal("100.00"), LocalDateTime.now());
+
+        mockMvc.perform(get("/reports/financial").param("from", month).param("to", month))
+                .andExpect(jsonPath("$.totals.paidAmount", is(100.0)));
+    }
+
+    @Test
+    @WithMockUser
+    void testReportRejectsInvertedPeriod() throws Exception {
+        mockMvc.perform(get("/reports/financial").param("from", "2025-06").param("to", "2025-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+    }
+}
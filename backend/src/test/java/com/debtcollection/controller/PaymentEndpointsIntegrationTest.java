@@ -2,6 +2,8 @@ package com.debtcollection.controller;
 
 import com.debtcollection.dto.DebtCaseDto;
 import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
 import com.debtcollection.service.DebtCaseService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +42,9 @@ public class PaymentEndpointsIntegrationTest {
     @Autowired
     private DebtCaseService debtCaseService;
 
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
     private String caseId;
 
     @BeforeEach
@@ -117,6 +123,20 @@ public class PaymentEndpointsIntegrationTest {
                 .andExpect(jsonPath("$.nextDeadlineDate", nullValue()));
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void registerPaymentRecordsTheCurrentUserAsModifier() throws Exception {
+        // CUSTOM IMPLEMENTATION: the payment is appended without save(), auditing is set by the update itself
+        mockMvc.perform(post("/cases/" + caseId + "/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":20.00}"))
+                .andExpect(status().isOk());
+
+        DebtCase debtCase = debtCaseRepository.findById(caseId).orElseThrow();
+        assertEquals("testuser", debtCase.getLastModifiedBy());
+        assertEquals("testuser", debtCase.getPayments().get(0).getCreatedBy());
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = "USER")
     void invalidPaymentAmountReturnsBadRequest() throws Exception {
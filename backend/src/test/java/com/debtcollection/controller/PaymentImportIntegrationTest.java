@@ -0,0 +1,160 @@
+package com.debtcollection.controller;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Installment;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// CUSTOM IMPLEMENTATION: Integration tests for POST /cases/payments/import
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class PaymentImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtCaseRepository debtCaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository.deleteAll();
+    }
+
+    private DebtCase save(String name, double amount) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(amount);
+        debtCase.setCurrentState(CaseState.MESSA_IN_MORA_DA_FARE);
+        debtCase.setCurrentStateDate(LocalDateTime.now());
+        debtCase.setNextDeadlineDate(LocalDateTime.now().plusDays(10));
+        return debtCaseRepository.save(debtCase);
+    }
+
+    @Test
+    @WithMockUser(username = "importer")
+    void testCsvImportAppliesPaymentsAndAutoCompletes() throws Exception {
+        DebtCase partial = save("Mario Rossi", 1000.0);
+        DebtCase settled = save("Luigi Verdi", 300.0);
+        String csv = "caseId,amount,paymentDate\n"
+                + partial.getId() + ",100.00,2025-03-10\n"
+                + settled.getId() + ",200.00,2025-03-10\n"
+                + settled.getId() + ",100.00,2025-03-11\n"
+                + "000000000000000000000000,10,2025-03-11\n";
+
+        mockMvc.perform(post("/cases/payments/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows", is(4)))
+                .andExpect(jsonPath("$.applied", is(3)))
+                .andExpect(jsonPath("$.casesUpdated", is(2)))
+                .andExpect(jsonPath("$.rows[3].status", is("REJECTED")))
+                .andExpect(jsonPath("$.rows[3].message", startsWith("DebtCase not found")));
+
+        DebtCase partialAfter = debtCaseRepository.findById(partial.getId()).orElseThrow();
+        assertEquals(1, partialAfter.getPayments().size());
+        assertEquals("importer", partialAfter.getPayments().get(0).getCreatedBy());
+        assertEquals("importer", partialAfter.getLastModifiedBy());
+        assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, partialAfter.getCurrentState());
+        DebtCase settledAfter = debtCaseRepository.findById(settled.getId()).orElseThrow();
+        assertEquals(2, settledAfter.getPayments().size());
+        assertEquals(300.0, settledAfter.getPaidTotal());
+        assertEquals(CaseState.COMPLETATA, settledAfter.getCurrentState());
+        assertTrue(settledAfter.getPaid());
+        assertNull(settledAfter.getNextDeadlineDate());
+    }
+
+    @Test
+    @WithMockUser
+    void testJsonImportPaysInstallmentsAndMovesTheDeadline() throws Exception {
+        DebtCase debtCase = save("Anna Bianchi", 1000.0);
+        LocalDateTime firstDue = LocalDateTime.now().plusDays(5).withNano(0);
+        List<Installment> installments = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Installment installment = new Installment();
+            installment.setInstallmentId("inst-" + i);
+            installment.setInstallmentNumber(i + 1);
+            installment.setDueDate(firstDue.plusDays(30L * i));
+            installment.setPaid(false);
+            installments.add(installment);
+        }
+        debtCase.setInstallments(installments);
+        debtCase.setHasInstallmentPlan(true);
+        debtCase.setNextDeadlineDate(firstDue);
+        debtCaseRepository.save(debtCase);
+
+        String json = "[{\"caseId\":\"" + debtCase.getId() + "\",\"amount\":500,\"paymentDate\":\"2025-03-10\",\"installmentId\":\"inst-0\"},"
+                + "{\"caseId\":\"" + debtCase.getId() + "\",\"amount\":500,\"installmentId\":\"inst-0\"}]";
+
+        mockMvc.perform(post("/cases/payments/import").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(1)))
+                .andExpect(jsonPath("$.rows[1].message", is("Installment is already marked as paid")));
+
+        DebtCase after = debtCaseRepository.findById(debtCase.getId()).orElseThrow();
+        assertTrue(after.getInstallments().get(0).getPaid());
+        assertFalse(after.getInstallments().get(1).getPaid());
+        assertEquals(firstDue.plusDays(30), after.getNextDeadlineDate());
+        assertEquals("inst-0", after.getPayments().get(0).getInstallmentId());
+    }
+
+    @Test
+    @WithMockUser
+    void testImportRejectsUnsupportedContentAndBadHeader() throws Exception {
+        mockMvc.perform(post("/cases/payments/import").contentType("text/csv").content("id,total\n1,2\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("IllegalArgumentException")));
+        mockMvc.perform(post("/cases/payments/import").contentType(MediaType.APPLICATION_XML).content("<a/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @WithMockUser
+    void testFiftyThousandPaymentsImportInSeconds() throws Exception {
+        List<String> ids = new ArrayList<>();
+        List<DebtCase> cases = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            DebtCase debtCase = new DebtCase();
+            debtCase.setDebtorName("Debitore " + i);
+            debtCase.setOwedAmount(1_000_000.0);
+            debtCase.setCurrentState(CaseState.MESSA_IN_MORA_DA_FARE);
+            debtCase.setCurrentStateDate(LocalDateTime.now());
+            cases.add(debtCase);
+        }
+        debtCaseRepository.saveAll(cases).forEach(saved -> ids.add(saved.getId()));
+        StringBuilder csv = new StringBuilder("caseId,amount,paymentDate\n");
+        for (int i = 0; i < 50_000; i++) {
+            csv.append(ids.get(i % ids.size())).append(",10.00,2025-03-10\n");
+        }
+
+        long start = System.nanoTime();
+        mockMvc.perform(post("/cases/payments/import").contentType("text/csv").content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(50_000)))
+                .andExpect(jsonPath("$.casesUpdated", is(5000)));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(millis < 30_000, "import took " + millis + " ms");
+        assertEquals(10, debtCaseRepository.findById(ids.get(0)).orElseThrow().getPayments().size());
+    }
+}
@@ -4,12 +4,14 @@ package com.debtcollection.controller;
 import com.debtcollection.model.CaseState;
 import com.debtcollection.model.DebtCase;
 import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.service.DebtCaseService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -18,6 +20,14 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +48,9 @@ class PaymentIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DebtCaseService debtCaseService;
+
     private DebtCase testDebtCase;
 
     @BeforeEach
@@ -114,4 +127,43 @@ class PaymentIntegrationTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest()); // Should be 400 with proper error handling
     }
+
+    // CUSTOM IMPLEMENTATION: Atomic registration - concurrent payments on one case are all kept
+    @Test
+    void registerPayment_ShouldKeepEveryConcurrentPayment() throws Exception {
+        int payments = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < payments; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return debtCaseService.registerPayment(testDebtCase.getId(), new BigDecimal("50.00"), LocalDateTime.now());
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        DebtCase updatedCase = debtCaseRepository.findById(testDebtCase.getId()).orElseThrow();
+        assertEquals(payments, updatedCase.getPayments().size());
+        assertEquals(1000.0, updatedCase.getPaidTotal());
+        assertEquals(CaseState.COMPLETATA, updatedCase.getCurrentState());
+        assertTrue(updatedCase.getPaid());
+        assertNull(updatedCase.getNextDeadlineDate());
+    }
+
+    // CUSTOM IMPLEMENTATION: The atomic payment bumps the version, a copy loaded before it can no longer overwrite it
+    @Test
+    void registerPayment_ShouldMakeCopiesLoadedBeforeItStale() {
+        DebtCase staleCopy = debtCaseRepository.findById(testDebtCase.getId()).orElseThrow();
+
+        debtCaseService.registerPayment(testDebtCase.getId(), new BigDecimal("100.00"), LocalDateTime.now());
+
+        staleCopy.setNotes("Modifica concorrente");
+        assertThrows(OptimisticLockingFailureException.class, () -> debtCaseRepository.save(staleCopy));
+        assertEquals(1, debtCaseRepository.findById(testDebtCase.getId()).orElseThrow().getPayments().size());
+    }
 }
@@ -0,0 +1,79 @@
+package com.debtcollection.monitoring;
+
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the in-flight bookkeeping of the query stats listener
+@SuppressWarnings("unchecked")
+class MongoQueryStatsRegistryTest {
+
+    private MongoQueryStatsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MongoQueryStatsRegistry(mock(ObjectProvider.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    private static CommandStartedEvent started(int requestId) {
+        CommandStartedEvent event = mock(CommandStartedEvent.class);
+        when(event.getCommandName()).thenReturn("count");
+        when(event.getCommand()).thenReturn(new BsonDocument("count", new BsonString("debt_cases"))
+                .append("query", new BsonDocument("paid", new BsonString("?"))));
+        when(event.getDatabaseName()).thenReturn("debtcollection");
+        when(event.getRequestId()).thenReturn(requestId);
+        return event;
+    }
+
+    private static CommandSucceededEvent succeeded(int requestId) {
+        CommandSucceededEvent event = mock(CommandSucceededEvent.class);
+        when(event.getRequestId()).thenReturn(requestId);
+        when(event.getElapsedTime(TimeUnit.NANOSECONDS)).thenReturn(TimeUnit.MILLISECONDS.toNanos(3));
+        return event;
+    }
+
+    @Test
+    void evictStale_ShouldDropCommandsWhoseCompletionNeverArrived() {
+        registry.commandStarted(started(1)); // connection closed mid-flight: no completion event
+
+        registry.evictStale(System.nanoTime());
+        assertEquals(1, registry.inFlightCount());
+
+        registry.evictStale(System.nanoTime() + MongoQueryStatsRegistry.IN_FLIGHT_TTL_NANOS + 1);
+        assertEquals(0, registry.inFlightCount());
+
+        // A late completion of an evicted command is ignored
+        registry.commandSucceeded(succeeded(1));
+        assertTrue(registry.top(10, Comparator.comparing(QueryShapeSnapshot::shape)).isEmpty());
+    }
+
+    @Test
+    void commandStarted_ShouldStopTrackingPastTheInFlightBound() {
+        for (int i = 0; i < MongoQueryStatsRegistry.MAX_IN_FLIGHT + 10; i++) {
+            registry.commandStarted(started(i));
+        }
+
+        assertEquals(MongoQueryStatsRegistry.MAX_IN_FLIGHT, registry.inFlightCount());
+
+        registry.commandSucceeded(succeeded(0));
+        assertEquals(MongoQueryStatsRegistry.MAX_IN_FLIGHT - 1, registry.inFlightCount());
+        assertEquals(1, registry.top(10, Comparator.comparing(QueryShapeSnapshot::shape)).get(0).count());
+    }
+}
@@ -0,0 +1,54 @@
+package com.debtcollection.monitoring;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryShapeTest {
+
+    private static String shapeOf(String commandName, String json) {
+        return QueryShape.of(commandName, BsonDocument.parse(json));
+    }
+
+    @Test
+    void of_ShouldHideLiteralsButKeepFieldsOperatorsAndSort() {
+        String shape = shapeOf("find", "{find: 'debt_cases', filter: {current_state: 'PRECETTO', owed_amount: {$gte: 100.0}},"
+                + " sort: {next_deadline_date: 1, _id: 1}, limit: 20, $db: 'app'}");
+
+        assertEquals("find debt_cases {\"filter\": {\"current_state\": \"?\", \"owed_amount\": {\"$gte\": \"?\"}},"
+                + " \"sort\": {\"next_deadline_date\": 1, \"_id\": 1}}", shape);
+    }
+
+    @Test
+    void of_ShouldMergeInListsOfAnyLength() {
+        String two = shapeOf("find", "{find: 'debt_cases', filter: {current_state: {$in: ['A', 'B']}}}");
+        String three = shapeOf("find", "{find: 'debt_cases', filter: {current_state: {$in: ['A', 'B', 'C']}}}");
+
+        assertEquals(two, three);
+    }
+
+    @Test
+    void of_ShouldKeepAggregationFieldPaths() {
+        String shape = shapeOf("aggregate", "{aggregate: 'debt_cases', pipeline: [{$match: {paid: false}},"
+                + " {$group: {_id: '$current_state', total: {$sum: '$owed_amount'}}}], cursor: {}}");
+
+        assertTrue(shape.contains("\"$current_state\""));
+        assertTrue(shape.contains("\"paid\": \"?\""));
+    }
+
+    @Test
+    void of_ShouldUseFirstStatementOfBatchedWrites() {
+        String shape = shapeOf("update", "{update: 'debt_cases', updates: [{q: {_id: 1}, u: {$set: {paid: true}}},"
+                + " {q: {_id: 2}, u: {$set: {paid: true}}}]}");
+
+        assertEquals("update debt_cases {\"q\": {\"_id\": \"?\"}, \"u\": {\"$set\": {\"paid\": \"?\"}}}", shape);
+    }
+
+    @Test
+    void isIgnored_ShouldSkipHandshakeAndExplain() {
+        assertTrue(QueryShape.isIgnored("hello"));
+        assertTrue(QueryShape.isIgnored("explain"));
+        assertFalse(QueryShape.isIgnored("find"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.debtcollection.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShapeStatsTest {
+
+    @Test
+    void snapshot_ShouldComputeCountTotalPercentilesAndMax() {
+        ShapeStats stats = new ShapeStats("find x");
+        for (int ms = 1; ms <= 100; ms++) {
+            stats.record(TimeUnit.MILLISECONDS.toNanos(ms), ms == 100);
+        }
+
+        QueryShapeSnapshot snapshot = stats.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(1, snapshot.failures());
+        assertEquals(5050.0, snapshot.totalMs(), 0.001);
+        assertEquals(50.0, snapshot.p50Ms(), 0.001);
+        assertEquals(99.0, snapshot.p99Ms(), 0.001);
+        assertEquals(100.0, snapshot.maxMs(), 0.001);
+        assertNull(snapshot.explain());
+    }
+
+    @Test
+    void snapshot_PercentilesShouldFollowRecentWindow() {
+        ShapeStats stats = new ShapeStats("find x");
+        for (int i = 0; i < ShapeStats.WINDOW; i++) {
+            stats.record(TimeUnit.MILLISECONDS.toNanos(500), false);
+        }
+        for (int i = 0; i < ShapeStats.WINDOW; i++) {
+            stats.record(TimeUnit.MILLISECONDS.toNanos(2), false);
+        }
+
+        QueryShapeSnapshot snapshot = stats.snapshot();
+
+        assertEquals(2.0, snapshot.p99Ms(), 0.001);
+        assertEquals(500.0, snapshot.maxMs(), 0.001);
+    }
+}
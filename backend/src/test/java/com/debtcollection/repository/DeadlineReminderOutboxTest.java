@@ -0,0 +1,92 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DeadlineReminder;
+import com.debtcollection.model.DeadlineReminderKind;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the deadline reminder outbox (bulk insert, duplicates skipped)
+class DeadlineReminderOutboxTest {
+
+    private static final LocalDate DEADLINE = LocalDate.of(2025, 3, 10);
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private DeadlineReminderOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeadlineReminder.class)).thenReturn(bulk);
+        outbox = new DeadlineReminderOutbox(mongoTemplate);
+    }
+
+    private static List<DeadlineReminderDto> reminders() {
+        return List.of(
+                new DeadlineReminderDto("case-1", CaseState.PRECETTO, DEADLINE, DeadlineReminderKind.DUE, DEADLINE),
+                new DeadlineReminderDto("case-2", CaseState.PRECETTO, DEADLINE.plusDays(3), DeadlineReminderKind.UPCOMING, DEADLINE));
+    }
+
+    private static BulkOperationException bulkError(int code) {
+        BulkWriteResult result = BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of());
+        MongoBulkWriteException source = new MongoBulkWriteException(result,
+                List.of(new BulkWriteError(code, "error", new BsonDocument(), 0)), null, new ServerAddress(), Set.of());
+        return new BulkOperationException("bulk write failed", source);
+    }
+
+    @Test
+    void append_ShouldInsertAllRemindersInOneUnorderedBulk() {
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()));
+
+        assertEquals(2, outbox.append(reminders()));
+
+        ArgumentCaptor<DeadlineReminder> entries = ArgumentCaptor.forClass(DeadlineReminder.class);
+        verify(bulk, times(2)).insert(entries.capture());
+        DeadlineReminder first = entries.getAllValues().get(0);
+        assertEquals("case-1", first.getDebtCaseId());
+        assertEquals(DeadlineReminderKind.DUE, first.getKind());
+        assertEquals(DEADLINE, first.getDeadline());
+        assertNotNull(first.getCreatedAt());
+        assertNull(first.getProcessedAt());
+    }
+
+    @Test
+    void append_ShouldSkipRemindersAlreadyStored() {
+        when(bulk.execute()).thenThrow(bulkError(11000));
+
+        assertEquals(1, outbox.append(reminders()));
+    }
+
+    @Test
+    void append_ShouldRethrowOtherErrors() {
+        when(bulk.execute()).thenThrow(bulkError(121));
+
+        assertThrows(BulkOperationException.class, () -> outbox.append(reminders()));
+    }
+
+    @Test
+    void append_ShouldDoNothingWithoutReminders() {
+        assertEquals(0, outbox.append(List.of()));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+}
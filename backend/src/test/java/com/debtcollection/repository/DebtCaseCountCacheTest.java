@@ -0,0 +1,75 @@
+package com.debtcollection.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DebtCaseCountCacheTest {
+
+    private DebtCaseChangeTracker changeTracker;
+    private DebtCaseCountCache countCache;
+
+    @BeforeEach
+    void setUp() {
+        changeTracker = new DebtCaseChangeTracker();
+        countCache = new DebtCaseCountCache(changeTracker);
+    }
+
+    @Test
+    void peek_ShouldReturnPutCountUntilNextWrite() {
+        assertNull(countCache.peek("k"));
+
+        countCache.put("k", changeTracker.generation(), 25);
+        assertEquals(25L, countCache.peek("k"));
+
+        changeTracker.markChanged();
+
+        assertNull(countCache.peek("k"));
+        countCache.put("k", changeTracker.generation(), 26);
+        assertEquals(26L, countCache.peek("k"));
+    }
+
+    @Test
+    void put_ShouldIgnoreCountTakenBeforeConcurrentWrite() {
+        long generation = changeTracker.generation();
+        changeTracker.markChanged(); // write lands while the exact count is running
+
+        countCache.put("k", generation, 25);
+
+        assertNull(countCache.peek("k"));
+    }
+
+    @Test
+    void put_ShouldNotReplaceValidCountWithOutdatedOne() {
+        long before = changeTracker.generation();
+        changeTracker.markChanged();
+        countCache.put("k", changeTracker.generation(), 26);
+
+        countCache.put("k", before, 25); // slower count started before the write
+
+        assertEquals(26L, countCache.peek("k"));
+    }
+
+    @Test
+    void peek_ShouldKeepKeysIndependent() {
+        long generation = changeTracker.generation();
+        countCache.put("a", generation, 1);
+        countCache.put("b", generation, 2);
+
+        assertEquals(1L, countCache.peek("a"));
+        assertEquals(2L, countCache.peek("b"));
+    }
+
+    @Test
+    void put_ShouldStayBoundedByMaxEntries() {
+        long generation = changeTracker.generation();
+        for (int i = 0; i <= DebtCaseCountCache.MAX_ENTRIES; i++) {
+            countCache.put("k" + i, generation, i);
+        }
+
+        assertNull(countCache.peek("k0"));
+        assertEquals((long) DebtCaseCountCache.MAX_ENTRIES, countCache.peek("k" + DebtCaseCountCache.MAX_ENTRIES));
+    }
+}
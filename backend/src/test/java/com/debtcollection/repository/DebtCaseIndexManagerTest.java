@@ -0,0 +1,42 @@
+package com.debtcollection.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DebtCaseIndexManagerTest {
+
+    private final DebtCaseRepositoryCustomImpl repositoryCustom = new DebtCaseRepositoryCustomImpl(null, null, null);
+    private final DebtCaseIndexManager indexManager = new DebtCaseIndexManager(null, repositoryCustom);
+
+    @Test
+    void declaredIndexes_ShouldCoverEverySortFieldWithIdTieBreaker() {
+        List<Document> keys = indexManager.declaredIndexes().stream().map(IndexDefinition::getIndexKeys).toList();
+
+        DebtCaseIndexManager.SORT_FIELDS.values().forEach(field ->
+                assertTrue(keys.contains(new Document(field, 1).append("_id", 1)), "missing sort index on " + field));
+    }
+
+    @Test
+    void declaredIndexes_PartialIndexesShouldOnlyHoldCasesWithDeadline() {
+        List<Document> partialFilters = indexManager.declaredIndexes().stream()
+                .map(IndexDefinition::getIndexOptions)
+                .filter(options -> options.containsKey("partialFilterExpression"))
+                .map(options -> options.get("partialFilterExpression", Document.class))
+                .toList();
+
+        assertFalse(partialFilters.isEmpty());
+        partialFilters.forEach(filter ->
+                assertEquals(new Document("$exists", true), filter.get("next_deadline_date")));
+    }
+
+    @Test
+    void filterShapes_ShouldBuildValidCriteria() {
+        indexManager.filterShapes().forEach((name, filter) ->
+                assertDoesNotThrow(() -> repositoryCustom.buildCriteria(filter).getCriteriaObject(), name));
+    }
+}
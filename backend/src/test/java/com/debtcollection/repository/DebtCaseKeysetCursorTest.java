@@ -0,0 +1,84 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DebtCaseKeysetCursorTest {
+
+    private DebtCase lastRow(LocalDateTime deadline) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setId("507f1f77bcf86cd799439011");
+        debtCase.setDebtorName("Mario Rossi");
+        debtCase.setOwedAmount(1500.0);
+        debtCase.setCurrentState(CaseState.DEPOSITO_RICORSO);
+        debtCase.setNextDeadlineDate(deadline);
+        return debtCase;
+    }
+
+    @Test
+    void keyOrders_ShouldRejectUnsupportedSortField() {
+        assertThrows(IllegalArgumentException.class,
+                () -> DebtCaseKeysetCursor.keyOrders(Sort.by("notes")));
+    }
+
+    @Test
+    void querySort_ShouldAppendIdTieBreaker() {
+        List<Sort.Order> orders = DebtCaseKeysetCursor.keyOrders(Sort.by(Sort.Direction.DESC, "owedAmount"));
+
+        Sort sort = DebtCaseKeysetCursor.querySort(orders);
+
+        assertEquals(List.of(Sort.Order.desc("owedAmount"), Sort.Order.asc("id")), sort.toList());
+    }
+
+    @Test
+    void afterCriteria_ShouldUseStrictRangeOnSortKeyThenId() {
+        List<Sort.Order> orders = DebtCaseKeysetCursor.keyOrders(Sort.by(Sort.Direction.ASC, "nextDeadlineDate"));
+        String cursor = DebtCaseKeysetCursor.encode(orders, lastRow(LocalDateTime.of(2025, 3, 1, 0, 0)));
+
+        Document criteria = DebtCaseKeysetCursor.afterCriteria(orders, cursor).getCriteriaObject();
+
+        List<?> branches = criteria.getList("$or", Object.class);
+        assertEquals(2, branches.size());
+        Document first = (Document) ((Document) branches.get(0)).get("nextDeadlineDate");
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), first.get("$gt"));
+        List<?> tieBreak = ((Document) branches.get(1)).getList("$and", Object.class);
+        assertTrue(((Document) tieBreak.get(1)).containsKey("id"));
+    }
+
+    @Test
+    void afterCriteria_ShouldHandleNullSortValueInDescendingOrder() {
+        List<Sort.Order> orders = DebtCaseKeysetCursor.keyOrders(Sort.by(Sort.Direction.DESC, "nextDeadlineDate"));
+        String cursor = DebtCaseKeysetCursor.encode(orders, lastRow(null));
+
+        Document criteria = DebtCaseKeysetCursor.afterCriteria(orders, cursor).getCriteriaObject();
+
+        // Nulls sort last descending: only rows with null deadline and greater _id remain
+        assertFalse(criteria.containsKey("$or"));
+        assertTrue(criteria.toJson().contains("\"nextDeadlineDate\": null"));
+    }
+
+    @Test
+    void afterCriteria_ShouldRejectCursorFromDifferentSort() {
+        List<Sort.Order> byName = DebtCaseKeysetCursor.keyOrders(Sort.by("debtorName"));
+        List<Sort.Order> byAmount = DebtCaseKeysetCursor.keyOrders(Sort.by("owedAmount"));
+        String cursor = DebtCaseKeysetCursor.encode(byName, lastRow(null));
+
+        assertThrows(IllegalArgumentException.class, () -> DebtCaseKeysetCursor.afterCriteria(byAmount, cursor));
+    }
+
+    @Test
+    void afterCriteria_ShouldRejectTamperedCursor() {
+        List<Sort.Order> orders = DebtCaseKeysetCursor.keyOrders(Sort.by("debtorName"));
+
+        assertThrows(IllegalArgumentException.class, () -> DebtCaseKeysetCursor.afterCriteria(orders, "%%%"));
+        assertThrows(IllegalArgumentException.class, () -> DebtCaseKeysetCursor.afterCriteria(orders, "bm90LWpzb24"));
+    }
+}
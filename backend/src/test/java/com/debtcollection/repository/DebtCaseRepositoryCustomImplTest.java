@@ -0,0 +1,620 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Payment;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DebtCaseRepositoryCustomImplTest {
+
+    private MongoTemplate mongoTemplate;
+    private DebtCaseCountCache countCache;
+    private DebtCaseChangeTracker changeTracker;
+    private DebtCaseRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        changeTracker = new DebtCaseChangeTracker();
+        countCache = new DebtCaseCountCache(changeTracker);
+        repository = new DebtCaseRepositoryCustomImpl(mongoTemplate, countCache, changeTracker);
+        ReflectionTestUtils.setField(repository, "countTimeoutMs", 200L);
+        ReflectionTestUtils.setField(repository, "parallelCount", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdownCountExecutor();
+    }
+
+    private static List<DebtCase> rows(int count) {
+        List<DebtCase> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new DebtCase());
+        }
+        return rows;
+    }
+
+    @Test
+    void findByFilters_ShouldRunPageAndCountConcurrently() {
+        // Each query waits for the other one to start: they only both get through when in flight together
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger overlapped = new AtomicInteger();
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenAnswer(invocation -> {
+            started.countDown();
+            if (started.await(2, TimeUnit.SECONDS)) {
+                overlapped.incrementAndGet();
+            }
+            return rows(10);
+        });
+        when(mongoTemplate.count(any(Query.class), eq(DebtCase.class))).thenAnswer(invocation -> {
+            started.countDown();
+            if (started.await(2, TimeUnit.SECONDS)) {
+                overlapped.incrementAndGet();
+            }
+            return 42L;
+        });
+
+        Page<DebtCase> page = repository.findByFilters(new DebtCaseFilterRequest(), PageRequest.of(0, 10), TotalCountMode.EXACT);
+
+        assertEquals(42, page.getTotalElements());
+        assertEquals(10, page.getContent().size());
+        assertEquals(2, overlapped.get(), "page and count should be in flight at the same time");
+        assertEquals(42L, countCache.peek(new DebtCaseFilterRequest().normalizedKey()));
+    }
+
+    @Test
+    void findByFilters_ShouldFallBackToLowerBoundWhenCountExceedsBudget() {
+        // Look-ahead row present: a next page exists
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(rows(11));
+        when(mongoTemplate.count(any(Query.class), eq(DebtCase.class))).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return 1_000_000L;
+        });
+
+        long start = System.nanoTime();
+        Page<DebtCase> page = repository.findByFilters(new DebtCaseFilterRequest(), PageRequest.of(2, 10), TotalCountMode.EXACT);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 1_000, "count wait should be cut at the budget, took " + elapsedMs + " ms");
+        assertEquals(10, page.getContent().size());
+        assertEquals(31, page.getTotalElements());
+        assertTrue(page.hasNext());
+        assertNull(countCache.peek(new DebtCaseFilterRequest().normalizedKey()));
+    }
+
+    @Test
+    void findByFilters_ShouldFallBackWhenServerAbortsCount() {
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(rows(3));
+        when(mongoTemplate.count(any(Query.class), eq(DebtCase.class)))
+                .thenThrow(new QueryTimeoutException("operation exceeded time limit",
+                        new MongoExecutionTimeoutException(50, "operation exceeded time limit")));
+
+        Page<DebtCase> page = repository.findByFilters(new DebtCaseFilterRequest(), PageRequest.of(0, 10), TotalCountMode.EXACT);
+
+        assertEquals(3, page.getTotalElements());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void findByFilters_ShouldFallBackWhenServerAbortsSequentialCount() {
+        ReflectionTestUtils.setField(repository, "parallelCount", false);
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(rows(11));
+        when(mongoTemplate.count(any(Query.class), eq(DebtCase.class)))
+                .thenThrow(new QueryTimeoutException("operation exceeded time limit",
+                        new MongoExecutionTimeoutException(50, "operation exceeded time limit")));
+
+        Page<DebtCase> page = repository.findByFilters(new DebtCaseFilterRequest(), PageRequest.of(1, 10), TotalCountMode.EXACT);
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(21, page.getTotalElements());
+        assertTrue(page.hasNext());
+        assertNull(countCache.peek(new DebtCaseFilterRequest().normalizedKey()));
+    }
+
+    @Test
+    void findByFilters_ShouldPropagateCountFailures() {
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(rows(3));
+        when(mongoTemplate.count(any(Query.class), eq(DebtCase.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThrows(DataAccessResourceFailureException.class, () ->
+                repository.findByFilters(new DebtCaseFilterRequest(), PageRequest.of(0, 10), TotalCountMode.EXACT));
+    }
+
+    @Test
+    void findByFilters_ShouldSkipCountOnCachedHit() {
+        countCache.put(new DebtCaseFilterRequest().normalizedKey(), 0, 7);
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(rows(7));
+
+        Page<DebtCase> page = repository.findByFilters(new DebtCaseFilterRequest(), PageRequest.of(0, 10), TotalCountMode.CACHED);
+
+        assertEquals(7, page.getTotalElements());
+        verify(mongoTemplate, never()).count(any(Query.class), eq(DebtCase.class));
+    }
+
+    private MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findFacets_ShouldComputeAllBucketsAndPageInOneAggregation() {
+        MappingMongoConverter converter = converter();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        Document result = new Document("total", List.of(new Document("count", 3)))
+                .append("states", List.of(new Document("_id", "PRECETTO").append("count", 2),
+                        new Document("_id", "DEPOSITO_RICORSO").append("count", 1)))
+                .append("paid", List.of(new Document("_id", false).append("count", 3)))
+                .append("hasInstallmentPlan", List.of(new Document("_id", true).append("count", 1),
+                        new Document("_id", false).append("count", 2)))
+                .append("ongoingNegotiations", List.of(new Document("_id", null).append("count", 3)))
+                .append("rows", List.of(new Document("_id", "a").append("debtor_name", "Mario Rossi")));
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        filter.setPaid(false);
+        DebtCaseFacets<DebtCase> facets = repository.findFacets(filter, PageRequest.of(1, 10, Sort.by("nextDeadlineDate")));
+
+        assertEquals(3, facets.total());
+        assertEquals(2L, facets.states().get("PRECETTO"));
+        assertEquals(0L, facets.states().get("COMPLETATA"));
+        assertEquals(Map.of("true", 0L, "false", 3L), facets.paid());
+        assertEquals(Map.of("true", 1L, "false", 2L), facets.hasInstallmentPlan());
+        assertEquals(3L, facets.ongoingNegotiations().get("null"));
+        assertEquals("Mario Rossi", facets.rows().get(0).getDebtorName());
+
+        ArgumentCaptor<TypedAggregation<DebtCase>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Document.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(new TypeBasedAggregationOperationContext(
+                DebtCase.class, converter.getMappingContext(), new QueryMapper(converter)));
+        assertEquals(2, pipeline.size());
+        assertEquals(new Document("paid", false), pipeline.get(0).get("$match"));
+        Document facetStage = pipeline.get(1).get("$facet", Document.class);
+        assertEquals(Set.of("total", "states", "paid", "hasInstallmentPlan", "ongoingNegotiations", "rows"), facetStage.keySet());
+        List<Document> rows = facetStage.getList("rows", Document.class);
+        assertEquals(new Document("next_deadline_date", 1).append("_id", 1), rows.get(0).get("$sort"));
+        assertEquals(10L, ((Number) rows.get(1).get("$skip")).longValue());
+        assertEquals(1, rows.get(3).get("$project", Document.class).get("debtor_name"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findFacets_FacetsOnly_ShouldSkipRows() {
+        Document result = new Document("total", List.of())
+                .append("states", List.of()).append("paid", List.of())
+                .append("hasInstallmentPlan", List.of()).append("ongoingNegotiations", List.of());
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        DebtCaseFacets<DebtCase> facets = repository.findFacets(new DebtCaseFilterRequest(), Pageable.unpaged());
+
+        assertEquals(0, facets.total());
+        assertNull(facets.rows());
+        ArgumentCaptor<TypedAggregation<DebtCase>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Document.class));
+        assertFalse(aggregation.getValue().toString().contains("rows"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void summarizeActive_ShouldCountWindowsServerSide() {
+        MappingMongoConverter converter = converter();
+        Document result = new Document("totals", List.of(new Document("count", 4).append("overdue", 1)
+                .append("dueToday", 1).append("dueNext7Days", 2).append("dueWithinHorizon", 3)))
+                .append("states", List.of(new Document("_id", "PRECETTO").append("count", 4)));
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(result), new Document()));
+
+        DebtCaseSummaryCounts summary = repository.summarizeActive(LocalDate.of(2025, 3, 10), 30);
+
+        assertEquals(new DebtCaseSummaryCounts(4, 1, 1, 2, 3, summary.states()), summary);
+        assertEquals(4L, summary.states().get("PRECETTO"));
+        assertEquals(0L, summary.states().get("DEPOSITO_RICORSO"));
+        assertFalse(summary.states().containsKey("COMPLETATA"));
+
+        ArgumentCaptor<TypedAggregation<DebtCase>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Document.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(new TypeBasedAggregationOperationContext(
+                DebtCase.class, converter.getMappingContext(), new QueryMapper(converter)));
+        assertEquals(new Document("current_state", new Document("$ne", "COMPLETATA")), pipeline.get(0).get("$match"));
+        Document group = pipeline.get(1).get("$facet", Document.class).getList("totals", Document.class).get(0)
+                .get("$group", Document.class);
+        Document horizon = group.get("dueWithinHorizon", Document.class).get("$sum", Document.class);
+        List<Object> window = horizon.get("$cond", Document.class).get("if", Document.class).getList("$and", Object.class);
+        Date horizonEnd = Date.from(LocalDate.of(2025, 4, 10).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        assertEquals(new Document("$lt", List.of("$next_deadline_date", horizonEnd)), window.get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deadlineHistogram_ShouldGroupByDayServerSide() {
+        MappingMongoConverter converter = converter();
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", "2025-03-10").append("count", 2).append("owedAmount", 1500.5),
+                        new Document("_id", "2025-03-12").append("count", 1).append("owedAmount", 300.0)), new Document()));
+
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        filter.setNextDeadlineFrom(LocalDate.of(2025, 3, 1));
+        List<DeadlineDayCount> days = repository.deadlineHistogram(filter, LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 16));
+
+        assertEquals(List.of(new DeadlineDayCount(LocalDate.of(2025, 3, 10), 2, 1500.5),
+                new DeadlineDayCount(LocalDate.of(2025, 3, 12), 1, 300.0)), days);
+
+        ArgumentCaptor<TypedAggregation<DebtCase>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Document.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(new TypeBasedAggregationOperationContext(
+                DebtCase.class, converter.getMappingContext(), new QueryMapper(converter)));
+        List<Document> and = pipeline.get(0).get("$match", Document.class).getList("$and", Document.class);
+        Document range = and.get(1).get("next_deadline_date", Document.class);
+        assertEquals(Date.from(LocalDate.of(2025, 3, 17).atStartOfDay(ZoneId.systemDefault()).toInstant()), range.get("$lt"));
+        Document project = pipeline.get(1).get("$project", Document.class);
+        assertEquals("$next_deadline_date", project.get("day", Document.class).get("$dateToString", Document.class).get("date"));
+        Document group = pipeline.get(2).get("$group", Document.class);
+        assertEquals("$day", group.get("_id"));
+        assertEquals(new Document("$sum", "$owedAmount"), group.get("owedAmount"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void financialAggregates_ShouldUnwindPaymentsAndCountOwedOncePerCase() {
+        MappingMongoConverter converter = converter();
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", new Document("month", "2025-01").append("state", "PRECETTO"))
+                                .append("count", 2).append("owedAmount", 3000.0).append("paidAmount", 500.0)), new Document()));
+
+        List<FinancialAggregate> rows = repository.financialAggregates(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 1));
+
+        assertEquals(List.of(new FinancialAggregate("2025-01", CaseState.PRECETTO, 2, 3000.0, 500.0)), rows);
+
+        ArgumentCaptor<TypedAggregation<DebtCase>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq(Document.class));
+        List<Document> pipeline = aggregation.getValue().toPipeline(new TypeBasedAggregationOperationContext(
+                DebtCase.class, converter.getMappingContext(), new QueryMapper(converter)));
+        assertEquals(new Document("path", "$payments").append("preserveNullAndEmptyArrays", true), pipeline.get(1).get("$unwind"));
+        Document perCase = pipeline.get(2).get("$group", Document.class);
+        assertEquals("$_id", perCase.get("_id"));
+        assertEquals(new Document("$first", "$owed_amount"), perCase.get("owedAmount"));
+        assertEquals(new Document("$sum", "$payments.amount"), perCase.get("paidAmount"));
+        Document perPeriod = pipeline.get(3).get("$group", Document.class);
+        assertEquals(new Document("month", "$month").append("state", "$state"), perPeriod.get("_id"));
+    }
+
+    @Test
+    void appendPayment_ShouldPushIncrementAndCompleteInOneFindAndModify() {
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        DebtCase updated = new DebtCase();
+        updated.setId("case-1");
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DebtCase.class)))
+                .thenReturn(updated);
+        List<DebtCase> notified = new ArrayList<>();
+        changeTracker.addDocumentChangeListener(notified::add);
+        long generation = changeTracker.generation();
+        Payment payment = new Payment();
+        payment.setPaymentId("p-1");
+        payment.setAmount(250.0);
+        payment.setPaymentDate(LocalDate.of(2025, 3, 10));
+
+        assertSame(updated, repository.appendPayment("case-1", payment, "avvocato").orElseThrow());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(DebtCase.class));
+        verify(mongoTemplate, never()).save(any());
+        assertEquals("case-1", query.getValue().getQueryObject().get("id"));
+        assertTrue(options.getValue().isReturnNew());
+
+        List<Document> pipeline = update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(2, pipeline.size());
+        Document push = pipeline.get(0).get("$set", Document.class);
+        Document appended = push.get("payments", Document.class).getList("$concatArrays", Object.class)
+                .stream().skip(1).map(List.class::cast).map(list -> ((Document) list.get(0)).get("$literal", Document.class))
+                .findFirst().orElseThrow();
+        assertEquals("p-1", appended.get("paymentId"));
+        assertEquals(250.0, appended.get("amount"));
+        assertFalse(appended.containsKey("_class"));
+        assertEquals(250.0, push.get("paid_total", Document.class).getList("$add", Object.class).get(1));
+        assertEquals(1L, push.get("version", Document.class).getList("$add", Object.class).get(1));
+        assertEquals(new Document("$literal", "avvocato"), push.get("last_modified_by"));
+        Document complete = pipeline.get(1).get("$set", Document.class);
+        assertEquals(Set.of("current_state", "current_state_date", "paid", "next_deadline_date", "notes"), complete.keySet());
+        assertEquals("COMPLETATA", complete.get("current_state", Document.class).getList("$cond", Object.class).get(1));
+
+        assertEquals(generation + 1, changeTracker.generation());
+        assertEquals(List.of(updated), notified);
+    }
+
+    @Test
+    void appendPayment_ShouldReturnEmptyWithoutNotifying_WhenCaseIsMissing() {
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        long generation = changeTracker.generation();
+        Payment payment = new Payment();
+        payment.setAmount(10.0);
+
+        assertTrue(repository.appendPayment("missing", payment, "avvocato").isEmpty());
+        assertEquals(generation, changeTracker.generation());
+    }
+
+    @Test
+    void appendPayments_ShouldSendOneUnorderedBulkUpdatePerCase() {
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getMatchedCount()).thenReturn(2);
+        when(bulk.execute()).thenReturn(result);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class)).thenReturn(bulk);
+        List<DebtCase> keys = List.of(new DebtCase(), new DebtCase());
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(keys);
+        AtomicInteger resyncs = new AtomicInteger();
+        changeTracker.addBulkChangeListener(resyncs::incrementAndGet);
+        List<DebtCase> notified = new ArrayList<>();
+        changeTracker.addDocumentChangeListener(notified::add);
+        Payment plain = new Payment();
+        plain.setAmount(100.0);
+        plain.setPaymentDate(LocalDate.of(2025, 3, 10));
+        Payment installment = new Payment();
+        installment.setAmount(50.0);
+        installment.setPaymentDate(LocalDate.of(2025, 3, 11));
+        installment.setInstallmentId("inst-1");
+
+        Map<String, List<Payment>> payments = new LinkedHashMap<>();
+        payments.put("case-1", List.of(plain, installment));
+        payments.put("case-2", List.of(plain));
+        PaymentAppendResult written = repository.appendPayments(payments, "avvocato");
+        assertEquals(Set.of("case-1", "case-2"), written.updated());
+        assertTrue(written.failed().isEmpty());
+
+        ArgumentCaptor<AggregationUpdate> updates = ArgumentCaptor.forClass(AggregationUpdate.class);
+        verify(bulk, times(2)).updateOne(any(Query.class), updates.capture());
+        verify(bulk).execute();
+        // Every case matched: the only read is the re-read of the written cases, published one by one
+        ArgumentCaptor<Query> reread = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(reread.capture(), eq(DebtCase.class));
+        assertEquals(List.of("case-1", "case-2"), reread.getValue().getQueryObject().get("id", Document.class).getList("$in", String.class));
+        assertEquals(Set.of("currentState", "nextDeadlineDate"), reread.getValue().getFieldsObject().keySet());
+        assertEquals(keys, notified);
+        assertEquals(0, resyncs.get());
+
+        List<Document> withInstallment = updates.getAllValues().get(0).toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(3, withInstallment.size());
+        Document push = withInstallment.get(0).get("$set", Document.class);
+        assertEquals(2, ((List<?>) push.get("payments", Document.class).getList("$concatArrays", Object.class).get(1)).size());
+        assertEquals(150.0, push.get("paid_total", Document.class).getList("$add", Object.class).get(1));
+        assertTrue(push.containsKey("installments"));
+        assertEquals(new Document("$literal", "avvocato"), push.get("last_modified_by"));
+        assertTrue(withInstallment.get(1).get("$set", Document.class).containsKey("next_deadline_date"));
+
+        List<Document> plainOnly = updates.getAllValues().get(1).toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(2, plainOnly.size());
+        assertFalse(plainOnly.get(0).get("$set", Document.class).containsKey("installments"));
+    }
+
+    @Test
+    void appendPayments_ShouldReportFailedAndDeletedCases_WithoutThrowing() {
+        when(mongoTemplate.getConverter()).thenReturn(converter());
+        BulkOperations bulk = mock(BulkOperations.class);
+        // case-1 fails, case-2 is written, case-3 was deleted after the import checks (no match)
+        BulkWriteResult partial = BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of());
+        when(bulk.execute()).thenThrow(new BulkOperationException("bulk write failed", new MongoBulkWriteException(partial,
+                List.of(new BulkWriteError(2, "document too large", new BsonDocument(), 0)), null, new ServerAddress(), Set.of())));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class)).thenReturn(bulk);
+        DebtCase written = new DebtCase();
+        written.setId("case-2");
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(List.of(written));
+
+        Map<String, List<Payment>> payments = new LinkedHashMap<>();
+        for (String id : List.of("case-1", "case-2", "case-3")) {
+            Payment payment = new Payment();
+            payment.setPaymentId("payment-" + id);
+            payment.setAmount(10.0);
+            payment.setPaymentDate(LocalDate.of(2025, 3, 10));
+            payments.put(id, List.of(payment));
+        }
+        PaymentAppendResult result = repository.appendPayments(payments, "avvocato");
+
+        assertEquals(Set.of("case-2"), result.updated());
+        assertEquals("document too large", result.failed().get("case-1"));
+        assertEquals("DebtCase not found with id: case-3", result.failed().get("case-3"));
+        // Re-read of the changed cases, then lookup of the written ones
+        ArgumentCaptor<Query> lookup = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(lookup.capture(), eq(DebtCase.class));
+        assertEquals(List.of("payment-case-2", "payment-case-3"),
+                lookup.getAllValues().get(1).getQueryObject().get("payments.paymentId", Document.class).getList("$in", String.class));
+    }
+
+    @Test
+    void transitionState_ShouldMoveChunkWithOneUpdateMultiAndPublishTheCases() {
+        UpdateResult result = mock(UpdateResult.class);
+        when(result.getModifiedCount()).thenReturn(2L);
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(DebtCase.class))).thenReturn(result);
+        List<DebtCase> keys = List.of(new DebtCase(), new DebtCase());
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(keys);
+        AtomicInteger resyncs = new AtomicInteger();
+        changeTracker.addBulkChangeListener(resyncs::incrementAndGet);
+        List<DebtCase> notified = new ArrayList<>();
+        changeTracker.addDocumentChangeListener(notified::add);
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        filter.setStates(List.of(CaseState.DEPOSITO_RICORSO));
+        LocalDateTime stateDate = LocalDateTime.of(2025, 3, 10, 9, 0);
+
+        assertEquals(2, repository.transitionState(List.of("case-1", "case-2"), filter, CaseState.DECRETO_INGIUNTIVO_DA_NOTIFICARE,
+                stateDate, stateDate.plusDays(20), "avvocato"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(DebtCase.class));
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("case-1"));
+        assertTrue(criteria.contains("DEPOSITO_RICORSO"));
+        assertTrue(criteria.contains("$ne=DECRETO_INGIUNTIVO_DA_NOTIFICARE"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(CaseState.DECRETO_INGIUNTIVO_DA_NOTIFICARE, set.get("currentState"));
+        assertEquals(stateDate, set.get("currentStateDate"));
+        assertEquals(stateDate.plusDays(20), set.get("nextDeadlineDate"));
+        assertEquals("avvocato", set.get("lastModifiedBy"));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+        ArgumentCaptor<Query> reread = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(reread.capture(), eq(DebtCase.class));
+        assertEquals(List.of("case-1", "case-2"), reread.getValue().getQueryObject().get("id", Document.class).getList("$in", String.class));
+        assertEquals(keys, notified);
+        assertEquals(0, resyncs.get());
+    }
+
+    @Test
+    void transitionState_ShouldResync_WhenTheChangedCasesCannotBeReRead() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(DebtCase.class))).thenReturn(mock(UpdateResult.class));
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenThrow(new DataAccessResourceFailureException("down"));
+        AtomicInteger resyncs = new AtomicInteger();
+        changeTracker.addBulkChangeListener(resyncs::incrementAndGet);
+        long generation = changeTracker.generation();
+
+        repository.transitionState(List.of("case-1"), new DebtCaseFilterRequest(), CaseState.PRECETTO, LocalDateTime.now(), null, "system");
+
+        assertEquals(1, resyncs.get());
+        assertEquals(generation + 1, changeTracker.generation());
+    }
+
+    @Test
+    void transitionState_ShouldRemoveDeadlineWhenCompleting() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(DebtCase.class))).thenReturn(mock(UpdateResult.class));
+
+        repository.transitionState(List.of("case-1"), new DebtCaseFilterRequest(), CaseState.COMPLETATA, LocalDateTime.now(), null, "system");
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(DebtCase.class));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("nextDeadlineDate"));
+        assertFalse(update.getValue().getUpdateObject().get("$set", Document.class).containsKey("nextDeadlineDate"));
+    }
+
+    @Test
+    void transitionState_ShouldSkipEmptyChunk() {
+        assertEquals(0, repository.transitionState(List.of(), new DebtCaseFilterRequest(), CaseState.PRECETTO, LocalDateTime.now(), null, "system"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void findDeadlineKeys_ShouldLoadKeysOfStateCasesWithoutInstallmentPlan() {
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(List.of());
+
+        repository.findDeadlineKeys(List.of(CaseState.PRECETTO), "case-9", 500);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(DebtCase.class));
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("PRECETTO"));
+        assertTrue(criteria.contains("$ne=COMPLETATA"));
+        assertTrue(criteria.contains("hasInstallmentPlan=Document{{$ne=true}}"));
+        assertTrue(criteria.contains("$gt=case-9"));
+        assertEquals(500, query.getValue().getLimit());
+        assertEquals(Set.of("id", "currentState", "currentStateDate", "nextDeadlineDate", "version"), query.getValue().getFieldsObject().keySet());
+    }
+
+    @Test
+    void updateDeadlines_ShouldSendOneGuardedUpdatePerCaseAndPublishTheCases() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getModifiedCount()).thenReturn(1);
+        when(bulk.execute()).thenReturn(result);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DebtCase.class)).thenReturn(bulk);
+        DebtCase key = new DebtCase();
+        when(mongoTemplate.find(any(Query.class), eq(DebtCase.class))).thenReturn(List.of(key));
+        AtomicInteger resyncs = new AtomicInteger();
+        changeTracker.addBulkChangeListener(resyncs::incrementAndGet);
+        List<DebtCase> notified = new ArrayList<>();
+        changeTracker.addDocumentChangeListener(notified::add);
+        LocalDateTime stateDate = LocalDateTime.of(2025, 3, 10, 9, 0);
+        DebtCase debtCase = new DebtCase();
+        debtCase.setId("case-1");
+        debtCase.setCurrentState(CaseState.PRECETTO);
+        debtCase.setCurrentStateDate(stateDate);
+        debtCase.setNextDeadlineDate(stateDate.plusDays(5));
+        debtCase.setVersion(3L);
+
+        assertEquals(1, repository.updateDeadlines(List.of(debtCase), "system"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).updateOne(query.capture(), update.capture());
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals("case-1", criteria.get("id"));
+        assertEquals(CaseState.PRECETTO, criteria.get("currentState"));
+        assertEquals(stateDate, criteria.get("currentStateDate"));
+        assertEquals(3L, criteria.get("version"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(stateDate.plusDays(5), set.get("nextDeadlineDate"));
+        assertEquals("system", set.get("lastModifiedBy"));
+        assertEquals(1, update.getValue().getUpdateObject().get("$inc", Document.class).get("version"));
+        assertEquals(List.of(key), notified);
+        assertEquals(0, resyncs.get());
+    }
+
+    @Test
+    void updateDeadlines_ShouldSkipEmptyChunk() {
+        assertEquals(0, repository.updateDeadlines(List.of(), "system"));
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,60 @@
+package com.debtcollection.repository;
+
+import com.debtcollection.dto.DebtCaseFilterRequest.DebtorNameMatch;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DebtorNameSearchTest {
+
+    @Test
+    void normalize_ShouldFoldAccentsCaseAndPunctuation() {
+        assertEquals("d angelo nicolo", DebtorNameSearch.normalize("  D'Àngelo,  Nicolò "));
+        assertEquals("", DebtorNameSearch.normalize(null));
+        assertEquals("", DebtorNameSearch.normalize(".*"));
+    }
+
+    @Test
+    void tokens_ShouldBeDistinctWords() {
+        assertEquals(List.of("rossi", "mario"), DebtorNameSearch.tokens("Rossi Mario ROSSI"));
+    }
+
+    @Test
+    void addCriteria_TokenModeShouldAnchorEveryToken() {
+        Criteria criteria = new Criteria();
+
+        DebtorNameSearch.addCriteria(criteria, "Mar Ròs", null);
+
+        Document doc = criteria.getCriteriaObject();
+        List<?> patterns = ((Document) doc.get(DebtorNameSearch.TOKENS_PROPERTY)).getList("$all", Object.class);
+        assertEquals(2, patterns.size());
+        assertTrue(((Pattern) patterns.get(0)).matcher("mario").find());
+        assertTrue(((Pattern) patterns.get(1)).matcher("rossi").find());
+        assertFalse(((Pattern) patterns.get(0)).matcher("amaro").find());
+    }
+
+    @Test
+    void addCriteria_ShouldQuoteUserInput() {
+        Criteria criteria = new Criteria();
+
+        DebtorNameSearch.addCriteria(criteria, "a.b", DebtorNameMatch.PREFIX);
+
+        Pattern pattern = (Pattern) criteria.getCriteriaObject().get(DebtorNameSearch.SEARCH_PROPERTY);
+        assertTrue(pattern.matcher("a b srl").find());
+        assertFalse(pattern.matcher("axb srl").find());
+    }
+
+    @Test
+    void addCriteria_ShouldIgnoreBlankInput() {
+        Criteria criteria = new Criteria();
+
+        DebtorNameSearch.addCriteria(criteria, " - ", DebtorNameMatch.CONTAINS);
+
+        assertTrue(criteria.getCriteriaObject().isEmpty());
+    }
+}
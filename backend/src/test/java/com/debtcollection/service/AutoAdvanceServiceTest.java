@@ -0,0 +1,117 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.AutoAdvanceReportDto;
+import com.debtcollection.dto.AutoAdvanceReportDto.Transition;
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.StateTransitionConfig;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the automatic state advancement (due filter, chunks, dry run, report)
+class AutoAdvanceServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private DebtCaseRepository debtCaseRepository;
+    private StateTransitionService stateTransitionService;
+    private AutoAdvanceService service;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        stateTransitionService = mock(StateTransitionService.class);
+        Map<CaseState, StateTransitionConfig> configs = new EnumMap<>(CaseState.class);
+        configs.put(CaseState.MESSA_IN_MORA_DA_FARE, config(CaseState.MESSA_IN_MORA_DA_FARE, CaseState.MESSA_IN_MORA_INVIATA));
+        configs.put(CaseState.PRECETTO, config(CaseState.PRECETTO, CaseState.COMPLETATA));
+        when(stateTransitionService.configSnapshot()).thenReturn(configs);
+        when(stateTransitionService.calculateNextDeadline(eq(CaseState.MESSA_IN_MORA_INVIATA), any()))
+                .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(1).toLocalDate().plusDays(15));
+        service = new AutoAdvanceService(debtCaseRepository, stateTransitionService, true, false, 2);
+    }
+
+    private static StateTransitionConfig config(CaseState from, CaseState to) {
+        StateTransitionConfig config = new StateTransitionConfig();
+        config.setFromState(from);
+        config.setToState(to);
+        config.setDaysToTransition(10);
+        return config;
+    }
+
+    @Test
+    void advance_ShouldMoveDueCasesInChunksPerTransition() {
+        when(debtCaseRepository.countForTransition(any(), eq(CaseState.MESSA_IN_MORA_INVIATA))).thenReturn(3L);
+        when(debtCaseRepository.findIdsForTransition(any(), eq(CaseState.MESSA_IN_MORA_INVIATA), isNull(), eq(2))).thenReturn(List.of("a", "b"));
+        when(debtCaseRepository.findIdsForTransition(any(), eq(CaseState.MESSA_IN_MORA_INVIATA), eq("b"), eq(2))).thenReturn(List.of("c"));
+        when(debtCaseRepository.transitionState(anyCollection(), any(), eq(CaseState.MESSA_IN_MORA_INVIATA), any(), any(), eq("system")))
+                .thenReturn(2L, 1L);
+
+        AutoAdvanceReportDto report = service.advance(TODAY, false);
+
+        assertFalse(report.dryRun());
+        assertEquals(3, report.due());
+        assertEquals(3, report.advanced());
+        assertNull(report.message());
+        Transition sent = report.transitions().get(0);
+        assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, sent.fromState());
+        assertEquals(CaseState.MESSA_IN_MORA_INVIATA, sent.toState());
+        assertEquals(report.startedAt().toLocalDate().plusDays(15).atStartOfDay(), sent.nextDeadlineDate());
+        Transition completed = report.transitions().get(1);
+        assertEquals(0, completed.due());
+        assertNull(completed.nextDeadlineDate());
+
+        ArgumentCaptor<DebtCaseFilterRequest> filter = ArgumentCaptor.forClass(DebtCaseFilterRequest.class);
+        verify(debtCaseRepository, times(2)).transitionState(anyCollection(), filter.capture(), eq(CaseState.MESSA_IN_MORA_INVIATA),
+                eq(report.startedAt()), eq(sent.nextDeadlineDate()), eq("system"));
+        DebtCaseFilterRequest due = filter.getValue();
+        assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, due.getState());
+        assertEquals(TODAY.minusDays(1), due.getNextDeadlineTo());
+        assertEquals(false, due.getPaid());
+        assertEquals(false, due.getHasInstallmentPlan());
+        assertEquals(false, due.getOngoingNegotiations());
+        // No due PRECETTO case: no id scan
+        verify(debtCaseRepository, never()).findIdsForTransition(any(), eq(CaseState.COMPLETATA), any(), anyInt());
+    }
+
+    @Test
+    void advance_ShouldOnlyCountInDryRun() {
+        when(debtCaseRepository.countForTransition(any(), any())).thenReturn(5L);
+
+        AutoAdvanceReportDto report = service.advance(TODAY, true);
+
+        assertTrue(report.dryRun());
+        assertEquals(10, report.due());
+        assertEquals(0, report.advanced());
+        verify(debtCaseRepository, never()).findIdsForTransition(any(), any(), any(), anyInt());
+        verify(debtCaseRepository, never()).transitionState(anyCollection(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void run_ShouldKeepReportsMostRecentFirst() {
+        service.run(true);
+        AutoAdvanceReportDto second = service.run(false);
+
+        List<AutoAdvanceReportDto> reports = service.recentReports();
+        assertEquals(2, reports.size());
+        assertSame(second, reports.get(0));
+    }
+
+    @Test
+    void scheduledRun_ShouldDoNothingWhenDisabled() {
+        new AutoAdvanceService(debtCaseRepository, stateTransitionService, false, false, 2).scheduledRun();
+
+        verifyNoInteractions(debtCaseRepository, stateTransitionService);
+    }
+}
@@ -0,0 +1,129 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.BulkTransitionStatusDto;
+import com.debtcollection.dto.BulkTransitionStatusDto.Status;
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the bulk state transition (dry run, chunked updates, progress)
+class BulkTransitionServiceTest {
+
+    private static final CaseState TARGET = CaseState.DECRETO_INGIUNTIVO_DA_NOTIFICARE;
+
+    private DebtCaseRepository debtCaseRepository;
+    private StateTransitionService stateTransitionService;
+    private BulkTransitionService service;
+    private DebtCaseFilterRequest filter;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        stateTransitionService = mock(StateTransitionService.class);
+        when(stateTransitionService.calculateNextDeadline(eq(TARGET), any()))
+                .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(1).toLocalDate().plusDays(20));
+        // Synchronous executor: the job is finished when startTransition returns
+        service = new BulkTransitionService(debtCaseRepository, stateTransitionService, () -> Optional.of("avvocato"), Runnable::run, 2, 24);
+        filter = new DebtCaseFilterRequest();
+        filter.setStates(List.of(CaseState.DEPOSITO_RICORSO));
+        filter.setCreatedTo(LocalDate.of(2025, 1, 31));
+    }
+
+    @Test
+    void dryRun_ShouldOnlyCount() {
+        when(debtCaseRepository.countForTransition(filter, TARGET)).thenReturn(42L);
+
+        BulkTransitionStatusDto status = service.dryRun(filter, TARGET);
+
+        assertEquals(Status.DRY_RUN, status.status());
+        assertEquals(42, status.matched());
+        assertNull(status.jobId());
+        assertEquals(status.currentStateDate().toLocalDate().plusDays(20).atStartOfDay(), status.nextDeadlineDate());
+        verify(debtCaseRepository, never()).transitionState(anyCollection(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void startTransition_ShouldUpdateInIdChunksWithOneDeadline() {
+        when(debtCaseRepository.countForTransition(filter, TARGET)).thenReturn(5L);
+        when(debtCaseRepository.findIdsForTransition(filter, TARGET, null, 2)).thenReturn(List.of("a", "b"));
+        when(debtCaseRepository.findIdsForTransition(filter, TARGET, "b", 2)).thenReturn(List.of("c", "d"));
+        when(debtCaseRepository.findIdsForTransition(filter, TARGET, "d", 2)).thenReturn(List.of("e"));
+        when(debtCaseRepository.transitionState(anyCollection(), eq(filter), eq(TARGET), any(), any(), eq("avvocato")))
+                .thenReturn(2L, 1L, 1L);
+
+        BulkTransitionStatusDto status = service.startTransition(filter, TARGET);
+
+        assertEquals(Status.COMPLETED, status.status());
+        assertEquals(5, status.matched());
+        assertEquals(5, status.processed());
+        assertEquals(4, status.updated());
+        assertEquals(100, status.percent());
+        ArgumentCaptor<LocalDateTime> stateDates = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> deadlines = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(debtCaseRepository, times(3)).transitionState(anyCollection(), eq(filter), eq(TARGET),
+                stateDates.capture(), deadlines.capture(), eq("avvocato"));
+        assertEquals(1, stateDates.getAllValues().stream().distinct().count());
+        assertEquals(stateDates.getValue().toLocalDate().plusDays(20).atStartOfDay(), deadlines.getValue());
+        verify(stateTransitionService, times(1)).calculateNextDeadline(eq(TARGET), any());
+        assertEquals(status, service.getStatus(status.jobId()).orElseThrow());
+    }
+
+    @Test
+    void startTransition_ShouldRemoveDeadlineWhenCompleting() {
+        when(debtCaseRepository.findIdsForTransition(filter, CaseState.COMPLETATA, null, 2)).thenReturn(List.of("a"));
+
+        service.startTransition(filter, CaseState.COMPLETATA);
+
+        verify(debtCaseRepository).transitionState(eq(List.of("a")), eq(filter), eq(CaseState.COMPLETATA), any(), isNull(), eq("avvocato"));
+        verifyNoInteractions(stateTransitionService);
+    }
+
+    @Test
+    void startTransition_ShouldReportFailureWithProgress() {
+        when(debtCaseRepository.countForTransition(filter, TARGET)).thenReturn(4L);
+        when(debtCaseRepository.findIdsForTransition(filter, TARGET, null, 2)).thenReturn(List.of("a", "b"));
+        when(debtCaseRepository.findIdsForTransition(filter, TARGET, "b", 2)).thenThrow(new DataAccessResourceFailureException("connection lost"));
+        when(debtCaseRepository.transitionState(anyCollection(), any(), any(), any(), any(), any())).thenReturn(2L);
+
+        BulkTransitionStatusDto status = service.startTransition(filter, TARGET);
+
+        assertEquals(Status.FAILED, status.status());
+        assertEquals("connection lost", status.message());
+        assertEquals(2, status.updated());
+        assertEquals(50, status.percent());
+    }
+
+    @Test
+    void startTransition_ShouldFinishAsFailed_WhenTheTransitionConfigCannotBeLoaded() {
+        when(stateTransitionService.calculateNextDeadline(eq(TARGET), any()))
+                .thenThrow(new IllegalStateException("State transition configuration could not be loaded: down"));
+
+        BulkTransitionStatusDto status = service.startTransition(filter, TARGET);
+
+        assertEquals(Status.FAILED, status.status());
+        assertNotNull(status.finishedAt());
+        assertEquals("State transition configuration could not be loaded: down", status.message());
+        verify(debtCaseRepository, never()).transitionState(anyCollection(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void startTransition_ShouldRejectMissingTargetOrFilter() {
+        assertThrows(IllegalArgumentException.class, () -> service.startTransition(filter, null));
+        assertThrows(IllegalArgumentException.class, () -> service.startTransition(new DebtCaseFilterRequest(), TARGET));
+        assertThrows(IllegalArgumentException.class, () -> service.dryRun(new DebtCaseFilterRequest(), TARGET));
+        verifyNoInteractions(debtCaseRepository);
+    }
+}
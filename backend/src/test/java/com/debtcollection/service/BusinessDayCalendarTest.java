@@ -0,0 +1,81 @@
+package com.debtcollection.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the working-day calendar (holidays, August suspension, table lookups)
+class BusinessDayCalendarTest {
+
+    private final BusinessDayCalendar calendar = new BusinessDayCalendar(true, List.of());
+
+    @Test
+    void easterSunday_ShouldMatchKnownDates() {
+        assertEquals(LocalDate.of(2024, 3, 31), BusinessDayCalendar.easterSunday(2024));
+        assertEquals(LocalDate.of(2025, 4, 20), BusinessDayCalendar.easterSunday(2025));
+        assertEquals(LocalDate.of(2038, 4, 25), BusinessDayCalendar.easterSunday(2038));
+    }
+
+    @Test
+    void isBusinessDay_ShouldSkipWeekendsHolidaysAndAugust() {
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2025, 3, 10)));      // Monday
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 3, 8)));      // Saturday
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 3, 9)));      // Sunday
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 4, 21)));     // Easter Monday
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 4, 25)));     // Liberazione
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 6, 2)));      // Festa della Repubblica
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 8, 4)));      // court suspension
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 12, 26)));    // Santo Stefano
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2025, 9, 1)));
+
+        BusinessDayCalendar noSuspension = new BusinessDayCalendar(false, List.of("06-29"));
+        assertTrue(noSuspension.isBusinessDay(LocalDate.of(2025, 8, 4)));
+        assertFalse(noSuspension.isBusinessDay(LocalDate.of(2025, 8, 15)));
+        assertFalse(noSuspension.isBusinessDay(LocalDate.of(2026, 6, 29)));  // extra holiday (Monday)
+    }
+
+    @Test
+    void addBusinessDays_ShouldCountOnlyWorkingDays() {
+        assertEquals(LocalDate.of(2025, 3, 11), calendar.addBusinessDays(LocalDate.of(2025, 3, 10), 1));
+        assertEquals(LocalDate.of(2025, 3, 17), calendar.addBusinessDays(LocalDate.of(2025, 3, 14), 1));  // Friday -> Monday
+        assertEquals(LocalDate.of(2025, 4, 22), calendar.addBusinessDays(LocalDate.of(2025, 4, 17), 2));  // over Easter Monday
+        assertEquals(LocalDate.of(2025, 9, 2), calendar.addBusinessDays(LocalDate.of(2025, 7, 31), 2));   // over August
+        assertEquals(LocalDate.of(2025, 3, 10), calendar.addBusinessDays(LocalDate.of(2025, 3, 8), 0));   // next working day
+        assertEquals(LocalDate.of(2025, 3, 10), calendar.addBusinessDays(LocalDate.of(2025, 3, 10), 0));
+        assertThrows(IllegalArgumentException.class, () -> calendar.addBusinessDays(LocalDate.of(2025, 3, 10), -1));
+    }
+
+    @Test
+    void tableLookups_ShouldMatchDayByDayComputation() {
+        for (LocalDate from = LocalDate.of(2024, 12, 1); from.isBefore(LocalDate.of(2026, 1, 31)); from = from.plusDays(3)) {
+            for (int days : new int[]{0, 1, 5, 30, 90}) {
+                LocalDate expected = from;
+                int remaining = days;
+                if (days == 0) {
+                    while (!calendar.isBusinessDay(expected)) expected = expected.plusDays(1);
+                }
+                while (remaining > 0) {
+                    expected = expected.plusDays(1);
+                    if (calendar.isBusinessDay(expected)) remaining--;
+                }
+                assertEquals(expected, calendar.addBusinessDays(from, days), from + " + " + days);
+                if (days > 0) {
+                    assertEquals(days, calendar.businessDaysBetween(from, expected));
+                }
+            }
+        }
+    }
+
+    @Test
+    void outsideTableRange_ShouldFallBackToDayByDay() {
+        LocalDate lastTableDay = LocalDate.of(BusinessDayCalendar.LAST_YEAR, 12, 31);
+        LocalDate result = calendar.addBusinessDays(lastTableDay, 3);
+        assertTrue(result.getYear() > BusinessDayCalendar.LAST_YEAR);
+        assertTrue(calendar.isBusinessDay(result));
+        assertEquals(3, calendar.businessDaysBetween(lastTableDay, result));
+        assertEquals(LocalDate.of(1999, 12, 31), calendar.addBusinessDays(LocalDate.of(1999, 12, 30), 1));
+    }
+}
@@ -0,0 +1,183 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.CaseImportStatusDto;
+import com.debtcollection.dto.CaseImportStatusDto.Status;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.StateTransitionConfig;
+import com.debtcollection.model.validation.DebtCaseValidator;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the bulk case import (chunking, validation, deadlines, error file)
+class CaseImportServiceTest {
+
+    private DebtCaseRepository debtCaseRepository;
+    private StateTransitionService stateTransitionService;
+    private CaseImportService service;
+    private final List<List<DebtCase>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        stateTransitionService = mock(StateTransitionService.class);
+        when(stateTransitionService.deadlineRules()).thenReturn(new DeadlineRules(1, Map.of(
+                CaseState.MESSA_IN_MORA_DA_FARE, config(CaseState.MESSA_IN_MORA_DA_FARE, 7),
+                CaseState.PRECETTO, config(CaseState.PRECETTO, 30)), null));
+        // The service clears the chunk after the insert: keep a copy
+        when(debtCaseRepository.insert(anyList())).thenAnswer(invocation -> {
+            List<DebtCase> chunk = invocation.getArgument(0);
+            insertedChunks.add(new ArrayList<>(chunk));
+            return chunk;
+        });
+        // Synchronous executor: the job is finished when startImport returns
+        service = new CaseImportService(debtCaseRepository, new DebtCaseValidator(), stateTransitionService, Runnable::run, 2, 24);
+    }
+
+    private static StateTransitionConfig config(CaseState fromState, int days) {
+        StateTransitionConfig config = new StateTransitionConfig();
+        config.setFromState(fromState);
+        config.setDaysToTransition(days);
+        return config;
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private CaseImportStatusDto importCsv(String csv) throws IOException {
+        return service.startImport(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void importCases_ShouldInsertInChunksWithDeadlinesFromOneSnapshot() throws IOException {
+        CaseImportStatusDto status = importCsv("""
+                debtorName;amount;state;stateDate;notes
+                Mario Rossi;1500.00;PRECETTO;2025-03-10;cliente storico
+                Luigi Verdi;200;;2025-03-01;
+                Anna Bianchi;350.50;COMPLETATA;2025-02-01;
+                """);
+
+        assertEquals(Status.COMPLETED, status.status());
+        assertEquals(3, status.rowsRead());
+        assertEquals(3, status.imported());
+        assertEquals(0, status.rejected());
+        assertEquals(100, status.percent());
+        assertFalse(status.errorFileAvailable());
+        assertEquals(List.of(2, 1), insertedChunks.stream().map(List::size).toList());
+        verify(stateTransitionService, times(1)).deadlineRules();
+
+        DebtCase first = insertedChunks.get(0).get(0);
+        assertEquals("Mario Rossi", first.getDebtorName());
+        assertEquals(1500.0, first.getOwedAmount());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 0, 0), first.getCurrentStateDate());
+        assertEquals(LocalDate.of(2025, 4, 9).atStartOfDay(), first.getNextDeadlineDate());
+        assertEquals("cliente storico", first.getNotes());
+        assertFalse(first.getPaid());
+        assertFalse(first.getHasInstallmentPlan());
+
+        DebtCase defaultState = insertedChunks.get(0).get(1);
+        assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, defaultState.getCurrentState());
+        assertEquals(LocalDate.of(2025, 3, 8).atStartOfDay(), defaultState.getNextDeadlineDate());
+        assertNull(defaultState.getNotes());
+
+        assertNull(insertedChunks.get(1).get(0).getNextDeadlineDate());
+    }
+
+    @Test
+    void importCases_ShouldRejectInvalidRowsIntoErrorFile() throws IOException {
+        CaseImportStatusDto status = importCsv("""
+                debtorName,amount,state
+                Mario Rossi,100,PRECETTO
+                ,100,
+                X,100,
+                Luigi Verdi,-5,
+                Anna Bianchi,abc,
+                Paolo Neri,100,SCONOSCIUTO
+                "Verdi, Giuseppe",1000000000,
+                Carla Gialli,50,
+                """);
+
+        assertEquals(Status.COMPLETED, status.status());
+        assertEquals(8, status.rowsRead());
+        assertEquals(2, status.imported());
+        assertEquals(6, status.rejected());
+        assertTrue(status.errorFileAvailable());
+
+        Path errorFile = service.getErrorFile(status.jobId()).orElseThrow();
+        List<String> lines = Files.readAllLines(errorFile, StandardCharsets.UTF_8);
+        assertEquals(7, lines.size());
+        assertEquals("row,error,debtorName,amount,state", lines.get(0));
+        assertEquals("2,Debtor name is required,,100,", lines.get(1));
+        assertTrue(lines.get(2).startsWith("3,Debtor name must be at least 2 characters long,X,100"));
+        assertEquals("4,Amount must be greater than zero,Luigi Verdi,-5,", lines.get(3));
+        assertTrue(lines.get(4).startsWith("5,Invalid amount 'abc'"));
+        assertTrue(lines.get(5).startsWith("6,Invalid state 'SCONOSCIUTO'"));
+        assertEquals("7,\"Amount cannot exceed 999,999,999.99\",\"Verdi, Giuseppe\",1000000000,", lines.get(6));
+    }
+
+    @Test
+    void importCases_ShouldFailWithoutRequiredColumns() throws IOException {
+        CaseImportStatusDto status = importCsv("name,value\nMario Rossi,100\n");
+
+        assertEquals(Status.FAILED, status.status());
+        assertEquals("CSV header must contain the debtorName and amount columns", status.message());
+        verify(debtCaseRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void importCases_ShouldKeepInsertedChunksWhenInsertFails() throws IOException {
+        when(debtCaseRepository.insert(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        CaseImportStatusDto status = importCsv("debtorName,amount\nAa,1\nBb,2\nCc,3\nDd,4\n");
+
+        assertEquals(Status.FAILED, status.status());
+        assertEquals(2, status.imported());
+        assertEquals("connection lost", status.message());
+    }
+
+    @Test
+    void purgeExpiredJobs_ShouldKeepRecentJobs() throws IOException {
+        CaseImportStatusDto status = importCsv("debtorName,amount\nX,1\n");
+        Path errorFile = service.getErrorFile(status.jobId()).orElseThrow();
+
+        service.purgeExpiredJobs();
+        assertTrue(service.getStatus(status.jobId()).isPresent());
+
+        CaseImportService noRetention = new CaseImportService(debtCaseRepository, new DebtCaseValidator(), stateTransitionService, Runnable::run, 2, 0);
+        CaseImportStatusDto expired = noRetention.startImport(new ByteArrayInputStream("debtorName,amount\nX,1\n".getBytes(StandardCharsets.UTF_8)));
+        Path expiredFile = noRetention.getErrorFile(expired.jobId()).orElseThrow();
+        noRetention.purgeExpiredJobs();
+        assertTrue(noRetention.getStatus(expired.jobId()).isEmpty());
+        assertFalse(Files.exists(expiredFile));
+        assertTrue(Files.exists(errorFile));
+    }
+
+    @Test
+    void getStatus_ShouldBeEmptyForUnknownJob() {
+        assertTrue(service.getStatus("missing").isEmpty());
+        assertTrue(service.getErrorFile("missing").isEmpty());
+    }
+}
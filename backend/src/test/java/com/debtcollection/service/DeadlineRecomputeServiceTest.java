@@ -0,0 +1,210 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineRecomputeStatusDto;
+import com.debtcollection.dto.DeadlineRecomputeStatusDto.Status;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DayCountMode;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.StateTransitionConfig;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the deadline recomputation (chunks, changed deadlines only, manual deadlines, cancel, supersede)
+class DeadlineRecomputeServiceTest {
+
+    private static final LocalDateTime STATE_DATE = LocalDateTime.of(2025, 1, 24, 10, 0);
+
+    private DebtCaseRepository debtCaseRepository;
+    private StateTransitionService stateTransitionService;
+    private List<Runnable> queued;
+    private DeadlineRecomputeService service;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        stateTransitionService = mock(StateTransitionService.class);
+        StateTransitionConfig config = new StateTransitionConfig();
+        config.setFromState(CaseState.PRECETTO);
+        config.setToState(CaseState.COMPLETATA);
+        config.setDaysToTransition(10);
+        config.setDayCountMode(DayCountMode.BUSINESS_DAYS);
+        when(stateTransitionService.deadlineRules())
+                .thenReturn(new DeadlineRules(7, Map.of(CaseState.PRECETTO, config), new BusinessDayCalendar(true, List.of())));
+        when(debtCaseRepository.updateDeadlines(anyList(), eq(DeadlineRecomputeService.AUDITOR))).thenAnswer(invocation -> (long) invocation.<List<?>>getArgument(0).size());
+        // Jobs run when the test drains the queue
+        queued = new ArrayList<>();
+        service = new DeadlineRecomputeService(debtCaseRepository, stateTransitionService, queued::add, 2, 0, 24);
+    }
+
+    /** Rules before the change: 10 calendar days */
+    private static DeadlineRules previousRules() {
+        StateTransitionConfig config = new StateTransitionConfig();
+        config.setFromState(CaseState.PRECETTO);
+        config.setToState(CaseState.COMPLETATA);
+        config.setDaysToTransition(10);
+        return new DeadlineRules(6, Map.of(CaseState.PRECETTO, config), new BusinessDayCalendar(true, List.of()));
+    }
+
+    private static DebtCase key(String id, LocalDateTime nextDeadline) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setId(id);
+        debtCase.setCurrentState(CaseState.PRECETTO);
+        debtCase.setCurrentStateDate(STATE_DATE);
+        debtCase.setNextDeadlineDate(nextDeadline);
+        return debtCase;
+    }
+
+    private void drain() {
+        List<Runnable> jobs = List.copyOf(queued);
+        queued.clear();
+        jobs.forEach(Runnable::run);
+    }
+
+    @Test
+    void onConfigChanged_ShouldWriteOnlyChangedDeadlinesInChunks() {
+        // Friday 24 January 2025 + 10 business days = Friday 7 February (10 calendar days before: 3 February)
+        LocalDateTime expected = LocalDateTime.of(2025, 2, 7, 0, 0);
+        Set<CaseState> states = Set.of(CaseState.PRECETTO);
+        when(debtCaseRepository.countForDeadlineRecompute(states)).thenReturn(3L);
+        when(debtCaseRepository.findDeadlineKeys(states, null, 2)).thenReturn(List.of(key("a", LocalDateTime.of(2025, 2, 3, 0, 0)), key("b", expected)));
+        when(debtCaseRepository.findDeadlineKeys(states, "b", 2)).thenReturn(List.of(key("c", null)));
+
+        service.onConfigChanged(new StateTransitionConfigChangedEvent(states, previousRules()));
+        String jobId = service.listJobs().get(0).jobId();
+        assertEquals(Status.QUEUED, service.getStatus(jobId).orElseThrow().status());
+        drain();
+
+        DeadlineRecomputeStatusDto status = service.getStatus(jobId).orElseThrow();
+        assertEquals(Status.COMPLETED, status.status());
+        assertEquals(7, status.configVersion());
+        assertEquals(3, status.matched());
+        assertEquals(3, status.processed());
+        assertEquals(2, status.updated());
+        assertEquals(100, status.percent());
+        ArgumentCaptor<List<DebtCase>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(debtCaseRepository, times(2)).updateDeadlines(chunks.capture(), eq(DeadlineRecomputeService.AUDITOR));
+        assertEquals(List.of("a"), chunks.getAllValues().get(0).stream().map(DebtCase::getId).toList());
+        assertEquals(expected, chunks.getAllValues().get(0).get(0).getNextDeadlineDate());
+        assertEquals(expected, chunks.getAllValues().get(1).get(0).getNextDeadlineDate());
+    }
+
+    @Test
+    void onConfigChanged_ShouldKeepDeadlinesSetByHand() {
+        LocalDateTime manual = LocalDateTime.of(2025, 3, 20, 9, 30);
+        Set<CaseState> states = Set.of(CaseState.PRECETTO);
+        when(debtCaseRepository.findDeadlineKeys(states, null, 2))
+                .thenReturn(List.of(key("a", LocalDateTime.of(2025, 2, 3, 0, 0)), key("m", manual)));
+        when(debtCaseRepository.findDeadlineKeys(states, "m", 2)).thenReturn(List.of());
+
+        service.onConfigChanged(new StateTransitionConfigChangedEvent(states, previousRules()));
+        drain();
+
+        DeadlineRecomputeStatusDto status = service.listJobs().get(0);
+        assertEquals(1, status.updated());
+        assertEquals(1, status.manualKept());
+        ArgumentCaptor<List<DebtCase>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(debtCaseRepository).updateDeadlines(chunk.capture(), eq(DeadlineRecomputeService.AUDITOR));
+        assertEquals(List.of("a"), chunk.getValue().stream().map(DebtCase::getId).toList());
+    }
+
+    @Test
+    void startRecompute_ShouldOverwriteDeadlinesSetByHand_WhenOverrideRequested() {
+        Set<CaseState> states = Set.of(CaseState.PRECETTO);
+        when(debtCaseRepository.findDeadlineKeys(states, null, 2)).thenReturn(List.of(key("m", LocalDateTime.of(2025, 3, 20, 9, 30))));
+
+        DeadlineRecomputeStatusDto started = service.startRecompute(states, true);
+        drain();
+
+        DeadlineRecomputeStatusDto status = service.getStatus(started.jobId()).orElseThrow();
+        assertEquals(1, status.updated());
+        assertEquals(0, status.manualKept());
+    }
+
+    @Test
+    void startRecompute_ShouldKeepPreviousRulesOfTheSupersededJob() {
+        Set<CaseState> states = Set.of(CaseState.PRECETTO);
+        when(debtCaseRepository.findDeadlineKeys(states, null, 2)).thenReturn(List.of(key("a", LocalDateTime.of(2025, 2, 3, 0, 0))));
+
+        service.onConfigChanged(new StateTransitionConfigChangedEvent(states, previousRules()));
+        DeadlineRecomputeStatusDto resumed = service.startRecompute(states, false);
+        drain();
+
+        assertEquals(1, service.getStatus(resumed.jobId()).orElseThrow().updated());
+    }
+
+    @Test
+    void startRecompute_ShouldSupersedeUnfinishedJobWithUnionOfStates() {
+        DeadlineRecomputeStatusDto first = service.startRecompute(List.of(CaseState.PRECETTO), false);
+        DeadlineRecomputeStatusDto second = service.startRecompute(List.of(CaseState.DEPOSITO_RICORSO, CaseState.COMPLETATA), false);
+        drain();
+
+        DeadlineRecomputeStatusDto cancelled = service.getStatus(first.jobId()).orElseThrow();
+        assertEquals(Status.CANCELLED, cancelled.status());
+        assertTrue(cancelled.message().contains(second.jobId()));
+        assertEquals(Set.of(CaseState.PRECETTO, CaseState.DEPOSITO_RICORSO), second.states());
+        assertEquals(Status.COMPLETED, service.getStatus(second.jobId()).orElseThrow().status());
+        verify(debtCaseRepository, times(1)).countForDeadlineRecompute(any());
+    }
+
+    @Test
+    void cancel_ShouldStopBeforeNextChunk() {
+        Set<CaseState> states = Set.of(CaseState.PRECETTO);
+        DeadlineRecomputeStatusDto started = service.startRecompute(states, false);
+        when(debtCaseRepository.findDeadlineKeys(states, null, 2)).thenAnswer(invocation -> {
+            service.cancel(started.jobId());
+            return List.of(key("a", null), key("b", null));
+        });
+        drain();
+
+        DeadlineRecomputeStatusDto status = service.getStatus(started.jobId()).orElseThrow();
+        assertEquals(Status.CANCELLED, status.status());
+        assertEquals(2, status.processed());
+        verify(debtCaseRepository, never()).findDeadlineKeys(any(), eq("b"), anyInt());
+        assertTrue(service.cancel("missing").isEmpty());
+    }
+
+    @Test
+    void run_ShouldReportFailureAndKeepProgress() {
+        Set<CaseState> states = Set.of(CaseState.PRECETTO);
+        when(debtCaseRepository.findDeadlineKeys(states, null, 2)).thenReturn(List.of(key("a", null), key("b", null)));
+        when(debtCaseRepository.findDeadlineKeys(states, "b", 2)).thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        DeadlineRecomputeStatusDto started = service.startRecompute(states, false);
+        drain();
+
+        DeadlineRecomputeStatusDto status = service.getStatus(started.jobId()).orElseThrow();
+        assertEquals(Status.FAILED, status.status());
+        assertEquals("connection lost", status.message());
+        assertEquals(2, status.updated());
+    }
+
+    @Test
+    void startRecompute_ShouldRejectMissingStates() {
+        assertThrows(IllegalArgumentException.class, () -> service.startRecompute(List.of(), false));
+        assertThrows(IllegalArgumentException.class, () -> service.startRecompute(List.of(CaseState.COMPLETATA), false));
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void purgeExpiredJobs_ShouldDropFinishedJobs() {
+        DeadlineRecomputeService noRetention = new DeadlineRecomputeService(debtCaseRepository, stateTransitionService, Runnable::run, 2, 0, 0);
+        DeadlineRecomputeStatusDto started = noRetention.startRecompute(List.of(CaseState.PRECETTO), false);
+
+        noRetention.purgeExpiredJobs();
+
+        assertTrue(noRetention.getStatus(started.jobId()).isEmpty());
+    }
+}
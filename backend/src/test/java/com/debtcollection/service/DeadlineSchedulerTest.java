@@ -0,0 +1,151 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DeadlineReminderKind;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DeadlineReminderOutbox;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the deadline scheduler (seed, incremental sync, reminders, resync replay)
+class DeadlineSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private DebtCaseRepository debtCaseRepository;
+    private DebtCaseChangeTracker changeTracker;
+    private DeadlineReminderOutbox outbox;
+    private ApplicationEventPublisher eventPublisher;
+    private DeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        changeTracker = new DebtCaseChangeTracker();
+        outbox = mock(DeadlineReminderOutbox.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        scheduler = new DeadlineScheduler(debtCaseRepository, changeTracker, outbox, eventPublisher, true, 3, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private static DebtCase debtCase(String id, CaseState state, LocalDate deadline) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setId(id);
+        debtCase.setCurrentState(state);
+        debtCase.setNextDeadlineDate(deadline != null ? deadline.atStartOfDay() : null);
+        return debtCase;
+    }
+
+    @Test
+    void advance_ShouldFireTodaysRemindersAfterSeed() {
+        String due = new ObjectId().toHexString();
+        String upcoming = new ObjectId().toHexString();
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.of(
+                debtCase(due, CaseState.PRECETTO, TODAY),
+                debtCase(upcoming, CaseState.DEPOSITO_RICORSO, TODAY.plusDays(3)),
+                debtCase(new ObjectId().toHexString(), CaseState.PRECETTO, TODAY.minusDays(5))));
+
+        assertTrue(scheduler.advance(TODAY).isEmpty()); // not loaded yet
+        scheduler.resync();
+        List<DeadlineReminderDto> reminders = scheduler.advance(TODAY);
+
+        assertEquals(List.of(
+                new DeadlineReminderDto(due, CaseState.PRECETTO, TODAY, DeadlineReminderKind.DUE, TODAY),
+                new DeadlineReminderDto(upcoming, CaseState.DEPOSITO_RICORSO, TODAY.plusDays(3), DeadlineReminderKind.UPCOMING, TODAY)),
+                reminders);
+        verify(outbox).append(reminders);
+        verify(eventPublisher).publishEvent(new DeadlineRemindersEvent(reminders));
+        assertEquals(1, scheduler.scheduledCases());
+        // Same day again: nothing new
+        assertTrue(scheduler.advance(TODAY).isEmpty());
+    }
+
+    @Test
+    void onAfterSave_ShouldRescheduleAndDeleteShouldRemove() {
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.empty());
+        scheduler.resync();
+        String id = new ObjectId().toHexString();
+
+        scheduler.onAfterSave(new AfterSaveEvent<>(debtCase(id, CaseState.PRECETTO, TODAY.plusDays(1)), new Document(), "debt_cases"));
+        changeTracker.markChanged(debtCase(id, CaseState.PRECETTO, TODAY.plusDays(10)));
+        assertTrue(scheduler.advance(TODAY.plusDays(2)).isEmpty());
+        assertEquals(1, scheduler.scheduledCases());
+
+        scheduler.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", id), DebtCase.class, "debt_cases"));
+        assertEquals(0, scheduler.scheduledCases());
+        assertTrue(scheduler.isInSync());
+    }
+
+    @Test
+    void bulkWriteOfKnownCases_ShouldRescheduleThemWithoutReloading() {
+        String moved = new ObjectId().toHexString();
+        String completed = new ObjectId().toHexString();
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.of(
+                debtCase(moved, CaseState.PRECETTO, TODAY.plusDays(1)),
+                debtCase(completed, CaseState.PRECETTO, TODAY.plusDays(1))));
+        scheduler.resync();
+
+        changeTracker.markChanged(List.of(
+                debtCase(moved, CaseState.DEPOSITO_RICORSO, TODAY.plusDays(10)),
+                debtCase(completed, CaseState.COMPLETATA, null)));
+
+        assertTrue(scheduler.isInSync());
+        assertEquals(1, scheduler.scheduledCases());
+        assertTrue(scheduler.advance(TODAY.plusDays(2)).isEmpty());
+        verify(debtCaseRepository, times(1)).streamActiveSummaryKeys();
+    }
+
+    @Test
+    void bulkChange_ShouldSuspendUntilReloaded() {
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.empty());
+        scheduler.resync();
+
+        scheduler.onAfterDelete(new AfterDeleteEvent<>(new Document(), DebtCase.class, "debt_cases"));
+
+        assertFalse(scheduler.isInSync());
+        assertTrue(scheduler.advance(TODAY).isEmpty());
+    }
+
+    @Test
+    void resync_ShouldStayOutOfSyncWhenLoadFails() {
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        scheduler.resync();
+
+        assertFalse(scheduler.isInSync());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void advance_ShouldPublishEvenWhenOutboxFails() {
+        String id = new ObjectId().toHexString();
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.of(debtCase(id, CaseState.PRECETTO, TODAY)));
+        doThrow(new DataAccessResourceFailureException("down")).when(outbox).append(any());
+        scheduler.resync();
+
+        assertEquals(1, scheduler.advance(TODAY).size());
+        verify(eventPublisher).publishEvent(any(DeadlineRemindersEvent.class));
+    }
+}
@@ -0,0 +1,170 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DeadlineReminderDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DeadlineReminderKind;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the deadline timing wheel (firing days, reschedule, levels, id index)
+class DeadlineTimingWheelTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private final List<DeadlineReminderDto> fired = new ArrayList<>();
+
+    private DeadlineTimingWheel wheel(int leadDays) {
+        return new DeadlineTimingWheel(leadDays, TODAY.toEpochDay(), 16);
+    }
+
+    private void advanceTo(DeadlineTimingWheel wheel, LocalDate day) {
+        wheel.advanceTo(day.toEpochDay(), fired::add);
+    }
+
+    @Test
+    void advanceTo_ShouldFireUpcomingThenDue() {
+        DeadlineTimingWheel wheel = wheel(3);
+        String id = new ObjectId().toHexString();
+        wheel.schedule(id, CaseState.PRECETTO, TODAY.plusDays(10));
+
+        advanceTo(wheel, TODAY.plusDays(6));
+        assertTrue(fired.isEmpty());
+        advanceTo(wheel, TODAY.plusDays(7));
+        assertEquals(List.of(new DeadlineReminderDto(id, CaseState.PRECETTO, TODAY.plusDays(10), DeadlineReminderKind.UPCOMING, TODAY.plusDays(7))), fired);
+        advanceTo(wheel, TODAY.plusDays(30));
+        assertEquals(2, fired.size());
+        assertEquals(DeadlineReminderKind.DUE, fired.get(1).kind());
+        assertEquals(TODAY.plusDays(10), fired.get(1).firedOn());
+        assertEquals(0, wheel.size());
+        assertNull(wheel.deadlineOf(id));
+    }
+
+    @Test
+    void schedule_ShouldMoveDeadlineAndKeepOnlyFutureFirings() {
+        DeadlineTimingWheel wheel = wheel(3);
+        String moved = new ObjectId().toHexString();
+        String insideLead = new ObjectId().toHexString();
+        String past = new ObjectId().toHexString();
+        wheel.schedule(moved, CaseState.PRECETTO, TODAY.plusDays(5));
+        wheel.schedule(insideLead, CaseState.PRECETTO, TODAY.plusDays(2));
+        wheel.schedule(past, CaseState.PRECETTO, TODAY);
+
+        wheel.schedule(moved, CaseState.DEPOSITO_RICORSO, TODAY.plusDays(20));
+        advanceTo(wheel, TODAY.plusDays(10));
+
+        // Upcoming day of insideLead already passed: only its DUE fires; nothing for the old deadline of moved
+        assertEquals(1, fired.size());
+        assertEquals(insideLead, fired.get(0).debtCaseId());
+        assertEquals(DeadlineReminderKind.DUE, fired.get(0).kind());
+        assertEquals(TODAY.plusDays(20), wheel.deadlineOf(moved));
+        assertNull(wheel.deadlineOf(past));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldRemoveCompletedCases() {
+        DeadlineTimingWheel wheel = wheel(0);
+        String id = new ObjectId().toHexString();
+        wheel.schedule(id, CaseState.PRECETTO, TODAY.plusDays(5));
+
+        wheel.schedule(id, CaseState.COMPLETATA, TODAY.plusDays(5));
+        advanceTo(wheel, TODAY.plusDays(5));
+
+        assertTrue(fired.isEmpty());
+        assertFalse(wheel.remove(id));
+    }
+
+    @Test
+    void advanceTo_ShouldCascadeFarAndOverflowDeadlines() {
+        DeadlineTimingWheel wheel = wheel(0);
+        LocalDate nextBlock = TODAY.plusDays(DeadlineTimingWheel.NEAR + 3);
+        LocalDate overflow = TODAY.plusDays((long) DeadlineTimingWheel.NEAR * (DeadlineTimingWheel.FAR + 2));
+        wheel.schedule("case-next-block", CaseState.PRECETTO, nextBlock);
+        wheel.schedule("case-overflow", CaseState.PRECETTO, overflow);
+
+        advanceTo(wheel, nextBlock.minusDays(1));
+        assertTrue(fired.isEmpty());
+        advanceTo(wheel, nextBlock);
+        assertEquals(List.of("case-next-block"), fired.stream().map(DeadlineReminderDto::debtCaseId).toList());
+        advanceTo(wheel, overflow.minusDays(1));
+        assertEquals(1, fired.size());
+        advanceTo(wheel, overflow);
+        assertEquals(overflow, fired.get(1).firedOn());
+    }
+
+    @Test
+    void advanceTo_ShouldSkipSilentlyWithoutSink() {
+        DeadlineTimingWheel wheel = wheel(0);
+        wheel.schedule(new ObjectId().toHexString(), CaseState.PRECETTO, TODAY.plusDays(1));
+
+        wheel.advanceTo(TODAY.plusDays(1).toEpochDay(), null);
+
+        assertEquals(0, wheel.size());
+        assertEquals(TODAY.plusDays(1).toEpochDay(), wheel.cursorDay());
+    }
+
+    @Test
+    void schedule_ShouldKeepIndexConsistentThroughGrowthAndRemovals() {
+        DeadlineTimingWheel wheel = wheel(2);
+        Random random = new Random(42);
+        Map<String, LocalDate> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String id = i % 10 == 0 ? "legacy-" + i : new ObjectId().toHexString();
+            LocalDate deadline = TODAY.plusDays(3 + random.nextInt(400));
+            wheel.schedule(id, CaseState.MESSA_IN_MORA_INVIATA, deadline);
+            expected.put(id, deadline);
+        }
+        List<String> ids = new ArrayList<>(expected.keySet());
+        for (int i = 0; i < ids.size(); i += 2) {
+            assertTrue(wheel.remove(ids.get(i)));
+            expected.remove(ids.get(i));
+        }
+        for (int i = 1; i < ids.size(); i += 4) {
+            LocalDate deadline = TODAY.plusDays(3 + random.nextInt(400));
+            wheel.schedule(ids.get(i), CaseState.PRECETTO, deadline);
+            expected.put(ids.get(i), deadline);
+        }
+
+        assertEquals(expected.size(), wheel.size());
+        expected.forEach((id, deadline) -> assertEquals(deadline, wheel.deadlineOf(id), id));
+        advanceTo(wheel, TODAY.plusDays(500));
+        assertEquals(expected.size() * 2, fired.size());
+        for (DeadlineReminderDto reminder : fired) {
+            LocalDate deadline = expected.get(reminder.debtCaseId());
+            assertEquals(deadline, reminder.deadline());
+            assertEquals(reminder.kind() == DeadlineReminderKind.DUE ? deadline : deadline.minusDays(2), reminder.firedOn());
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldHoldOneMillionCases() {
+        DeadlineTimingWheel wheel = wheel(3);
+        String[] ids = new String[1_000_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = new ObjectId().toHexString();
+            wheel.schedule(ids[i], CaseState.PRECETTO, TODAY.plusDays(10 + i % 700));
+        }
+        // Reschedule every case
+        for (int i = 0; i < ids.length; i++) {
+            wheel.schedule(ids[i], CaseState.PRECETTO, TODAY.plusDays(20 + i % 700));
+        }
+
+        assertEquals(ids.length, wheel.size());
+        assertEquals(TODAY.plusDays(20 + 123_456 % 700), wheel.deadlineOf(ids[123_456]));
+        List<DeadlineReminderDto> sink = new ArrayList<>();
+        wheel.advanceTo(TODAY.plusDays(20).toEpochDay(), sink::add);
+        // UPCOMING for deadlines on days 20-23 (offsets 0-3), DUE for day 20 (offset 0)
+        long perOffset = (ids.length + 699) / 700;
+        assertEquals(5 * perOffset, sink.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.mapper.DebtCaseMapper;
+import com.debtcollection.mapper.InstallmentMapper;
+import com.debtcollection.mapper.PaymentMapper;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DebtCaseExportServiceTest {
+
+    @Mock
+    private DebtCaseRepository debtCaseRepository;
+
+    @Mock
+    private PaymentMapper paymentMapper;
+
+    @Mock
+    private InstallmentMapper installmentMapper;
+
+    private ObjectMapper objectMapper;
+    private DebtCaseExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        exportService = new DebtCaseExportService(debtCaseRepository,
+                new DebtCaseMapper(paymentMapper, installmentMapper), objectMapper);
+    }
+
+    private DebtCase debtCase(String id, String name, String notes) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setId(id);
+        debtCase.setDebtorName(name);
+        debtCase.setOwedAmount(1500.5);
+        debtCase.setCurrentState(CaseState.PRECETTO);
+        debtCase.setNextDeadlineDate(LocalDateTime.of(2025, 3, 10, 0, 0));
+        debtCase.setNotes(notes);
+        return debtCase;
+    }
+
+    @Test
+    void export_Csv_ShouldWriteHeaderAndEscapedRows() throws Exception {
+        when(debtCaseRepository.streamByFilters(any(), any(), anyInt())).thenReturn(Stream.of(
+                debtCase("1", "Rossi, Mario", "disse \"pago\"\ndomani"),
+                debtCase("2", "=HYPERLINK(\"x\")", null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(new DebtCaseFilterRequest(), Sort.unsorted(), DebtCaseExportService.Format.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(2, rows);
+        assertTrue(csv.startsWith(String.join(",", DebtCaseExportService.CSV_COLUMNS) + "\r\n"));
+        assertTrue(csv.contains("1,\"Rossi, Mario\",1500.5,0.0,1500.5,PRECETTO,"));
+        assertTrue(csv.contains("\"disse \"\"pago\"\"\ndomani\""));
+        assertTrue(csv.contains("2,\"'=HYPERLINK(\"\"x\"\")\","));
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        when(debtCaseRepository.streamByFilters(any(), any(), anyInt())).thenReturn(Stream.of(
+                debtCase("1", "Mario Rossi", "riga\nsuccessiva"),
+                debtCase("2", "Luigi Verdi", null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new DebtCaseFilterRequest(), null, DebtCaseExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Mario Rossi", first.get("debtorName").asText());
+        assertEquals("riga\nsuccessiva", first.get("notes").asText());
+        assertEquals("Luigi Verdi", objectMapper.readTree(lines[1]).get("debtorName").asText());
+    }
+
+    @Test
+    void export_ShouldDefaultToDeadlineOrderWithIdTieBreaker() throws Exception {
+        when(debtCaseRepository.streamByFilters(any(), any(), anyInt())).thenReturn(Stream.empty());
+
+        exportService.export(new DebtCaseFilterRequest(), Sort.unsorted(), DebtCaseExportService.Format.CSV, new ByteArrayOutputStream());
+
+        ArgumentCaptor<Sort> sort = ArgumentCaptor.forClass(Sort.class);
+        verify(debtCaseRepository).streamByFilters(any(), sort.capture(), eq(DebtCaseExportService.BATCH_SIZE));
+        assertEquals(Sort.by("nextDeadlineDate").and(Sort.by("id")), sort.getValue());
+    }
+
+    @Test
+    void writeCsvRow_ShouldKeepNumbersAndNeutralizeFormulas() throws Exception {
+        StringWriter writer = new StringWriter();
+        DebtCaseExportService.writeCsvRow(writer, new String[]{"-12.5", "+39 333", "@SUM(A1)", null, "plain"});
+        assertEquals("-12.5,'+39 333,'@SUM(A1),,plain\r\n", writer.toString());
+    }
+
+    @Test
+    void formatFromParam_ShouldDefaultToCsvAndRejectUnknown() {
+        assertEquals(DebtCaseExportService.Format.CSV, DebtCaseExportService.Format.fromParam(null));
+        assertEquals(DebtCaseExportService.Format.NDJSON, DebtCaseExportService.Format.fromParam("ndjson"));
+        assertThrows(IllegalArgumentException.class, () -> DebtCaseExportService.Format.fromParam("xlsx"));
+    }
+}
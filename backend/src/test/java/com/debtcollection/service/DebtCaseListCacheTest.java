@@ -0,0 +1,106 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DebtCaseListItemDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.TotalCountMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DebtCaseListCacheTest {
+
+    private DebtCaseChangeTracker changeTracker;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        changeTracker = new DebtCaseChangeTracker();
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    private Page<DebtCaseListItemDto> load(Pageable pageable) {
+        loads.incrementAndGet();
+        return new PageImpl<>(List.of(new DebtCaseListItemDto()), pageable, 1);
+    }
+
+    private DebtCaseFilterRequest filter(CaseState state) {
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        filter.setState(state);
+        return filter;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("debtcases.list.cache").tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_ShouldServeEquivalentRequestsFromCacheUntilWrite() {
+        DebtCaseListCache cache = new DebtCaseListCache(changeTracker, meterRegistry, 10);
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        Page<DebtCaseListItemDto> first = cache.get(filter(CaseState.PRECETTO), pageable, TotalCountMode.EXACT, () -> load(pageable));
+        Page<DebtCaseListItemDto> second = cache.get(filter(CaseState.PRECETTO), pageable, TotalCountMode.EXACT, () -> load(pageable));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        changeTracker.markChanged();
+        cache.get(filter(CaseState.PRECETTO), pageable, TotalCountMode.EXACT, () -> load(pageable));
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, count("hit"));
+        assertEquals(2.0, count("miss"));
+    }
+
+    @Test
+    void get_ShouldKeyOnFilterPageAndCountMode() {
+        DebtCaseListCache cache = new DebtCaseListCache(changeTracker, meterRegistry, 10);
+
+        cache.get(filter(CaseState.PRECETTO), PageRequest.of(0, 20), TotalCountMode.EXACT, () -> load(PageRequest.of(0, 20)));
+        cache.get(filter(CaseState.PRECETTO), PageRequest.of(1, 20), TotalCountMode.EXACT, () -> load(PageRequest.of(1, 20)));
+        cache.get(filter(CaseState.PRECETTO), PageRequest.of(0, 20), TotalCountMode.NONE, () -> load(PageRequest.of(0, 20)));
+        cache.get(filter(CaseState.COMPLETATA), PageRequest.of(0, 20), TotalCountMode.EXACT, () -> load(PageRequest.of(0, 20)));
+
+        assertEquals(4, loads.get());
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedBeyondCapacity() {
+        DebtCaseListCache cache = new DebtCaseListCache(changeTracker, meterRegistry, 2);
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        cache.get(filter(CaseState.PRECETTO), pageable, TotalCountMode.EXACT, () -> load(pageable));
+        cache.get(filter(CaseState.PIGNORAMENTO), pageable, TotalCountMode.EXACT, () -> load(pageable));
+        cache.get(filter(CaseState.PRECETTO), pageable, TotalCountMode.EXACT, () -> load(pageable)); // touch
+        cache.get(filter(CaseState.COMPLETATA), pageable, TotalCountMode.EXACT, () -> load(pageable)); // evicts PIGNORAMENTO
+        cache.get(filter(CaseState.PRECETTO), pageable, TotalCountMode.EXACT, () -> load(pageable));
+
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_ShouldBypassWhenDisabled() {
+        DebtCaseListCache cache = new DebtCaseListCache(changeTracker, meterRegistry, 0);
+        PageRequest pageable = PageRequest.of(0, 20);
+
+        cache.get(filter(null), pageable, TotalCountMode.EXACT, () -> load(pageable));
+        cache.get(filter(null), pageable, TotalCountMode.EXACT, () -> load(pageable));
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -1,25 +1,44 @@
 package com.debtcollection.service;
 
+import com.debtcollection.dto.CasesSummaryDto;
+import com.debtcollection.dto.DebtCaseFacetsDto;
+import com.debtcollection.dto.DebtCaseFilterRequest;
+import com.debtcollection.dto.DebtCaseListItemDto;
+import com.debtcollection.dto.DeadlineCalendarDto;
 import com.debtcollection.dto.PaymentDto;
 import com.debtcollection.mapper.DebtCaseMapper;
 import com.debtcollection.mapper.PaymentMapper;
 import com.debtcollection.model.CaseState;
 import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Installment;
 import com.debtcollection.model.Payment;
+import com.debtcollection.repository.DebtCaseFacets;
 import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.DebtCaseSummaryCounts;
+import com.debtcollection.repository.DeadlineDayCount;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,6 +59,12 @@ class DebtCaseServiceTest {
     @Mock
     private PaymentMapper paymentMapper;
 
+    @Mock
+    private AuditorAware<String> auditorAware;
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(new SimpleMeterRegistry(), 3, 0, 0);
+
     @InjectMocks
     private DebtCaseService debtCaseService;
 
@@ -49,6 +74,8 @@ class DebtCaseServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("avvocato"));
+
         debtCase = new DebtCase();
         debtCase.setId("507f1f77bcf86cd799439011"); // USER PREFERENCE: MongoDB ObjectId as String
         debtCase.setDebtorName("Mario Rossi");
@@ -80,8 +107,7 @@ class DebtCaseServiceTest {
     @Test
     void registerPayment_ShouldCreatePaymentSuccessfully() {
         // Given
-        when(debtCaseRepository.findById("507f1f77bcf86cd799439011")).thenReturn(Optional.of(debtCase));
-        when(debtCaseRepository.save(any(DebtCase.class))).thenReturn(debtCase);
+        when(debtCaseRepository.appendPayment(eq("507f1f77bcf86cd799439011"), any(Payment.class), anyString())).thenReturn(Optional.of(debtCase));
         when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDto);
 
         // When
@@ -90,26 +116,40 @@ class DebtCaseServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(new BigDecimal("500.00"), result.getAmount());
-        verify(debtCaseRepository).save(any(DebtCase.class));
-        assertEquals(1, debtCase.getPayments().size()); // Should have added one payment
-        assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, debtCase.getCurrentState()); // Should not change state for partial payment
+        assertEquals("507f1f77bcf86cd799439011", result.getDebtCaseId());
+        verify(debtCaseRepository, never()).save(any(DebtCase.class)); // CUSTOM IMPLEMENTATION: no full-document rewrite
+        verify(debtCaseRepository, never()).findById(anyString());
     }
 
     @Test
-    void registerPayment_ShouldMarkCaseAsCompleted_WhenFullAmountPaid() {
+    void registerPayment_ShouldAppendPaymentAtomically() {
         // Given
-        when(debtCaseRepository.findById("507f1f77bcf86cd799439011")).thenReturn(Optional.of(debtCase));
-        when(debtCaseRepository.save(any(DebtCase.class))).thenReturn(debtCase);
+        when(debtCaseRepository.appendPayment(eq("507f1f77bcf86cd799439011"), any(Payment.class), anyString())).thenReturn(Optional.of(debtCase));
         when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDto);
+        LocalDateTime paymentDate = LocalDateTime.of(2025, 3, 10, 15, 0);
 
         // When
-        PaymentDto result = debtCaseService.registerPayment("507f1f77bcf86cd799439011", new BigDecimal("1000.00"), LocalDateTime.now());
+        debtCaseService.registerPayment("507f1f77bcf86cd799439011", new BigDecimal("1000.00"), paymentDate);
 
-        // Then
-        assertNotNull(result);
-        verify(debtCaseRepository).save(any(DebtCase.class));
-        assertEquals(CaseState.COMPLETATA, debtCase.getCurrentState()); // Should update case state to COMPLETATA
-        assertEquals(1, debtCase.getPayments().size()); // Should have added one payment
+        // Then: completion is evaluated by the update itself (see DebtCaseRepositoryCustomImplTest)
+        verify(debtCaseRepository).appendPayment(eq("507f1f77bcf86cd799439011"), argThat(appended ->
+                appended.getAmount() == 1000.00
+                        && appended.getPaymentDate().equals(paymentDate.toLocalDate())
+                        && appended.getPaymentId() != null), anyString());
+    }
+
+    @Test
+    void registerPayment_ShouldRecordTheCurrentUserAsModifier() {
+        when(debtCaseRepository.appendPayment(eq("507f1f77bcf86cd799439011"), any(Payment.class), anyString())).thenReturn(Optional.of(debtCase));
+        when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDto);
+
+        debtCaseService.registerPayment("507f1f77bcf86cd799439011", new BigDecimal("100.00"), LocalDateTime.now());
+
+        // No save(): auditing does not run, the update itself sets lastModifiedBy
+        ArgumentCaptor<Payment> appended = ArgumentCaptor.forClass(Payment.class);
+        verify(debtCaseRepository).appendPayment(eq("507f1f77bcf86cd799439011"), appended.capture(), eq("avvocato"));
+        assertEquals("avvocato", appended.getValue().getCreatedBy());
+        assertEquals("avvocato", appended.getValue().getLastModifiedBy());
     }
 
     @Test
@@ -125,13 +165,71 @@ class DebtCaseServiceTest {
     @Test
     void registerPayment_ShouldThrowException_WhenDebtCaseNotFound() {
         // Given
-        when(debtCaseRepository.findById("999999999999999999999999")).thenReturn(Optional.empty());
+        when(debtCaseRepository.appendPayment(eq("999999999999999999999999"), any(Payment.class), anyString())).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(RuntimeException.class, 
             () -> debtCaseService.registerPayment("999999999999999999999999", new BigDecimal("100.00"), LocalDateTime.now()));
     }
 
+    @Test
+    void updateDebtCase_ShouldReReadAndReapply_WhenVersionConflicts() {
+        // Given: a concurrent write bumps the version between our read and our save
+        when(debtCaseRepository.findById("507f1f77bcf86cd799439011")).thenReturn(Optional.of(debtCase));
+        when(debtCaseRepository.save(any(DebtCase.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale version"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        debtCaseService.updateDebtCase("507f1f77bcf86cd799439011", null, null, null, null,
+                true, null, null, "Trattativa in corso", null);
+
+        // Then
+        verify(debtCaseRepository, times(2)).findById("507f1f77bcf86cd799439011");
+        verify(debtCaseRepository, times(2)).save(any(DebtCase.class));
+        assertEquals("Trattativa in corso", debtCase.getNotes());
+    }
+
+    @Test
+    void registerInstallmentPayment_ShouldSaveOncePerAttempt_AndRetryOnConflict() {
+        // Given: every read returns a fresh copy with the last installment still unpaid
+        when(debtCaseRepository.findById("507f1f77bcf86cd799439011")).thenAnswer(invocation -> Optional.of(lastInstallmentDueCase()));
+        when(debtCaseRepository.save(any(DebtCase.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale version"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDto);
+
+        // When
+        debtCaseService.registerInstallmentPayment("507f1f77bcf86cd799439011", "inst-1",
+                new BigDecimal("1000.00"), LocalDateTime.now());
+
+        // Then: payment, deadline and completion land in the same (single) save of each attempt
+        ArgumentCaptor<DebtCase> saved = ArgumentCaptor.forClass(DebtCase.class);
+        verify(debtCaseRepository, times(2)).findById("507f1f77bcf86cd799439011");
+        verify(debtCaseRepository, times(2)).save(saved.capture());
+        DebtCase last = saved.getValue();
+        assertEquals(1, last.getPayments().size());
+        assertEquals(CaseState.COMPLETATA, last.getCurrentState());
+        assertNull(last.getNextDeadlineDate());
+    }
+
+    private DebtCase lastInstallmentDueCase() {
+        Installment installment = new Installment();
+        installment.setInstallmentId("inst-1");
+        installment.setInstallmentNumber(1);
+        installment.setAmount(new BigDecimal("1000.00"));
+        installment.setDueDate(LocalDateTime.now().plusDays(10));
+
+        DebtCase withPlan = new DebtCase();
+        withPlan.setId("507f1f77bcf86cd799439011");
+        withPlan.setOwedAmount(1000.00);
+        withPlan.setCurrentState(CaseState.MESSA_IN_MORA_DA_FARE);
+        withPlan.setHasInstallmentPlan(true);
+        withPlan.setPayments(new ArrayList<>());
+        withPlan.setInstallments(new ArrayList<>(List.of(installment)));
+        return withPlan;
+    }
+
     @Test
     void calculateTotalPaidAmount_ShouldReturnCorrectSum() {
         // Given
@@ -152,4 +250,85 @@ class DebtCaseServiceTest {
         // Then
         assertEquals(500.00, total); // USER PREFERENCE: Compare with Double value
     }
+
+    @Test
+    void searchCases_ShouldRejectBlankText() {
+        assertThrows(IllegalArgumentException.class,
+                () -> debtCaseService.searchCases("  ", new DebtCaseFilterRequest(), PageRequest.of(0, 20)));
+        verifyNoInteractions(debtCaseRepository);
+    }
+
+    @Test
+    void getFacets_FacetsOnly_ShouldNotFetchRows() {
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        when(debtCaseRepository.findFacets(filter, Pageable.unpaged())).thenReturn(
+                new DebtCaseFacets<>(4, Map.of("PRECETTO", 4L), Map.of("true", 0L, "false", 4L),
+                        Map.of("true", 1L, "false", 3L), Map.of("true", 2L, "false", 2L), null));
+
+        DebtCaseFacetsDto facets = debtCaseService.getFacets(filter, PageRequest.of(0, 20), true);
+
+        assertEquals(4, facets.total());
+        assertNull(facets.content());
+        assertNull(facets.page());
+    }
+
+    @Test
+    void getFacets_ShouldReturnPageWithDefaultSort() {
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        PageRequest expected = PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "nextDeadlineDate"));
+        when(debtCaseRepository.findFacets(filter, expected)).thenReturn(
+                new DebtCaseFacets<>(5, Map.of(), Map.of(), Map.of(), Map.of(), List.of(debtCase, debtCase)));
+        when(debtCaseMapper.toListItemDto(debtCase)).thenReturn(new DebtCaseListItemDto());
+
+        DebtCaseFacetsDto facets = debtCaseService.getFacets(filter, PageRequest.of(1, 2), false);
+
+        assertEquals(2, facets.content().size());
+        assertEquals(new DebtCaseFacetsDto.PageInfo(1, 2, 5, 3), facets.page());
+    }
+
+    @Test
+    void getCasesSummary_ShouldUseAggregatedCounts() {
+        LocalDate reference = LocalDate.of(2025, 3, 10);
+        when(debtCaseRepository.summarizeActive(reference, 30))
+                .thenReturn(new DebtCaseSummaryCounts(10, 2, 1, 4, 6, Map.of("PRECETTO", 10L)));
+
+        CasesSummaryDto summary = debtCaseService.getCasesSummary(reference, 30);
+
+        assertEquals(10, summary.totalActiveCases());
+        assertEquals(4, summary.dueNext7Days());
+        assertEquals(6, summary.dueWithinHorizon());
+        assertEquals(reference, summary.referenceDate());
+    }
+
+    @Test
+    void getCasesSummary_ShouldRejectOutOfRangeHorizon() {
+        assertThrows(IllegalArgumentException.class, () -> debtCaseService.getCasesSummary(LocalDate.now(), 400));
+        verifyNoInteractions(debtCaseRepository);
+    }
+
+    @Test
+    void getDeadlineCalendar_ShouldTotalTheDays() {
+        DebtCaseFilterRequest filter = new DebtCaseFilterRequest();
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        when(debtCaseRepository.deadlineHistogram(filter, from, from.plusDays(30))).thenReturn(List.of(
+                new DeadlineDayCount(from, 2, 1000.0),
+                new DeadlineDayCount(from.plusDays(4), 1, 250.5)));
+
+        DeadlineCalendarDto calendar = debtCaseService.getDeadlineCalendar(filter, from, null);
+
+        assertEquals(from.plusDays(30), calendar.to());
+        assertEquals(3, calendar.totalCases());
+        assertEquals(0, new BigDecimal("1250.5").compareTo(calendar.totalOwedAmount()));
+        assertEquals(2, calendar.days().size());
+    }
+
+    @Test
+    void getDeadlineCalendar_ShouldRejectInvalidRanges() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> debtCaseService.getDeadlineCalendar(new DebtCaseFilterRequest(), from, from.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> debtCaseService.getDeadlineCalendar(new DebtCaseFilterRequest(), from, from.plusDays(400)));
+        verifyNoInteractions(debtCaseRepository);
+    }
 }
@@ -0,0 +1,87 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.FinancialReportDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.FinancialAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the financial report rollups and per-period cache
+class FinancialReportServiceTest {
+
+    private static final YearMonth JAN = YearMonth.of(2025, 1);
+    private static final YearMonth FEB = YearMonth.of(2025, 2);
+
+    private DebtCaseRepository debtCaseRepository;
+    private DebtCaseChangeTracker changeTracker;
+    private FinancialReportService service;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        changeTracker = new DebtCaseChangeTracker();
+        service = new FinancialReportService(debtCaseRepository, changeTracker);
+        when(debtCaseRepository.financialAggregates(any(), any())).thenReturn(List.of(
+                new FinancialAggregate("2025-01", CaseState.MESSA_IN_MORA_DA_FARE, 2, 1500.0, 200.0),
+                new FinancialAggregate("2025-01", CaseState.PRECETTO, 1, 1000.0, 1000.0),
+                new FinancialAggregate("2025-02", CaseState.MESSA_IN_MORA_DA_FARE, 1, 300.0, 0.0)));
+    }
+
+    @Test
+    void getReport_ShouldRollUpPerStateAndMonth() {
+        FinancialReportDto report = service.getReport(JAN, FEB);
+
+        verify(debtCaseRepository).financialAggregates(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1));
+        assertEquals(4, report.totals().cases());
+        assertEquals(0, new BigDecimal("2800").compareTo(report.totals().owedAmount()));
+        assertEquals(0, new BigDecimal("1600").compareTo(report.totals().remainingAmount()));
+
+        assertEquals(2, report.byState().size());
+        FinancialReportDto.StateRow mora = report.byState().get(0);
+        assertEquals(CaseState.MESSA_IN_MORA_DA_FARE, mora.state());
+        assertEquals(3, mora.amounts().cases());
+        assertEquals(0, new BigDecimal("1600").compareTo(mora.amounts().remainingAmount()));
+
+        assertEquals(List.of(JAN, FEB), report.byMonth().stream().map(FinancialReportDto.MonthRow::month).toList());
+        assertEquals(0, new BigDecimal("1300").compareTo(report.byMonth().get(0).amounts().remainingAmount()));
+        assertEquals(3, report.byMonthAndState().size());
+    }
+
+    @Test
+    void getReport_ShouldServeCachedReportUntilDataChanges() {
+        FinancialReportDto first = service.getReport(JAN, FEB);
+        assertSame(first, service.getReport(JAN, FEB));
+        verify(debtCaseRepository, times(1)).financialAggregates(any(), any());
+
+        changeTracker.markChanged();
+
+        assertNotSame(first, service.getReport(JAN, FEB));
+        verify(debtCaseRepository, times(2)).financialAggregates(any(), any());
+    }
+
+    @Test
+    void getReport_ShouldDefaultToLastTwelveMonths() {
+        FinancialReportDto report = service.getReport(null, null);
+
+        assertEquals(YearMonth.now(), report.to());
+        assertEquals(YearMonth.now().minusMonths(11), report.from());
+    }
+
+    @Test
+    void getReport_ShouldRejectInvalidPeriods() {
+        assertThrows(IllegalArgumentException.class, () -> service.getReport(FEB, JAN));
+        assertThrows(IllegalArgumentException.class, () -> service.getReport(JAN, JAN.plusMonths(FinancialReportService.MAX_MONTHS + 1)));
+        verifyNoInteractions(debtCaseRepository);
+    }
+}
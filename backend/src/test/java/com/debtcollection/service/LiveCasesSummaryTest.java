@@ -0,0 +1,177 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.CasesSummaryDto;
+import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.repository.DebtCaseChangeTracker;
+import com.debtcollection.repository.DebtCaseRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LiveCasesSummaryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private DebtCaseRepository debtCaseRepository;
+    private DebtCaseChangeTracker changeTracker;
+    private LiveCasesSummary summary;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        changeTracker = new DebtCaseChangeTracker();
+        summary = new LiveCasesSummary(debtCaseRepository, changeTracker, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        summary.shutdown();
+    }
+
+    private static DebtCase debtCase(String id, CaseState state, Integer deadlineInDays) {
+        DebtCase debtCase = new DebtCase();
+        debtCase.setId(id);
+        debtCase.setCurrentState(state);
+        if (deadlineInDays != null) {
+            debtCase.setNextDeadlineDate(TODAY.plusDays(deadlineInDays).atStartOfDay());
+        }
+        return debtCase;
+    }
+
+    private void save(DebtCase debtCase) {
+        summary.onAfterSave(new AfterSaveEvent<>(debtCase, new Document(), "debt_cases"));
+    }
+
+    private void seed(DebtCase... cases) {
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.of(cases));
+        summary.resync();
+    }
+
+    @Test
+    void current_ShouldBeEmptyUntilSeeded() {
+        assertTrue(summary.current(TODAY).isEmpty());
+        seed(debtCase("a", CaseState.PRECETTO, -1));
+        assertTrue(summary.current(TODAY).isPresent());
+    }
+
+    @Test
+    void seed_ShouldCountWindowsAndStates() {
+        seed(debtCase("a", CaseState.PRECETTO, -1),
+                debtCase("b", CaseState.PRECETTO, 0),
+                debtCase("c", CaseState.DEPOSITO_RICORSO, 7),
+                debtCase("d", CaseState.MESSA_IN_MORA_DA_FARE, 8),
+                debtCase("e", CaseState.MESSA_IN_MORA_DA_FARE, null));
+
+        CasesSummaryDto dto = summary.current(TODAY).orElseThrow();
+
+        assertEquals(5, dto.totalActiveCases());
+        assertEquals(1, dto.overdue());
+        assertEquals(1, dto.dueToday());
+        assertEquals(2, dto.dueNext7Days());
+        assertEquals(2L, dto.states().get("PRECETTO"));
+        assertEquals(0L, dto.states().get("PIGNORAMENTO"));
+        assertFalse(dto.states().containsKey("COMPLETATA"));
+    }
+
+    @Test
+    void saves_ShouldReplaceThePreviousContributionOfTheCase() {
+        seed(debtCase("a", CaseState.PRECETTO, 0));
+
+        save(debtCase("a", CaseState.DEPOSITO_RICORSO, -3));
+        CasesSummaryDto moved = summary.current(TODAY).orElseThrow();
+        assertEquals(1, moved.totalActiveCases());
+        assertEquals(1, moved.overdue());
+        assertEquals(0, moved.dueToday());
+        assertEquals(0L, moved.states().get("PRECETTO"));
+        assertEquals(1L, moved.states().get("DEPOSITO_RICORSO"));
+
+        save(debtCase("a", CaseState.COMPLETATA, null));
+        assertEquals(0, summary.current(TODAY).orElseThrow().totalActiveCases());
+    }
+
+    @Test
+    void atomicUpdates_ShouldBeAppliedIncrementallyWithoutResync() {
+        seed(debtCase("a", CaseState.PRECETTO, 0), debtCase("b", CaseState.PRECETTO, 1));
+        long version = summary.version();
+
+        changeTracker.markChanged(debtCase("a", CaseState.COMPLETATA, null));
+
+        assertTrue(summary.isInSync());
+        assertTrue(summary.version() > version);
+        assertEquals(1, summary.current(TODAY).orElseThrow().totalActiveCases());
+        verify(debtCaseRepository, times(1)).streamActiveSummaryKeys();
+    }
+
+    @Test
+    void bulkUpdatesOfKnownCases_ShouldBeAppliedIncrementallyWithoutResync() {
+        seed(debtCase("a", CaseState.PRECETTO, 0), debtCase("b", CaseState.PRECETTO, 1), debtCase("c", CaseState.PRECETTO, 9));
+
+        changeTracker.markChanged(List.of(debtCase("a", CaseState.COMPLETATA, null), debtCase("b", CaseState.DEPOSITO_RICORSO, 0)));
+
+        assertTrue(summary.isInSync());
+        CasesSummaryDto dto = summary.current(TODAY).orElseThrow();
+        assertEquals(2, dto.totalActiveCases());
+        assertEquals(1, dto.dueToday());
+        assertEquals(1L, dto.states().get("DEPOSITO_RICORSO"));
+        verify(debtCaseRepository, times(1)).streamActiveSummaryKeys();
+    }
+
+    @Test
+    void deleteById_ShouldRemoveTheCaseAndDeleteAllShouldResync() {
+        seed(debtCase("a", CaseState.PRECETTO, 0), debtCase("b", CaseState.PRECETTO, 1));
+
+        summary.onAfterDelete(new AfterDeleteEvent<>(new Document("_id", "a"), DebtCase.class, "debt_cases"));
+        assertEquals(1, summary.current(TODAY).orElseThrow().totalActiveCases());
+
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenReturn(Stream.empty());
+        summary.onAfterDelete(new AfterDeleteEvent<>(new Document(), DebtCase.class, "debt_cases"));
+        await();
+        assertEquals(0, summary.current(TODAY).orElseThrow().totalActiveCases());
+    }
+
+    @Test
+    void bulkChange_ShouldInvalidateUntilResynced() {
+        seed(debtCase("a", CaseState.PRECETTO, 0));
+        when(debtCaseRepository.streamActiveSummaryKeys()).thenAnswer(invocation -> {
+            // A per-document write lands while the resync is reading the collection
+            save(debtCase("z", CaseState.PRECETTO, 2));
+            return Stream.of(debtCase("a", CaseState.PRECETTO, 0), debtCase("b", CaseState.PRECETTO, 0));
+        });
+
+        changeTracker.markChanged();
+        verify(debtCaseRepository, timeout(2000).times(2)).streamActiveSummaryKeys();
+        await();
+
+        CasesSummaryDto dto = summary.current(TODAY).orElseThrow();
+        assertEquals(3, dto.totalActiveCases());
+        assertEquals(2, dto.dueToday());
+        assertEquals(3, dto.dueNext7Days());
+    }
+
+    @Test
+    void version_ShouldChangeOnEveryUpdate() {
+        seed();
+        long before = summary.version();
+        save(debtCase("a", CaseState.PRECETTO, 0));
+        assertTrue(summary.version() > before);
+    }
+
+    private void await() {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!summary.isInSync() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(summary.isInSync());
+    }
+}
@@ -0,0 +1,79 @@
+package com.debtcollection.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the version conflict retry policy
+class OptimisticRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new OptimisticRetry(meterRegistry, 3, 1, 5);
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).tag("operation", "updateDebtCase").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void execute_ShouldReturnWithoutRetry_WhenNoConflict() {
+        assertEquals("ok", retry.execute("updateDebtCase", () -> "ok"));
+        assertEquals(0, count("debtcases.write.conflicts"));
+    }
+
+    @Test
+    void execute_ShouldRerunTheOperation_UntilItSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("updateDebtCase", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, count("debtcases.write.conflicts"));
+        assertEquals(2, count("debtcases.write.retries"));
+        assertEquals(0, count("debtcases.write.exhausted"));
+    }
+
+    @Test
+    void execute_ShouldRethrow_AfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.run("updateDebtCase", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale version");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3, count("debtcases.write.conflicts"));
+        assertEquals(2, count("debtcases.write.retries"));
+        assertEquals(1, count("debtcases.write.exhausted"));
+    }
+
+    @Test
+    void execute_ShouldNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.run("updateDebtCase", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Installment is already marked as paid");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
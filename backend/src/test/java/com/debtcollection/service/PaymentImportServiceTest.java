@@ -0,0 +1,195 @@
+package com.debtcollection.service;
+
+import com.debtcollection.dto.PaymentImportReport;
+import com.debtcollection.dto.PaymentImportReport.Status;
+import com.debtcollection.model.DebtCase;
+import com.debtcollection.model.Installment;
+import com.debtcollection.model.Payment;
+import com.debtcollection.repository.DebtCaseRepository;
+import com.debtcollection.repository.PaymentAppendResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Unit tests for the bulk payment import (parsing, validation, per case grouping)
+@SuppressWarnings("unchecked")
+class PaymentImportServiceTest {
+
+    private DebtCaseRepository debtCaseRepository;
+    private PaymentImportService service;
+
+    @BeforeEach
+    void setUp() {
+        debtCaseRepository = mock(DebtCaseRepository.class);
+        service = new PaymentImportService(debtCaseRepository, new ObjectMapper(), () -> Optional.of("avvocato"));
+
+        DebtCase withPlan = new DebtCase();
+        withPlan.setId("case-1");
+        withPlan.setInstallments(List.of(installment("inst-1", false), installment("inst-2", true)));
+        DebtCase plain = new DebtCase();
+        plain.setId("case-2");
+        when(debtCaseRepository.findInstallmentKeys(anyCollection())).thenReturn(List.of(withPlan, plain));
+        when(debtCaseRepository.appendPayments(any(), any())).thenAnswer(invocation -> new PaymentAppendResult(
+                ((Map<String, ?>) invocation.getArgument(0)).keySet(), Map.of()));
+    }
+
+    private static Installment installment(String id, boolean paid) {
+        Installment installment = new Installment();
+        installment.setInstallmentId(id);
+        installment.setPaid(paid);
+        return installment;
+    }
+
+    private PaymentImportReport importCsv(String csv) throws IOException {
+        return service.importPayments(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), PaymentImportService.Format.CSV);
+    }
+
+    @Test
+    void importPayments_ShouldGroupRowsPerCaseInOneBulkWrite() throws IOException {
+        PaymentImportReport report = importCsv("""
+                caseId,amount,paymentDate,installmentId
+                case-1,100.00,2025-03-10,
+                case-2,50.50,2025-03-11,
+                case-1,"200.00",2025-03-12,inst-1
+                """);
+
+        assertEquals(3, report.totalRows());
+        assertEquals(3, report.applied());
+        assertEquals(2, report.casesUpdated());
+        ArgumentCaptor<Map<String, List<Payment>>> payments = ArgumentCaptor.forClass(Map.class);
+        verify(debtCaseRepository, times(1)).appendPayments(payments.capture(), eq("avvocato"));
+        verify(debtCaseRepository, never()).save(any());
+        List<Payment> first = payments.getValue().get("case-1");
+        assertEquals(2, first.size());
+        assertEquals(100.0, first.get(0).getAmount());
+        assertNull(first.get(0).getInstallmentId());
+        assertEquals("inst-1", first.get(1).getInstallmentId());
+        assertEquals(LocalDate.of(2025, 3, 12), first.get(1).getPaymentDate());
+        assertEquals(1, payments.getValue().get("case-2").size());
+        assertEquals("avvocato", first.get(0).getCreatedBy());
+        assertEquals("avvocato", first.get(0).getLastModifiedBy());
+    }
+
+    @Test
+    void importPayments_ShouldReportRejectedRowsAndApplyTheOthers() throws IOException {
+        PaymentImportReport report = importCsv("""
+                caseId;amount;date;installmentId
+                case-1;100,00;2025-03-10;
+                missing;10;2025-03-10;
+                case-1;-5;2025-03-10;
+                case-1;10;10/03/2025;
+                case-1;10;2025-03-10;inst-9
+                case-1;10;2025-03-10;inst-2
+                case-1;10;2025-03-10;inst-1
+                case-1;10;2025-03-10;inst-1
+                case-2;10;;
+                """);
+
+        assertEquals(9, report.totalRows());
+        assertEquals(2, report.applied());
+        assertEquals(7, report.rejected());
+        List<PaymentImportReport.Row> rows = report.rows();
+        assertEquals("Invalid amount '100,00'", rows.get(0).message());
+        assertEquals("DebtCase not found with id: missing", rows.get(1).message());
+        assertEquals("Payment amount must be greater than zero", rows.get(2).message());
+        assertTrue(rows.get(3).message().startsWith("Invalid paymentDate"));
+        assertEquals("Installment not found with id: inst-9", rows.get(4).message());
+        assertEquals("Installment is already marked as paid", rows.get(5).message());
+        assertEquals(Status.APPLIED, rows.get(6).status());
+        assertEquals("Installment is already marked as paid", rows.get(7).message());
+        assertEquals(Status.APPLIED, rows.get(8).status());
+        assertEquals(LocalDate.now(), rows.get(8).paymentDate());
+        assertEquals(new BigDecimal("10"), rows.get(8).amount());
+    }
+
+    @Test
+    void importPayments_ShouldRejectRowsOfCasesNotWrittenByTheBulk() throws IOException {
+        // case-2 deleted between the checks and the write, case-1 operation failed
+        doReturn(new PaymentAppendResult(Set.of(), Map.of("case-1", "write conflict")))
+                .when(debtCaseRepository).appendPayments(any(), any());
+
+        PaymentImportReport report = importCsv("""
+                caseId,amount
+                case-1,10
+                case-2,20
+                """);
+
+        assertEquals(0, report.applied());
+        assertEquals(0, report.casesUpdated());
+        assertEquals("write conflict", report.rows().get(0).message());
+        assertEquals(Status.REJECTED, report.rows().get(1).status());
+        assertEquals("DebtCase not found with id: case-2", report.rows().get(1).message());
+    }
+
+    @Test
+    void importPayments_ShouldReportWrittenChunks_WhenALaterChunkFails() throws IOException {
+        List<DebtCase> cases = new ArrayList<>();
+        StringBuilder csv = new StringBuilder("caseId,amount\n");
+        for (int i = 0; i < PaymentImportService.CASE_CHUNK + 1; i++) {
+            DebtCase debtCase = new DebtCase();
+            debtCase.setId("bulk-" + i);
+            cases.add(debtCase);
+            csv.append("bulk-").append(i).append(",10\n");
+        }
+        when(debtCaseRepository.findInstallmentKeys(anyCollection())).thenReturn(cases);
+        doAnswer(invocation -> new PaymentAppendResult(((Map<String, ?>) invocation.getArgument(0)).keySet(), Map.of()))
+                .doThrow(new DataAccessResourceFailureException("connection reset"))
+                .when(debtCaseRepository).appendPayments(any(), any());
+
+        PaymentImportReport report = importCsv(csv.toString());
+
+        assertEquals(PaymentImportService.CASE_CHUNK, report.applied());
+        assertEquals(PaymentImportService.CASE_CHUNK, report.casesUpdated());
+        PaymentImportReport.Row last = report.rows().get(PaymentImportService.CASE_CHUNK);
+        assertEquals(Status.REJECTED, last.status());
+        assertTrue(last.message().startsWith("Import interrupted"));
+    }
+
+    @Test
+    void importPayments_ShouldReadJsonArraysAndNdjson() throws IOException {
+        String array = "[{\"caseId\":\"case-1\",\"amount\":100.5,\"paymentDate\":\"2025-03-10\"},"
+                + "{\"caseId\":\"case-2\",\"amount\":\"20\"}]";
+        String ndjson = "{\"caseId\":\"case-1\",\"amount\":100.5}\n{\"caseId\":\"case-2\",\"amount\":20}\n";
+
+        for (String body : List.of(array, ndjson)) {
+            PaymentImportReport report = service.importPayments(
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), PaymentImportService.Format.JSON);
+            assertEquals(2, report.applied());
+            assertEquals(new BigDecimal("100.5"), report.rows().get(0).amount());
+        }
+    }
+
+    @Test
+    void importPayments_ShouldRejectMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("id,total\n1,2\n"));
+        assertThrows(IllegalArgumentException.class, () -> service.importPayments(
+                new ByteArrayInputStream("[{\"caseId\":".getBytes(StandardCharsets.UTF_8)), PaymentImportService.Format.JSON));
+        assertThrows(IllegalArgumentException.class, () -> PaymentImportService.Format.fromContentType("application/xml"));
+        assertEquals(PaymentImportService.Format.CSV, PaymentImportService.Format.fromContentType("text/csv;charset=UTF-8"));
+        verify(debtCaseRepository, never()).appendPayments(any(), any());
+    }
+
+    @Test
+    void splitCsvLine_ShouldHandleQuotedSeparatorsAndQuotes() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), CsvRecordReader.split("a,\"b,c\",\"say \"\"hi\"\"\",", ','));
+    }
+}
@@ -0,0 +1,60 @@
+package com.debtcollection.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseSubscribersTest {
+
+    private List<Runnable> queued;
+    private SseSubscribers subscribers;
+
+    @BeforeEach
+    void setUp() {
+        queued = new ArrayList<>();
+        subscribers = new SseSubscribers("test", 60_000, queued::add);
+    }
+
+    @Test
+    void broadcast_ShouldOnlyQueueOnTheCallerThread_OneDrainPerSubscriber() {
+        subscribers.subscribe();
+        subscribers.subscribe();
+
+        subscribers.broadcast(() -> List.of(SseEmitter.event().name("a")));
+        subscribers.heartbeat();
+
+        // Two subscribers, each drained by a single task whatever the number of events
+        assertEquals(2, queued.size());
+        queued.forEach(Runnable::run);
+        assertEquals(2, subscribers.size());
+    }
+
+    @Test
+    void failedSend_ShouldDropTheSubscriber() {
+        SseEmitter emitter = subscribers.subscribe();
+        subscribers.send(emitter, List.of(SseEmitter.event().name("a")));
+        emitter.complete(); // client gone: the next send fails
+
+        queued.forEach(Runnable::run);
+
+        assertEquals(0, subscribers.size());
+    }
+
+    @Test
+    void subscriberNotReading_ShouldBeDroppedWhenTheQueueIsFull() {
+        subscribers.subscribe();
+        List<SseEmitter.SseEventBuilder> events = Collections.nCopies(SseSubscribers.MAX_PENDING_EVENTS, SseEmitter.event());
+
+        subscribers.broadcast(() -> events);
+        assertEquals(1, subscribers.size());
+        subscribers.heartbeat();
+
+        assertEquals(0, subscribers.size());
+    }
+}
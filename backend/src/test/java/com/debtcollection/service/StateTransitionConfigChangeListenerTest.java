@@ -0,0 +1,24 @@
+package com.debtcollection.service;
+
+import com.debtcollection.model.StateTransitionConfig;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import static org.mockito.Mockito.*;
+
+// CUSTOM IMPLEMENTATION: Config writes must signal the transition snapshot
+class StateTransitionConfigChangeListenerTest {
+
+    @Test
+    void configSaveAndDelete_ShouldInvalidateSnapshot() {
+        StateTransitionService stateTransitionService = mock(StateTransitionService.class);
+        StateTransitionConfigChangeListener listener = new StateTransitionConfigChangeListener(stateTransitionService);
+
+        listener.onAfterSave(new AfterSaveEvent<>(new StateTransitionConfig(), new Document(), "state_transition_config"));
+        listener.onAfterDelete(new AfterDeleteEvent<>(new Document(), StateTransitionConfig.class, "state_transition_config"));
+
+        verify(stateTransitionService, times(2)).invalidate();
+    }
+}
@@ -1,22 +1,27 @@
 package com.debtcollection.service;
 
 import com.debtcollection.model.CaseState;
+import com.debtcollection.model.DayCountMode;
 import com.debtcollection.model.StateTransitionConfig;
 import com.debtcollection.repository.StateTransitionConfigRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +30,12 @@ class StateTransitionServiceTest {
     @Mock
     private StateTransitionConfigRepository stateTransitionConfigRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BusinessDayCalendar businessDayCalendar = new BusinessDayCalendar(true, List.of());
+
     @InjectMocks
     private StateTransitionService stateTransitionService;
 
@@ -70,10 +81,7 @@ class StateTransitionServiceTest {
     void calculateNextDeadline_ShouldReturnCorrectDate_ForValidState() {
         // Given
         LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
-        StateTransitionConfig config = mockConfigs.get(0); // MESSA_IN_MORA_DA_FARE -> 30 giorni
-
-        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_DA_FARE))
-            .thenReturn(config);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs);
 
         // When
         LocalDate result = stateTransitionService.calculateNextDeadline(
@@ -84,7 +92,6 @@ class StateTransitionServiceTest {
         // Then
         LocalDate expectedDate = LocalDate.of(2025, 2, 14); // 15 gennaio + 30 giorni
         assertEquals(expectedDate, result);
-        verify(stateTransitionConfigRepository).findByFromState(CaseState.MESSA_IN_MORA_DA_FARE);
     }
 
     @Test
@@ -101,54 +108,46 @@ class StateTransitionServiceTest {
         // Then
         assertEquals(LocalDate.MAX, result);
         // CUSTOM IMPLEMENTATION: Per casi completati non dovrebbe interrogare il repository
-        verify(stateTransitionConfigRepository, never()).findByFromState(any());
+        verifyNoInteractions(stateTransitionConfigRepository);
     }
 
     @Test
     void calculateNextDeadline_ShouldReturnFallbackDate_WhenConfigNotFound() {
         // Given
         LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
-        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_DA_FARE))
-            .thenReturn(null);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(List.of(mockConfigs.get(1)));
 
         // When
         LocalDate result = stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate);
 
-        // Then (fallback 30 days)
+        // Then (fallback days)
         LocalDate expected = stateDate.toLocalDate().plusDays(StateTransitionService.DEFAULT_FALLBACK_DAYS);
         assertEquals(expected, result);
     }
 
     @Test
-    void calculateNextDeadline_ShouldUseCacheAfterFirstCall() {
+    void calculateNextDeadline_ShouldUseSnapshotWithoutQueries() {
         // Given
         LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
-        StateTransitionConfig config = mockConfigs.get(0);
-
-        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_DA_FARE))
-            .thenReturn(config);
-
-        // When - Prima chiamata
-        stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs);
 
-        // When - Seconda chiamata (dovrebbe usare la cache)
-        stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate);
+        // When - the first lookup loads the snapshot, the next ones are in-memory
+        for (int i = 0; i < 10; i++) {
+            stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate);
+            stateTransitionService.calculateNextDeadline(CaseState.PRECETTO, stateDate);
+        }
 
         // Then
-        // CUSTOM IMPLEMENTATION: Dovrebbe chiamare il repository solo una volta (prima chiamata)
-        // La seconda dovrebbe usare la cache
-        verify(stateTransitionConfigRepository, times(1)).findByFromState(CaseState.MESSA_IN_MORA_DA_FARE);
+        // CUSTOM IMPLEMENTATION: one findAll, no count() nor per-state query
+        verify(stateTransitionConfigRepository, times(1)).findAll();
+        verifyNoMoreInteractions(stateTransitionConfigRepository);
     }
 
     @Test
     void calculateNextDeadline_ShouldHandleDifferentStates() {
         // Given
         LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
-
-        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_INVIATA))
-            .thenReturn(mockConfigs.get(1)); // 45 giorni
-        when(stateTransitionConfigRepository.findByFromState(CaseState.DEPOSITO_RICORSO))
-            .thenReturn(mockConfigs.get(2)); // 60 giorni
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs);
 
         // When
         LocalDate result1 = stateTransitionService.calculateNextDeadline(
@@ -164,15 +163,151 @@ class StateTransitionServiceTest {
     @Test
     void refreshCache_ShouldClearExistingCache() {
         // Given
+        LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
         when(stateTransitionConfigRepository.findAll())
             .thenReturn(mockConfigs)
-            .thenReturn(Arrays.asList(mockConfigs.get(0))); // Seconda chiamata ritorna meno elementi
+            .thenReturn(Arrays.asList(mockConfigs.get(1))); // Seconda chiamata ritorna meno elementi
 
         // When
         stateTransitionService.refreshCache();
+        long firstVersion = stateTransitionService.configVersion();
         stateTransitionService.refreshCache(); // Seconda chiamata dovrebbe sovrascrivere la cache
 
         // Then
         verify(stateTransitionConfigRepository, times(2)).findAll();
+        assertEquals(firstVersion + 1, stateTransitionService.configVersion());
+        assertEquals(stateDate.toLocalDate().plusDays(StateTransitionService.DEFAULT_FALLBACK_DAYS),
+            stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+    }
+
+    @Test
+    void invalidate_ShouldReloadSnapshotOnNextLookupOnly() {
+        // Given
+        LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
+        StateTransitionConfig changed = new StateTransitionConfig();
+        changed.setFromState(CaseState.MESSA_IN_MORA_DA_FARE);
+        changed.setToState(CaseState.MESSA_IN_MORA_INVIATA);
+        changed.setDaysToTransition(5);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs).thenReturn(List.of(changed));
+        stateTransitionService.refreshCache();
+
+        // When - several change signals before the next lookup
+        stateTransitionService.invalidate();
+        stateTransitionService.invalidate();
+
+        // Then
+        verify(stateTransitionConfigRepository, times(1)).findAll();
+        assertEquals(LocalDate.of(2025, 1, 20), stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        assertEquals(LocalDate.of(2025, 1, 20), stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        verify(stateTransitionConfigRepository, times(2)).findAll();
+    }
+
+    @Test
+    void calculateNextDeadline_ShouldLoadOnDemand_WhenStartupPreloadFailed() {
+        // Given
+        LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
+        when(stateTransitionConfigRepository.findAll())
+            .thenThrow(new RuntimeException("mongo down"))
+            .thenReturn(mockConfigs);
+        stateTransitionService.logTransitionsAtStartup();
+
+        // When & Then
+        assertEquals(LocalDate.of(2025, 2, 14), stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        verify(stateTransitionConfigRepository, times(2)).findAll();
+    }
+
+    @Test
+    void invalidate_ShouldRetryReload_WhenReloadFailed() {
+        // Given
+        LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
+        StateTransitionConfig changed = new StateTransitionConfig();
+        changed.setFromState(CaseState.MESSA_IN_MORA_DA_FARE);
+        changed.setToState(CaseState.MESSA_IN_MORA_INVIATA);
+        changed.setDaysToTransition(5);
+        when(stateTransitionConfigRepository.findAll())
+            .thenReturn(mockConfigs)
+            .thenThrow(new RuntimeException("mongo down"))
+            .thenReturn(List.of(changed));
+        stateTransitionService.refreshCache();
+        stateTransitionService.invalidate();
+
+        // When & Then - the failed reload is reported and the change is not lost
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        assertTrue(error.getMessage().contains("mongo down"));
+        assertEquals(LocalDate.of(2025, 1, 20), stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        verify(stateTransitionConfigRepository, times(3)).findAll();
+    }
+
+    @Test
+    void deadlineRules_ShouldKeepSnapshotAfterReload() {
+        // Given
+        LocalDateTime stateDate = LocalDateTime.of(2025, 1, 15, 10, 0);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs).thenReturn(List.of());
+        DeadlineRules rules = stateTransitionService.deadlineRules();
+
+        // When
+        stateTransitionService.refreshCache();
+
+        // Then - the captured snapshot still applies the configuration it was taken with
+        assertEquals(LocalDate.of(2025, 2, 14), rules.nextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        assertEquals(rules.version() + 1, stateTransitionService.deadlineRules().version());
+        assertThrows(UnsupportedOperationException.class, () -> rules.configs().remove(CaseState.MESSA_IN_MORA_DA_FARE));
+    }
+
+    @Test
+    void calculateNextDeadline_ShouldCountBusinessDaysWhenConfigured() {
+        // Given - Friday 24 January 2025, 10 business days -> Friday 7 February
+        LocalDateTime stateDate = LocalDateTime.of(2025, 1, 24, 10, 0);
+        mockConfigs.get(0).setDayCountMode(DayCountMode.BUSINESS_DAYS);
+        mockConfigs.get(0).setDaysToTransition(10);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs);
+
+        // When / Then
+        assertEquals(LocalDate.of(2025, 2, 7), stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_DA_FARE, stateDate));
+        // Calendar days unchanged for the other states
+        assertEquals(LocalDate.of(2025, 3, 10), stateTransitionService.calculateNextDeadline(CaseState.MESSA_IN_MORA_INVIATA, stateDate));
+    }
+
+    @Test
+    void updateBulk_ShouldUpdateDayCountModeOnly() {
+        // Given - the repository returns a new document, as Mongo does
+        StateTransitionConfig existing = new StateTransitionConfig();
+        existing.setFromState(CaseState.MESSA_IN_MORA_INVIATA);
+        existing.setToState(CaseState.DEPOSITO_RICORSO);
+        existing.setDaysToTransition(45);
+        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_INVIATA)).thenReturn(existing);
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs);
+
+        // When
+        stateTransitionService.updateBulk(Map.of(), Map.of(CaseState.MESSA_IN_MORA_INVIATA, DayCountMode.BUSINESS_DAYS));
+
+        // Then - the event carries the rules the stored deadlines were computed with
+        assertEquals(DayCountMode.BUSINESS_DAYS, existing.getDayCountMode());
+        assertEquals(45, existing.getDaysToTransition());
+        verify(stateTransitionConfigRepository).saveAll(List.of(existing));
+        ArgumentCaptor<StateTransitionConfigChangedEvent> event = ArgumentCaptor.forClass(StateTransitionConfigChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(CaseState.MESSA_IN_MORA_INVIATA), event.getValue().states());
+        assertEquals(LocalDate.of(2025, 3, 10), event.getValue().previousRules()
+                .nextDeadline(CaseState.MESSA_IN_MORA_INVIATA, LocalDateTime.of(2025, 1, 24, 10, 0)));
+    }
+
+    @Test
+    void updateBulk_ShouldPublishChangeOnlyForChangedStates() {
+        // Given
+        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_DA_FARE)).thenReturn(mockConfigs.get(0));
+        when(stateTransitionConfigRepository.findByFromState(CaseState.MESSA_IN_MORA_INVIATA)).thenReturn(mockConfigs.get(1));
+        when(stateTransitionConfigRepository.findAll()).thenReturn(mockConfigs);
+
+        // When - same days and explicit default mode for the first state
+        stateTransitionService.updateBulk(Map.of(CaseState.MESSA_IN_MORA_DA_FARE, 30, CaseState.MESSA_IN_MORA_INVIATA, 20),
+                Map.of(CaseState.MESSA_IN_MORA_DA_FARE, DayCountMode.CALENDAR_DAYS));
+        stateTransitionService.updateBulk(Map.of(CaseState.MESSA_IN_MORA_INVIATA, 20), Map.of());
+
+        // Then - the second update changes nothing
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Set.of(CaseState.MESSA_IN_MORA_INVIATA), ((StateTransitionConfigChangedEvent) event.getValue()).states());
     }
 }